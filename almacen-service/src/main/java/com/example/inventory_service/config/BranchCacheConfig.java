@@ -0,0 +1,29 @@
+package com.example.inventory_service.config;
+
+import com.example.inventory_service.entity.Branch;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class BranchCacheConfig {
+    
+    @Value("${branch.cache.maximum-size:1000}")
+    private long maximumSize;
+    
+    @Value("${branch.cache.ttl:1h}")
+    private Duration ttl;
+    
+    @Bean
+    public Cache<Long, Branch> branchCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
@@ -40,8 +40,9 @@ public class BatchController {
     }
     
     @GetMapping("/expiring")
-    public ResponseEntity<ApiResponse<List<BatchResponse>>> getExpiringBatches() {
-        List<BatchResponse> batches = batchService.findExpiringSoon();
+    public ResponseEntity<ApiResponse<List<BatchResponse>>> getExpiringBatches(
+            @RequestParam(required = false) Long branchId) {
+        List<BatchResponse> batches = batchService.findExpiringSoon(branchId);
         return ResponseEntity.ok(ApiResponse.success("Lotes por vencer obtenidos exitosamente", batches));
     }
 }
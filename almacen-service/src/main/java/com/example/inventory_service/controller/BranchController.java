@@ -2,6 +2,7 @@ package com.example.inventory_service.controller;
 
 import com.example.inventory_service.dto.request.BranchRequest;
 import com.example.inventory_service.dto.response.ApiResponse;
+import com.example.inventory_service.dto.response.BranchCacheStats;
 import com.example.inventory_service.dto.response.BranchResponse;
 import com.example.inventory_service.service.BranchService;
 import jakarta.validation.Valid;
@@ -52,4 +53,16 @@ public class BranchController {
         branchService.delete(id);
         return ResponseEntity.ok(ApiResponse.success("Sucursal eliminada exitosamente", null));
     }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<BranchCacheStats>> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success("Estadísticas de caché obtenidas exitosamente",
+                branchService.getCacheStats()));
+    }
+    
+    @DeleteMapping("/cache")
+    public ResponseEntity<ApiResponse<Void>> clearCache() {
+        branchService.invalidateCache();
+        return ResponseEntity.ok(ApiResponse.success("Caché de sucursales vaciada", null));
+    }
 }
@@ -0,0 +1,45 @@
+package com.example.inventory_service.controller;
+
+import com.example.inventory_service.dto.request.ReservationRequest;
+import com.example.inventory_service.dto.response.ApiResponse;
+import com.example.inventory_service.dto.response.ReservationResponse;
+import com.example.inventory_service.service.ReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reservations")
+@CrossOrigin
+@RequiredArgsConstructor
+public class ReservationController {
+    
+    private final ReservationService reservationService;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReservationResponse>> reserve(@Valid @RequestBody ReservationRequest request) {
+        ReservationResponse reservation = reservationService.reserve(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Reserva creada exitosamente", reservation));
+    }
+    
+    @GetMapping("/{saleNumber}")
+    public ResponseEntity<ApiResponse<ReservationResponse>> getReservation(@PathVariable String saleNumber) {
+        ReservationResponse reservation = reservationService.findBySaleNumber(saleNumber);
+        return ResponseEntity.ok(ApiResponse.success("Reserva obtenida exitosamente", reservation));
+    }
+    
+    @PostMapping("/{saleNumber}/commit")
+    public ResponseEntity<ApiResponse<ReservationResponse>> commit(@PathVariable String saleNumber) {
+        ReservationResponse reservation = reservationService.commit(saleNumber);
+        return ResponseEntity.ok(ApiResponse.success("Reserva confirmada exitosamente", reservation));
+    }
+    
+    @PostMapping("/{saleNumber}/release")
+    public ResponseEntity<ApiResponse<ReservationResponse>> release(@PathVariable String saleNumber) {
+        ReservationResponse reservation = reservationService.release(saleNumber);
+        return ResponseEntity.ok(ApiResponse.success("Reserva liberada exitosamente", reservation));
+    }
+}
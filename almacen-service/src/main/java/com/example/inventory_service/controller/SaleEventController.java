@@ -0,0 +1,26 @@
+package com.example.inventory_service.controller;
+
+import com.example.inventory_service.dto.request.SaleEventRequest;
+import com.example.inventory_service.dto.response.ApiResponse;
+import com.example.inventory_service.dto.response.SaleEventResult;
+import com.example.inventory_service.service.SaleEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sale-events")
+@CrossOrigin
+@RequiredArgsConstructor
+public class SaleEventController {
+    
+    private final SaleEventService saleEventService;
+    
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<List<SaleEventResult>>> applyEvents(@RequestBody List<SaleEventRequest> events) {
+        List<SaleEventResult> results = saleEventService.apply(events);
+        return ResponseEntity.ok(ApiResponse.success("Lote de eventos de venta procesado", results));
+    }
+}
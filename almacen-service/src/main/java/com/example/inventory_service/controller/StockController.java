@@ -2,14 +2,22 @@ package com.example.inventory_service.controller;
 
 import com.example.inventory_service.dto.request.StockRequest;
 import com.example.inventory_service.dto.response.ApiResponse;
+import com.example.inventory_service.dto.response.InventoryKpiResponse;
+import com.example.inventory_service.dto.response.StockPageResponse;
 import com.example.inventory_service.dto.response.StockResponse;
 import com.example.inventory_service.service.StockService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -19,11 +27,43 @@ import java.util.List;
 public class StockController {
     
     private final StockService stockService;
+    private final ObjectMapper objectMapper;
     
+    /**
+     * Devuelve todo el stock con el mismo formato de {@link ApiResponse}, pero escribiendo
+     * cada fila a medida que se lee en lugar de armar la lista completa en memoria.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<StockResponse>>> getAllStock() {
-        List<StockResponse> stock = stockService.findAll();
-        return ResponseEntity.ok(ApiResponse.success("Stock obtenido exitosamente", stock));
+    public ResponseEntity<StreamingResponseBody> getAllStock() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message", "Stock obtenido exitosamente");
+                generator.writeArrayFieldStart("data");
+                stockService.streamAll(stock -> {
+                    try {
+                        generator.writeObject(stock);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<StockPageResponse>> getStockPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "500") int size,
+            @RequestParam(required = false) Long branchId) {
+        StockPageResponse page = stockService.findPage(after, branchId, size);
+        return ResponseEntity.ok(ApiResponse.success("Página de stock obtenida exitosamente", page));
     }
     
     @GetMapping("/{branchId}")
@@ -48,8 +88,18 @@ public class StockController {
     }
     
     @GetMapping("/alerts")
-    public ResponseEntity<ApiResponse<List<StockResponse>>> getLowStockAlerts() {
-        List<StockResponse> alerts = stockService.findLowStockAlerts();
+    public ResponseEntity<ApiResponse<List<StockResponse>>> getLowStockAlerts(
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(defaultValue = "false") boolean includeAtMinimum) {
+        List<StockResponse> alerts = stockService.findLowStockAlerts(branchId, includeAtMinimum);
         return ResponseEntity.ok(ApiResponse.success("Alertas de stock bajo obtenidas exitosamente", alerts));
     }
+    
+    @GetMapping("/kpis")
+    public ResponseEntity<ApiResponse<List<InventoryKpiResponse>>> getInventoryKpis(
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(defaultValue = "30") int expiringWithinDays) {
+        List<InventoryKpiResponse> kpis = stockService.getKpis(branchId, expiringWithinDays);
+        return ResponseEntity.ok(ApiResponse.success("Indicadores de inventario obtenidos exitosamente", kpis));
+    }
 }
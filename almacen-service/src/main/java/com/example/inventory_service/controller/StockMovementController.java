@@ -2,6 +2,7 @@ package com.example.inventory_service.controller;
 
 import com.example.inventory_service.dto.request.StockMovementRequest;
 import com.example.inventory_service.dto.response.ApiResponse;
+import com.example.inventory_service.dto.response.BulkMovementResponse;
 import com.example.inventory_service.dto.response.StockMovementResponse;
 import com.example.inventory_service.service.StockMovementService;
 import jakarta.validation.Valid;
@@ -28,6 +29,13 @@ public class StockMovementController {
                 .body(ApiResponse.success("Movimiento registrado exitosamente", movement));
     }
     
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkMovementResponse>> createMovements(
+            @RequestBody List<StockMovementRequest> requests) {
+        BulkMovementResponse result = movementService.createBulk(requests);
+        return ResponseEntity.ok(ApiResponse.success("Lote de movimientos procesado", result));
+    }
+    
     @GetMapping("/branch/{branchId}")
     public ResponseEntity<ApiResponse<List<StockMovementResponse>>> getMovementsByBranch(@PathVariable Long branchId) {
         List<StockMovementResponse> movements = movementService.findByBranch(branchId);
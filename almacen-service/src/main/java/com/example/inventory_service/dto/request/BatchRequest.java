@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
@@ -27,6 +28,9 @@ public class BatchRequest {
     @Positive(message = "La cantidad debe ser mayor a cero")
     private Integer quantity;
     
+    @PositiveOrZero(message = "El costo unitario no puede ser negativo")
+    private BigDecimal unitCost;
+    
     @Future(message = "La fecha de expiración debe ser futura")
     private LocalDate expirationDate;
     
@@ -0,0 +1,36 @@
+package com.example.inventory_service.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+    
+    @NotBlank(message = "El número de venta es obligatorio")
+    @Size(max = 50, message = "El número de venta no puede exceder 50 caracteres")
+    private String saleNumber;
+    
+    @NotNull(message = "El ID de la sucursal es obligatorio")
+    private Long branchId;
+    
+    /**
+     * Vigencia de la reserva en segundos; si se omite se usa la configurada.
+     */
+    @Positive(message = "La vigencia debe ser mayor a cero")
+    private Long ttlSeconds;
+    
+    @NotEmpty(message = "La reserva debe incluir al menos un producto")
+    @Valid
+    private List<ReservationItemRequest> items;
+}
@@ -0,0 +1,41 @@
+package com.example.inventory_service.dto.request;
+
+import com.example.inventory_service.entity.enums.SaleEventType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cambio de estado de una venta que afecta al stock, enviado por sales-service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleEventRequest {
+    
+    @NotBlank(message = "La clave de idempotencia es obligatoria")
+    @Size(max = 150, message = "La clave de idempotencia no puede exceder 150 caracteres")
+    private String idempotencyKey;
+    
+    @NotNull(message = "El tipo de evento es obligatorio")
+    private SaleEventType type;
+    
+    @NotBlank(message = "El número de venta es obligatorio")
+    @Size(max = 50, message = "El número de venta no puede exceder 50 caracteres")
+    private String saleNumber;
+    
+    @NotNull(message = "El ID de la sucursal es obligatorio")
+    private Long branchId;
+    
+    /**
+     * Productos de la venta; se usan para descontar el stock si la venta no llegó a reservarlo.
+     */
+    @Valid
+    private List<ReservationItemRequest> items;
+}
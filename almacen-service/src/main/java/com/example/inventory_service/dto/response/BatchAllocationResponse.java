@@ -0,0 +1,21 @@
+package com.example.inventory_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Unidades descontadas de un lote por un movimiento de salida o transferencia.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAllocationResponse {
+    
+    private Long batchId;
+    private String batchNumber;
+    private LocalDate expirationDate;
+    private Integer quantity;
+}
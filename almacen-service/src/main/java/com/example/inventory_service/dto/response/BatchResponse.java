@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -19,6 +20,7 @@ public class BatchResponse {
     private Long branchId;
     private String branchName;
     private Integer quantity;
+    private BigDecimal unitCost;
     private LocalDate expirationDate;
     private LocalDate manufactureDate;
     private BatchStatus status;
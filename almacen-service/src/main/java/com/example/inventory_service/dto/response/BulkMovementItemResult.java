@@ -0,0 +1,24 @@
+package com.example.inventory_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMovementItemResult {
+    
+    private int index;
+    private boolean success;
+    private String message;
+    private StockMovementResponse movement;
+    
+    public static BulkMovementItemResult accepted(int index, StockMovementResponse movement) {
+        return new BulkMovementItemResult(index, true, "Movimiento registrado", movement);
+    }
+    
+    public static BulkMovementItemResult rejected(int index, String message) {
+        return new BulkMovementItemResult(index, false, message, null);
+    }
+}
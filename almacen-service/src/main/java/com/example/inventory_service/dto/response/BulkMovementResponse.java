@@ -0,0 +1,18 @@
+package com.example.inventory_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMovementResponse {
+    
+    private int total;
+    private int accepted;
+    private int rejected;
+    private List<BulkMovementItemResult> results;
+}
@@ -0,0 +1,24 @@
+package com.example.inventory_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Indicadores de inventario de una sucursal. La valorización usa el costo unitario de los lotes disponibles.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryKpiResponse {
+    
+    private Long branchId;
+    private String branchName;
+    private long totalProducts;
+    private long totalUnits;
+    private long lowStockProducts;
+    private long expiringSoon;
+    private BigDecimal inventoryValue;
+}
@@ -0,0 +1,16 @@
+package com.example.inventory_service.dto.response;
+
+import com.example.inventory_service.entity.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationItemResponse {
+    
+    private Long productId;
+    private Integer quantity;
+    private ReservationStatus status;
+}
@@ -0,0 +1,24 @@
+package com.example.inventory_service.dto.response;
+
+import com.example.inventory_service.entity.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reserva de una venta. {@code status} es el de sus productos, que cambian siempre juntos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+    
+    private String saleNumber;
+    private Long branchId;
+    private ReservationStatus status;
+    private LocalDateTime expiresAt;
+    private List<ReservationItemResponse> items;
+}
@@ -0,0 +1,16 @@
+package com.example.inventory_service.dto.response;
+
+import com.example.inventory_service.entity.enums.SaleEventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleEventResult {
+    
+    private String idempotencyKey;
+    private SaleEventStatus status;
+    private String message;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -24,4 +25,5 @@ public class StockMovementResponse {
     private String destinationBranchName;
     private String performedBy;
     private LocalDateTime createdAt;
+    private List<BatchAllocationResponse> batchAllocations;
 }
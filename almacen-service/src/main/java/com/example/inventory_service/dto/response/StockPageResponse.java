@@ -0,0 +1,21 @@
+package com.example.inventory_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de stock ordenada por ID. Para pedir la siguiente se envía {@code nextCursor}
+ * como parámetro {@code after}; es nulo cuando no hay más filas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockPageResponse {
+    
+    private List<StockResponse> items;
+    private Long nextCursor;
+    private boolean hasMore;
+}
@@ -21,4 +21,12 @@ public class StockResponse {
     private LocalDateTime lastRestockDate;
     private LocalDateTime updatedAt;
     private Boolean belowMinimum;
+    
+    // Usado por las consultas de proyección, que leen la sucursal con un JOIN
+    public StockResponse(Long id, Long branchId, String branchName, Long productId, Integer quantity,
+                         Integer minimumStock, Integer maximumStock, LocalDateTime lastRestockDate,
+                         LocalDateTime updatedAt) {
+        this(id, branchId, branchName, productId, quantity, minimumStock, maximumStock,
+                lastRestockDate, updatedAt, quantity < minimumStock);
+    }
 }
@@ -7,11 +7,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "batches")
+@Table(name = "batches", indexes = {
+        // Recorrido FEFO de los lotes de un producto en una sucursal
+        @Index(name = "idx_batches_branch_product_expiration", columnList = "branch_id, product_id, expiration_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,6 +38,9 @@ public class Batch {
     @Column(nullable = false)
     private Integer quantity;
     
+    @Column(name = "unit_cost", precision = 10, scale = 2)
+    private BigDecimal unitCost;
+    
     @Column(name = "expiration_date")
     private LocalDate expirationDate;
     
@@ -0,0 +1,58 @@
+package com.example.inventory_service.entity;
+
+import com.example.inventory_service.entity.enums.SaleEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave de idempotencia de un evento ya aplicado. Se inserta en la misma transacción que el
+ * efecto del evento: si la clave ya existe, el evento es un reenvío y no se aplica de nuevo.
+ */
+@Entity
+@Table(name = "processed_events")
+@Data
+@NoArgsConstructor
+public class ProcessedEvent implements Persistable<String> {
+    
+    @Id
+    @Column(name = "idempotency_key", length = 150)
+    private String idempotencyKey;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private SaleEventType eventType;
+    
+    @CreationTimestamp
+    @Column(name = "processed_at", updatable = false)
+    private LocalDateTime processedAt;
+    
+    // La clave la asigna el emisor; sin esto save() haría merge y una clave repetida no fallaría
+    @Transient
+    private boolean isNew = true;
+    
+    public ProcessedEvent(String idempotencyKey, SaleEventType eventType) {
+        this.idempotencyKey = idempotencyKey;
+        this.eventType = eventType;
+    }
+    
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -31,6 +32,13 @@ public class Stock {
     @Column(nullable = false)
     private Integer quantity;
     
+    /**
+     * Unidades apartadas por reservas de venta vigentes. Lo disponible es {@code quantity - reservedQuantity}.
+     */
+    @ColumnDefault("0")
+    @Column(name = "reserved_quantity", nullable = false)
+    private Integer reservedQuantity = 0;
+    
     @Column(name = "minimum_stock", nullable = false)
     private Integer minimumStock;
     
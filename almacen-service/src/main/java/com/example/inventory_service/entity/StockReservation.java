@@ -0,0 +1,54 @@
+package com.example.inventory_service.entity;
+
+import com.example.inventory_service.entity.enums.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Unidades apartadas para una venta en curso. Se guardan solo IDs (sin relaciones) para que
+ * reservar y barrer vencidas no cargue sucursales ni stock.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        // Una fila por producto y venta: también sirve para buscar las reservas de una venta
+        @Index(name = "ux_reservations_sale_product", columnList = "sale_number, product_id", unique = true),
+        // Búsqueda de reservas vencidas por el barrido periódico
+        @Index(name = "idx_reservations_status_expires", columnList = "status, expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "sale_number", nullable = false, length = 50)
+    private String saleNumber;
+    
+    @Column(name = "branch_id", nullable = false)
+    private Long branchId;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
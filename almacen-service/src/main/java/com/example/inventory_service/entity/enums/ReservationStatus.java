@@ -0,0 +1,8 @@
+package com.example.inventory_service.entity.enums;
+
+public enum ReservationStatus {
+    RESERVED,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
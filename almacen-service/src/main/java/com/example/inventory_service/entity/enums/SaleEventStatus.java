@@ -0,0 +1,7 @@
+package com.example.inventory_service.entity.enums;
+
+public enum SaleEventStatus {
+    APPLIED,
+    DUPLICATE,
+    REJECTED
+}
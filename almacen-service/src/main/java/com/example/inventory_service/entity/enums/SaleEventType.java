@@ -0,0 +1,6 @@
+package com.example.inventory_service.entity.enums;
+
+public enum SaleEventType {
+    COMPLETED,
+    CANCELLED
+}
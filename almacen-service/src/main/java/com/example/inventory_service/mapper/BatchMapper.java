@@ -22,6 +22,7 @@ public class BatchMapper {
         response.setBranchId(batch.getBranch().getId());
         response.setBranchName(batch.getBranch().getName());
         response.setQuantity(batch.getQuantity());
+        response.setUnitCost(batch.getUnitCost());
         response.setExpirationDate(batch.getExpirationDate());
         response.setManufactureDate(batch.getManufactureDate());
         response.setStatus(batch.getStatus());
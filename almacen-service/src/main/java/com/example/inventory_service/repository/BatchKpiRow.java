@@ -0,0 +1,15 @@
+package com.example.inventory_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales de lotes disponibles de una sucursal calculados en la base de datos.
+ */
+public interface BatchKpiRow {
+    
+    Long getBranchId();
+    
+    Long getExpiringProducts();
+    
+    BigDecimal getInventoryValue();
+}
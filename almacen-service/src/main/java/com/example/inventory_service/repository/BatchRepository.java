@@ -2,13 +2,17 @@ package com.example.inventory_service.repository;
 
 import com.example.inventory_service.entity.Batch;
 import com.example.inventory_service.entity.enums.BatchStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BatchRepository extends JpaRepository<Batch, Long> {
@@ -22,6 +26,43 @@ public interface BatchRepository extends JpaRepository<Batch, Long> {
     @Query("SELECT b FROM Batch b WHERE b.expirationDate <= :date AND b.status = 'AVAILABLE'")
     List<Batch> findByExpirationDateBefore(@Param("date") LocalDate date);
     
-    @Query("SELECT b FROM Batch b WHERE b.expirationDate BETWEEN :startDate AND :endDate AND b.status = 'AVAILABLE'")
-    List<Batch> findExpiringSoon(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT b FROM Batch b JOIN FETCH b.branch br " +
+           "WHERE b.expirationDate BETWEEN :startDate AND :endDate AND b.status = 'AVAILABLE' " +
+           "AND (:branchId IS NULL OR br.id = :branchId) " +
+           "ORDER BY b.expirationDate, b.id")
+    List<Batch> findExpiringSoon(@Param("startDate") LocalDate startDate,
+                                 @Param("endDate") LocalDate endDate,
+                                 @Param("branchId") Long branchId);
+    
+    /**
+     * Productos con lotes disponibles que vencen hasta {@code expiringBefore} y valorización de los
+     * lotes disponibles a su costo unitario, agrupados por sucursal.
+     */
+    @Query("SELECT br.id AS branchId, " +
+           "COUNT(DISTINCT CASE WHEN b.expirationDate <= :expiringBefore THEN b.productId END) AS expiringProducts, " +
+           "COALESCE(SUM(b.quantity * COALESCE(b.unitCost, 0)), 0) AS inventoryValue " +
+           "FROM Batch b JOIN b.branch br " +
+           "WHERE b.status = com.example.inventory_service.entity.enums.BatchStatus.AVAILABLE AND b.quantity > 0 " +
+           "AND (:branchId IS NULL OR br.id = :branchId) " +
+           "GROUP BY br.id")
+    List<BatchKpiRow> aggregateByBranch(@Param("branchId") Long branchId,
+                                        @Param("expiringBefore") LocalDate expiringBefore);
+    
+    /**
+     * Lotes disponibles y no vencidos de un producto en una sucursal, en orden FEFO (primero el que vence
+     * antes; los lotes sin vencimiento al final), bloqueados para descontarlos. Se leen por páginas para
+     * no cargar todos los lotes del producto.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Batch b " +
+           "WHERE b.branch.id = :branchId AND b.productId = :productId " +
+           "AND b.status = com.example.inventory_service.entity.enums.BatchStatus.AVAILABLE AND b.quantity > 0 " +
+           "AND (b.expirationDate IS NULL OR b.expirationDate >= :today) " +
+           "ORDER BY b.expirationDate ASC NULLS LAST, b.id ASC")
+    List<Batch> findAllocatableForUpdate(@Param("branchId") Long branchId,
+                                         @Param("productId") Long productId,
+                                         @Param("today") LocalDate today,
+                                         Pageable pageable);
+    
+    Optional<Batch> findByBranchIdAndProductIdAndBatchNumber(Long branchId, Long productId, String batchNumber);
 }
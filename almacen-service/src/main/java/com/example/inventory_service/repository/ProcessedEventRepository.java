@@ -0,0 +1,9 @@
+package com.example.inventory_service.repository;
+
+import com.example.inventory_service.entity.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+}
@@ -0,0 +1,17 @@
+package com.example.inventory_service.repository;
+
+/**
+ * Totales de stock de una sucursal calculados en la base de datos.
+ */
+public interface StockKpiRow {
+    
+    Long getBranchId();
+    
+    String getBranchName();
+    
+    Long getTotalProducts();
+    
+    Long getTotalUnits();
+    
+    Long getLowStockProducts();
+}
@@ -0,0 +1,105 @@
+package com.example.inventory_service.repository;
+
+import com.example.inventory_service.entity.StockMovement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escrituras por lote con JDBC para la carga masiva de movimientos, donde guardar
+ * entidad por entidad con JPA (IDs IDENTITY) implicaría una sentencia por fila.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockMovementBatchRepository {
+    
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO stock_movements (branch_id, product_id, type, quantity, reason, reference, " +
+            "destination_branch_id, performed_by, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String ADJUST_STOCK_SQL =
+            "UPDATE stock SET quantity = quantity + ?, " +
+            "last_restock_date = CASE WHEN ? > 0 THEN ? ELSE last_restock_date END, updated_at = ? " +
+            "WHERE branch_id = ? AND product_id = ? AND (? > 0 OR quantity - reserved_quantity + ? >= 0)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Inserta los movimientos en un solo lote y asigna a cada uno el ID generado.
+     */
+    public void insertAll(List<StockMovement> movements) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_MOVEMENT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        StockMovement movement = movements.get(i);
+                        ps.setLong(1, movement.getBranch().getId());
+                        ps.setLong(2, movement.getProductId());
+                        ps.setString(3, movement.getType().name());
+                        ps.setInt(4, movement.getQuantity());
+                        ps.setString(5, movement.getReason());
+                        ps.setString(6, movement.getReference());
+                        if (movement.getDestinationBranch() != null) {
+                            ps.setLong(7, movement.getDestinationBranch().getId());
+                        } else {
+                            ps.setNull(7, Types.BIGINT);
+                        }
+                        ps.setString(8, movement.getPerformedBy());
+                        ps.setTimestamp(9, Timestamp.valueOf(movement.getCreatedAt()));
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return movements.size();
+                    }
+                },
+                keyHolder);
+        
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < movements.size(); i++) {
+            movements.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+    
+    /**
+     * Aplica los cambios netos de cantidad en un solo lote, con la misma condición de no negatividad
+     * que {@link StockRepository#adjustQuantity}. Devuelve las filas afectadas por cada cambio.
+     */
+    public int[] adjustQuantities(List<StockDelta> deltas) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        return jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockDelta delta = deltas.get(i);
+                ps.setInt(1, delta.delta());
+                ps.setInt(2, delta.delta());
+                ps.setTimestamp(3, now);
+                ps.setTimestamp(4, now);
+                ps.setLong(5, delta.branchId());
+                ps.setLong(6, delta.productId());
+                ps.setInt(7, delta.delta());
+                ps.setInt(8, delta.delta());
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+    
+    public record StockDelta(Long branchId, Long productId, int delta) {
+    }
+}
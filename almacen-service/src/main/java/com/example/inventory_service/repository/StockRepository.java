@@ -1,26 +1,141 @@
 package com.example.inventory_service.repository;
 
+import com.example.inventory_service.dto.response.StockResponse;
 import com.example.inventory_service.entity.Stock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StockRepository extends JpaRepository<Stock, Long> {
     
     Optional<Stock> findByBranchIdAndProductId(Long branchId, Long productId);
     
+    boolean existsByBranchIdAndProductId(Long branchId, Long productId);
+    
     List<Stock> findByBranchId(Long branchId);
     
     List<Stock> findByProductId(Long productId);
     
+    /**
+     * Bloquea las filas de stock de las sucursales y productos indicados (ordenadas por ID para evitar
+     * interbloqueos) mientras se valida un lote de movimientos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Stock s WHERE s.branch.id IN :branchIds AND s.productId IN :productIds ORDER BY s.id")
+    List<Stock> findForUpdate(@Param("branchIds") Collection<Long> branchIds,
+                              @Param("productIds") Collection<Long> productIds);
+    
+    /**
+     * Página de stock posterior al ID {@code afterId}, proyectada a DTO con la sucursal en el mismo JOIN.
+     */
+    @Query("SELECT new com.example.inventory_service.dto.response.StockResponse(" +
+           "s.id, b.id, b.name, s.productId, s.quantity, s.minimumStock, s.maximumStock, s.lastRestockDate, s.updatedAt) " +
+           "FROM Stock s JOIN s.branch b " +
+           "WHERE s.id > :afterId AND (:branchId IS NULL OR b.id = :branchId) " +
+           "ORDER BY s.id")
+    List<StockResponse> findPageAfter(@Param("afterId") Long afterId,
+                                      @Param("branchId") Long branchId,
+                                      Pageable pageable);
+    
+    /**
+     * Recorre todo el stock proyectado a DTO con un cursor de solo avance. Debe consumirse dentro
+     * de una transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.inventory_service.dto.response.StockResponse(" +
+           "s.id, b.id, b.name, s.productId, s.quantity, s.minimumStock, s.maximumStock, s.lastRestockDate, s.updatedAt) " +
+           "FROM Stock s JOIN s.branch b ORDER BY s.id")
+    Stream<StockResponse> streamAll();
+    
     @Query("SELECT s FROM Stock s WHERE s.branch.id = :branchId AND s.quantity < s.minimumStock")
     List<Stock> findByBranchAndQuantityLessThan(@Param("branchId") Long branchId);
     
-    @Query("SELECT s FROM Stock s WHERE s.quantity < s.minimumStock")
-    List<Stock> findAllBelowMinimum();
+    /**
+     * Suma {@code delta} a la cantidad en una sola sentencia. Una salida solo se aplica si no consume
+     * unidades reservadas. Devuelve el número de filas afectadas: 0 si no hay stock disponible
+     * suficiente o no existe el registro.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Stock s SET s.quantity = s.quantity + :delta, " +
+           "s.lastRestockDate = CASE WHEN :delta > 0 THEN CURRENT_TIMESTAMP ELSE s.lastRestockDate END, " +
+           "s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.branch.id = :branchId AND s.productId = :productId " +
+           "AND (:delta > 0 OR s.quantity - s.reservedQuantity + :delta >= 0)")
+    int adjustQuantity(@Param("branchId") Long branchId,
+                       @Param("productId") Long productId,
+                       @Param("delta") Integer delta);
+    
+    /**
+     * Aparta {@code quantity} unidades si hay suficientes sin reservar. La condición va en el mismo
+     * UPDATE, así que la fila solo queda bloqueada lo que dura la sentencia y nunca se reserva de más.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Stock s SET s.reservedQuantity = s.reservedQuantity + :quantity, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.branch.id = :branchId AND s.productId = :productId " +
+           "AND s.quantity - s.reservedQuantity >= :quantity")
+    int reserve(@Param("branchId") Long branchId,
+                @Param("productId") Long productId,
+                @Param("quantity") Integer quantity);
+    
+    /**
+     * Devuelve a disponible {@code quantity} unidades reservadas.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Stock s SET s.reservedQuantity = s.reservedQuantity - :quantity, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.branch.id = :branchId AND s.productId = :productId AND s.reservedQuantity >= :quantity")
+    int releaseReserved(@Param("branchId") Long branchId,
+                        @Param("productId") Long productId,
+                        @Param("quantity") Integer quantity);
+    
+    /**
+     * Descuenta de la cantidad unidades que estaban reservadas, liberando la reserva en la misma sentencia.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Stock s SET s.quantity = s.quantity - :quantity, " +
+           "s.reservedQuantity = s.reservedQuantity - :quantity, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.branch.id = :branchId AND s.productId = :productId " +
+           "AND s.reservedQuantity >= :quantity AND s.quantity >= :quantity")
+    int consumeReserved(@Param("branchId") Long branchId,
+                        @Param("productId") Long productId,
+                        @Param("quantity") Integer quantity);
+    
+    /**
+     * Stock bajo el mínimo proyectado a DTO, opcionalmente filtrado por sucursal. Con
+     * {@code includeAtMinimum} también incluye el stock que está justo en el mínimo.
+     */
+    @Query("SELECT new com.example.inventory_service.dto.response.StockResponse(" +
+           "s.id, b.id, b.name, s.productId, s.quantity, s.minimumStock, s.maximumStock, s.lastRestockDate, s.updatedAt) " +
+           "FROM Stock s JOIN s.branch b " +
+           "WHERE (s.quantity < s.minimumStock OR (:includeAtMinimum = true AND s.quantity = s.minimumStock)) " +
+           "AND (:branchId IS NULL OR b.id = :branchId) " +
+           "ORDER BY s.id")
+    List<StockResponse> findBelowMinimum(@Param("branchId") Long branchId,
+                                         @Param("includeAtMinimum") boolean includeAtMinimum);
+    
+    /**
+     * Productos, unidades y productos en o bajo el mínimo agrupados por sucursal.
+     */
+    @Query("SELECT b.id AS branchId, b.name AS branchName, COUNT(s) AS totalProducts, " +
+           "COALESCE(SUM(s.quantity), 0) AS totalUnits, " +
+           "SUM(CASE WHEN s.quantity <= s.minimumStock THEN 1 ELSE 0 END) AS lowStockProducts " +
+           "FROM Stock s JOIN s.branch b " +
+           "WHERE :branchId IS NULL OR b.id = :branchId " +
+           "GROUP BY b.id, b.name ORDER BY b.id")
+    List<StockKpiRow> aggregateByBranch(@Param("branchId") Long branchId);
 }
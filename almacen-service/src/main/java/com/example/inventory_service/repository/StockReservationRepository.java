@@ -0,0 +1,43 @@
+package com.example.inventory_service.repository;
+
+import com.example.inventory_service.entity.StockReservation;
+import com.example.inventory_service.entity.enums.ReservationStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    /**
+     * Las reservas se cargan de solo lectura: los cambios de estado se hacen con {@link #transition}.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<StockReservation> findBySaleNumberOrderByProductId(String saleNumber);
+    
+    boolean existsBySaleNumber(String saleNumber);
+    
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT r FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :now ORDER BY r.id")
+    List<StockReservation> findExpired(@Param("status") ReservationStatus status,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+    
+    /**
+     * Cambia el estado solo si la reserva sigue en {@code from}. Quien obtiene 1 es el único que
+     * aplica el efecto sobre el stock, aunque confirmación, liberación y barrido compitan.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") ReservationStatus from,
+                   @Param("to") ReservationStatus to);
+}
@@ -0,0 +1,110 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.response.BatchAllocationResponse;
+import com.example.inventory_service.entity.Batch;
+import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.enums.BatchStatus;
+import com.example.inventory_service.repository.BatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Asigna las salidas de stock a lotes en orden FEFO (primero en vencer, primero en salir).
+ * Se ejecuta dentro de la transacción del movimiento, después de descontar el stock: la fila
+ * de stock ya bloqueada serializa las asignaciones del mismo producto y sucursal, y los lotes
+ * se bloquean por páginas, por lo que el costo no depende de cuántos lotes tenga el producto.
+ * El stock sigue siendo la referencia de disponibilidad; si los lotes no cubren toda la
+ * cantidad (stock cargado sin lote) el resto queda sin asignar.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchAllocationService {
+    
+    private static final int PAGE_SIZE = 20;
+    
+    private final BatchRepository batchRepository;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<BatchAllocation> allocate(Long branchId, Long productId, int quantity) {
+        List<BatchAllocation> allocations = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        int remaining = quantity;
+        
+        while (remaining > 0) {
+            // Los lotes agotados en la página anterior ya se escribieron, así que la consulta siempre pide la primera página
+            List<Batch> batches = batchRepository.findAllocatableForUpdate(
+                    branchId, productId, today, PageRequest.of(0, PAGE_SIZE));
+            if (batches.isEmpty()) {
+                break;
+            }
+            for (Batch batch : batches) {
+                int taken = Math.min(batch.getQuantity(), remaining);
+                batch.setQuantity(batch.getQuantity() - taken);
+                allocations.add(new BatchAllocation(batch, taken));
+                remaining -= taken;
+                if (remaining == 0) {
+                    break;
+                }
+            }
+            batchRepository.saveAllAndFlush(batches);
+        }
+        
+        if (remaining > 0) {
+            log.warn("Los lotes del producto {} en sucursal {} no cubren la salida: {} de {} unidades sin lote asignado",
+                    productId, branchId, remaining, quantity);
+        }
+        return allocations;
+    }
+    
+    /**
+     * Ingresa en la sucursal destino las unidades asignadas en origen, conservando número de lote,
+     * fechas y costo. Si el lote ya existe en destino se suma a él.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void receive(List<BatchAllocation> allocations, Branch destination) {
+        for (BatchAllocation allocation : allocations) {
+            Batch source = allocation.batch();
+            Batch target = batchRepository.findByBranchIdAndProductIdAndBatchNumber(
+                            destination.getId(), source.getProductId(), source.getBatchNumber())
+                    .orElseGet(() -> copyTo(source, destination));
+            target.setQuantity(target.getQuantity() + allocation.quantity());
+            batchRepository.save(target);
+        }
+    }
+    
+    public static List<BatchAllocationResponse> toResponses(List<BatchAllocation> allocations) {
+        return allocations.stream()
+                .map(allocation -> new BatchAllocationResponse(
+                        allocation.batch().getId(),
+                        allocation.batch().getBatchNumber(),
+                        allocation.batch().getExpirationDate(),
+                        allocation.quantity()))
+                .collect(Collectors.toList());
+    }
+    
+    private Batch copyTo(Batch source, Branch destination) {
+        Batch batch = new Batch();
+        batch.setBatchNumber(source.getBatchNumber());
+        batch.setProductId(source.getProductId());
+        batch.setBranch(destination);
+        batch.setQuantity(0);
+        batch.setUnitCost(source.getUnitCost());
+        batch.setExpirationDate(source.getExpirationDate());
+        batch.setManufactureDate(source.getManufactureDate());
+        batch.setStatus(BatchStatus.AVAILABLE);
+        return batch;
+    }
+    
+    public record BatchAllocation(Batch batch, int quantity) {
+    }
+}
@@ -40,6 +40,7 @@ public class BatchService {
         batch.setProductId(request.getProductId());
         batch.setBranch(branch);
         batch.setQuantity(request.getQuantity());
+        batch.setUnitCost(request.getUnitCost());
         batch.setExpirationDate(request.getExpirationDate());
         batch.setManufactureDate(request.getManufactureDate());
         batch.setStatus(request.getStatus());
@@ -68,12 +69,12 @@ public class BatchService {
     }
     
     @Transactional(readOnly = true)
-    public List<BatchResponse> findExpiringSoon() {
-        log.debug("Obteniendo lotes que expiran pronto");
+    public List<BatchResponse> findExpiringSoon(Long branchId) {
+        log.debug("Obteniendo lotes que expiran pronto (sucursal: {})", branchId);
         LocalDate today = LocalDate.now();
         LocalDate thirtyDaysFromNow = today.plusDays(30);
         
-        return batchRepository.findExpiringSoon(today, thirtyDaysFromNow).stream()
+        return batchRepository.findExpiringSoon(today, thirtyDaysFromNow, branchId).stream()
                 .map(batchMapper::toResponse)
                 .collect(Collectors.toList());
     }
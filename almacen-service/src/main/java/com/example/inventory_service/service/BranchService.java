@@ -1,20 +1,34 @@
 package com.example.inventory_service.service;
 
 import com.example.inventory_service.dto.request.BranchRequest;
+import com.example.inventory_service.dto.response.BranchCacheStats;
 import com.example.inventory_service.dto.response.BranchResponse;
 import com.example.inventory_service.entity.Branch;
 import com.example.inventory_service.exception.DuplicateResourceException;
 import com.example.inventory_service.exception.ResourceNotFoundException;
 import com.example.inventory_service.mapper.BranchMapper;
 import com.example.inventory_service.repository.BranchRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Gestión de sucursales. Las entidades que usan las operaciones de stock se leen de una
+ * caché local, que se invalida al terminar cada transacción que crea, modifica o elimina
+ * una sucursal.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,6 +36,9 @@ public class BranchService {
     
     private final BranchRepository branchRepository;
     private final BranchMapper branchMapper;
+    private final Cache<Long, Branch> branchCache;
+    
+    private final AtomicLong invalidations = new AtomicLong();
     
     @Transactional(readOnly = true)
     public List<BranchResponse> findAll() {
@@ -49,6 +66,7 @@ public class BranchService {
         
         Branch branch = branchMapper.toEntity(request);
         Branch savedBranch = branchRepository.save(branch);
+        invalidateAfterCompletion(savedBranch.getId());
         log.info("Sucursal creada exitosamente con ID: {}", savedBranch.getId());
         
         return branchMapper.toResponse(savedBranch);
@@ -68,6 +86,7 @@ public class BranchService {
         
         branchMapper.updateEntity(branch, request);
         Branch updatedBranch = branchRepository.save(branch);
+        invalidateAfterCompletion(id);
         log.info("Sucursal actualizada exitosamente con ID: {}", updatedBranch.getId());
         
         return branchMapper.toResponse(updatedBranch);
@@ -82,12 +101,65 @@ public class BranchService {
         }
         
         branchRepository.deleteById(id);
+        invalidateAfterCompletion(id);
         log.info("Sucursal eliminada exitosamente con ID: {}", id);
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Devuelve la sucursal desde la caché; solo consulta la base si no está cacheada.
+     * La entidad devuelta está desacoplada y es compartida, por lo que no debe modificarse.
+     */
     public Branch getBranchEntity(Long id) {
-        return branchRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Sucursal no encontrada con ID: " + id));
+        Branch branch = branchCache.get(id, key -> branchRepository.findById(key).orElse(null));
+        if (branch == null) {
+            throw new ResourceNotFoundException("Sucursal no encontrada con ID: " + id);
+        }
+        return branch;
+    }
+    
+    /**
+     * Igual que {@link #getBranchEntity(Long)} para varias sucursales; las que no están
+     * cacheadas se leen en una sola consulta y las inexistentes no aparecen en el mapa.
+     */
+    public Map<Long, Branch> getBranchEntities(Collection<Long> ids) {
+        return branchCache.getAll(ids, missingIds -> branchRepository.findAllById(List.copyOf(missingIds)).stream()
+                .collect(Collectors.toMap(Branch::getId, Function.identity())));
+    }
+    
+    public void invalidateCache() {
+        branchCache.invalidateAll();
+        invalidations.incrementAndGet();
+        log.info("Caché de sucursales vaciada");
+    }
+    
+    public BranchCacheStats getCacheStats() {
+        CacheStats stats = branchCache.stats();
+        return new BranchCacheStats(
+                branchCache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                invalidations.get());
+    }
+    
+    // Se invalida al terminar la transacción para que otra petición no vuelva a cachear la versión anterior
+    private void invalidateAfterCompletion(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(id);
+            }
+        });
+    }
+    
+    private void invalidate(Long id) {
+        branchCache.invalidate(id);
+        invalidations.incrementAndGet();
+        log.debug("Sucursal {} invalidada en caché", id);
     }
 }
@@ -0,0 +1,269 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.request.ReservationItemRequest;
+import com.example.inventory_service.dto.request.ReservationRequest;
+import com.example.inventory_service.dto.response.ReservationItemResponse;
+import com.example.inventory_service.dto.response.ReservationResponse;
+import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.StockMovement;
+import com.example.inventory_service.entity.StockReservation;
+import com.example.inventory_service.entity.enums.MovementType;
+import com.example.inventory_service.entity.enums.ReservationStatus;
+import com.example.inventory_service.exception.InsufficientStockException;
+import com.example.inventory_service.exception.ResourceNotFoundException;
+import com.example.inventory_service.repository.StockMovementRepository;
+import com.example.inventory_service.repository.StockRepository;
+import com.example.inventory_service.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reservas de stock por número de venta. Reservar solo incrementa {@code reserved_quantity} con un
+ * UPDATE condicional por producto, sin leer ni bloquear la fila antes, así que muchas ventas pueden
+ * reservar el mismo producto a la vez sin sobrevender. Confirmar descuenta la cantidad y registra la
+ * salida; liberar o vencer devuelve las unidades a disponible. Cada cambio de estado es un UPDATE
+ * condicional sobre la reserva, de modo que solo uno de los caminos aplica su efecto sobre el stock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationService {
+    
+    private static final int SWEEP_PAGE_SIZE = 500;
+    
+    private final StockReservationRepository reservationRepository;
+    private final StockRepository stockRepository;
+    private final StockMovementRepository movementRepository;
+    private final StockService stockService;
+    private final BranchService branchService;
+    private final BatchAllocationService batchAllocationService;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${inventory.reservations.ttl:15m}")
+    private Duration defaultTtl = Duration.ofMinutes(15);
+    
+    @Value("${inventory.reservations.max-ttl:24h}")
+    private Duration maxTtl = Duration.ofHours(24);
+    
+    /**
+     * Reserva todos los productos de la venta o ninguno. Repetir la llamada para una venta con
+     * reserva vigente o confirmada devuelve la existente sin reservar de nuevo. El índice único
+     * (venta, producto) impide que dos llamadas simultáneas para la misma venta reserven dos veces:
+     * la que pierde se revierte y, si no corre dentro de otra transacción, se repite y devuelve la
+     * reserva que ganó.
+     */
+    public ReservationResponse reserve(ReservationRequest request) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return reserveInTransaction(request);
+        }
+        try {
+            return transactionTemplate.execute(status -> reserveInTransaction(request));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("La venta {} se reservó en otra petición simultánea", request.getSaleNumber());
+            return transactionTemplate.execute(status -> reserveInTransaction(request));
+        }
+    }
+    
+    private ReservationResponse reserveInTransaction(ReservationRequest request) {
+        String saleNumber = request.getSaleNumber();
+        log.debug("Reservando {} productos para la venta {} en sucursal {}",
+                request.getItems().size(), saleNumber, request.getBranchId());
+        
+        List<StockReservation> existing = reservationRepository.findBySaleNumberOrderByProductId(saleNumber);
+        if (existing.stream().anyMatch(r -> r.getStatus() == ReservationStatus.RESERVED
+                || r.getStatus() == ReservationStatus.COMMITTED)) {
+            log.debug("La venta {} ya tiene reserva, se devuelve la existente", saleNumber);
+            return toResponse(saleNumber, existing);
+        }
+        // Las reservas liberadas o vencidas ya no apartan stock; se reemplazan por las nuevas
+        reservationRepository.deleteAllInBatch(existing);
+        
+        branchService.getBranchEntity(request.getBranchId()); // Validar que la sucursal existe
+        
+        // Un UPDATE por producto, en orden de ID para que ventas concurrentes no se interbloqueen
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (ReservationItemRequest item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl(request.getTtlSeconds()));
+        List<StockReservation> reservations = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long productId = entry.getKey();
+            if (stockRepository.reserve(request.getBranchId(), productId, entry.getValue()) != 1) {
+                // La excepción revierte las reservas ya hechas en esta transacción
+                if (!stockRepository.existsByBranchIdAndProductId(request.getBranchId(), productId)) {
+                    throw new ResourceNotFoundException(
+                            "Stock no encontrado para producto " + productId + " en sucursal " + request.getBranchId());
+                }
+                throw new InsufficientStockException(
+                        "Stock insuficiente del producto " + productId + " en sucursal " + request.getBranchId());
+            }
+            
+            StockReservation reservation = new StockReservation();
+            reservation.setSaleNumber(saleNumber);
+            reservation.setBranchId(request.getBranchId());
+            reservation.setProductId(productId);
+            reservation.setQuantity(entry.getValue());
+            reservation.setStatus(ReservationStatus.RESERVED);
+            reservation.setExpiresAt(expiresAt);
+            reservations.add(reservation);
+        }
+        
+        reservationRepository.saveAll(reservations);
+        log.info("Reserva creada para la venta {}: {} productos hasta {}", saleNumber, reservations.size(), expiresAt);
+        return toResponse(saleNumber, reservations);
+    }
+    
+    /**
+     * Confirma la reserva: descuenta las unidades del stock y registra una salida por producto con
+     * el número de venta como referencia. Si la reserva ya venció se descuenta de lo disponible, si
+     * aún alcanza. Confirmar de nuevo no tiene efecto.
+     */
+    @Transactional
+    public ReservationResponse commit(String saleNumber) {
+        log.debug("Confirmando reserva de la venta {}", saleNumber);
+        List<StockReservation> reservations = getReservations(saleNumber);
+        
+        int committed = 0;
+        for (StockReservation reservation : reservations) {
+            if (!commitOne(reservation)) {
+                continue;
+            }
+            reservation.setStatus(ReservationStatus.COMMITTED);
+            registerExit(reservation);
+            committed++;
+        }
+        
+        if (reservations.stream().anyMatch(r -> r.getStatus() == ReservationStatus.RELEASED)) {
+            log.warn("La venta {} tiene productos con reserva liberada que no se descontaron", saleNumber);
+        }
+        log.info("Reserva de la venta {} confirmada: {} productos descontados", saleNumber, committed);
+        return toResponse(saleNumber, reservations);
+    }
+    
+    /**
+     * Libera la reserva vigente de la venta. Liberar de nuevo o después de confirmar no tiene efecto.
+     */
+    @Transactional
+    public ReservationResponse release(String saleNumber) {
+        log.debug("Liberando reserva de la venta {}", saleNumber);
+        List<StockReservation> reservations = getReservations(saleNumber);
+        
+        int released = 0;
+        for (StockReservation reservation : reservations) {
+            if (reservationRepository.transition(reservation.getId(),
+                    ReservationStatus.RESERVED, ReservationStatus.RELEASED) == 1) {
+                stockRepository.releaseReserved(reservation.getBranchId(), reservation.getProductId(), reservation.getQuantity());
+                reservation.setStatus(ReservationStatus.RELEASED);
+                released++;
+            }
+        }
+        
+        log.info("Reserva de la venta {} liberada: {} productos", saleNumber, released);
+        return toResponse(saleNumber, reservations);
+    }
+    
+    @Transactional(readOnly = true)
+    public ReservationResponse findBySaleNumber(String saleNumber) {
+        return toResponse(saleNumber, getReservations(saleNumber));
+    }
+    
+    /**
+     * Devuelve a disponible las reservas vencidas. Devuelve cuántas se vencieron.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval:PT30S}",
+               initialDelayString = "${inventory.reservations.sweep-interval:PT30S}")
+    @Transactional
+    public int expireOverdue() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        List<StockReservation> page;
+        do {
+            // Las reservas procesadas dejan de estar RESERVED, así que siempre se pide la primera página
+            page = reservationRepository.findExpired(ReservationStatus.RESERVED, now, PageRequest.of(0, SWEEP_PAGE_SIZE));
+            for (StockReservation reservation : page) {
+                if (reservationRepository.transition(reservation.getId(),
+                        ReservationStatus.RESERVED, ReservationStatus.EXPIRED) == 1) {
+                    stockRepository.releaseReserved(reservation.getBranchId(), reservation.getProductId(), reservation.getQuantity());
+                    expired++;
+                }
+            }
+        } while (page.size() == SWEEP_PAGE_SIZE);
+        
+        if (expired > 0) {
+            log.info("Se vencieron {} reservas de stock", expired);
+        }
+        return expired;
+    }
+    
+    private boolean commitOne(StockReservation reservation) {
+        if (reservationRepository.transition(reservation.getId(),
+                ReservationStatus.RESERVED, ReservationStatus.COMMITTED) == 1) {
+            if (stockRepository.consumeReserved(reservation.getBranchId(), reservation.getProductId(), reservation.getQuantity()) != 1) {
+                throw new IllegalStateException("Las unidades reservadas del producto " + reservation.getProductId()
+                        + " en sucursal " + reservation.getBranchId() + " no coinciden con la reserva");
+            }
+            return true;
+        }
+        if (reservationRepository.transition(reservation.getId(),
+                ReservationStatus.EXPIRED, ReservationStatus.COMMITTED) == 1) {
+            stockService.updateStockQuantity(reservation.getBranchId(), reservation.getProductId(), -reservation.getQuantity());
+            return true;
+        }
+        return false;
+    }
+    
+    private void registerExit(StockReservation reservation) {
+        Branch branch = branchService.getBranchEntity(reservation.getBranchId());
+        StockMovement movement = new StockMovement();
+        movement.setBranch(branch);
+        movement.setProductId(reservation.getProductId());
+        movement.setType(MovementType.EXIT);
+        movement.setQuantity(reservation.getQuantity());
+        movement.setReason("Venta " + reservation.getSaleNumber());
+        movement.setReference(reservation.getSaleNumber());
+        movementRepository.save(movement);
+        batchAllocationService.allocate(reservation.getBranchId(), reservation.getProductId(), reservation.getQuantity());
+    }
+    
+    private List<StockReservation> getReservations(String saleNumber) {
+        List<StockReservation> reservations = reservationRepository.findBySaleNumberOrderByProductId(saleNumber);
+        if (reservations.isEmpty()) {
+            throw new ResourceNotFoundException("Reserva no encontrada para la venta: " + saleNumber);
+        }
+        return reservations;
+    }
+    
+    private Duration ttl(Long ttlSeconds) {
+        if (ttlSeconds == null) {
+            return defaultTtl;
+        }
+        Duration requested = Duration.ofSeconds(ttlSeconds);
+        return requested.compareTo(maxTtl) > 0 ? maxTtl : requested;
+    }
+    
+    private ReservationResponse toResponse(String saleNumber, List<StockReservation> reservations) {
+        StockReservation first = reservations.get(0);
+        List<ReservationItemResponse> items = reservations.stream()
+                .map(r -> new ReservationItemResponse(r.getProductId(), r.getQuantity(), r.getStatus()))
+                .collect(Collectors.toList());
+        return new ReservationResponse(saleNumber, first.getBranchId(), first.getStatus(), first.getExpiresAt(), items);
+    }
+}
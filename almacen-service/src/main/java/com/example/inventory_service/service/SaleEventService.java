@@ -0,0 +1,146 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.request.ReservationRequest;
+import com.example.inventory_service.dto.request.SaleEventRequest;
+import com.example.inventory_service.dto.response.SaleEventResult;
+import com.example.inventory_service.entity.ProcessedEvent;
+import com.example.inventory_service.entity.enums.SaleEventStatus;
+import com.example.inventory_service.entity.enums.SaleEventType;
+import com.example.inventory_service.repository.ProcessedEventRepository;
+import com.example.inventory_service.repository.StockReservationRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica al stock los eventos de venta que entrega el relay de sales-service. Cada evento se
+ * aplica en su propia transacción junto con el registro de su clave de idempotencia, así que un
+ * reenvío del mismo evento se reconoce como duplicado y un evento rechazado no afecta al resto.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SaleEventService {
+    
+    private static final int MAX_EVENTS = 500;
+    private static final int MAX_ATTEMPTS = 2;
+    
+    private final ProcessedEventRepository processedEventRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ReservationService reservationService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    
+    public List<SaleEventResult> apply(List<SaleEventRequest> events) {
+        if (events == null || events.isEmpty()) {
+            throw new IllegalArgumentException("Debe enviar al menos un evento");
+        }
+        if (events.size() > MAX_EVENTS) {
+            throw new IllegalArgumentException("No se pueden procesar más de " + MAX_EVENTS + " eventos por lote");
+        }
+        log.debug("Procesando lote de {} eventos de venta", events.size());
+        
+        List<SaleEventResult> results = new ArrayList<>(events.size());
+        for (SaleEventRequest event : events) {
+            results.add(applyOne(event));
+        }
+        
+        log.info("Lote de eventos de venta procesado: {} aplicados, {} duplicados, {} rechazados",
+                count(results, SaleEventStatus.APPLIED), count(results, SaleEventStatus.DUPLICATE),
+                count(results, SaleEventStatus.REJECTED));
+        return results;
+    }
+    
+    private SaleEventResult applyOne(SaleEventRequest event) {
+        String error = validate(event);
+        if (error != null) {
+            return new SaleEventResult(event != null ? event.getIdempotencyKey() : null, SaleEventStatus.REJECTED, error);
+        }
+        
+        String key = event.getIdempotencyKey();
+        if (processedEventRepository.existsById(key)) {
+            return new SaleEventResult(key, SaleEventStatus.DUPLICATE, "Evento ya aplicado");
+        }
+        
+        for (int attempt = 1; ; attempt++) {
+            try {
+                applyInTransaction(event);
+                return new SaleEventResult(key, SaleEventStatus.APPLIED, "Evento aplicado");
+            } catch (DataIntegrityViolationException e) {
+                // Solo es un duplicado si otra entrega del mismo evento registró la clave; cualquier
+                // otra violación (p. ej. una reserva de la misma venta confirmada a la vez) se reintenta
+                if (processedEventRepository.existsById(key)) {
+                    return new SaleEventResult(key, SaleEventStatus.DUPLICATE, "Evento ya aplicado");
+                }
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.warn("Evento {} de la venta {} rechazado tras {} intentos: {}",
+                            key, event.getSaleNumber(), attempt, e.getMostSpecificCause().getMessage());
+                    return new SaleEventResult(key, SaleEventStatus.REJECTED, e.getMostSpecificCause().getMessage());
+                }
+                log.debug("Evento {} en conflicto con otra escritura de la venta {}, se reintenta",
+                        key, event.getSaleNumber());
+            } catch (RuntimeException e) {
+                log.warn("Evento {} de la venta {} rechazado: {}", key, event.getSaleNumber(), e.getMessage());
+                return new SaleEventResult(key, SaleEventStatus.REJECTED, e.getMessage());
+            }
+        }
+    }
+    
+    private void applyInTransaction(SaleEventRequest event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Si otra entrega del mismo evento se confirma antes, este INSERT falla y nada se aplica
+            processedEventRepository.saveAndFlush(new ProcessedEvent(event.getIdempotencyKey(), event.getType()));
+            if (event.getType() == SaleEventType.COMPLETED) {
+                applyCompleted(event);
+            } else {
+                applyCancelled(event);
+            }
+        });
+    }
+    
+    private void applyCompleted(SaleEventRequest event) {
+        // Una venta creada sin reserva (inventario no disponible en ese momento) se reserva aquí para confirmarla igual
+        if (!reservationRepository.existsBySaleNumber(event.getSaleNumber())) {
+            if (event.getItems() == null || event.getItems().isEmpty()) {
+                throw new IllegalArgumentException(
+                        "La venta " + event.getSaleNumber() + " no tiene reserva ni productos para descontar");
+            }
+            reservationService.reserve(new ReservationRequest(
+                    event.getSaleNumber(), event.getBranchId(), null, event.getItems()));
+        }
+        reservationService.commit(event.getSaleNumber());
+    }
+    
+    private void applyCancelled(SaleEventRequest event) {
+        if (reservationRepository.existsBySaleNumber(event.getSaleNumber())) {
+            reservationService.release(event.getSaleNumber());
+        }
+    }
+    
+    private String validate(SaleEventRequest event) {
+        if (event == null) {
+            return "El evento no puede ser nulo";
+        }
+        Set<ConstraintViolation<SaleEventRequest>> violations = validator.validate(event);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    private static long count(List<SaleEventResult> results, SaleEventStatus status) {
+        return results.stream().filter(result -> result.getStatus() == status).count();
+    }
+}
@@ -1,19 +1,37 @@
 package com.example.inventory_service.service;
 
 import com.example.inventory_service.dto.request.StockMovementRequest;
+import com.example.inventory_service.dto.response.BulkMovementItemResult;
+import com.example.inventory_service.dto.response.BulkMovementResponse;
 import com.example.inventory_service.dto.response.StockMovementResponse;
 import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.Stock;
 import com.example.inventory_service.entity.StockMovement;
 import com.example.inventory_service.entity.enums.MovementType;
-import com.example.inventory_service.exception.InsufficientStockException;
 import com.example.inventory_service.mapper.StockMovementMapper;
+import com.example.inventory_service.repository.StockMovementBatchRepository;
+import com.example.inventory_service.repository.StockMovementBatchRepository.StockDelta;
 import com.example.inventory_service.repository.StockMovementRepository;
+import com.example.inventory_service.repository.StockRepository;
+import com.example.inventory_service.service.BatchAllocationService.BatchAllocation;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +43,12 @@ public class StockMovementService {
     private final BranchService branchService;
     private final StockService stockService;
     private final StockMovementMapper movementMapper;
+    private final StockRepository stockRepository;
+    private final StockMovementBatchRepository batchRepository;
+    private final BatchAllocationService batchAllocationService;
+    private final Validator validator;
+    
+    private static final int MAX_BULK_SIZE = 1000;
     
     @Transactional
     public StockMovementResponse create(StockMovementRequest request) {
@@ -38,15 +62,6 @@ public class StockMovementService {
         
         Branch branch = branchService.getBranchEntity(request.getBranchId());
         
-        // Validar stock disponible para EXIT y TRANSFER
-        if (request.getType() == MovementType.EXIT || request.getType() == MovementType.TRANSFER) {
-            if (!stockService.checkAvailability(request.getBranchId(), request.getProductId(), request.getQuantity())) {
-                throw new InsufficientStockException(
-                        "Stock insuficiente del producto " + request.getProductId() + 
-                        " en sucursal " + request.getBranchId());
-            }
-        }
-        
         // Para TRANSFER, validar sucursal destino
         Branch destinationBranch = null;
         if (request.getType() == MovementType.TRANSFER) {
@@ -71,8 +86,11 @@ public class StockMovementService {
         movement.setPerformedBy(request.getPerformedBy());
         
         StockMovement savedMovement = movementRepository.save(movement);
+        List<BatchAllocation> allocations = List.of();
         
-        // Actualizar stock según el tipo de movimiento
+        // Actualizar stock según el tipo de movimiento. Las salidas se descuentan con una sola
+        // sentencia condicional, que falla con InsufficientStockException si no hay stock suficiente,
+        // y luego se asignan a lotes en orden FEFO
         switch (request.getType()) {
             case ENTRY:
             case RETURN:
@@ -82,12 +100,15 @@ public class StockMovementService {
                 
             case EXIT:
                 stockService.updateStockQuantity(request.getBranchId(), request.getProductId(), -request.getQuantity());
+                allocations = batchAllocationService.allocate(request.getBranchId(), request.getProductId(), request.getQuantity());
                 log.info("Stock decrementado en {} unidades", request.getQuantity());
                 break;
                 
             case TRANSFER:
                 stockService.updateStockQuantity(request.getBranchId(), request.getProductId(), -request.getQuantity());
                 stockService.updateStockQuantity(request.getDestinationBranchId(), request.getProductId(), request.getQuantity());
+                allocations = batchAllocationService.allocate(request.getBranchId(), request.getProductId(), request.getQuantity());
+                batchAllocationService.receive(allocations, destinationBranch);
                 log.info("Stock transferido: {} unidades de sucursal {} a sucursal {}", 
                         request.getQuantity(), request.getBranchId(), request.getDestinationBranchId());
                 break;
@@ -100,7 +121,224 @@ public class StockMovementService {
         }
         
         log.info("Movimiento de stock creado exitosamente con ID: {}", savedMovement.getId());
-        return movementMapper.toResponse(savedMovement);
+        StockMovementResponse response = movementMapper.toResponse(savedMovement);
+        response.setBatchAllocations(BatchAllocationService.toResponses(allocations));
+        return response;
+    }
+    
+    /**
+     * Registra un lote de movimientos en una sola transacción. Las sucursales y el stock involucrado
+     * se leen una vez (el stock bloqueado), cada movimiento se valida en orden contra las cantidades
+     * resultantes y los aceptados se escriben con un lote de UPDATE y un lote de INSERT.
+     * Los movimientos inválidos se rechazan individualmente sin afectar al resto.
+     */
+    @Transactional
+    public BulkMovementResponse createBulk(List<StockMovementRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Debe enviar al menos un movimiento");
+        }
+        if (requests.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("No se pueden registrar más de " + MAX_BULK_SIZE + " movimientos por lote");
+        }
+        log.debug("Registrando lote de {} movimientos de stock", requests.size());
+        
+        Map<Long, Branch> branches = branchService.getBranchEntities(collectIds(requests, true));
+        Map<StockKey, Integer> available = lockStock(requests);
+        
+        Map<StockKey, Integer> netChanges = new LinkedHashMap<>();
+        List<StockMovement> movements = new ArrayList<>();
+        List<Integer> movementIndexes = new ArrayList<>();
+        BulkMovementItemResult[] results = new BulkMovementItemResult[requests.size()];
+        LocalDateTime now = LocalDateTime.now();
+        
+        for (int i = 0; i < requests.size(); i++) {
+            StockMovementRequest request = requests.get(i);
+            String error = validateBulkItem(request, branches);
+            Map<StockKey, Integer> changes = error == null ? stockChanges(request) : Map.of();
+            if (error == null) {
+                error = checkStock(changes, available);
+            }
+            if (error != null) {
+                results[i] = BulkMovementItemResult.rejected(i, error);
+                continue;
+            }
+            
+            changes.forEach((key, change) -> {
+                available.merge(key, change, Integer::sum);
+                netChanges.merge(key, change, Integer::sum);
+            });
+            movements.add(toMovement(request, branches, now));
+            movementIndexes.add(i);
+        }
+        
+        applyNetChanges(netChanges);
+        allocateBatches(movements, branches);
+        if (!movements.isEmpty()) {
+            batchRepository.insertAll(movements);
+        }
+        
+        for (int m = 0; m < movements.size(); m++) {
+            int index = movementIndexes.get(m);
+            results[index] = BulkMovementItemResult.accepted(index, movementMapper.toResponse(movements.get(m)));
+        }
+        
+        int accepted = movements.size();
+        log.info("Lote de movimientos procesado: {} registrados, {} rechazados", 
+                accepted, requests.size() - accepted);
+        return new BulkMovementResponse(requests.size(), accepted, requests.size() - accepted, Arrays.asList(results));
+    }
+    
+    private Set<Long> collectIds(List<StockMovementRequest> requests, boolean branches) {
+        Set<Long> ids = new HashSet<>();
+        for (StockMovementRequest request : requests) {
+            if (request == null) {
+                continue;
+            }
+            if (branches) {
+                ids.add(request.getBranchId());
+                ids.add(request.getDestinationBranchId());
+            } else {
+                ids.add(request.getProductId());
+            }
+        }
+        ids.remove(null);
+        return ids;
+    }
+    
+    private Map<StockKey, Integer> lockStock(List<StockMovementRequest> requests) {
+        Set<Long> branchIds = collectIds(requests, true);
+        Set<Long> productIds = collectIds(requests, false);
+        Map<StockKey, Integer> available = new HashMap<>();
+        if (branchIds.isEmpty() || productIds.isEmpty()) {
+            return available;
+        }
+        for (Stock stock : stockRepository.findForUpdate(branchIds, productIds)) {
+            available.put(new StockKey(stock.getBranch().getId(), stock.getProductId()),
+                    stock.getQuantity() - stock.getReservedQuantity());
+        }
+        return available;
+    }
+    
+    private String validateBulkItem(StockMovementRequest request, Map<Long, Branch> branches) {
+        if (request == null) {
+            return "El movimiento no puede ser nulo";
+        }
+        Set<ConstraintViolation<StockMovementRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!branches.containsKey(request.getBranchId())) {
+            return "Sucursal no encontrada con ID: " + request.getBranchId();
+        }
+        if (request.getType() == MovementType.TRANSFER) {
+            if (request.getDestinationBranchId() == null) {
+                return "Se requiere sucursal destino para transferencias";
+            }
+            if (request.getDestinationBranchId().equals(request.getBranchId())) {
+                return "La sucursal destino debe ser diferente a la sucursal origen";
+            }
+            if (!branches.containsKey(request.getDestinationBranchId())) {
+                return "Sucursal no encontrada con ID: " + request.getDestinationBranchId();
+            }
+        }
+        return null;
+    }
+    
+    private Map<StockKey, Integer> stockChanges(StockMovementRequest request) {
+        StockKey origin = new StockKey(request.getBranchId(), request.getProductId());
+        int quantity = request.getQuantity();
+        return switch (request.getType()) {
+            case ENTRY, RETURN, ADJUSTMENT -> Map.of(origin, quantity);
+            case EXIT -> Map.of(origin, -quantity);
+            case TRANSFER -> Map.of(
+                    origin, -quantity,
+                    new StockKey(request.getDestinationBranchId(), request.getProductId()), quantity);
+        };
+    }
+    
+    private String checkStock(Map<StockKey, Integer> changes, Map<StockKey, Integer> available) {
+        for (Map.Entry<StockKey, Integer> change : changes.entrySet()) {
+            StockKey key = change.getKey();
+            Integer current = available.get(key);
+            if (current == null) {
+                return "Stock no encontrado para producto " + key.productId() + " en sucursal " + key.branchId();
+            }
+            if (current + change.getValue() < 0) {
+                return "Stock insuficiente del producto " + key.productId() + " en sucursal " + key.branchId();
+            }
+        }
+        return null;
+    }
+    
+    private StockMovement toMovement(StockMovementRequest request, Map<Long, Branch> branches, LocalDateTime createdAt) {
+        StockMovement movement = new StockMovement();
+        movement.setBranch(branches.get(request.getBranchId()));
+        movement.setProductId(request.getProductId());
+        movement.setType(request.getType());
+        movement.setQuantity(request.getQuantity());
+        movement.setReason(request.getReason());
+        movement.setReference(request.getReference());
+        if (request.getType() == MovementType.TRANSFER) {
+            movement.setDestinationBranch(branches.get(request.getDestinationBranchId()));
+        }
+        movement.setPerformedBy(request.getPerformedBy());
+        movement.setCreatedAt(createdAt);
+        return movement;
+    }
+    
+    private void applyNetChanges(Map<StockKey, Integer> netChanges) {
+        List<StockDelta> deltas = netChanges.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> new StockDelta(entry.getKey().branchId(), entry.getKey().productId(), entry.getValue()))
+                .collect(Collectors.toList());
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        int[] updated = batchRepository.adjustQuantities(deltas);
+        for (int i = 0; i < updated.length; i++) {
+            // Las filas están bloqueadas y validadas, así que cada cambio debe aplicarse
+            if (updated[i] == 0) {
+                StockDelta delta = deltas.get(i);
+                throw new IllegalStateException("No se pudo actualizar el stock del producto " + 
+                        delta.productId() + " en sucursal " + delta.branchId());
+            }
+        }
+    }
+    
+    /**
+     * Asigna a lotes las salidas y transferencias aceptadas, sumadas por producto, sucursal y destino
+     * para recorrer los lotes de cada producto una sola vez. Se hace en orden de sucursal y producto,
+     * con el stock ya bloqueado, para que dos lotes concurrentes tomen los bloqueos en el mismo orden.
+     */
+    private void allocateBatches(List<StockMovement> movements, Map<Long, Branch> branches) {
+        Map<AllocationKey, Integer> outgoing = new TreeMap<>(Comparator
+                .comparing(AllocationKey::branchId)
+                .thenComparing(AllocationKey::productId)
+                .thenComparing(AllocationKey::destinationBranchId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        for (StockMovement movement : movements) {
+            if (movement.getType() == MovementType.EXIT || movement.getType() == MovementType.TRANSFER) {
+                Long destinationId = movement.getDestinationBranch() != null ? movement.getDestinationBranch().getId() : null;
+                outgoing.merge(new AllocationKey(movement.getBranch().getId(), movement.getProductId(), destinationId),
+                        movement.getQuantity(), Integer::sum);
+            }
+        }
+        
+        outgoing.forEach((key, quantity) -> {
+            List<BatchAllocation> allocations = batchAllocationService.allocate(key.branchId(), key.productId(), quantity);
+            if (key.destinationBranchId() != null) {
+                batchAllocationService.receive(allocations, branches.get(key.destinationBranchId()));
+            }
+        });
+    }
+    
+    private record StockKey(Long branchId, Long productId) {
+    }
+    
+    private record AllocationKey(Long branchId, Long productId, Long destinationBranchId) {
     }
     
     @Transactional(readOnly = true)
@@ -1,20 +1,33 @@
 package com.example.inventory_service.service;
 
 import com.example.inventory_service.dto.request.StockRequest;
+import com.example.inventory_service.dto.response.InventoryKpiResponse;
+import com.example.inventory_service.dto.response.StockPageResponse;
 import com.example.inventory_service.dto.response.StockResponse;
 import com.example.inventory_service.entity.Branch;
 import com.example.inventory_service.entity.Stock;
+import com.example.inventory_service.exception.InsufficientStockException;
 import com.example.inventory_service.exception.ResourceNotFoundException;
 import com.example.inventory_service.mapper.StockMapper;
+import com.example.inventory_service.repository.BatchKpiRow;
+import com.example.inventory_service.repository.BatchRepository;
 import com.example.inventory_service.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -22,15 +35,38 @@ import java.util.stream.Collectors;
 public class StockService {
     
     private final StockRepository stockRepository;
+    private final BatchRepository batchRepository;
     private final BranchService branchService;
     private final StockMapper stockMapper;
     
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    /**
+     * Recorre todo el stock entregando cada fila a {@code consumer} a medida que se lee.
+     */
     @Transactional(readOnly = true)
-    public List<StockResponse> findAll() {
+    public void streamAll(Consumer<StockResponse> consumer) {
         log.debug("Obteniendo todo el stock");
-        return stockRepository.findAll().stream()
-                .map(stockMapper::toResponse)
-                .collect(Collectors.toList());
+        try (Stream<StockResponse> rows = stockRepository.streamAll()) {
+            rows.forEach(consumer);
+        }
+    }
+    
+    /**
+     * Página de stock por cursor (ID): devuelve las filas con ID mayor que {@code after}.
+     */
+    @Transactional(readOnly = true)
+    public StockPageResponse findPage(Long after, Long branchId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        log.debug("Obteniendo página de stock después de {} (sucursal: {}, tamaño: {})", after, branchId, pageSize);
+        
+        // Se pide una fila extra para saber si hay otra página sin contar el total
+        List<StockResponse> rows = stockRepository.findPageAfter(
+                after != null ? after : 0L, branchId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<StockResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new StockPageResponse(new ArrayList<>(items), nextCursor, hasMore);
     }
     
     @Transactional(readOnly = true)
@@ -73,6 +109,11 @@ public class StockService {
         
         boolean isNew = stock.getId() == null;
         
+        if (!isNew && request.getQuantity() < stock.getReservedQuantity()) {
+            throw new IllegalArgumentException(
+                    "La cantidad no puede ser menor a las unidades reservadas (" + stock.getReservedQuantity() + ")");
+        }
+        
         if (isNew) {
             stock.setBranch(branch);
             stock.setProductId(request.getProductId());
@@ -89,10 +130,36 @@ public class StockService {
     }
     
     @Transactional(readOnly = true)
-    public List<StockResponse> findLowStockAlerts() {
-        log.debug("Obteniendo alertas de stock bajo");
-        return stockRepository.findAllBelowMinimum().stream()
-                .map(stockMapper::toResponse)
+    public List<StockResponse> findLowStockAlerts(Long branchId, boolean includeAtMinimum) {
+        log.debug("Obteniendo alertas de stock bajo (sucursal: {})", branchId);
+        return stockRepository.findBelowMinimum(branchId, includeAtMinimum);
+    }
+    
+    /**
+     * Indicadores de inventario por sucursal calculados con agregaciones en la base de datos.
+     * Un producto cuenta como por vencer si tiene lotes disponibles que vencen dentro de
+     * {@code expiringWithinDays} días (o ya vencidos y aún no dados de baja).
+     */
+    @Transactional(readOnly = true)
+    public List<InventoryKpiResponse> getKpis(Long branchId, int expiringWithinDays) {
+        log.debug("Calculando indicadores de inventario (sucursal: {}, días: {})", branchId, expiringWithinDays);
+        
+        LocalDate expiringBefore = LocalDate.now().plusDays(expiringWithinDays);
+        Map<Long, BatchKpiRow> batchTotals = batchRepository.aggregateByBranch(branchId, expiringBefore).stream()
+                .collect(Collectors.toMap(BatchKpiRow::getBranchId, Function.identity()));
+        
+        return stockRepository.aggregateByBranch(branchId).stream()
+                .map(row -> {
+                    BatchKpiRow batches = batchTotals.get(row.getBranchId());
+                    return new InventoryKpiResponse(
+                            row.getBranchId(),
+                            row.getBranchName(),
+                            row.getTotalProducts(),
+                            row.getTotalUnits(),
+                            row.getLowStockProducts(),
+                            batches != null ? batches.getExpiringProducts() : 0L,
+                            batches != null ? batches.getInventoryValue() : BigDecimal.ZERO);
+                })
                 .collect(Collectors.toList());
     }
     
@@ -104,32 +171,32 @@ public class StockService {
         Stock stock = stockRepository.findByBranchIdAndProductId(branchId, productId)
                 .orElse(null);
         
-        return stock != null && stock.getQuantity() >= quantity;
+        return stock != null && stock.getQuantity() - stock.getReservedQuantity() >= quantity;
     }
     
+    /**
+     * Aplica el cambio de cantidad de forma atómica en la base de datos.
+     * Devuelve {@code false} si el stock no existe o quedaría negativo.
+     */
     @Transactional
-    public void updateStockQuantity(Long branchId, Long productId, Integer quantityChange) {
+    public boolean tryUpdateStockQuantity(Long branchId, Long productId, Integer quantityChange) {
         log.debug("Actualizando cantidad de stock: {} para producto {} en sucursal {}", 
                 quantityChange, productId, branchId);
-        
-        Stock stock = stockRepository.findByBranchIdAndProductId(branchId, productId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Stock no encontrado para producto " + productId + " en sucursal " + branchId));
-        
-        Integer newQuantity = stock.getQuantity() + quantityChange;
-        
-        if (newQuantity < 0) {
-            throw new IllegalArgumentException("La cantidad resultante no puede ser negativa");
-        }
-        
-        stock.setQuantity(newQuantity);
-        
-        if (quantityChange > 0) {
-            stock.setLastRestockDate(LocalDateTime.now());
+        return stockRepository.adjustQuantity(branchId, productId, quantityChange) == 1;
+    }
+    
+    @Transactional
+    public void updateStockQuantity(Long branchId, Long productId, Integer quantityChange) {
+        if (!tryUpdateStockQuantity(branchId, productId, quantityChange)) {
+            if (!stockRepository.existsByBranchIdAndProductId(branchId, productId)) {
+                throw new ResourceNotFoundException(
+                        "Stock no encontrado para producto " + productId + " en sucursal " + branchId);
+            }
+            throw new InsufficientStockException(
+                    "Stock insuficiente del producto " + productId + " en sucursal " + branchId);
         }
         
-        stockRepository.save(stock);
-        log.info("Stock actualizado para producto {} en sucursal {}: nueva cantidad = {}", 
-                productId, branchId, newQuantity);
+        log.info("Stock actualizado para producto {} en sucursal {}: cambio de {} unidades", 
+                productId, branchId, quantityChange);
     }
 }
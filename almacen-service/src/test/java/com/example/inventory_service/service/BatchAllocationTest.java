@@ -0,0 +1,215 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.request.StockMovementRequest;
+import com.example.inventory_service.dto.response.BatchAllocationResponse;
+import com.example.inventory_service.dto.response.StockMovementResponse;
+import com.example.inventory_service.entity.Batch;
+import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.enums.BatchStatus;
+import com.example.inventory_service.entity.enums.MovementType;
+import com.example.inventory_service.exception.InsufficientStockException;
+import com.example.inventory_service.mapper.StockMovementMapper;
+import com.example.inventory_service.repository.BatchRepository;
+import com.example.inventory_service.repository.StockMovementBatchRepository;
+import com.example.inventory_service.repository.StockRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@InventoryJpaTest
+@Import({StockMovementService.class, BatchAllocationService.class, StockMovementBatchRepository.class,
+        StockMovementMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BatchAllocationTest {
+    
+    private static final long PRODUCT_ID = 100L;
+    
+    @Autowired
+    private StockMovementService movementService;
+    
+    @Autowired
+    private InventoryFixtures fixtures;
+    
+    @Autowired
+    private StockRepository stockRepository;
+    
+    @Autowired
+    private BatchRepository batchRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private final LocalDate today = LocalDate.now();
+    private Branch branch;
+    private Branch destination;
+    
+    @BeforeEach
+    void setUp() {
+        branch = fixtures.createBranch("SUC-01");
+        destination = fixtures.createBranch("SUC-02");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+    
+    @Test
+    void exitTakesAvailableBatchesInExpirationOrder() {
+        fixtures.createStock(branch, PRODUCT_ID, 29);
+        Batch late = fixtures.createBatch(branch, PRODUCT_ID, "L-LATE", 5, today.plusDays(30), BatchStatus.AVAILABLE);
+        Batch early = fixtures.createBatch(branch, PRODUCT_ID, "L-EARLY", 3, today.plusDays(10), BatchStatus.AVAILABLE);
+        Batch undated = fixtures.createBatch(branch, PRODUCT_ID, "L-NODATE", 10, null, BatchStatus.AVAILABLE);
+        Batch expired = fixtures.createBatch(branch, PRODUCT_ID, "L-EXPIRED", 4, today.minusDays(1), BatchStatus.AVAILABLE);
+        Batch recalled = fixtures.createBatch(branch, PRODUCT_ID, "L-RECALLED", 7, today.plusDays(5), BatchStatus.RECALLED);
+        
+        StockMovementResponse response = movementService.create(movement(MovementType.EXIT, 10));
+        
+        assertThat(response.getBatchAllocations())
+                .extracting(BatchAllocationResponse::getBatchNumber, BatchAllocationResponse::getQuantity)
+                .containsExactly(tuple("L-EARLY", 3), tuple("L-LATE", 5), tuple("L-NODATE", 2));
+        assertThat(quantity(early)).isZero();
+        assertThat(quantity(late)).isZero();
+        assertThat(quantity(undated)).isEqualTo(8);
+        assertThat(quantity(expired)).isEqualTo(4);
+        assertThat(quantity(recalled)).isEqualTo(7);
+        assertThat(stockQuantity(branch)).isEqualTo(19);
+    }
+    
+    @Test
+    void transferMovesAllocatedBatchesToDestination() {
+        fixtures.createStock(branch, PRODUCT_ID, 10);
+        fixtures.createStock(destination, PRODUCT_ID, 0);
+        fixtures.createBatch(branch, PRODUCT_ID, "L-1", 4, today.plusDays(10), BatchStatus.AVAILABLE);
+        fixtures.createBatch(branch, PRODUCT_ID, "L-2", 6, today.plusDays(20), BatchStatus.AVAILABLE);
+        fixtures.createBatch(destination, PRODUCT_ID, "L-2", 1, today.plusDays(20), BatchStatus.AVAILABLE);
+        
+        StockMovementRequest request = movement(MovementType.TRANSFER, 7);
+        request.setDestinationBranchId(destination.getId());
+        movementService.create(request);
+        
+        assertThat(batchRepository.findByBranchId(destination.getId()))
+                .extracting(Batch::getBatchNumber, Batch::getQuantity, Batch::getExpirationDate)
+                .containsExactlyInAnyOrder(
+                        tuple("L-1", 4, today.plusDays(10)),
+                        tuple("L-2", 4, today.plusDays(20)));
+        assertThat(batchRepository.findByBranchId(branch.getId()))
+                .extracting(Batch::getBatchNumber, Batch::getQuantity)
+                .containsExactlyInAnyOrder(tuple("L-1", 0), tuple("L-2", 3));
+    }
+    
+    @Test
+    void bulkExitsAreAllocatedToo() {
+        fixtures.createStock(branch, PRODUCT_ID, 10);
+        fixtures.createBatch(branch, PRODUCT_ID, "L-1", 4, today.plusDays(10), BatchStatus.AVAILABLE);
+        fixtures.createBatch(branch, PRODUCT_ID, "L-2", 6, today.plusDays(20), BatchStatus.AVAILABLE);
+        
+        movementService.createBulk(List.of(movement(MovementType.EXIT, 3), movement(MovementType.EXIT, 3)));
+        
+        assertThat(batchRepository.findByBranchId(branch.getId()))
+                .extracting(Batch::getBatchNumber, Batch::getQuantity)
+                .containsExactlyInAnyOrder(tuple("L-1", 0), tuple("L-2", 4));
+    }
+    
+    @Test
+    void readsOnlyTheFirstBatchesOfAProductWithThousandsOfBatches() {
+        int batches = 5000;
+        fixtures.createStock(branch, PRODUCT_ID, batches);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < batches; i++) {
+            rows.add(new Object[]{"L-" + i, PRODUCT_ID, branch.getId(), 1, today.plusDays(1 + i % 700), "AVAILABLE"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO batches (batch_number, product_id, branch_id, quantity, expiration_date, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        StockMovementResponse response = movementService.create(movement(MovementType.EXIT, 5));
+        
+        assertThat(response.getBatchAllocations()).hasSize(5)
+                .allMatch(allocation -> allocation.getExpirationDate().equals(today.plusDays(1)));
+        // One page of batches (plus the movement's own entities), not the 5000 batches of the product
+        assertThat(statistics.getEntityLoadCount()).isLessThan(30);
+    }
+    
+    @Test
+    void simultaneousExitsNeverOverAllocateBatches() throws Exception {
+        int threads = 16;
+        int exitsPerThread = 20;
+        fixtures.createStock(branch, PRODUCT_ID, 200);
+        for (int i = 0; i < 10; i++) {
+            fixtures.createBatch(branch, PRODUCT_ID, "L-" + i, 20, today.plusDays(10 + i), BatchStatus.AVAILABLE);
+        }
+        AtomicInteger rejected = new AtomicInteger();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < exitsPerThread; i++) {
+                        try {
+                            movementService.create(movement(MovementType.EXIT, 1));
+                        } catch (InsufficientStockException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(rejected.get()).isEqualTo(threads * exitsPerThread - 200);
+        assertThat(stockQuantity(branch)).isZero();
+        assertThat(batchRepository.findByBranchId(branch.getId())).allMatch(batch -> batch.getQuantity() == 0);
+    }
+    
+    private int quantity(Batch batch) {
+        return batchRepository.findById(batch.getId()).orElseThrow().getQuantity();
+    }
+    
+    private int stockQuantity(Branch stockBranch) {
+        return stockRepository.findByBranchIdAndProductId(stockBranch.getId(), PRODUCT_ID).orElseThrow().getQuantity();
+    }
+    
+    private StockMovementRequest movement(MovementType type, int quantity) {
+        StockMovementRequest request = new StockMovementRequest();
+        request.setBranchId(branch.getId());
+        request.setProductId(PRODUCT_ID);
+        request.setType(type);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.request.BranchRequest;
+import com.example.inventory_service.dto.request.StockRequest;
+import com.example.inventory_service.dto.response.BranchCacheStats;
+import com.example.inventory_service.dto.response.BranchResponse;
+import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.enums.BranchStatus;
+import com.example.inventory_service.exception.ResourceNotFoundException;
+import com.example.inventory_service.repository.StockRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@InventoryJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BranchCacheTest {
+    
+    @Autowired
+    private BranchService branchService;
+    
+    @Autowired
+    private StockService stockService;
+    
+    @Autowired
+    private InventoryFixtures fixtures;
+    
+    @Autowired
+    private StockRepository stockRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    private Long branchId;
+    
+    @BeforeEach
+    void setUp() {
+        branchService.invalidateCache();
+        branchId = branchService.create(request("SUC-01", "Centro")).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+    
+    @Test
+    void loadsBranchOnceAndServesLaterLookupsFromCache() {
+        BranchCacheStats before = branchService.getCacheStats();
+        Branch first = branchService.getBranchEntity(branchId);
+        for (int i = 0; i < 10; i++) {
+            assertThat(branchService.getBranchEntity(branchId)).isSameAs(first);
+        }
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        BranchCacheStats after = branchService.getCacheStats();
+        assertThat(after.getMisses() - before.getMisses()).isEqualTo(1);
+        assertThat(after.getHits() - before.getHits()).isEqualTo(10);
+    }
+    
+    @Test
+    void stockWritePathDoesNotSelectTheBranchWhenCached() {
+        branchService.getBranchEntity(branchId);
+        statistics.clear();
+        
+        stockService.createOrUpdate(new StockRequest(branchId, 7L, 10, 2, 100));
+        
+        assertThat(statistics.getEntityStatistics(Branch.class.getName()).getLoadCount()).isZero();
+        assertThat(stockRepository.findByBranchIdAndProductId(branchId, 7L)).isPresent();
+    }
+    
+    @Test
+    void updateAndDeleteInvalidateTheCachedBranch() {
+        long invalidationsBefore = branchService.getCacheStats().getInvalidations();
+        branchService.getBranchEntity(branchId);
+        
+        branchService.update(branchId, request("SUC-01", "Centro Renovado"));
+        assertThat(branchService.getBranchEntity(branchId).getName()).isEqualTo("Centro Renovado");
+        
+        branchService.delete(branchId);
+        assertThatThrownBy(() -> branchService.getBranchEntity(branchId))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(branchService.getCacheStats().getInvalidations() - invalidationsBefore).isEqualTo(2);
+    }
+    
+    @Test
+    void clearingTheCacheCountsOneInvalidation() {
+        BranchResponse other = branchService.create(request("SUC-02", "Norte"));
+        branchService.getBranchEntities(List.of(branchId, other.getId()));
+        long invalidationsBefore = branchService.getCacheStats().getInvalidations();
+        
+        branchService.invalidateCache();
+        
+        assertThat(branchService.getCacheStats().getSize()).isZero();
+        assertThat(branchService.getCacheStats().getInvalidations() - invalidationsBefore).isEqualTo(1);
+    }
+    
+    @Test
+    void doesNotCacheMissingBranches() {
+        assertThatThrownBy(() -> branchService.getBranchEntity(999L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> branchService.getBranchEntity(999L)).isInstanceOf(ResourceNotFoundException.class);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(branchService.getCacheStats().getSize()).isZero();
+    }
+    
+    @Test
+    void bulkLookupOnlyLoadsBranchesThatAreNotCached() {
+        BranchResponse other = branchService.create(request("SUC-02", "Norte"));
+        branchService.getBranchEntity(branchId);
+        statistics.clear();
+        
+        Map<Long, Branch> branches = branchService.getBranchEntities(List.of(branchId, other.getId(), 999L));
+        Map<Long, Branch> again = branchService.getBranchEntities(List.of(branchId, other.getId()));
+        
+        assertThat(branches).containsOnlyKeys(branchId, other.getId());
+        assertThat(again).containsOnlyKeys(branchId, other.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    private static BranchRequest request(String code, String name) {
+        BranchRequest request = new BranchRequest();
+        request.setCode(code);
+        request.setName(name);
+        request.setStatus(BranchStatus.ACTIVE);
+        return request;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.entity.Batch;
+import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.Stock;
+import com.example.inventory_service.entity.enums.BatchStatus;
+import com.example.inventory_service.entity.enums.BranchStatus;
+import com.example.inventory_service.repository.BatchRepository;
+import com.example.inventory_service.repository.BranchRepository;
+import com.example.inventory_service.repository.ProcessedEventRepository;
+import com.example.inventory_service.repository.StockMovementRepository;
+import com.example.inventory_service.repository.StockRepository;
+import com.example.inventory_service.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Datos de prueba de los tests de {@link InventoryJpaTest}: sucursales activas, stock y lotes
+ * guardados con valores por defecto válidos, y la limpieza de las tablas para los tests que
+ * confirman sus transacciones.
+ */
+@Component
+@RequiredArgsConstructor
+class InventoryFixtures {
+    
+    private final BranchRepository branchRepository;
+    private final StockRepository stockRepository;
+    private final BatchRepository batchRepository;
+    private final StockMovementRepository movementRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ProcessedEventRepository processedEventRepository;
+    
+    Branch createBranch(String code) {
+        return createBranch(code, "Sucursal " + code);
+    }
+    
+    Branch createBranch(String code, String name) {
+        Branch branch = new Branch();
+        branch.setCode(code);
+        branch.setName(name);
+        branch.setStatus(BranchStatus.ACTIVE);
+        return branchRepository.save(branch);
+    }
+    
+    Stock createStock(Branch branch, long productId, int quantity) {
+        return createStock(branch, productId, quantity, 0);
+    }
+    
+    Stock createStock(Branch branch, long productId, int quantity, int minimum) {
+        Stock stock = new Stock();
+        stock.setBranch(branch);
+        stock.setProductId(productId);
+        stock.setQuantity(quantity);
+        stock.setMinimumStock(minimum);
+        stock.setMaximumStock(100000);
+        return stockRepository.save(stock);
+    }
+    
+    Batch createBatch(Branch branch, long productId, String number, int quantity,
+                      LocalDate expirationDate, BatchStatus status) {
+        return createBatch(branch, productId, number, quantity, null, expirationDate, status);
+    }
+    
+    Batch createBatch(Branch branch, long productId, String number, int quantity, BigDecimal unitCost,
+                      LocalDate expirationDate, BatchStatus status) {
+        Batch batch = new Batch();
+        batch.setBatchNumber(number);
+        batch.setBranch(branch);
+        batch.setProductId(productId);
+        batch.setQuantity(quantity);
+        batch.setUnitCost(unitCost);
+        batch.setExpirationDate(expirationDate);
+        batch.setStatus(status);
+        return batchRepository.save(batch);
+    }
+    
+    /** Borra todo en orden de dependencias; solo hace falta en los tests que confirman transacciones. */
+    void deleteAll() {
+        processedEventRepository.deleteAll();
+        reservationRepository.deleteAll();
+        movementRepository.deleteAll();
+        batchRepository.deleteAll();
+        stockRepository.deleteAll();
+        branchRepository.deleteAll();
+    }
+}
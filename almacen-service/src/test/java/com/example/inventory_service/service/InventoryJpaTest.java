@@ -0,0 +1,36 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.config.BranchCacheConfig;
+import com.example.inventory_service.mapper.BranchMapper;
+import com.example.inventory_service.mapper.StockMapper;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Slice JPA de los tests de servicios contra H2. Cada contexto usa su propia base en memoria y
+ * LOCK_TIMEOUT alto para que los tests concurrentes esperen los bloqueos en vez de fallar. Incluye
+ * los servicios de sucursales y stock, que casi todos necesitan, y {@link InventoryFixtures}; cada
+ * test importa además los servicios que prueba.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-${random.uuid};LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({InventoryFixtures.class, StockService.class, BranchService.class, BranchCacheConfig.class,
+        StockMapper.class, BranchMapper.class})
+@interface InventoryJpaTest {
+}
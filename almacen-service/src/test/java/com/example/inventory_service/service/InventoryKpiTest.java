@@ -0,0 +1,108 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.response.BatchResponse;
+import com.example.inventory_service.dto.response.InventoryKpiResponse;
+import com.example.inventory_service.dto.response.StockResponse;
+import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.enums.BatchStatus;
+import com.example.inventory_service.mapper.BatchMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@InventoryJpaTest
+@Import({BatchService.class, BatchMapper.class})
+class InventoryKpiTest {
+    
+    @Autowired
+    private StockService stockService;
+    
+    @Autowired
+    private BatchService batchService;
+    
+    @Autowired
+    private InventoryFixtures fixtures;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private Branch centro;
+    private Branch norte;
+    
+    @BeforeEach
+    void setUp() {
+        LocalDate today = LocalDate.now();
+        centro = fixtures.createBranch("SUC-01", "Centro");
+        norte = fixtures.createBranch("SUC-02", "Norte");
+        
+        fixtures.createStock(centro, 1L, 2, 5);
+        fixtures.createStock(centro, 2L, 40, 5);
+        fixtures.createStock(centro, 3L, 5, 5);
+        fixtures.createStock(norte, 1L, 0, 10);
+        
+        fixtures.createBatch(centro, 1L, "L-1", 2, new BigDecimal("3.50"), today.plusDays(10), BatchStatus.AVAILABLE);
+        fixtures.createBatch(centro, 2L, "L-2", 30, new BigDecimal("1.00"), today.plusDays(200), BatchStatus.AVAILABLE);
+        fixtures.createBatch(centro, 2L, "L-3", 10, new BigDecimal("1.20"), today.plusDays(20), BatchStatus.AVAILABLE);
+        fixtures.createBatch(centro, 3L, "L-4", 5, null, today.minusDays(1), BatchStatus.AVAILABLE);
+        fixtures.createBatch(centro, 3L, "L-5", 8, new BigDecimal("9.99"), today.plusDays(5), BatchStatus.EXPIRED);
+        fixtures.createBatch(norte, 1L, "L-6", 4, new BigDecimal("3.50"), today.plusDays(400), BatchStatus.RECALLED);
+        
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void aggregatesKpisPerBranch() {
+        List<InventoryKpiResponse> kpis = stockService.getKpis(null, 30);
+        
+        assertThat(kpis).extracting(InventoryKpiResponse::getBranchId).containsExactly(centro.getId(), norte.getId());
+        
+        InventoryKpiResponse first = kpis.get(0);
+        assertThat(first.getBranchName()).isEqualTo("Centro");
+        assertThat(first.getTotalProducts()).isEqualTo(3);
+        assertThat(first.getTotalUnits()).isEqualTo(47);
+        // Product 3 sits exactly at its minimum and counts as low stock
+        assertThat(first.getLowStockProducts()).isEqualTo(2);
+        // Products 1, 2 and 3 each have an available batch expiring within 30 days (3 already expired)
+        assertThat(first.getExpiringSoon()).isEqualTo(3);
+        // 2 * 3.50 + 30 * 1.00 + 10 * 1.20, the batch without cost adds nothing
+        assertThat(first.getInventoryValue()).isEqualByComparingTo("49.00");
+        
+        InventoryKpiResponse second = kpis.get(1);
+        assertThat(second.getTotalProducts()).isEqualTo(1);
+        assertThat(second.getLowStockProducts()).isEqualTo(1);
+        assertThat(second.getExpiringSoon()).isZero();
+        assertThat(second.getInventoryValue()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+    
+    @Test
+    void filtersKpisAndAlertsByBranch() {
+        assertThat(stockService.getKpis(norte.getId(), 30)).singleElement()
+                .extracting(InventoryKpiResponse::getBranchName).isEqualTo("Norte");
+        assertThat(stockService.getKpis(centro.getId(), 7)).singleElement()
+                .extracting(InventoryKpiResponse::getExpiringSoon).isEqualTo(1L);
+        
+        assertThat(stockService.findLowStockAlerts(centro.getId(), false))
+                .extracting(StockResponse::getProductId).containsExactly(1L);
+        assertThat(stockService.findLowStockAlerts(centro.getId(), true))
+                .extracting(StockResponse::getProductId).containsExactly(1L, 3L);
+        assertThat(stockService.findLowStockAlerts(null, false)).hasSize(2);
+    }
+    
+    @Test
+    void listsAvailableBatchesExpiringWithinThirtyDaysByBranch() {
+        assertThat(batchService.findExpiringSoon(centro.getId()))
+                .extracting(BatchResponse::getProductId, BatchResponse::getBranchName)
+                .containsExactly(tuple(1L, "Centro"), tuple(2L, "Centro"));
+        assertThat(batchService.findExpiringSoon(norte.getId())).isEmpty();
+    }
+}
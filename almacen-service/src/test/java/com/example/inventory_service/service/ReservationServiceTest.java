@@ -0,0 +1,270 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.request.ReservationItemRequest;
+import com.example.inventory_service.dto.request.ReservationRequest;
+import com.example.inventory_service.dto.response.ReservationResponse;
+import com.example.inventory_service.entity.Batch;
+import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.StockMovement;
+import com.example.inventory_service.entity.enums.BatchStatus;
+import com.example.inventory_service.entity.enums.MovementType;
+import com.example.inventory_service.entity.enums.ReservationStatus;
+import com.example.inventory_service.exception.InsufficientStockException;
+import com.example.inventory_service.repository.BatchRepository;
+import com.example.inventory_service.repository.StockMovementRepository;
+import com.example.inventory_service.repository.StockRepository;
+import com.example.inventory_service.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@InventoryJpaTest
+@Import({ReservationService.class, BatchAllocationService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationServiceTest {
+    
+    private static final long PRODUCT_A = 100L;
+    private static final long PRODUCT_B = 200L;
+    
+    @Autowired
+    private ReservationService reservationService;
+    
+    @Autowired
+    private StockService stockService;
+    
+    @Autowired
+    private InventoryFixtures fixtures;
+    
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    
+    @Autowired
+    private StockRepository stockRepository;
+    
+    @Autowired
+    private StockMovementRepository movementRepository;
+    
+    @Autowired
+    private BatchRepository batchRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Branch branch;
+    
+    @BeforeEach
+    void setUp() {
+        branch = fixtures.createBranch("SUC-01", "Sucursal Centro");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+    
+    @Test
+    void reservesEveryItemOrNone() {
+        fixtures.createStock(branch, PRODUCT_A, 5);
+        fixtures.createStock(branch, PRODUCT_B, 2);
+        
+        assertThatThrownBy(() -> reservationService.reserve(request("V-1", item(PRODUCT_A, 3), item(PRODUCT_B, 5))))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining(String.valueOf(PRODUCT_B));
+        
+        assertThat(reserved(PRODUCT_A)).isZero();
+        assertThat(reserved(PRODUCT_B)).isZero();
+        assertThat(reservationRepository.count()).isZero();
+    }
+    
+    @Test
+    void reservedUnitsAreNotAvailableToOtherExits() {
+        fixtures.createStock(branch, PRODUCT_A, 5);
+        
+        ReservationResponse reservation = reservationService.reserve(
+                request("V-1", item(PRODUCT_A, 2), item(PRODUCT_A, 2)));
+        
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.RESERVED);
+        assertThat(reservation.getItems()).extracting("productId", "quantity").containsExactly(tuple(PRODUCT_A, 4));
+        assertThat(stockService.checkAvailability(branch.getId(), PRODUCT_A, 2)).isFalse();
+        assertThat(stockService.tryUpdateStockQuantity(branch.getId(), PRODUCT_A, -2)).isFalse();
+        assertThat(stockService.tryUpdateStockQuantity(branch.getId(), PRODUCT_A, -1)).isTrue();
+        assertThatThrownBy(() -> reservationService.reserve(request("V-2", item(PRODUCT_A, 1))))
+                .isInstanceOf(InsufficientStockException.class);
+    }
+    
+    @Test
+    void repeatedReserveReturnsTheExistingReservation() {
+        fixtures.createStock(branch, PRODUCT_A, 5);
+        
+        reservationService.reserve(request("V-1", item(PRODUCT_A, 3)));
+        ReservationResponse again = reservationService.reserve(request("V-1", item(PRODUCT_A, 3)));
+        
+        assertThat(again.getItems()).hasSize(1);
+        assertThat(reserved(PRODUCT_A)).isEqualTo(3);
+    }
+    
+    @Test
+    void concurrentReservesOfTheSameSaleReserveOnce() throws Exception {
+        int threads = 8;
+        fixtures.createStock(branch, PRODUCT_A, 50);
+        fixtures.createStock(branch, PRODUCT_B, 50);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ReservationResponse>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return reservationService.reserve(request("V-1", item(PRODUCT_A, 2), item(PRODUCT_B, 3)));
+                }));
+            }
+            start.countDown();
+            for (Future<ReservationResponse> future : futures) {
+                assertThat(future.get(60, TimeUnit.SECONDS).getItems())
+                        .extracting("productId", "quantity")
+                        .containsExactly(tuple(PRODUCT_A, 2), tuple(PRODUCT_B, 3));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(reserved(PRODUCT_A)).isEqualTo(2);
+        assertThat(reserved(PRODUCT_B)).isEqualTo(3);
+        assertThat(reservationRepository.count()).isEqualTo(2);
+    }
+    
+    @Test
+    void commitDeductsStockRecordsExitAndAllocatesBatchesOnce() {
+        fixtures.createStock(branch, PRODUCT_A, 10);
+        fixtures.createStock(branch, PRODUCT_B, 4);
+        Batch batch = fixtures.createBatch(branch, PRODUCT_A, "L-1", 10,
+                LocalDate.now().plusDays(30), BatchStatus.AVAILABLE);
+        reservationService.reserve(request("V-1", item(PRODUCT_A, 3), item(PRODUCT_B, 1)));
+        
+        ReservationResponse committed = reservationService.commit("V-1");
+        reservationService.commit("V-1");
+        
+        assertThat(committed.getStatus()).isEqualTo(ReservationStatus.COMMITTED);
+        assertThat(quantity(PRODUCT_A)).isEqualTo(7);
+        assertThat(quantity(PRODUCT_B)).isEqualTo(3);
+        assertThat(reserved(PRODUCT_A)).isZero();
+        assertThat(movementRepository.findAll())
+                .extracting(StockMovement::getProductId, StockMovement::getType, StockMovement::getQuantity,
+                        StockMovement::getReference)
+                .containsExactlyInAnyOrder(
+                        tuple(PRODUCT_A, MovementType.EXIT, 3, "V-1"),
+                        tuple(PRODUCT_B, MovementType.EXIT, 1, "V-1"));
+        assertThat(batchRepository.findById(batch.getId()).orElseThrow().getQuantity()).isEqualTo(7);
+    }
+    
+    @Test
+    void releaseReturnsUnitsAndCannotBeCommittedAfterwards() {
+        fixtures.createStock(branch, PRODUCT_A, 5);
+        reservationService.reserve(request("V-1", item(PRODUCT_A, 5)));
+        
+        ReservationResponse released = reservationService.release("V-1");
+        reservationService.commit("V-1");
+        
+        assertThat(released.getStatus()).isEqualTo(ReservationStatus.RELEASED);
+        assertThat(reserved(PRODUCT_A)).isZero();
+        assertThat(quantity(PRODUCT_A)).isEqualTo(5);
+        assertThat(movementRepository.count()).isZero();
+    }
+    
+    @Test
+    void sweeperExpiresOverdueReservationsAndLateCommitUsesAvailableStock() {
+        fixtures.createStock(branch, PRODUCT_A, 5);
+        reservationService.reserve(request("V-1", item(PRODUCT_A, 2)));
+        reservationService.reserve(request("V-2", item(PRODUCT_A, 2)));
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = ? WHERE sale_number = 'V-1'",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+        
+        assertThat(reservationService.expireOverdue()).isEqualTo(1);
+        assertThat(reservationService.expireOverdue()).isZero();
+        assertThat(reserved(PRODUCT_A)).isEqualTo(2);
+        assertThat(reservationService.findBySaleNumber("V-1").getStatus()).isEqualTo(ReservationStatus.EXPIRED);
+        
+        reservationService.commit("V-1");
+        
+        assertThat(quantity(PRODUCT_A)).isEqualTo(3);
+        assertThat(reserved(PRODUCT_A)).isEqualTo(2);
+    }
+    
+    @Test
+    void concurrentCheckoutsNeverReserveMoreThanTheStock() throws Exception {
+        int threads = 16;
+        int salesPerThread = 20;
+        fixtures.createStock(branch, PRODUCT_A, 100);
+        fixtures.createStock(branch, PRODUCT_B, 1000);
+        AtomicInteger rejected = new AtomicInteger();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < salesPerThread; i++) {
+                        try {
+                            reservationService.reserve(request("V-" + thread + "-" + i, item(PRODUCT_B, 1), item(PRODUCT_A, 1)));
+                        } catch (InsufficientStockException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(rejected.get()).isEqualTo(threads * salesPerThread - 100);
+        assertThat(reserved(PRODUCT_A)).isEqualTo(100);
+        assertThat(reserved(PRODUCT_B)).isEqualTo(100);
+        assertThat(reservationRepository.count()).isEqualTo(200);
+    }
+    
+    private int quantity(long productId) {
+        return stockRepository.findByBranchIdAndProductId(branch.getId(), productId).orElseThrow().getQuantity();
+    }
+    
+    private int reserved(long productId) {
+        return stockRepository.findByBranchIdAndProductId(branch.getId(), productId).orElseThrow().getReservedQuantity();
+    }
+    
+    private ReservationRequest request(String saleNumber, ReservationItemRequest... items) {
+        return new ReservationRequest(saleNumber, branch.getId(), null, List.of(items));
+    }
+    
+    private static ReservationItemRequest item(long productId, int quantity) {
+        return new ReservationItemRequest(productId, quantity);
+    }
+}
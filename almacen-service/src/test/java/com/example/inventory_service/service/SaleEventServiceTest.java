@@ -0,0 +1,159 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.request.ReservationItemRequest;
+import com.example.inventory_service.dto.request.ReservationRequest;
+import com.example.inventory_service.dto.request.SaleEventRequest;
+import com.example.inventory_service.dto.response.SaleEventResult;
+import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.Stock;
+import com.example.inventory_service.entity.StockMovement;
+import com.example.inventory_service.entity.enums.SaleEventStatus;
+import com.example.inventory_service.entity.enums.SaleEventType;
+import com.example.inventory_service.repository.ProcessedEventRepository;
+import com.example.inventory_service.repository.StockMovementRepository;
+import com.example.inventory_service.repository.StockRepository;
+import com.example.inventory_service.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mockingDetails;
+
+@InventoryJpaTest
+@Import({SaleEventService.class, ReservationService.class, BatchAllocationService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SaleEventServiceTest {
+    
+    private static final long PRODUCT_ID = 100L;
+    
+    @Autowired
+    private SaleEventService saleEventService;
+    
+    @Autowired
+    private ReservationService reservationService;
+    
+    @Autowired
+    private InventoryFixtures fixtures;
+    
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+    
+    @SpyBean
+    private StockReservationRepository reservationRepository;
+    
+    @Autowired
+    private StockRepository stockRepository;
+    
+    @Autowired
+    private StockMovementRepository movementRepository;
+    
+    private Branch branch;
+    
+    @BeforeEach
+    void setUp() {
+        branch = fixtures.createBranch("SUC-01", "Sucursal Centro");
+        fixtures.createStock(branch, PRODUCT_ID, 10);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+    
+    @Test
+    void completedEventCommitsReservationOnceEvenWhenRedelivered() {
+        reservationService.reserve(new ReservationRequest("V-1", branch.getId(), null, List.of(item(4))));
+        SaleEventRequest completed = event("completed:V-1", SaleEventType.COMPLETED, "V-1", 4);
+        
+        List<SaleEventResult> first = saleEventService.apply(List.of(completed, completed));
+        List<SaleEventResult> redelivered = saleEventService.apply(List.of(completed));
+        
+        assertThat(first).extracting(SaleEventResult::getStatus)
+                .containsExactly(SaleEventStatus.APPLIED, SaleEventStatus.DUPLICATE);
+        assertThat(redelivered).extracting(SaleEventResult::getStatus).containsExactly(SaleEventStatus.DUPLICATE);
+        assertThat(stock().getQuantity()).isEqualTo(6);
+        assertThat(stock().getReservedQuantity()).isZero();
+        assertThat(movementRepository.findAll()).extracting(StockMovement::getQuantity, StockMovement::getReference)
+                .containsExactly(tuple(4, "V-1"));
+    }
+    
+    @Test
+    void completedSaleWithoutReservationIsDeductedFromItsItems() {
+        List<SaleEventResult> results = saleEventService.apply(List.of(
+                event("completed:V-2", SaleEventType.COMPLETED, "V-2", 3)));
+        
+        assertThat(results).extracting(SaleEventResult::getStatus).containsExactly(SaleEventStatus.APPLIED);
+        assertThat(stock().getQuantity()).isEqualTo(7);
+        assertThat(movementRepository.count()).isEqualTo(1);
+    }
+    
+    @Test
+    void rejectedEventDoesNotAffectTheRestOfTheBatchAndCanBeRetried() {
+        List<SaleEventResult> results = saleEventService.apply(List.of(
+                event("completed:V-3", SaleEventType.COMPLETED, "V-3", 50),
+                event("completed:V-4", SaleEventType.COMPLETED, "V-4", 2),
+                event(" ", SaleEventType.COMPLETED, "V-5", 1)));
+        
+        assertThat(results).extracting(SaleEventResult::getStatus)
+                .containsExactly(SaleEventStatus.REJECTED, SaleEventStatus.APPLIED, SaleEventStatus.REJECTED);
+        assertThat(results.get(0).getMessage()).contains("Stock insuficiente");
+        assertThat(stock().getQuantity()).isEqualTo(8);
+        assertThat(processedEventRepository.existsById("completed:V-3")).isFalse();
+        assertThat(reservationRepository.existsBySaleNumber("V-3")).isFalse();
+    }
+    
+    @Test
+    void reservationConflictIsRetriedInsteadOfAcknowledgedAsDuplicate() {
+        reservationService.reserve(new ReservationRequest("V-8", branch.getId(), null, List.of(item(4))));
+        // Carrera con la reserva de checkout: el evento no ve la reserva y su INSERT choca con el índice único
+        Answer<?> repository = mockingDetails(reservationRepository).getMockCreationSettings().getDefaultAnswer();
+        doReturn(false).doAnswer(repository).when(reservationRepository).existsBySaleNumber("V-8");
+        doReturn(List.of()).doAnswer(repository).when(reservationRepository).findBySaleNumberOrderByProductId("V-8");
+        
+        List<SaleEventResult> results = saleEventService.apply(List.of(
+                event("completed:V-8", SaleEventType.COMPLETED, "V-8", 4)));
+        
+        assertThat(results).extracting(SaleEventResult::getStatus).containsExactly(SaleEventStatus.APPLIED);
+        assertThat(processedEventRepository.existsById("completed:V-8")).isTrue();
+        assertThat(stock().getQuantity()).isEqualTo(6);
+        assertThat(stock().getReservedQuantity()).isZero();
+        assertThat(movementRepository.count()).isEqualTo(1);
+    }
+    
+    @Test
+    void cancelledEventReleasesReservation() {
+        reservationService.reserve(new ReservationRequest("V-6", branch.getId(), null, List.of(item(5))));
+        
+        List<SaleEventResult> results = saleEventService.apply(List.of(
+                event("cancelled:V-6", SaleEventType.CANCELLED, "V-6", 5),
+                event("cancelled:V-7", SaleEventType.CANCELLED, "V-7", 1)));
+        
+        assertThat(results).extracting(SaleEventResult::getStatus)
+                .containsExactly(SaleEventStatus.APPLIED, SaleEventStatus.APPLIED);
+        assertThat(stock().getReservedQuantity()).isZero();
+        assertThat(stock().getQuantity()).isEqualTo(10);
+    }
+    
+    private Stock stock() {
+        return stockRepository.findByBranchIdAndProductId(branch.getId(), PRODUCT_ID).orElseThrow();
+    }
+    
+    private SaleEventRequest event(String key, SaleEventType type, String saleNumber, int quantity) {
+        return new SaleEventRequest(key, type, saleNumber, branch.getId(), List.of(item(quantity)));
+    }
+    
+    private static ReservationItemRequest item(int quantity) {
+        return new ReservationItemRequest(PRODUCT_ID, quantity);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.request.StockMovementRequest;
+import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.enums.MovementType;
+import com.example.inventory_service.exception.InsufficientStockException;
+import com.example.inventory_service.mapper.StockMovementMapper;
+import com.example.inventory_service.repository.StockMovementBatchRepository;
+import com.example.inventory_service.repository.StockMovementRepository;
+import com.example.inventory_service.repository.StockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@InventoryJpaTest
+@Import({StockMovementService.class, BatchAllocationService.class, StockMovementBatchRepository.class,
+        StockMovementMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockConcurrencyTest {
+    
+    private static final long PRODUCT_ID = 100L;
+    private static final int THREADS = 16;
+    private static final int MOVEMENTS_PER_THREAD = 50;
+    
+    @Autowired
+    private StockMovementService movementService;
+    
+    @Autowired
+    private InventoryFixtures fixtures;
+    
+    @Autowired
+    private StockRepository stockRepository;
+    
+    @Autowired
+    private StockMovementRepository movementRepository;
+    
+    private Branch branch;
+    
+    @BeforeEach
+    void setUp() {
+        branch = fixtures.createBranch("SUC-TEST", "Sucursal de prueba");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+    
+    @Test
+    void concurrentExitsNeverDriveStockNegative() throws Exception {
+        int initialQuantity = 300;
+        fixtures.createStock(branch, PRODUCT_ID, initialQuantity);
+        AtomicInteger rejected = new AtomicInteger();
+        
+        runConcurrently(() -> {
+            try {
+                movementService.create(movement(MovementType.EXIT));
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+        
+        int attempts = THREADS * MOVEMENTS_PER_THREAD;
+        assertThat(currentQuantity()).isZero();
+        assertThat(rejected.get()).isEqualTo(attempts - initialQuantity);
+        assertThat(movementRepository.count()).isEqualTo(initialQuantity);
+    }
+    
+    @Test
+    void concurrentEntriesAndExitsDoNotLoseUpdates() throws Exception {
+        int initialQuantity = 1000;
+        fixtures.createStock(branch, PRODUCT_ID, initialQuantity);
+        AtomicInteger turn = new AtomicInteger();
+        
+        runConcurrently(() -> movementService.create(
+                movement(turn.getAndIncrement() % 2 == 0 ? MovementType.ENTRY : MovementType.EXIT)));
+        
+        // Mismo número de entradas y salidas, y nunca falta stock: la cantidad vuelve al valor inicial
+        assertThat(currentQuantity()).isEqualTo(initialQuantity);
+        assertThat(movementRepository.count()).isEqualTo((long) THREADS * MOVEMENTS_PER_THREAD);
+    }
+    
+    private int currentQuantity() {
+        return stockRepository.findByBranchIdAndProductId(branch.getId(), PRODUCT_ID)
+                .orElseThrow()
+                .getQuantity();
+    }
+    
+    private StockMovementRequest movement(MovementType type) {
+        StockMovementRequest request = new StockMovementRequest();
+        request.setBranchId(branch.getId());
+        request.setProductId(PRODUCT_ID);
+        request.setType(type);
+        request.setQuantity(1);
+        return request;
+    }
+    
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < MOVEMENTS_PER_THREAD; i++) {
+                        task.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
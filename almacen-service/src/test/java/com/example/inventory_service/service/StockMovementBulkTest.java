@@ -0,0 +1,121 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.request.StockMovementRequest;
+import com.example.inventory_service.dto.response.BulkMovementItemResult;
+import com.example.inventory_service.dto.response.BulkMovementResponse;
+import com.example.inventory_service.entity.Branch;
+import com.example.inventory_service.entity.Stock;
+import com.example.inventory_service.entity.enums.MovementType;
+import com.example.inventory_service.mapper.StockMovementMapper;
+import com.example.inventory_service.repository.StockMovementBatchRepository;
+import com.example.inventory_service.repository.StockMovementRepository;
+import com.example.inventory_service.repository.StockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@InventoryJpaTest
+@Import({StockMovementService.class, BatchAllocationService.class, StockMovementBatchRepository.class,
+        StockMovementMapper.class})
+class StockMovementBulkTest {
+    
+    @Autowired
+    private StockMovementService movementService;
+    
+    @Autowired
+    private InventoryFixtures fixtures;
+    
+    @Autowired
+    private StockRepository stockRepository;
+    
+    @Autowired
+    private StockMovementRepository movementRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private Branch warehouse;
+    private Branch store;
+    
+    @BeforeEach
+    void setUp() {
+        warehouse = fixtures.createBranch("BOD-01");
+        store = fixtures.createBranch("SUC-01");
+    }
+    
+    @Test
+    void receivesLargeInvoiceInOneCall() {
+        List<StockMovementRequest> invoice = new ArrayList<>();
+        for (long productId = 1; productId <= 500; productId++) {
+            fixtures.createStock(warehouse, productId, 0);
+            invoice.add(movement(warehouse, productId, MovementType.ENTRY, 10));
+        }
+        
+        BulkMovementResponse response = movementService.createBulk(invoice);
+        entityManager.clear();
+        
+        assertThat(response.getTotal()).isEqualTo(500);
+        assertThat(response.getAccepted()).isEqualTo(500);
+        assertThat(response.getResults()).allMatch(BulkMovementItemResult::isSuccess);
+        assertThat(response.getResults()).allMatch(result -> result.getMovement().getId() != null);
+        assertThat(movementRepository.count()).isEqualTo(500);
+        assertThat(stockRepository.findByBranchId(warehouse.getId()))
+                .allMatch(stock -> stock.getQuantity() == 10);
+    }
+    
+    @Test
+    void rejectsInvalidItemsIndividually() {
+        fixtures.createStock(warehouse, 1L, 5);
+        fixtures.createStock(store, 1L, 0);
+        
+        List<StockMovementRequest> requests = List.of(
+                movement(warehouse, 1L, MovementType.EXIT, 3),
+                movement(warehouse, 1L, MovementType.EXIT, 3),
+                transfer(warehouse, store, 1L, 2),
+                movement(warehouse, 2L, MovementType.ENTRY, 1),
+                movement(warehouse, 1L, MovementType.EXIT, 0));
+        
+        BulkMovementResponse response = movementService.createBulk(requests);
+        entityManager.clear();
+        
+        List<BulkMovementItemResult> results = response.getResults();
+        assertThat(results).extracting(BulkMovementItemResult::isSuccess)
+                .containsExactly(true, false, true, false, false);
+        assertThat(results.get(1).getMessage()).startsWith("Stock insuficiente");
+        assertThat(results.get(3).getMessage()).startsWith("Stock no encontrado");
+        assertThat(results.get(4).getMessage()).isEqualTo("La cantidad debe ser mayor a cero");
+        assertThat(results.get(2).getMovement().getDestinationBranchId()).isEqualTo(store.getId());
+        
+        assertThat(quantity(warehouse, 1L)).isZero();
+        assertThat(quantity(store, 1L)).isEqualTo(2);
+        assertThat(movementRepository.count()).isEqualTo(2);
+    }
+    
+    private int quantity(Branch branch, Long productId) {
+        return stockRepository.findByBranchIdAndProductId(branch.getId(), productId)
+                .map(Stock::getQuantity)
+                .orElseThrow();
+    }
+    
+    private StockMovementRequest movement(Branch branch, Long productId, MovementType type, int quantity) {
+        StockMovementRequest request = new StockMovementRequest();
+        request.setBranchId(branch.getId());
+        request.setProductId(productId);
+        request.setType(type);
+        request.setQuantity(quantity);
+        return request;
+    }
+    
+    private StockMovementRequest transfer(Branch origin, Branch destination, Long productId, int quantity) {
+        StockMovementRequest request = movement(origin, productId, MovementType.TRANSFER, quantity);
+        request.setDestinationBranchId(destination.getId());
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.inventory_service.service;
+
+import com.example.inventory_service.dto.response.StockPageResponse;
+import com.example.inventory_service.dto.response.StockResponse;
+import com.example.inventory_service.entity.Branch;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@InventoryJpaTest
+class StockPagingTest {
+    
+    @Autowired
+    private StockService stockService;
+    
+    @Autowired
+    private InventoryFixtures fixtures;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Branch centro;
+    private Branch norte;
+    
+    @BeforeEach
+    void setUp() {
+        centro = fixtures.createBranch("SUC-01", "Centro");
+        norte = fixtures.createBranch("SUC-02", "Norte");
+        for (long productId = 1; productId <= 25; productId++) {
+            fixtures.createStock(productId % 2 == 0 ? norte : centro, productId, (int) productId, 5);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void walksAllPagesWithOneQueryEach() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        List<StockResponse> seen = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            StockPageResponse page = stockService.findPage(cursor, null, 10);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+            assertThat(page.isHasMore()).isEqualTo(cursor != null);
+        } while (cursor != null);
+        
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(25);
+        assertThat(seen).extracting(StockResponse::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        
+        StockResponse second = seen.stream().filter(stock -> stock.getProductId() == 2L).findFirst().orElseThrow();
+        assertThat(second.getBranchId()).isEqualTo(norte.getId());
+        assertThat(second.getBranchName()).isEqualTo("Norte");
+        assertThat(second.getBelowMinimum()).isTrue();
+    }
+    
+    @Test
+    void filtersPageByBranch() {
+        StockPageResponse page = stockService.findPage(null, centro.getId(), 100);
+        
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getItems()).hasSize(13)
+                .allMatch(stock -> stock.getBranchName().equals("Centro"));
+    }
+    
+    @Test
+    void streamsEveryRow() {
+        List<StockResponse> streamed = new ArrayList<>();
+        stockService.streamAll(streamed::add);
+        
+        assertThat(streamed).hasSize(25);
+        assertThat(streamed).extracting(StockResponse::getId).isSorted();
+    }
+}
@@ -7,19 +7,38 @@ import {
   UpdateProductRequest,
   CreateCategoryRequest,
   CreateLaboratoryRequest,
+  PaginatedResponse,
 } from '../types';
 
 export const catalogService = {
   // Products
-  getAllProducts: async (): Promise<Product[]> => {
+  getProducts: async (
+    filters: { categoryId?: number; laboratoryId?: number; status?: string } = {},
+    page = 0,
+    size = 20
+  ): Promise<PaginatedResponse<Product>> => {
     try {
-      const response = await catalogApi.get('/products');
+      const response = await catalogApi.get('/products', { params: { ...filters, page, size } });
       return response.data.data || response.data;
     } catch (error) {
       throw new Error(handleApiError(error));
     }
   },
 
+  // Recorre todas las páginas del listado
+  getAllProducts: async (): Promise<Product[]> => {
+    const products: Product[] = [];
+    let page = 0;
+    let totalPages = 1;
+    while (page < totalPages) {
+      const result = await catalogService.getProducts({}, page, 500);
+      products.push(...result.content);
+      totalPages = result.totalPages;
+      page++;
+    }
+    return products;
+  },
+
   getProductById: async (id: number): Promise<Product> => {
     try {
       const response = await catalogApi.get(`/products/${id}`);
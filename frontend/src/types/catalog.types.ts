@@ -30,6 +30,7 @@ export interface Category {
   parentCategory?: any;
   isActive: boolean;
   createdAt?: string;
+  updatedAt?: string;
 }
 
 export interface Laboratory {
@@ -41,6 +42,7 @@ export interface Laboratory {
   website?: string;
   isActive: boolean;
   createdAt?: string;
+  updatedAt?: string;
 }
 
 export interface CreateProductRequest {
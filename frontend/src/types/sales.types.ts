@@ -111,7 +111,10 @@ export interface Prescription {
   doctorSpecialty: string;
   issueDate: string;
   expirationDate: string;
-  scannedDocument?: string;
+  // El documento se descarga aparte desde /prescriptions/{id}/scan
+  scanContentType?: string;
+  scanSize?: number;
+  scanUploadedAt?: string;
   diagnosis: string;
   notes?: string;
   status: PrescriptionStatus;
@@ -0,0 +1,55 @@
+package com.example.catalog_service.controller;
+
+import com.example.catalog_service.dto.response.ApiResponse;
+import com.example.catalog_service.dto.response.CatalogChangesResponse;
+import com.example.catalog_service.dto.response.CategoryResponse;
+import com.example.catalog_service.dto.response.LaboratoryResponse;
+import com.example.catalog_service.dto.response.ProductResponse;
+import com.example.catalog_service.service.CatalogSyncService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Feed de sincronización para terminales con copia local del catálogo. La primera descarga se hace
+ * sin cursor; después cada terminal envía el último cursor recibido y obtiene solo los cambios.
+ */
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+@Slf4j
+public class CatalogSyncController {
+    
+    private final CatalogSyncService catalogSyncService;
+    
+    public CatalogSyncController(CatalogSyncService catalogSyncService) {
+        this.catalogSyncService = catalogSyncService;
+    }
+    
+    @GetMapping("/products")
+    public ResponseEntity<ApiResponse<CatalogChangesResponse<ProductResponse>>> productChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("Solicitud de cambios de productos");
+        CatalogChangesResponse<ProductResponse> changes = catalogSyncService.productChanges(cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Cambios de productos obtenidos exitosamente", changes));
+    }
+    
+    @GetMapping("/categories")
+    public ResponseEntity<ApiResponse<CatalogChangesResponse<CategoryResponse>>> categoryChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("Solicitud de cambios de categorías");
+        CatalogChangesResponse<CategoryResponse> changes = catalogSyncService.categoryChanges(cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Cambios de categorías obtenidos exitosamente", changes));
+    }
+    
+    @GetMapping("/laboratories")
+    public ResponseEntity<ApiResponse<CatalogChangesResponse<LaboratoryResponse>>> laboratoryChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("Solicitud de cambios de laboratorios");
+        CatalogChangesResponse<LaboratoryResponse> changes = catalogSyncService.laboratoryChanges(cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Cambios de laboratorios obtenidos exitosamente", changes));
+    }
+}
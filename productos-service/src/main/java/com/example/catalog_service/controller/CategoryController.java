@@ -1,5 +1,6 @@
 package com.example.catalog_service.controller;
 
+import com.example.catalog_service.dto.CatalogVersion;
 import com.example.catalog_service.dto.request.CategoryRequest;
 import com.example.catalog_service.dto.response.ApiResponse;
 import com.example.catalog_service.dto.response.CategoryResponse;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -33,17 +35,19 @@ public class CategoryController {
     }
     
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CategoryResponse>>> findAll() {
+    public ResponseEntity<ApiResponse<List<CategoryResponse>>> findAll(WebRequest request) {
         log.info("Solicitud para obtener todas las categorías");
-        List<CategoryResponse> responses = categoryService.findAll();
-        return ResponseEntity.ok(ApiResponse.success("Categorías obtenidas exitosamente", responses));
+        return ConditionalResponses.ok(request, categoryService.listVersion(),
+                () -> ApiResponse.success("Categorías obtenidas exitosamente", categoryService.findAll()));
     }
     
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<CategoryResponse>> findById(@PathVariable Long id) {
         log.info("Solicitud para obtener categoría con ID: {}", id);
         CategoryResponse response = categoryService.findById(id);
-        return ResponseEntity.ok(ApiResponse.success("Categoría obtenida exitosamente", response));
+        CatalogVersion version = CatalogVersion.of(response.getId(), response.getUpdatedAt(),
+                response.getParentCategory() != null ? response.getParentCategory().getUpdatedAt() : null);
+        return ConditionalResponses.ok(version, ApiResponse.success("Categoría obtenida exitosamente", response));
     }
     
     @GetMapping("/code/{code}")
@@ -0,0 +1,64 @@
+package com.example.catalog_service.controller;
+
+import com.example.catalog_service.dto.CatalogVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.ZoneId;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas con ETag y Last-Modified para las consultas del catálogo. Con Cache-Control: no-cache
+ * el cliente guarda la respuesta pero la revalida en cada carga; si no cambió recibe un 304 sin
+ * cuerpo. Spring ya responde 304 sin serializar cuando el ETag de un ResponseEntity coincide.
+ */
+final class ConditionalResponses {
+    
+    private ConditionalResponses() {
+    }
+    
+    static <T> ResponseEntity<T> ok(CatalogVersion version, T body) {
+        return headers(ResponseEntity.ok(), version).body(body);
+    }
+    
+    /**
+     * Para los listados: la versión se compara antes de armar el cuerpo, así un 304 no lee el
+     * catálogo de la base de datos.
+     */
+    static <T> ResponseEntity<T> ok(WebRequest request, CatalogVersion version, Supplier<T> body) {
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), version.getETag())) {
+            return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+        }
+        return ok(version, body.get());
+    }
+    
+    private static <B extends ResponseEntity.HeadersBuilder<B>> B headers(B builder, CatalogVersion version) {
+        builder.eTag(version.getETag()).cacheControl(CacheControl.noCache());
+        if (version.getLastModified() != null) {
+            builder.lastModified(version.getLastModified().atZone(ZoneId.systemDefault()));
+        }
+        return builder;
+    }
+    
+    // If-None-Match usa comparación débil y puede traer varios ETag o "*"
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = opaque(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = opaque(candidate.trim());
+            if (value.equals("*") || value.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String opaque(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
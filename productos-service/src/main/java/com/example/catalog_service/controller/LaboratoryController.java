@@ -1,5 +1,6 @@
 package com.example.catalog_service.controller;
 
+import com.example.catalog_service.dto.CatalogVersion;
 import com.example.catalog_service.dto.request.LaboratoryRequest;
 import com.example.catalog_service.dto.response.ApiResponse;
 import com.example.catalog_service.dto.response.LaboratoryResponse;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -33,17 +35,18 @@ public class LaboratoryController {
     }
     
     @GetMapping
-    public ResponseEntity<ApiResponse<List<LaboratoryResponse>>> findAll() {
+    public ResponseEntity<ApiResponse<List<LaboratoryResponse>>> findAll(WebRequest request) {
         log.info("Solicitud para obtener todos los laboratorios");
-        List<LaboratoryResponse> responses = laboratoryService.findAll();
-        return ResponseEntity.ok(ApiResponse.success("Laboratorios obtenidos exitosamente", responses));
+        return ConditionalResponses.ok(request, laboratoryService.listVersion(),
+                () -> ApiResponse.success("Laboratorios obtenidos exitosamente", laboratoryService.findAll()));
     }
     
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<LaboratoryResponse>> findById(@PathVariable Long id) {
         log.info("Solicitud para obtener laboratorio con ID: {}", id);
         LaboratoryResponse response = laboratoryService.findById(id);
-        return ResponseEntity.ok(ApiResponse.success("Laboratorio obtenido exitosamente", response));
+        CatalogVersion version = CatalogVersion.of(response.getId(), response.getUpdatedAt());
+        return ConditionalResponses.ok(version, ApiResponse.success("Laboratorio obtenido exitosamente", response));
     }
     
     @GetMapping("/name/{name}")
@@ -1,14 +1,21 @@
 package com.example.catalog_service.controller;
 
+import com.example.catalog_service.dto.CatalogVersion;
 import com.example.catalog_service.dto.request.ProductRequest;
 import com.example.catalog_service.dto.response.ApiResponse;
+import com.example.catalog_service.dto.response.CategoryResponse;
 import com.example.catalog_service.dto.response.ProductResponse;
+import com.example.catalog_service.entity.enums.ProductStatus;
 import com.example.catalog_service.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -33,9 +40,22 @@ public class ProductController {
     }
     
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> findAll() {
-        log.info("Solicitud para obtener todos los productos");
-        List<ProductResponse> responses = productService.findAll();
+    public ResponseEntity<ApiResponse<Page<ProductResponse>>> findAll(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long laboratoryId,
+            @RequestParam(required = false) ProductStatus status,
+            @PageableDefault(size = 20, sort = "name") Pageable pageable,
+            WebRequest request) {
+        log.info("Solicitud para obtener productos");
+        return ConditionalResponses.ok(request, productService.listVersion(), () -> ApiResponse.success(
+                "Productos obtenidos exitosamente",
+                productService.findAll(categoryId, laboratoryId, status, pageable)));
+    }
+    
+    @GetMapping("/batch")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> findByIds(@RequestParam List<Long> ids) {
+        log.info("Solicitud para obtener {} productos en lote", ids.size());
+        List<ProductResponse> responses = productService.findByIds(ids);
         return ResponseEntity.ok(ApiResponse.success("Productos obtenidos exitosamente", responses));
     }
     
@@ -43,7 +63,7 @@ public class ProductController {
     public ResponseEntity<ApiResponse<ProductResponse>> findById(@PathVariable Long id) {
         log.info("Solicitud para obtener producto con ID: {}", id);
         ProductResponse response = productService.findById(id);
-        return ResponseEntity.ok(ApiResponse.success("Producto obtenido exitosamente", response));
+        return ConditionalResponses.ok(versionOf(response), ApiResponse.success("Producto obtenido exitosamente", response));
     }
     
     @GetMapping("/code/{code}")
@@ -53,10 +73,19 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success("Producto obtenido exitosamente", response));
     }
     
+    @GetMapping("/barcode/{barcode}")
+    public ResponseEntity<ApiResponse<ProductResponse>> findByBarcode(@PathVariable String barcode) {
+        log.debug("Solicitud para obtener producto con código de barras: {}", barcode);
+        ProductResponse response = productService.findByBarcode(barcode);
+        return ResponseEntity.ok(ApiResponse.success("Producto obtenido exitosamente", response));
+    }
+    
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> search(@RequestParam String keyword) {
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> search(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "20") int limit) {
         log.info("Solicitud para buscar productos con palabra clave: {}", keyword);
-        List<ProductResponse> responses = productService.search(keyword);
+        List<ProductResponse> responses = productService.search(keyword, limit);
         return ResponseEntity.ok(ApiResponse.success("Búsqueda realizada exitosamente", responses));
     }
     
@@ -75,4 +104,14 @@ public class ProductController {
         productService.delete(id);
         return ResponseEntity.ok(ApiResponse.success("Producto eliminado exitosamente", null));
     }
+    
+    // El producto lleva embebidos su categoría, la categoría padre y el laboratorio
+    private static CatalogVersion versionOf(ProductResponse product) {
+        CategoryResponse category = product.getCategory();
+        CategoryResponse parent = category != null ? category.getParentCategory() : null;
+        return CatalogVersion.of(product.getId(), product.getUpdatedAt(),
+                category != null ? category.getUpdatedAt() : null,
+                parent != null ? parent.getUpdatedAt() : null,
+                product.getLaboratory() != null ? product.getLaboratory().getUpdatedAt() : null);
+    }
 }
@@ -0,0 +1,63 @@
+package com.example.catalog_service.dto;
+
+import lombok.Getter;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Versión de un recurso del catálogo para las consultas condicionales (ETag / Last-Modified).
+ * Para un listado es el número de filas más la última modificación de cada tabla que incluye, así
+ * que cambia al crear, editar o eliminar; para un registro, su ID y las fechas de lo que incluye.
+ * El ETag es débil (W/): Tomcat no comprime con gzip una respuesta con ETag fuerte, y la versión
+ * comprimida y la plana son la misma representación para el cliente.
+ */
+@Getter
+public class CatalogVersion {
+    
+    private final String eTag;
+    private final LocalDateTime lastModified;
+    
+    /**
+     * Conteo y última modificación de una tabla, desde las consultas JPQL.
+     */
+    public CatalogVersion(Long count, LocalDateTime lastModified) {
+        this(count + "@" + lastModified, lastModified);
+    }
+    
+    private CatalogVersion(String stamp, LocalDateTime lastModified) {
+        this.eTag = "W/\"" + DigestUtils.md5DigestAsHex(stamp.getBytes(StandardCharsets.UTF_8)) + "\"";
+        this.lastModified = lastModified;
+    }
+    
+    /**
+     * Versión de un listado que combina varias tablas: cambia si cambia cualquiera de ellas.
+     */
+    public static CatalogVersion combine(CatalogVersion... versions) {
+        StringJoiner stamp = new StringJoiner("|");
+        Arrays.stream(versions).forEach(version -> stamp.add(version.eTag));
+        return new CatalogVersion(stamp.toString(), latest(Arrays.stream(versions)
+                .map(CatalogVersion::getLastModified).toArray(LocalDateTime[]::new)));
+    }
+    
+    /**
+     * Versión de un registro a partir de su ID y las fechas de modificación de todo lo que incluye.
+     */
+    public static CatalogVersion of(Long id, LocalDateTime... timestamps) {
+        StringJoiner stamp = new StringJoiner("|", id + ":", "");
+        Arrays.stream(timestamps).forEach(timestamp -> stamp.add(String.valueOf(timestamp)));
+        return new CatalogVersion(stamp.toString(), latest(timestamps));
+    }
+    
+    private static LocalDateTime latest(LocalDateTime... timestamps) {
+        return Arrays.stream(timestamps)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+}
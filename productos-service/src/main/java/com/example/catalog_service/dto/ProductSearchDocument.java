@@ -0,0 +1,20 @@
+package com.example.catalog_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Campos de un producto que alimentan el índice de búsqueda.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchDocument {
+    private Long id;
+    private String code;
+    private String barcode;
+    private String name;
+    private String genericName;
+    private String activeIngredient;
+}
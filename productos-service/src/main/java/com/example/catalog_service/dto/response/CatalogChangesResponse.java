@@ -0,0 +1,21 @@
+package com.example.catalog_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del feed de sincronización: registros creados o modificados, IDs eliminados y el cursor
+ * para pedir la siguiente página. Con hasMore en false la copia local quedó al día.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangesResponse<T> {
+    private List<T> changed;
+    private List<Long> deleted;
+    private String cursor;
+    private boolean hasMore;
+}
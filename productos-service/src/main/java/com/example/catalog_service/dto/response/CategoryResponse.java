@@ -17,4 +17,5 @@ public class CategoryResponse {
     private CategoryResponse parentCategory;
     private Boolean isActive;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 }
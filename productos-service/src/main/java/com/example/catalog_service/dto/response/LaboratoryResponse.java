@@ -18,4 +18,5 @@ public class LaboratoryResponse {
     private String website;
     private Boolean isActive;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,43 @@
+package com.example.catalog_service.entity;
+
+import com.example.catalog_service.entity.enums.CatalogResource;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de un producto, categoría o laboratorio eliminado, para que el feed de sincronización
+ * avise a los terminales que deben borrarlo de su copia local.
+ */
+@Entity
+@Table(name = "catalog_tombstones",
+       indexes = @Index(name = "idx_catalog_tombstones_resource_deleted_at", columnList = "resource, deleted_at, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CatalogResource resource;
+    
+    @Column(nullable = false)
+    private Long resourceId;
+    
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    
+    public CatalogTombstone(CatalogResource resource, Long resourceId) {
+        this.resource = resource;
+        this.resourceId = resourceId;
+    }
+}
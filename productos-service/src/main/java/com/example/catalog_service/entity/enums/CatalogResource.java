@@ -0,0 +1,7 @@
+package com.example.catalog_service.entity.enums;
+
+public enum CatalogResource {
+    PRODUCT,
+    CATEGORY,
+    LABORATORY
+}
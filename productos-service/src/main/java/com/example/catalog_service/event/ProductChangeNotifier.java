@@ -0,0 +1,49 @@
+package com.example.catalog_service.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * Reenvía los cambios de productos a los servicios que mantienen copias locales
+ * del catálogo (por ejemplo, la caché de productos de sales-service).
+ */
+@Component
+@Slf4j
+public class ProductChangeNotifier {
+    
+    private final RestClient restClient;
+    private final List<String> listenerUrls;
+    
+    public ProductChangeNotifier(RestClient.Builder restClientBuilder,
+                                 @Value("${catalog.change-listeners:}") List<String> listenerUrls) {
+        this.restClient = restClientBuilder.build();
+        this.listenerUrls = listenerUrls;
+    }
+    
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        for (String url : listenerUrls) {
+            try {
+                restClient.post()
+                        .uri(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(event)
+                        .retrieve()
+                        .toBodilessEntity();
+                log.debug("Cambio del producto {} ({}) notificado a {}", event.getProductId(), event.getType(), url);
+            } catch (Exception e) {
+                log.warn("No se pudo notificar el cambio del producto {} a {}: {}", 
+                        event.getProductId(), url, e.getMessage());
+            }
+        }
+    }
+}
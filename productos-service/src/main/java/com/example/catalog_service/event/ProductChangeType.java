@@ -0,0 +1,7 @@
+package com.example.catalog_service.event;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
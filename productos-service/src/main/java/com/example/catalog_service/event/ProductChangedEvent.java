@@ -0,0 +1,17 @@
+package com.example.catalog_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento publicado cuando un producto se crea, actualiza o elimina.
+ * Se notifica a los suscriptores solo después del commit de la transacción.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private Long productId;
+    private ProductChangeType type;
+}
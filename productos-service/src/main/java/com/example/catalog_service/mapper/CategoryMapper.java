@@ -33,6 +33,7 @@ public class CategoryMapper {
         response.setDescription(category.getDescription());
         response.setIsActive(category.getIsActive());
         response.setCreatedAt(category.getCreatedAt());
+        response.setUpdatedAt(category.getUpdatedAt());
         
         // Mapear categoría padre si existe
         if (category.getParentCategory() != null) {
@@ -43,6 +44,7 @@ public class CategoryMapper {
             parentResponse.setDescription(category.getParentCategory().getDescription());
             parentResponse.setIsActive(category.getParentCategory().getIsActive());
             parentResponse.setCreatedAt(category.getParentCategory().getCreatedAt());
+            parentResponse.setUpdatedAt(category.getParentCategory().getUpdatedAt());
             response.setParentCategory(parentResponse);
         }
         
@@ -37,6 +37,7 @@ public class LaboratoryMapper {
         response.setWebsite(laboratory.getWebsite());
         response.setIsActive(laboratory.getIsActive());
         response.setCreatedAt(laboratory.getCreatedAt());
+        response.setUpdatedAt(laboratory.getUpdatedAt());
         return response;
     }
     
@@ -0,0 +1,31 @@
+package com.example.catalog_service.repository;
+
+import com.example.catalog_service.entity.CatalogTombstone;
+import com.example.catalog_service.entity.enums.CatalogResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogTombstoneRepository extends JpaRepository<CatalogTombstone, Long> {
+    
+    @Query("SELECT t FROM CatalogTombstone t " +
+           "WHERE t.resource = :resource AND t.deletedAt <= :until " +
+           "AND (t.deletedAt > :after OR (t.deletedAt = :after AND t.id > :afterId)) " +
+           "ORDER BY t.deletedAt, t.id")
+    List<CatalogTombstone> findDeletedAfter(@Param("resource") CatalogResource resource,
+                                            @Param("after") LocalDateTime after,
+                                            @Param("afterId") Long afterId,
+                                            @Param("until") LocalDateTime until,
+                                            Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM CatalogTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,11 +1,14 @@
 package com.example.catalog_service.repository;
 
+import com.example.catalog_service.dto.CatalogVersion;
 import com.example.catalog_service.entity.Category;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,4 +28,18 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
            "LOWER(c.code) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(c.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Category> searchByKeyword(@Param("keyword") String keyword);
+    
+    @Query("SELECT new com.example.catalog_service.dto.CatalogVersion(COUNT(c), MAX(COALESCE(c.updatedAt, c.createdAt))) FROM Category c")
+    CatalogVersion findVersion();
+    
+    @Query("SELECT c FROM Category c " +
+           "LEFT JOIN FETCH c.parentCategory " +
+           "WHERE COALESCE(c.updatedAt, c.createdAt) <= :until " +
+           "AND (COALESCE(c.updatedAt, c.createdAt) > :after " +
+           "OR (COALESCE(c.updatedAt, c.createdAt) = :after AND c.id > :afterId)) " +
+           "ORDER BY COALESCE(c.updatedAt, c.createdAt), c.id")
+    List<Category> findChangedAfter(@Param("after") LocalDateTime after,
+                                    @Param("afterId") Long afterId,
+                                    @Param("until") LocalDateTime until,
+                                    Pageable pageable);
 }
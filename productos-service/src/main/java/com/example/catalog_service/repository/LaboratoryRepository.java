@@ -1,11 +1,14 @@
 package com.example.catalog_service.repository;
 
+import com.example.catalog_service.dto.CatalogVersion;
 import com.example.catalog_service.entity.Laboratory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,4 +27,17 @@ public interface LaboratoryRepository extends JpaRepository<Laboratory, Long> {
            "LOWER(l.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(l.country) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Laboratory> searchByKeyword(@Param("keyword") String keyword);
+    
+    @Query("SELECT new com.example.catalog_service.dto.CatalogVersion(COUNT(l), MAX(COALESCE(l.updatedAt, l.createdAt))) FROM Laboratory l")
+    CatalogVersion findVersion();
+    
+    @Query("SELECT l FROM Laboratory l " +
+           "WHERE COALESCE(l.updatedAt, l.createdAt) <= :until " +
+           "AND (COALESCE(l.updatedAt, l.createdAt) > :after " +
+           "OR (COALESCE(l.updatedAt, l.createdAt) = :after AND l.id > :afterId)) " +
+           "ORDER BY COALESCE(l.updatedAt, l.createdAt), l.id")
+    List<Laboratory> findChangedAfter(@Param("after") LocalDateTime after,
+                                      @Param("afterId") Long afterId,
+                                      @Param("until") LocalDateTime until,
+                                      Pageable pageable);
 }
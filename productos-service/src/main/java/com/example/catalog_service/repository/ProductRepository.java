@@ -1,12 +1,18 @@
 package com.example.catalog_service.repository;
 
+import com.example.catalog_service.dto.CatalogVersion;
+import com.example.catalog_service.dto.ProductSearchDocument;
 import com.example.catalog_service.entity.Product;
 import com.example.catalog_service.entity.enums.ProductStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,11 +37,84 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     List<Product> findByLaboratoryId(Long laboratoryId);
     
-    @Query("SELECT p FROM Product p WHERE " +
+    /**
+     * Listado paginado con categoría y laboratorio en la misma consulta. Son relaciones a uno, así
+     * que el fetch join no multiplica filas y la paginación se hace en la base de datos.
+     */
+    @Query(value = "SELECT p FROM Product p " +
+                   "JOIN FETCH p.category c " +
+                   "LEFT JOIN FETCH c.parentCategory " +
+                   "JOIN FETCH p.laboratory l " +
+                   "WHERE (:categoryId IS NULL OR c.id = :categoryId) " +
+                   "AND (:laboratoryId IS NULL OR l.id = :laboratoryId) " +
+                   "AND (:status IS NULL OR p.status = :status)",
+           countQuery = "SELECT COUNT(p) FROM Product p " +
+                        "WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
+                        "AND (:laboratoryId IS NULL OR p.laboratory.id = :laboratoryId) " +
+                        "AND (:status IS NULL OR p.status = :status)")
+    Page<Product> findPage(@Param("categoryId") Long categoryId,
+                           @Param("laboratoryId") Long laboratoryId,
+                           @Param("status") ProductStatus status,
+                           Pageable pageable);
+    
+    @Query("SELECT p FROM Product p " +
+           "JOIN FETCH p.category c " +
+           "LEFT JOIN FETCH c.parentCategory " +
+           "JOIN FETCH p.laboratory " +
+           "WHERE " +
            "LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.genericName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.code) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.barcode) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(p.activeIngredient) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Product> searchByKeyword(@Param("keyword") String keyword);
+           "LOWER(p.activeIngredient) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "ORDER BY p.name")
+    List<Product> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    
+    String SEARCH_DOCUMENT_SELECT = "SELECT new com.example.catalog_service.dto.ProductSearchDocument(" +
+            "p.id, p.code, p.barcode, p.name, p.genericName, p.activeIngredient) FROM Product p ";
+    
+    @Query(SEARCH_DOCUMENT_SELECT + "WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSearchDocument> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SEARCH_DOCUMENT_SELECT + "WHERE p.id = :id")
+    Optional<ProductSearchDocument> findSearchDocumentById(@Param("id") Long id);
+    
+    @Query("SELECT p FROM Product p " +
+           "JOIN FETCH p.category c " +
+           "LEFT JOIN FETCH c.parentCategory " +
+           "JOIN FETCH p.laboratory " +
+           "WHERE p.id IN :ids")
+    List<Product> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p FROM Product p " +
+           "JOIN FETCH p.category c " +
+           "LEFT JOIN FETCH c.parentCategory " +
+           "JOIN FETCH p.laboratory " +
+           "WHERE p.id > :afterId ORDER BY p.id")
+    List<Product> findAllWithDetailsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT p FROM Product p " +
+           "JOIN FETCH p.category c " +
+           "LEFT JOIN FETCH c.parentCategory " +
+           "JOIN FETCH p.laboratory " +
+           "WHERE p.barcode = :barcode")
+    Optional<Product> findWithDetailsByBarcode(@Param("barcode") String barcode);
+    
+    @Query("SELECT new com.example.catalog_service.dto.CatalogVersion(COUNT(p), MAX(p.updatedAt)) FROM Product p")
+    CatalogVersion findVersion();
+    
+    /**
+     * Productos modificados después del cursor (fecha y ID), en orden, para el feed de sincronización.
+     */
+    @Query("SELECT p FROM Product p " +
+           "JOIN FETCH p.category c " +
+           "LEFT JOIN FETCH c.parentCategory " +
+           "JOIN FETCH p.laboratory " +
+           "WHERE p.updatedAt <= :until " +
+           "AND (p.updatedAt > :after OR (p.updatedAt = :after AND p.id > :afterId)) " +
+           "ORDER BY p.updatedAt, p.id")
+    List<Product> findChangedAfter(@Param("after") LocalDateTime after,
+                                   @Param("afterId") Long afterId,
+                                   @Param("until") LocalDateTime until,
+                                   Pageable pageable);
 }
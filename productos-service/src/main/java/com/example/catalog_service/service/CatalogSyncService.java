@@ -0,0 +1,209 @@
+package com.example.catalog_service.service;
+
+import com.example.catalog_service.dto.response.CatalogChangesResponse;
+import com.example.catalog_service.dto.response.CategoryResponse;
+import com.example.catalog_service.dto.response.LaboratoryResponse;
+import com.example.catalog_service.dto.response.ProductResponse;
+import com.example.catalog_service.entity.CatalogTombstone;
+import com.example.catalog_service.entity.Category;
+import com.example.catalog_service.entity.Laboratory;
+import com.example.catalog_service.entity.Product;
+import com.example.catalog_service.entity.enums.CatalogResource;
+import com.example.catalog_service.mapper.CategoryMapper;
+import com.example.catalog_service.mapper.LaboratoryMapper;
+import com.example.catalog_service.mapper.ProductMapper;
+import com.example.catalog_service.repository.CatalogTombstoneRepository;
+import com.example.catalog_service.repository.CategoryRepository;
+import com.example.catalog_service.repository.LaboratoryRepository;
+import com.example.catalog_service.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Feed de cambios del catálogo para los terminales que trabajan con una copia local. Cada recurso
+ * se recorre en orden de fecha de modificación e ID a partir de un cursor, y las eliminaciones se
+ * informan con las lápidas ({@link CatalogTombstone}) registradas al borrar. Sin cursor se entrega
+ * el catálogo completo por páginas; el último cursor sirve para pedir solo lo que cambió después.
+ */
+@Service
+@Slf4j
+public class CatalogSyncService {
+    
+    public static final int MAX_LIMIT = 1000;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final LaboratoryRepository laboratoryRepository;
+    private final CatalogTombstoneRepository tombstoneRepository;
+    private final ProductMapper productMapper;
+    private final CategoryMapper categoryMapper;
+    private final LaboratoryMapper laboratoryMapper;
+    private final Duration settleTime;
+    private final Duration tombstoneRetention;
+    
+    public CatalogSyncService(ProductRepository productRepository,
+                              CategoryRepository categoryRepository,
+                              LaboratoryRepository laboratoryRepository,
+                              CatalogTombstoneRepository tombstoneRepository,
+                              ProductMapper productMapper,
+                              CategoryMapper categoryMapper,
+                              LaboratoryMapper laboratoryMapper,
+                              @Value("${catalog.sync.settle-time:PT5S}") Duration settleTime,
+                              @Value("${catalog.sync.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.laboratoryRepository = laboratoryRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.productMapper = productMapper;
+        this.categoryMapper = categoryMapper;
+        this.laboratoryMapper = laboratoryMapper;
+        this.settleTime = settleTime;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+    
+    /**
+     * Registra la eliminación dentro de la transacción que borra el registro.
+     */
+    public void recordDeletion(CatalogResource resource, Long resourceId) {
+        tombstoneRepository.save(new CatalogTombstone(resource, resourceId));
+    }
+    
+    @Transactional(readOnly = true)
+    public CatalogChangesResponse<ProductResponse> productChanges(String cursor, int limit) {
+        log.info("Obteniendo cambios de productos (cursor: {})", cursor);
+        return changes(CatalogResource.PRODUCT, cursor, limit, productRepository::findChangedAfter,
+                Product::getUpdatedAt, Product::getId, productMapper::toResponse);
+    }
+    
+    @Transactional(readOnly = true)
+    public CatalogChangesResponse<CategoryResponse> categoryChanges(String cursor, int limit) {
+        log.info("Obteniendo cambios de categorías (cursor: {})", cursor);
+        return changes(CatalogResource.CATEGORY, cursor, limit, categoryRepository::findChangedAfter,
+                category -> category.getUpdatedAt() != null ? category.getUpdatedAt() : category.getCreatedAt(),
+                Category::getId, categoryMapper::toResponse);
+    }
+    
+    @Transactional(readOnly = true)
+    public CatalogChangesResponse<LaboratoryResponse> laboratoryChanges(String cursor, int limit) {
+        log.info("Obteniendo cambios de laboratorios (cursor: {})", cursor);
+        return changes(CatalogResource.LABORATORY, cursor, limit, laboratoryRepository::findChangedAfter,
+                laboratory -> laboratory.getUpdatedAt() != null ? laboratory.getUpdatedAt() : laboratory.getCreatedAt(),
+                Laboratory::getId, laboratoryMapper::toResponse);
+    }
+    
+    @Scheduled(cron = "${catalog.sync.tombstone-cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void pruneTombstones() {
+        int deleted = tombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minus(tombstoneRetention));
+        if (deleted > 0) {
+            log.info("Lápidas de sincronización depuradas: {}", deleted);
+        }
+    }
+    
+    private <E, R> CatalogChangesResponse<R> changes(CatalogResource resource, String encodedCursor, int limit,
+                                                     ChangeQuery<E> query, Function<E, LocalDateTime> modifiedAt,
+                                                     Function<E, Long> idOf, Function<E, R> mapper) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        LocalDateTime now = LocalDateTime.now();
+        // Las filas recién modificadas esperan: una transacción que aún no confirma puede haber
+        // fechado sus cambios antes del cursor, y el terminal no volvería a verlas
+        LocalDateTime until = now.minus(settleTime);
+        
+        SyncCursor cursor = encodedCursor == null || encodedCursor.isBlank()
+                ? new SyncCursor(BEGINNING, 0L, until, 0L)
+                : SyncCursor.decode(encodedCursor);
+        if (cursor.deletedAt.isBefore(now.minus(tombstoneRetention))) {
+            throw new IllegalArgumentException(
+                    "El cursor de sincronización expiró; se debe descargar el catálogo completo sin cursor");
+        }
+        
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<E> rows = query.find(cursor.changedAt, cursor.changedId, until, page);
+        boolean moreChanges = rows.size() > pageSize;
+        rows = moreChanges ? rows.subList(0, pageSize) : rows;
+        List<CatalogTombstone> tombstones = tombstoneRepository.findDeletedAfter(
+                resource, cursor.deletedAt, cursor.deletedId, until, page);
+        boolean moreDeletions = tombstones.size() > pageSize;
+        tombstones = moreDeletions ? tombstones.subList(0, pageSize) : tombstones;
+        
+        SyncCursor next = cursor;
+        if (!rows.isEmpty()) {
+            E last = rows.get(rows.size() - 1);
+            next = next.withChanged(modifiedAt.apply(last), idOf.apply(last));
+        }
+        if (!tombstones.isEmpty()) {
+            CatalogTombstone last = tombstones.get(tombstones.size() - 1);
+            next = next.withDeleted(last.getDeletedAt(), last.getId());
+        }
+        // Sin más eliminaciones hasta el corte: se avanza igual, así el cursor no vence por falta de bajas
+        if (!moreDeletions && next.deletedAt.isBefore(until)) {
+            next = next.withDeleted(until, 0L);
+        }
+        
+        return new CatalogChangesResponse<>(
+                rows.stream().map(mapper).collect(Collectors.toList()),
+                tombstones.stream().map(CatalogTombstone::getResourceId).collect(Collectors.toList()),
+                next.encode(),
+                moreChanges || moreDeletions);
+    }
+    
+    @FunctionalInterface
+    private interface ChangeQuery<E> {
+        List<E> find(LocalDateTime after, Long afterId, LocalDateTime until, Pageable pageable);
+    }
+    
+    /**
+     * Posición del terminal en el feed: última modificación y última eliminación recibidas. Viaja
+     * como texto opaco en Base64.
+     */
+    private static final class SyncCursor {
+        private final LocalDateTime changedAt;
+        private final Long changedId;
+        private final LocalDateTime deletedAt;
+        private final Long deletedId;
+        
+        private SyncCursor(LocalDateTime changedAt, Long changedId, LocalDateTime deletedAt, Long deletedId) {
+            this.changedAt = changedAt;
+            this.changedId = changedId;
+            this.deletedAt = deletedAt;
+            this.deletedId = deletedId;
+        }
+        
+        private SyncCursor withChanged(LocalDateTime at, Long id) {
+            return new SyncCursor(at, id, deletedAt, deletedId);
+        }
+        
+        private SyncCursor withDeleted(LocalDateTime at, Long id) {
+            return new SyncCursor(changedAt, changedId, at, id);
+        }
+        
+        private String encode() {
+            String value = changedAt + "|" + changedId + "|" + deletedAt + "|" + deletedId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        private static SyncCursor decode(String encoded) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split("\\|");
+                return new SyncCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]),
+                        LocalDateTime.parse(parts[2]), Long.valueOf(parts[3]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor de sincronización inválido: " + encoded);
+            }
+        }
+    }
+}
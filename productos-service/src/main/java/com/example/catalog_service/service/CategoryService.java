@@ -1,8 +1,10 @@
 package com.example.catalog_service.service;
 
+import com.example.catalog_service.dto.CatalogVersion;
 import com.example.catalog_service.dto.request.CategoryRequest;
 import com.example.catalog_service.dto.response.CategoryResponse;
 import com.example.catalog_service.entity.Category;
+import com.example.catalog_service.entity.enums.CatalogResource;
 import com.example.catalog_service.exception.DuplicateResourceException;
 import com.example.catalog_service.exception.ResourceNotFoundException;
 import com.example.catalog_service.mapper.CategoryMapper;
@@ -20,10 +22,13 @@ public class CategoryService {
     
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final CatalogSyncService catalogSyncService;
     
-    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper,
+                           CatalogSyncService catalogSyncService) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
+        this.catalogSyncService = catalogSyncService;
     }
     
     @Transactional
@@ -61,6 +66,14 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Versión del listado de categorías; las categorías padre están en la misma tabla.
+     */
+    @Transactional(readOnly = true)
+    public CatalogVersion listVersion() {
+        return categoryRepository.findVersion();
+    }
+    
     @Transactional(readOnly = true)
     public CategoryResponse findById(Long id) {
         log.info("Buscando categoría con ID: {}", id);
@@ -137,6 +150,7 @@ public class CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("No se encontró la categoría con ID: " + id));
         
         categoryRepository.delete(category);
+        catalogSyncService.recordDeletion(CatalogResource.CATEGORY, id);
         log.info("Categoría eliminada exitosamente con ID: {}", id);
     }
 }
@@ -1,8 +1,10 @@
 package com.example.catalog_service.service;
 
+import com.example.catalog_service.dto.CatalogVersion;
 import com.example.catalog_service.dto.request.LaboratoryRequest;
 import com.example.catalog_service.dto.response.LaboratoryResponse;
 import com.example.catalog_service.entity.Laboratory;
+import com.example.catalog_service.entity.enums.CatalogResource;
 import com.example.catalog_service.exception.DuplicateResourceException;
 import com.example.catalog_service.exception.ResourceNotFoundException;
 import com.example.catalog_service.mapper.LaboratoryMapper;
@@ -20,10 +22,13 @@ public class LaboratoryService {
     
     private final LaboratoryRepository laboratoryRepository;
     private final LaboratoryMapper laboratoryMapper;
+    private final CatalogSyncService catalogSyncService;
     
-    public LaboratoryService(LaboratoryRepository laboratoryRepository, LaboratoryMapper laboratoryMapper) {
+    public LaboratoryService(LaboratoryRepository laboratoryRepository, LaboratoryMapper laboratoryMapper,
+                             CatalogSyncService catalogSyncService) {
         this.laboratoryRepository = laboratoryRepository;
         this.laboratoryMapper = laboratoryMapper;
+        this.catalogSyncService = catalogSyncService;
     }
     
     @Transactional
@@ -52,6 +57,11 @@ public class LaboratoryService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    public CatalogVersion listVersion() {
+        return laboratoryRepository.findVersion();
+    }
+    
     @Transactional(readOnly = true)
     public LaboratoryResponse findById(Long id) {
         log.info("Buscando laboratorio con ID: {}", id);
@@ -114,6 +124,7 @@ public class LaboratoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("No se encontró el laboratorio con ID: " + id));
         
         laboratoryRepository.delete(laboratory);
+        catalogSyncService.recordDeletion(CatalogResource.LABORATORY, id);
         log.info("Laboratorio eliminado exitosamente con ID: {}", id);
     }
 }
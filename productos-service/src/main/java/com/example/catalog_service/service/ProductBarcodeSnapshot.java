@@ -0,0 +1,174 @@
+package com.example.catalog_service.service;
+
+import com.example.catalog_service.dto.response.CategoryResponse;
+import com.example.catalog_service.dto.response.LaboratoryResponse;
+import com.example.catalog_service.dto.response.ProductResponse;
+import com.example.catalog_service.entity.Product;
+import com.example.catalog_service.event.ProductChangeType;
+import com.example.catalog_service.event.ProductChangedEvent;
+import com.example.catalog_service.mapper.ProductMapper;
+import com.example.catalog_service.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Copia en memoria del catálogo indexada por código de barras, para el escaneo en caja. La
+ * consulta lee un mapa inmutable y no toca la base de datos. Cada cambio de producto copia el mapa
+ * y publica la copia (copy-on-write), así las lecturas nunca esperan ni ven un cambio a medias.
+ * Se reconstruye completa cada cierto tiempo para recoger cambios de categorías y laboratorios.
+ */
+@Component
+@Slf4j
+public class ProductBarcodeSnapshot {
+    
+    private static final int LOAD_PAGE_SIZE = 2000;
+    
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    
+    // null hasta la primera carga. Las respuestas publicadas no se modifican
+    private volatile Snapshot snapshot;
+    
+    public ProductBarcodeSnapshot(ProductRepository productRepository, ProductMapper productMapper) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+    }
+    
+    public boolean isReady() {
+        return snapshot != null;
+    }
+    
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.byBarcode.size();
+    }
+    
+    public Optional<ProductResponse> find(String barcode) {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.ofNullable(current.byBarcode.get(barcode));
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+    
+    @Scheduled(initialDelayString = "${catalog.barcode-snapshot.refresh-interval:PT5M}",
+               fixedDelayString = "${catalog.barcode-snapshot.refresh-interval:PT5M}")
+    public void refresh() {
+        rebuild();
+    }
+    
+    /**
+     * Vuelve a leer todo el catálogo por páginas y publica la copia nueva de una sola vez.
+     */
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        Map<String, ProductResponse> byBarcode = new HashMap<>();
+        Map<Long, String> barcodes = new HashMap<>();
+        // Los productos de una misma categoría o laboratorio comparten la respuesta
+        Map<Long, CategoryResponse> categories = new HashMap<>();
+        Map<Long, LaboratoryResponse> laboratories = new HashMap<>();
+        
+        long afterId = 0;
+        List<Product> page;
+        do {
+            page = productRepository.findAllWithDetailsAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Product product : page) {
+                ProductResponse response = productMapper.toResponse(product);
+                if (response.getCategory() != null) {
+                    response.setCategory(categories.computeIfAbsent(response.getCategory().getId(),
+                            id -> response.getCategory()));
+                }
+                if (response.getLaboratory() != null) {
+                    response.setLaboratory(laboratories.computeIfAbsent(response.getLaboratory().getId(),
+                            id -> response.getLaboratory()));
+                }
+                byBarcode.put(response.getBarcode(), response);
+                barcodes.put(response.getId(), response.getBarcode());
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        
+        snapshot = new Snapshot(byBarcode, barcodes);
+        log.info("Copia de códigos de barras cargada: {} productos en {} ms",
+                byBarcode.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    /**
+     * Asíncrono para no demorar la respuesta de la escritura. El producto se lee dentro del bloqueo,
+     * así el último en entrar siempre publica el estado más reciente de la base de datos.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangeType.DELETED) {
+            remove(event.getProductId());
+        } else {
+            reload(event.getProductId());
+        }
+    }
+    
+    public synchronized void reload(Long productId) {
+        List<Product> found = productRepository.findAllWithDetailsByIdIn(List.of(productId));
+        if (found.isEmpty()) {
+            remove(productId);
+        } else {
+            put(productMapper.toResponse(found.get(0)));
+        }
+    }
+    
+    /**
+     * Agrega o reemplaza el producto publicando una copia nueva del mapa.
+     */
+    public synchronized void put(ProductResponse response) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return; // La carga inicial lo incluirá
+        }
+        Map<String, ProductResponse> byBarcode = new HashMap<>(current.byBarcode);
+        Map<Long, String> barcodes = new HashMap<>(current.barcodes);
+        String previousBarcode = barcodes.put(response.getId(), response.getBarcode());
+        if (previousBarcode != null) {
+            byBarcode.remove(previousBarcode);
+        }
+        byBarcode.put(response.getBarcode(), response);
+        snapshot = new Snapshot(byBarcode, barcodes);
+    }
+    
+    public synchronized void remove(Long productId) {
+        Snapshot current = snapshot;
+        if (current == null || !current.barcodes.containsKey(productId)) {
+            return;
+        }
+        Map<String, ProductResponse> byBarcode = new HashMap<>(current.byBarcode);
+        Map<Long, String> barcodes = new HashMap<>(current.barcodes);
+        byBarcode.remove(barcodes.remove(productId));
+        snapshot = new Snapshot(byBarcode, barcodes);
+    }
+    
+    private static final class Snapshot {
+        private final Map<String, ProductResponse> byBarcode;
+        private final Map<Long, String> barcodes;
+        
+        private Snapshot(Map<String, ProductResponse> byBarcode, Map<Long, String> barcodes) {
+            this.byBarcode = byBarcode;
+            this.barcodes = barcodes;
+        }
+    }
+}
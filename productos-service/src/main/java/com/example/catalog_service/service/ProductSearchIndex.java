@@ -0,0 +1,469 @@
+package com.example.catalog_service.service;
+
+import com.example.catalog_service.dto.ProductSearchDocument;
+import com.example.catalog_service.event.ProductChangeType;
+import com.example.catalog_service.event.ProductChangedEvent;
+import com.example.catalog_service.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria para la búsqueda de productos. Cada palabra de nombre, nombre
+ * genérico, principio activo, código y código de barras se guarda sin tildes ni mayúsculas en un
+ * mapa ordenado, así que buscar por prefijo es un rango del mapa en lugar de un recorrido de la
+ * tabla. Todas las palabras de la consulta deben coincidir y los resultados se ordenan por
+ * relevancia. Se carga al iniciar, se actualiza con los eventos de cambio de producto y se
+ * reconstruye completo cada cierto tiempo para corregir cualquier evento perdido; si la carga
+ * falla se reintenta periódicamente hasta completarla.
+ * <p>
+ * La base de datos se lee siempre fuera del bloqueo del índice, que solo se toma para aplicar lo
+ * leído. Cada evento recibe un número de cambio y el índice recuerda el último de cada producto:
+ * lo leído antes de un cambio posterior del mismo producto se descarta en lugar de aplicarse.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+    
+    public static final int MAX_LIMIT = 100;
+    private static final int LOAD_PAGE_SIZE = 5000;
+    
+    // Peso de cada campo; una palabra completa vale el doble que un prefijo
+    private static final int CODE_WEIGHT = 100;
+    private static final int NAME_WEIGHT = 10;
+    private static final int INGREDIENT_WEIGHT = 6;
+    private static final int GENERIC_NAME_WEIGHT = 5;
+    
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Comparator<Entry> BY_ID = Comparator.comparingLong(entry -> entry.id);
+    
+    private final ProductRepository productRepository;
+    
+    // Palabra -> productos ordenados por ID. Los arreglos no se modifican: cada cambio publica uno nuevo
+    private final ConcurrentSkipListMap<String, Entry[]> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Número de eventos recibidos y, por producto, el número de su último evento
+    private final AtomicLong changes = new AtomicLong();
+    private final Map<Long, Long> lastChange = new ConcurrentHashMap<>();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile boolean ready;
+    
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+    
+    @Scheduled(initialDelayString = "${catalog.search-index.retry-interval:PT1M}",
+               fixedDelayString = "${catalog.search-index.retry-interval:PT1M}")
+    public void retryLoad() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+    
+    @Scheduled(initialDelayString = "${catalog.search-index.refresh-interval:PT5M}",
+               fixedDelayString = "${catalog.search-index.refresh-interval:PT5M}")
+    public void refresh() {
+        if (ready) {
+            rebuild();
+        }
+    }
+    
+    /**
+     * Vuelve a leer todo el catálogo por páginas. Al terminar quita los productos que ya no están en
+     * la base de datos y no cambiaron durante la lectura, por si se perdió su evento de eliminación.
+     */
+    public void rebuild() {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            long startedAtChange = changes.get();
+            Set<Long> loaded = new HashSet<>();
+            long afterId = 0;
+            List<ProductSearchDocument> page;
+            do {
+                long readAtChange = changes.get();
+                page = productRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+                applyPage(page, readAtChange);
+                for (ProductSearchDocument document : page) {
+                    loaded.add(document.getId());
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+            removeMissing(loaded, startedAtChange);
+            ready = true;
+            log.info("Índice de búsqueda cargado: {} productos, {} palabras en {} ms",
+                    entries.size(), postings.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("No se pudo cargar el índice de búsqueda, se reintentará: {}", e.getMessage());
+        } finally {
+            loading.set(false);
+        }
+    }
+    
+    /**
+     * Asíncrono para no demorar la respuesta de la escritura. Si la lectura falla, la próxima
+     * reconstrucción corrige el producto.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProductId();
+        long change = changes.incrementAndGet();
+        lastChange.merge(productId, change, Math::max);
+        try {
+            Optional<ProductSearchDocument> document = event.getType() == ProductChangeType.DELETED
+                    ? Optional.empty()
+                    : productRepository.findSearchDocumentById(productId);
+            applyChange(productId, document, change);
+        } catch (RuntimeException e) {
+            log.error("No se pudo actualizar el producto {} en el índice de búsqueda, se corregirá en la próxima reconstrucción: {}",
+                    productId, e.getMessage());
+        }
+    }
+    
+    private synchronized void applyChange(Long productId, Optional<ProductSearchDocument> document, long change) {
+        if (changedSince(productId, change)) {
+            return; // Un evento posterior del producto aplica un estado más reciente
+        }
+        if (document.isPresent()) {
+            put(document.get());
+        } else {
+            remove(productId);
+        }
+    }
+    
+    private synchronized void applyPage(List<ProductSearchDocument> page, long readAtChange) {
+        List<ProductSearchDocument> current = new ArrayList<>(page.size());
+        for (ProductSearchDocument document : page) {
+            if (!changedSince(document.getId(), readAtChange)) {
+                current.add(document);
+            }
+        }
+        putAll(current);
+    }
+    
+    private synchronized void removeMissing(Set<Long> loaded, long startedAtChange) {
+        for (Long productId : new ArrayList<>(entries.keySet())) {
+            if (!loaded.contains(productId) && !changedSince(productId, startedAtChange)) {
+                remove(productId);
+            }
+        }
+    }
+    
+    private boolean changedSince(Long productId, long change) {
+        Long last = lastChange.get(productId);
+        return last != null && last > change;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Agrega o reemplaza el producto en el índice.
+     */
+    public void put(ProductSearchDocument document) {
+        putAll(List.of(document));
+    }
+    
+    /**
+     * Agrega o reemplaza varios productos. Las palabras nuevas se agrupan para publicar una sola
+     * vez el arreglo de cada palabra, en lugar de copiarlo por cada producto.
+     */
+    public synchronized void putAll(List<ProductSearchDocument> documents) {
+        Map<String, List<Entry>> added = new HashMap<>();
+        for (ProductSearchDocument document : documents) {
+            Entry entry = new Entry(document);
+            Entry previous = entries.put(entry.id, entry);
+            Set<String> newTokens = entry.tokens();
+            if (previous != null) {
+                for (String token : previous.tokens()) {
+                    if (!newTokens.contains(token)) {
+                        removePosting(token, entry.id);
+                    }
+                }
+            }
+            // También las palabras que no cambian, para que apunten a la versión nueva del producto
+            for (String token : newTokens) {
+                added.computeIfAbsent(token, key -> new ArrayList<>()).add(entry);
+            }
+        }
+        added.forEach(this::addPostings);
+    }
+    
+    public synchronized void remove(Long productId) {
+        Entry previous = entries.remove(productId);
+        if (previous != null) {
+            previous.tokens().forEach(token -> removePosting(token, productId));
+        }
+    }
+    
+    /**
+     * IDs de los productos que coinciden con todas las palabras de la consulta, de mayor a menor
+     * relevancia. Cada palabra puede ser el inicio de una palabra del producto.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        // Los candidatos salen de la palabra con menos productos; el resto se verifica por producto
+        NavigableMap<String, Entry[]> narrowest = null;
+        long narrowestSize = Long.MAX_VALUE;
+        for (String term : terms) {
+            NavigableMap<String, Entry[]> range = prefixRange(term);
+            long size = 0;
+            for (Entry[] matches : range.values()) {
+                size += matches.length;
+            }
+            if (size < narrowestSize) {
+                narrowest = range;
+                narrowestSize = size;
+            }
+        }
+        if (narrowestSize == 0) {
+            return List.of();
+        }
+        
+        // Cola con el peor resultado a la cabeza: solo guarda los mejores limit
+        PriorityQueue<Match> top = new PriorityQueue<>(Collections.reverseOrder(Match.RANKING));
+        // Un producto con varias palabras del rango aparece una vez por palabra
+        Set<Long> seen = narrowest.size() > 1 ? new HashSet<>() : null;
+        for (Entry[] candidates : narrowest.values()) {
+            for (Entry entry : candidates) {
+                if (seen != null && !seen.add(entry.id)) {
+                    continue;
+                }
+                int score = entry.score(terms);
+                if (score == 0 || (top.size() == limit && !top.peek().rankedBelow(entry, score))) {
+                    continue;
+                }
+                top.add(new Match(entry, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        
+        List<Match> matches = new ArrayList<>(top);
+        matches.sort(Match.RANKING);
+        List<Long> result = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            result.add(match.entry.id);
+        }
+        return result;
+    }
+    
+    /**
+     * Minúsculas, sin tildes ni diéresis y separado en palabras: "Ácido Acetilsalicílico 500mg"
+     * queda como [acido, acetilsalicilico, 500mg].
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    private NavigableMap<String, Entry[]> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+    
+    private void addPostings(String token, List<Entry> additions) {
+        Entry[] sorted = additions.toArray(Entry[]::new);
+        Arrays.sort(sorted, BY_ID);
+        postings.compute(token, (key, current) -> {
+            if (current == null) {
+                return sorted;
+            }
+            // Mezcla de dos arreglos ordenados; con el mismo ID queda la versión nueva
+            Entry[] merged = new Entry[current.length + sorted.length];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < current.length || j < sorted.length) {
+                if (j == sorted.length || (i < current.length && current[i].id < sorted[j].id)) {
+                    merged[size++] = current[i++];
+                } else if (i == current.length || sorted[j].id < current[i].id) {
+                    merged[size++] = sorted[j++];
+                } else {
+                    merged[size++] = sorted[j++];
+                    i++;
+                }
+            }
+            return size == merged.length ? merged : Arrays.copyOf(merged, size);
+        });
+    }
+    
+    private void removePosting(String token, long id) {
+        postings.computeIfPresent(token, (key, current) -> {
+            int position = indexOf(current, id);
+            if (position < 0) {
+                return current;
+            }
+            if (current.length == 1) {
+                return null;
+            }
+            Entry[] updated = new Entry[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, position);
+            System.arraycopy(current, position + 1, updated, position, current.length - position - 1);
+            return updated;
+        });
+    }
+    
+    private static int indexOf(Entry[] sorted, long id) {
+        int low = 0;
+        int high = sorted.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = sorted[middle].id;
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+    
+    private static final class Entry {
+        
+        private final long id;
+        private final String name;
+        private final String[] codeTokens;
+        private final String[] nameTokens;
+        private final String[] ingredientTokens;
+        private final String[] genericNameTokens;
+        
+        private Entry(ProductSearchDocument document) {
+            this.id = document.getId();
+            this.name = document.getName() != null ? document.getName() : "";
+            List<String> codes = new ArrayList<>(tokenize(document.getCode()));
+            codes.addAll(tokenize(document.getBarcode()));
+            this.codeTokens = codes.toArray(String[]::new);
+            this.nameTokens = tokenize(document.getName()).toArray(String[]::new);
+            this.ingredientTokens = tokenize(document.getActiveIngredient()).toArray(String[]::new);
+            this.genericNameTokens = tokenize(document.getGenericName()).toArray(String[]::new);
+        }
+        
+        private Set<String> tokens() {
+            Set<String> tokens = new LinkedHashSet<>();
+            Collections.addAll(tokens, codeTokens);
+            Collections.addAll(tokens, nameTokens);
+            Collections.addAll(tokens, ingredientTokens);
+            Collections.addAll(tokens, genericNameTokens);
+            return tokens;
+        }
+        
+        /**
+         * Suma del mejor campo de cada palabra; 0 si alguna palabra no coincide.
+         */
+        private int score(List<String> terms) {
+            int total = 0;
+            for (String term : terms) {
+                int best = Math.max(
+                        Math.max(fieldScore(codeTokens, term, CODE_WEIGHT), fieldScore(nameTokens, term, NAME_WEIGHT)),
+                        Math.max(fieldScore(ingredientTokens, term, INGREDIENT_WEIGHT),
+                                fieldScore(genericNameTokens, term, GENERIC_NAME_WEIGHT)));
+                if (best == 0) {
+                    return 0;
+                }
+                total += best;
+            }
+            // Los productos cuyo nombre empieza por la consulta van primero
+            if (nameTokens.length > 0 && nameTokens[0].startsWith(terms.get(0))) {
+                total += NAME_WEIGHT;
+            }
+            return total;
+        }
+        
+        private static int fieldScore(String[] tokens, String term, int weight) {
+            int best = 0;
+            for (String token : tokens) {
+                if (token.equals(term)) {
+                    return weight * 2;
+                }
+                if (token.startsWith(term)) {
+                    best = weight;
+                }
+            }
+            return best;
+        }
+    }
+    
+    private record Match(Entry entry, int score) {
+        
+        /**
+         * Si el candidato quedaría antes que este resultado, sin crear un Match para compararlo.
+         */
+        private boolean rankedBelow(Entry candidate, int candidateScore) {
+            if (candidateScore != score) {
+                return candidateScore > score;
+            }
+            if (candidate.name.length() != entry.name.length()) {
+                return candidate.name.length() < entry.name.length();
+            }
+            int byName = candidate.name.compareTo(entry.name);
+            return byName != 0 ? byName < 0 : candidate.id < entry.id;
+        }
+        
+        // Mayor puntaje primero; a igual puntaje, el nombre más corto y luego alfabético
+        private static final Comparator<Match> RANKING = Comparator
+                .comparingInt((Match match) -> match.score).reversed()
+                .thenComparingInt(match -> match.entry.name.length())
+                .thenComparing(match -> match.entry.name)
+                .thenComparingLong(match -> match.entry.id);
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.catalog_service.service;
 
+import com.example.catalog_service.dto.CatalogVersion;
 import com.example.catalog_service.dto.request.ProductRequest;
 import com.example.catalog_service.dto.response.ProductResponse;
 import com.example.catalog_service.entity.Category;
 import com.example.catalog_service.entity.Laboratory;
 import com.example.catalog_service.entity.Product;
+import com.example.catalog_service.entity.enums.CatalogResource;
+import com.example.catalog_service.entity.enums.ProductStatus;
+import com.example.catalog_service.event.ProductChangeType;
+import com.example.catalog_service.event.ProductChangedEvent;
 import com.example.catalog_service.exception.DuplicateResourceException;
 import com.example.catalog_service.exception.ResourceNotFoundException;
 import com.example.catalog_service.mapper.ProductMapper;
@@ -12,10 +17,19 @@ import com.example.catalog_service.repository.CategoryRepository;
 import com.example.catalog_service.repository.LaboratoryRepository;
 import com.example.catalog_service.repository.ProductRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,15 +40,29 @@ public class ProductService {
     private final CategoryRepository categoryRepository;
     private final LaboratoryRepository laboratoryRepository;
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex searchIndex;
+    private final ProductBarcodeSnapshot barcodeSnapshot;
+    private final CatalogSyncService catalogSyncService;
+    
+    private static final int MAX_BATCH_SIZE = 500;
     
     public ProductService(ProductRepository productRepository, 
                          CategoryRepository categoryRepository,
                          LaboratoryRepository laboratoryRepository,
-                         ProductMapper productMapper) {
+                         ProductMapper productMapper,
+                         ApplicationEventPublisher eventPublisher,
+                         ProductSearchIndex searchIndex,
+                         ProductBarcodeSnapshot barcodeSnapshot,
+                         CatalogSyncService catalogSyncService) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.laboratoryRepository = laboratoryRepository;
         this.productMapper = productMapper;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.barcodeSnapshot = barcodeSnapshot;
+        this.catalogSyncService = catalogSyncService;
     }
     
     @Transactional
@@ -77,17 +105,27 @@ public class ProductService {
         
         Product savedProduct = productRepository.save(product);
         log.info("Producto creado exitosamente con ID: {}", savedProduct.getId());
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), ProductChangeType.CREATED));
         
         return productMapper.toResponse(savedProduct);
     }
     
     @Transactional(readOnly = true)
-    public List<ProductResponse> findAll() {
-        log.info("Obteniendo todos los productos");
-        List<Product> products = productRepository.findAll();
-        return products.stream()
-                .map(productMapper::toResponse)
-                .collect(Collectors.toList());
+    public Page<ProductResponse> findAll(Long categoryId, Long laboratoryId, ProductStatus status, Pageable pageable) {
+        log.info("Obteniendo productos (categoría: {}, laboratorio: {}, estado: {}, página: {})",
+                categoryId, laboratoryId, status, pageable.getPageNumber());
+        return productRepository.findPage(categoryId, laboratoryId, status, pageable)
+                .map(productMapper::toResponse);
+    }
+    
+    /**
+     * Versión del listado de productos. Incluye categorías y laboratorios porque cada producto los
+     * lleva embebidos.
+     */
+    @Transactional(readOnly = true)
+    public CatalogVersion listVersion() {
+        return CatalogVersion.combine(productRepository.findVersion(),
+                categoryRepository.findVersion(), laboratoryRepository.findVersion());
     }
     
     @Transactional(readOnly = true)
@@ -98,6 +136,26 @@ public class ProductService {
         return productMapper.toResponse(product);
     }
     
+    @Transactional(readOnly = true)
+    public List<ProductResponse> findByIds(List<Long> ids) {
+        log.info("Buscando {} productos por ID en lote", ids.size());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "No se pueden consultar más de " + MAX_BATCH_SIZE + " productos por solicitud");
+        }
+        
+        // Una sola consulta con category y laboratory en join para evitar cargas LAZY por producto
+        List<Product> products = productRepository.findAllWithDetailsByIdIn(uniqueIds);
+        return products.stream()
+                .map(productMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+    
     @Transactional(readOnly = true)
     public ProductResponse findByCode(String code) {
         log.info("Buscando producto con código: {}", code);
@@ -106,11 +164,44 @@ public class ProductService {
         return productMapper.toResponse(product);
     }
     
+    /**
+     * Búsqueda por código de barras del escaneo en caja. Sin transacción: se responde desde la copia
+     * en memoria y solo se consulta la base de datos mientras la copia se está cargando.
+     */
+    public ProductResponse findByBarcode(String barcode) {
+        log.debug("Buscando producto con código de barras: {}", barcode);
+        if (barcodeSnapshot.isReady()) {
+            return barcodeSnapshot.find(barcode)
+                    .orElseThrow(() -> new ResourceNotFoundException("No se encontró el producto con código de barras: " + barcode));
+        }
+        Product product = productRepository.findWithDetailsByBarcode(barcode)
+                .orElseThrow(() -> new ResourceNotFoundException("No se encontró el producto con código de barras: " + barcode));
+        return productMapper.toResponse(product);
+    }
+    
     @Transactional(readOnly = true)
-    public List<ProductResponse> search(String keyword) {
+    public List<ProductResponse> search(String keyword, int limit) {
         log.info("Buscando productos con palabra clave: {}", keyword);
-        List<Product> products = productRepository.searchByKeyword(keyword);
-        return products.stream()
+        int maxResults = Math.max(1, Math.min(limit, ProductSearchIndex.MAX_LIMIT));
+        
+        // Mientras el índice se carga al iniciar, se busca en la base de datos
+        if (!searchIndex.isReady()) {
+            log.debug("Índice de búsqueda aún no disponible, se consulta la base de datos");
+            return productRepository.searchByKeyword(keyword, PageRequest.of(0, maxResults)).stream()
+                    .map(productMapper::toResponse)
+                    .collect(Collectors.toList());
+        }
+        
+        List<Long> ids = searchIndex.search(keyword, maxResults);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Una sola consulta para los resultados, devueltos en el orden de relevancia del índice
+        Map<Long, Product> products = productRepository.findAllWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
                 .map(productMapper::toResponse)
                 .collect(Collectors.toList());
     }
@@ -158,6 +249,7 @@ public class ProductService {
         
         Product updatedProduct = productRepository.save(product);
         log.info("Producto actualizado exitosamente con ID: {}", updatedProduct.getId());
+        eventPublisher.publishEvent(new ProductChangedEvent(updatedProduct.getId(), ProductChangeType.UPDATED));
         
         return productMapper.toResponse(updatedProduct);
     }
@@ -170,6 +262,8 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("No se encontró el producto con ID: " + id));
         
         productRepository.delete(product);
+        catalogSyncService.recordDeletion(CatalogResource.PRODUCT, id);
         log.info("Producto eliminado exitosamente con ID: {}", id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangeType.DELETED));
     }
 }
@@ -0,0 +1,80 @@
+package com.example.catalog_service;
+
+import com.example.catalog_service.dto.response.ProductResponse;
+import com.example.catalog_service.entity.Category;
+import com.example.catalog_service.entity.Laboratory;
+import com.example.catalog_service.entity.Product;
+import com.example.catalog_service.mapper.CategoryMapper;
+import com.example.catalog_service.mapper.LaboratoryMapper;
+import com.example.catalog_service.mapper.ProductMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba del catálogo: categorías, laboratorios y productos sin guardar con valores por
+ * defecto válidos. Cada test los guarda como le convenga (repositorio, TestEntityManager o mock).
+ */
+public final class CatalogFixtures {
+    
+    public static final BigDecimal BASE_PRICE = new BigDecimal("2.50");
+    
+    private static final ProductMapper PRODUCT_MAPPER = new ProductMapper(new CategoryMapper(), new LaboratoryMapper());
+    
+    private CatalogFixtures() {
+    }
+    
+    public static Category analgesics() {
+        return category("ANALG", "Analgésicos", null);
+    }
+    
+    public static Category category(String code, String name, Category parent) {
+        Category category = new Category();
+        category.setCode(code);
+        category.setName(name);
+        category.setParentCategory(parent);
+        return category;
+    }
+    
+    public static Laboratory andinos() {
+        return laboratory("Laboratorios Andinos");
+    }
+    
+    public static Laboratory laboratory(String name) {
+        Laboratory laboratory = new Laboratory();
+        laboratory.setName(name);
+        laboratory.setCountry("Ecuador");
+        laboratory.setContactEmail("contacto@" + Integer.toHexString(name.hashCode()) + ".example.com");
+        return laboratory;
+    }
+    
+    /** Producto número {@code index}: código MED-000, código de barras 7861000000000 y nombre Producto 000. */
+    public static Product product(int index, Category category, Laboratory laboratory) {
+        return product(String.format("MED-%03d", index), String.valueOf(7_861_000_000_000L + index),
+                String.format("Producto %03d", index), category, laboratory);
+    }
+    
+    public static Product product(String code, String barcode, String name, Category category, Laboratory laboratory) {
+        Product product = new Product();
+        product.setCode(code);
+        product.setBarcode(barcode);
+        product.setName(name);
+        product.setCategory(category);
+        product.setLaboratory(laboratory);
+        product.setBasePrice(BASE_PRICE);
+        return product;
+    }
+    
+    public static List<Product> products(int count, Category category, Laboratory laboratory) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(i, category, laboratory));
+        }
+        return products;
+    }
+    
+    public static ProductResponse response(Product product) {
+        return PRODUCT_MAPPER.toResponse(product);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.catalog_service;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Slice JPA de los tests del catálogo contra H2, con estadísticas de Hibernate para los tests que
+ * cuentan consultas. Los datos de prueba se arman con {@link CatalogFixtures}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public @interface CatalogJpaTest {
+}
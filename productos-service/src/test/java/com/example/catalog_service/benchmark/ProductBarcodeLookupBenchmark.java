@@ -0,0 +1,122 @@
+package com.example.catalog_service.benchmark;
+
+import com.example.catalog_service.CatalogFixtures;
+import com.example.catalog_service.CatalogServiceApplication;
+import com.example.catalog_service.dto.response.ProductResponse;
+import com.example.catalog_service.entity.Category;
+import com.example.catalog_service.entity.Laboratory;
+import com.example.catalog_service.entity.Product;
+import com.example.catalog_service.mapper.ProductMapper;
+import com.example.catalog_service.repository.CategoryRepository;
+import com.example.catalog_service.repository.LaboratoryRepository;
+import com.example.catalog_service.repository.ProductRepository;
+import com.example.catalog_service.service.ProductBarcodeSnapshot;
+import com.example.catalog_service.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el escaneo por código de barras desde la copia en memoria con la consulta a la base de
+ * datos (H2 en memoria, así que la base real con red solo aumenta la diferencia). No es parte de
+ * la suite de pruebas; se ejecuta con:
+ *
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main ProductBarcodeLookupBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductBarcodeLookupBenchmark {
+    
+    @Param("10000")
+    private int products;
+    
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private ProductMapper productMapper;
+    private String[] barcodes;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CatalogServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                // Como argumentos para que tengan prioridad sobre application.yml
+                .run("--spring.datasource.url=jdbc:h2:mem:barcode-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--catalog.change-listeners=");
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        productMapper = context.getBean(ProductMapper.class);
+        
+        Category category = context.getBean(CategoryRepository.class).save(CatalogFixtures.analgesics());
+        Laboratory laboratory = context.getBean(LaboratoryRepository.class).save(CatalogFixtures.andinos());
+        
+        List<Product> catalog = CatalogFixtures.products(products, category, laboratory);
+        barcodes = catalog.stream().map(Product::getBarcode).toArray(String[]::new);
+        for (int from = 0; from < catalog.size(); from += 1000) {
+            productRepository.saveAll(catalog.subList(from, Math.min(from + 1000, catalog.size())));
+        }
+        context.getBean(ProductBarcodeSnapshot.class).rebuild();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public ProductResponse snapshot() {
+        return productService.findByBarcode(nextBarcode());
+    }
+    
+    @Benchmark
+    public ProductResponse database() {
+        return productRepository.findWithDetailsByBarcode(nextBarcode())
+                .map(productMapper::toResponse)
+                .orElseThrow();
+    }
+    
+    private String nextBarcode() {
+        next = (next + 7919) % barcodes.length;
+        return barcodes[next];
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductBarcodeLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
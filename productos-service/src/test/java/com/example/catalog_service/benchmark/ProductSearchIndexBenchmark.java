@@ -0,0 +1,89 @@
+package com.example.catalog_service.benchmark;
+
+import com.example.catalog_service.dto.ProductSearchDocument;
+import com.example.catalog_service.repository.ProductRepository;
+import com.example.catalog_service.service.ProductSearchIndex;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la búsqueda en el índice en memoria sobre un catálogo grande con nombres al azar. Una
+ * consulta LIKE '%kw%' recorre todas las filas; el índice solo toca las palabras del prefijo. No es
+ * parte de la suite de pruebas; se ejecuta con:
+ *
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main ProductSearchIndexBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchIndexBenchmark {
+    
+    private static final String[] WORDS = {"paracetamol", "ibuprofeno", "amoxicilina", "loratadina", "omeprazol",
+            "metformina", "losartan", "atorvastatina", "salbutamol", "diclofenaco", "cetirizina", "azitromicina",
+            "naproxeno", "ranitidina", "clonazepam", "enalapril", "vitamina", "ácido", "jarabe", "tabletas",
+            "cápsulas", "pediátrico", "forte", "crema", "gotas", "suspensión", "inyectable", "complejo"};
+    private static final String[] UNITS = {"5mg", "10mg", "20mg", "50mg", "100mg", "250mg", "500mg", "1g"};
+    
+    @Param("200000")
+    private int products;
+    
+    @Param({"p", "parac", "ibu 400", "amoxi susp", "vitamina jar", "lote1999", "prd 150000", "omeprazol capsulas"})
+    private String query;
+    
+    private ProductSearchIndex index;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ProductSearchIndex(Mockito.mock(ProductRepository.class));
+        List<ProductSearchDocument> page = new ArrayList<>();
+        for (long id = 1; id <= products; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                    + UNITS[random.nextInt(UNITS.length)] + " lote" + id;
+            page.add(new ProductSearchDocument(id, "PRD-" + id, String.valueOf(7_860_000_000_000L + id), name,
+                    WORDS[random.nextInt(WORDS.length)], WORDS[random.nextInt(WORDS.length)]));
+            // Mismo tamaño de página que la carga inicial
+            if (page.size() == 5000) {
+                index.putAll(page);
+                page.clear();
+            }
+        }
+        index.putAll(page);
+    }
+    
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, 20);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.catalog_service.controller;
+
+import com.example.catalog_service.CatalogFixtures;
+import com.example.catalog_service.dto.CatalogVersion;
+import com.example.catalog_service.dto.response.ProductResponse;
+import com.example.catalog_service.entity.Category;
+import com.example.catalog_service.entity.Laboratory;
+import com.example.catalog_service.entity.Product;
+import com.example.catalog_service.service.CategoryService;
+import com.example.catalog_service.service.LaboratoryService;
+import com.example.catalog_service.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {ProductController.class, CategoryController.class, LaboratoryController.class})
+class ConditionalGetTest {
+    
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2025, 3, 10, 9, 30);
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private ProductService productService;
+    
+    @MockBean
+    private CategoryService categoryService;
+    
+    @MockBean
+    private LaboratoryService laboratoryService;
+    
+    private ProductResponse product;
+    
+    @BeforeEach
+    void setUp() {
+        Category category = CatalogFixtures.analgesics();
+        category.setId(1L);
+        category.setUpdatedAt(MODIFIED);
+        Laboratory laboratory = CatalogFixtures.andinos();
+        laboratory.setId(1L);
+        laboratory.setUpdatedAt(MODIFIED);
+        Product paracetamol = CatalogFixtures.product("MED-007", "7861000000007", "Paracetamol 500mg", category, laboratory);
+        paracetamol.setId(7L);
+        paracetamol.setUpdatedAt(MODIFIED);
+        product = CatalogFixtures.response(paracetamol);
+        
+        when(productService.listVersion()).thenReturn(new CatalogVersion(120L, MODIFIED));
+        when(productService.findAll(any(), any(), any(), any())).thenReturn(new PageImpl<>(List.of(product), PageRequest.of(0, 20), 1));
+        when(productService.findById(7L)).thenReturn(product);
+        when(categoryService.listVersion()).thenReturn(new CatalogVersion(8L, MODIFIED));
+        when(categoryService.findAll()).thenReturn(List.of(product.getCategory()));
+        when(laboratoryService.listVersion()).thenReturn(new CatalogVersion(3L, null));
+        when(laboratoryService.findAll()).thenReturn(List.of(product.getLaboratory()));
+    }
+    
+    @Test
+    void listsCarryValidatorsAndRevalidation() throws Exception {
+        // ETag débil: Tomcat no comprime las respuestas con ETag fuerte
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.data.content[0].name").value("Paracetamol 500mg"));
+        
+        // Tabla vacía o sin fechas: solo ETag
+        mockMvc.perform(get("/api/laboratories"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+    }
+    
+    @Test
+    void unchangedListAnswers304WithoutLoadingIt() throws Exception {
+        String eTag = eTagOf("/api/categories");
+        
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, "\"otro\", " + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        verify(categoryService, times(1)).findAll();
+        
+        // La comparación es débil: la forma fuerte del mismo ETag también vale
+        String productsETag = eTagOf("/api/products?categoryId=1");
+        mockMvc.perform(get("/api/products?categoryId=1").header(HttpHeaders.IF_NONE_MATCH, productsETag.substring(2)))
+                .andExpect(status().isNotModified());
+        verify(productService, times(1)).findAll(any(), any(), any(), any());
+    }
+    
+    @Test
+    void changedListIsSentAgain() throws Exception {
+        String eTag = eTagOf("/api/categories");
+        when(categoryService.listVersion()).thenReturn(new CatalogVersion(9L, MODIFIED.plusMinutes(1)));
+        
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].name").value("Analgésicos"));
+        assertThat(eTagOf("/api/categories")).isNotEqualTo(eTag);
+    }
+    
+    @Test
+    void detailFollowsEmbeddedCategoryAndLaboratory() throws Exception {
+        String eTag = eTagOf("/api/products/7");
+        
+        mockMvc.perform(get("/api/products/7").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        
+        // Renombrar el laboratorio cambia la representación del producto
+        product.getLaboratory().setUpdatedAt(MODIFIED.plusHours(1));
+        mockMvc.perform(get("/api/products/7").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value("Paracetamol 500mg"));
+        assertThat(eTagOf("/api/products/7")).isNotEqualTo(eTag);
+    }
+    
+    private String eTagOf(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+        return result.getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.catalog_service.repository;
+
+import com.example.catalog_service.CatalogJpaTest;
+import com.example.catalog_service.dto.CatalogVersion;
+import com.example.catalog_service.dto.response.ProductResponse;
+import com.example.catalog_service.entity.Category;
+import com.example.catalog_service.entity.Laboratory;
+import com.example.catalog_service.entity.Product;
+import com.example.catalog_service.entity.enums.ProductStatus;
+import com.example.catalog_service.mapper.CategoryMapper;
+import com.example.catalog_service.mapper.LaboratoryMapper;
+import com.example.catalog_service.mapper.ProductMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static com.example.catalog_service.CatalogFixtures.andinos;
+import static com.example.catalog_service.CatalogFixtures.category;
+import static com.example.catalog_service.CatalogFixtures.laboratory;
+import static com.example.catalog_service.CatalogFixtures.product;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@CatalogJpaTest
+class ProductQueryCountTest {
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private final ProductMapper productMapper = new ProductMapper(new CategoryMapper(), new LaboratoryMapper());
+    private Statistics statistics;
+    private Long analgesicsId;
+    private Long andinosId;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        // 60 productos repartidos en 3 categorías hijas de "Medicamentos" y 2 laboratorios
+        Category parent = entityManager.persist(category("MED", "Medicamentos", null));
+        List<Category> categories = List.of(
+                entityManager.persist(category("ANALG", "Analgésicos", parent)),
+                entityManager.persist(category("ANTIB", "Antibióticos", parent)),
+                entityManager.persist(category("VITAM", "Vitaminas", parent)));
+        List<Laboratory> laboratories = List.of(
+                entityManager.persist(andinos()),
+                entityManager.persist(laboratory("Farmacéutica del Pacífico")));
+        analgesicsId = categories.get(0).getId();
+        andinosId = laboratories.get(0).getId();
+        
+        for (int i = 0; i < 60; i++) {
+            Product product = product(i, categories.get(i % 3), laboratories.get(i % 2));
+            product.setStatus(i % 10 == 0 ? ProductStatus.DISCONTINUED : ProductStatus.ACTIVE);
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void listingRunsTheSameNumberOfQueriesRegardlessOfPageSize() {
+        // Consulta de la página más el conteo; el mapeo no vuelve a la base de datos
+        assertThat(countQueries(null, null, null, PageRequest.of(0, 5))).isEqualTo(2);
+        assertThat(countQueries(null, null, null, PageRequest.of(0, 50))).isEqualTo(2);
+        assertThat(countQueries(analgesicsId, null, null, PageRequest.of(0, 10))).isEqualTo(2);
+        assertThat(countQueries(null, andinosId, ProductStatus.ACTIVE, PageRequest.of(1, 10))).isEqualTo(2);
+    }
+    
+    @Test
+    void filtersByCategoryLaboratoryAndStatus() {
+        Pageable byName = PageRequest.of(0, 100, Sort.by("name"));
+        
+        Page<Product> analgesics = productRepository.findPage(analgesicsId, null, null, byName);
+        Page<Product> andinosActive = productRepository.findPage(analgesicsId, andinosId, ProductStatus.ACTIVE, byName);
+        Page<Product> discontinued = productRepository.findPage(null, null, ProductStatus.DISCONTINUED, byName);
+        
+        assertThat(analgesics.getTotalElements()).isEqualTo(20);
+        assertThat(analgesics.getContent()).allMatch(product -> product.getCategory().getId().equals(analgesicsId));
+        // Índices múltiplos de 6, sin los múltiplos de 10
+        assertThat(andinosActive.getContent()).extracting(Product::getCode)
+                .containsExactly("MED-006", "MED-012", "MED-018", "MED-024", "MED-036", "MED-042", "MED-048", "MED-054");
+        assertThat(discontinued.getTotalElements()).isEqualTo(6);
+    }
+    
+    @Test
+    void pageCarriesCategoryParentAndLaboratory() {
+        Page<Product> page = productRepository.findPage(null, null, null, PageRequest.of(0, 3, Sort.by("name")));
+        ProductResponse first = productMapper.toResponse(page.getContent().get(0));
+        
+        assertThat(page.getTotalElements()).isEqualTo(60);
+        assertThat(page.getTotalPages()).isEqualTo(20);
+        assertThat(first.getName()).isEqualTo("Producto 000");
+        assertThat(first.getCategory().getName()).isEqualTo("Analgésicos");
+        assertThat(first.getCategory().getParentCategory().getName()).isEqualTo("Medicamentos");
+        assertThat(first.getLaboratory().getName()).isEqualTo("Laboratorios Andinos");
+    }
+    
+    @Test
+    void catalogVersionIsOneAggregateQueryAndFollowsDeletes() {
+        statistics.clear();
+        CatalogVersion before = productRepository.findVersion();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(before.getLastModified()).isNotNull();
+        
+        productRepository.delete(productRepository.findByCode("MED-059").orElseThrow());
+        entityManager.flush();
+        
+        assertThat(productRepository.findVersion().getETag()).isNotEqualTo(before.getETag());
+    }
+    
+    private long countQueries(Long categoryId, Long laboratoryId, ProductStatus status, Pageable pageable) {
+        entityManager.clear();
+        statistics.clear();
+        Page<ProductResponse> page = productRepository.findPage(categoryId, laboratoryId, status, pageable)
+                .map(productMapper::toResponse);
+        assertThat(page.getContent()).hasSize(pageable.getPageSize());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.catalog_service.service;
+
+import com.example.catalog_service.CatalogFixtures;
+import com.example.catalog_service.CatalogJpaTest;
+import com.example.catalog_service.dto.response.CatalogChangesResponse;
+import com.example.catalog_service.dto.response.LaboratoryResponse;
+import com.example.catalog_service.dto.response.ProductResponse;
+import com.example.catalog_service.entity.Category;
+import com.example.catalog_service.entity.Laboratory;
+import com.example.catalog_service.entity.Product;
+import com.example.catalog_service.entity.enums.CatalogResource;
+import com.example.catalog_service.mapper.CategoryMapper;
+import com.example.catalog_service.mapper.LaboratoryMapper;
+import com.example.catalog_service.mapper.ProductMapper;
+import com.example.catalog_service.repository.CatalogTombstoneRepository;
+import com.example.catalog_service.repository.CategoryRepository;
+import com.example.catalog_service.repository.LaboratoryRepository;
+import com.example.catalog_service.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@CatalogJpaTest
+class CatalogSyncServiceTest {
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private LaboratoryRepository laboratoryRepository;
+    
+    @Autowired
+    private CatalogTombstoneRepository tombstoneRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private CatalogSyncService syncService;
+    private List<Long> productIds;
+    private Long laboratoryId;
+    
+    @BeforeEach
+    void setUp() {
+        CategoryMapper categoryMapper = new CategoryMapper();
+        LaboratoryMapper laboratoryMapper = new LaboratoryMapper();
+        // Sin espera: en la prueba no hay transacciones concurrentes
+        syncService = new CatalogSyncService(productRepository, categoryRepository, laboratoryRepository,
+                tombstoneRepository, new ProductMapper(categoryMapper, laboratoryMapper), categoryMapper,
+                laboratoryMapper, Duration.ZERO, Duration.ofDays(30));
+        
+        Category category = entityManager.persist(CatalogFixtures.analgesics());
+        Laboratory laboratory = entityManager.persist(CatalogFixtures.andinos());
+        laboratoryId = laboratory.getId();
+        
+        productIds = new ArrayList<>();
+        for (Product product : CatalogFixtures.products(5, category, laboratory)) {
+            productIds.add(entityManager.persist(product).getId());
+        }
+        flushAndClear();
+    }
+    
+    @Test
+    void firstSyncPagesThroughWholeCatalog() {
+        List<Long> received = new ArrayList<>();
+        CatalogChangesResponse<ProductResponse> page = syncService.productChanges(null, 2);
+        received.addAll(ids(page));
+        assertThat(page.isHasMore()).isTrue();
+        while (page.isHasMore()) {
+            page = syncService.productChanges(page.getCursor(), 2);
+            received.addAll(ids(page));
+        }
+        
+        assertThat(received).containsExactlyElementsOf(productIds);
+        assertThat(page.getDeleted()).isEmpty();
+        // Al día: el mismo cursor no devuelve nada
+        CatalogChangesResponse<ProductResponse> again = syncService.productChanges(page.getCursor(), 2);
+        assertThat(again.getChanged()).isEmpty();
+        assertThat(again.isHasMore()).isFalse();
+    }
+    
+    @Test
+    void laterSyncReturnsOnlyChangesAndTombstones() {
+        String cursor = syncService.productChanges(null, 100).getCursor();
+        
+        Product updated = productRepository.findById(productIds.get(3)).orElseThrow();
+        updated.setName("Producto 003 x 20");
+        Product deleted = productRepository.findById(productIds.get(1)).orElseThrow();
+        productRepository.delete(deleted);
+        syncService.recordDeletion(CatalogResource.PRODUCT, deleted.getId());
+        flushAndClear();
+        
+        CatalogChangesResponse<ProductResponse> delta = syncService.productChanges(cursor, 100);
+        
+        assertThat(delta.getChanged()).extracting(ProductResponse::getName).containsExactly("Producto 003 x 20");
+        assertThat(delta.getDeleted()).containsExactly(productIds.get(1));
+        assertThat(delta.isHasMore()).isFalse();
+        // Las bajas de productos no aparecen en el feed de laboratorios
+        CatalogChangesResponse<LaboratoryResponse> laboratories = syncService.laboratoryChanges(null, 100);
+        assertThat(laboratories.getChanged()).extracting(LaboratoryResponse::getId).containsExactly(laboratoryId);
+        assertThat(syncService.laboratoryChanges(laboratories.getCursor(), 100).getDeleted()).isEmpty();
+    }
+    
+    @Test
+    void rejectsInvalidAndExpiredCursors() {
+        String expired = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "2020-01-01T00:00|0|2020-01-01T00:00|0".getBytes(StandardCharsets.UTF_8));
+        
+        assertThatThrownBy(() -> syncService.productChanges("no-es-un-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("inválido");
+        assertThatThrownBy(() -> syncService.categoryChanges(expired, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("expiró");
+    }
+    
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    private static List<Long> ids(CatalogChangesResponse<ProductResponse> page) {
+        return page.getChanged().stream().map(ProductResponse::getId).toList();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.catalog_service.service;
+
+import com.example.catalog_service.CatalogFixtures;
+import com.example.catalog_service.dto.response.ProductResponse;
+import com.example.catalog_service.entity.Category;
+import com.example.catalog_service.entity.Laboratory;
+import com.example.catalog_service.entity.Product;
+import com.example.catalog_service.event.ProductChangeType;
+import com.example.catalog_service.event.ProductChangedEvent;
+import com.example.catalog_service.mapper.CategoryMapper;
+import com.example.catalog_service.mapper.LaboratoryMapper;
+import com.example.catalog_service.mapper.ProductMapper;
+import com.example.catalog_service.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductBarcodeSnapshotTest {
+    
+    private ProductRepository productRepository;
+    private ProductBarcodeSnapshot snapshot;
+    private Category category;
+    private Laboratory laboratory;
+    
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        snapshot = new ProductBarcodeSnapshot(productRepository,
+                new ProductMapper(new CategoryMapper(), new LaboratoryMapper()));
+        
+        category = CatalogFixtures.analgesics();
+        category.setId(1L);
+        laboratory = CatalogFixtures.andinos();
+        laboratory.setId(1L);
+        
+        when(productRepository.findAllWithDetailsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                product(1L, "7861000000011", "Paracetamol 500mg"),
+                product(2L, "7861000000028", "Ibuprofeno 400mg")));
+    }
+    
+    @Test
+    void answersNothingUntilLoaded() {
+        snapshot.put(CatalogFixtures.response(product(3L, "7861000000035", "Loratadina 10mg")));
+        
+        assertThat(snapshot.isReady()).isFalse();
+        assertThat(snapshot.find("7861000000035")).isEmpty();
+    }
+    
+    @Test
+    void loadsWholeCatalogSharingCategoryAndLaboratory() {
+        snapshot.rebuild();
+        
+        ProductResponse paracetamol = snapshot.find("7861000000011").orElseThrow();
+        ProductResponse ibuprofeno = snapshot.find("7861000000028").orElseThrow();
+        assertThat(snapshot.isReady()).isTrue();
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(paracetamol.getName()).isEqualTo("Paracetamol 500mg");
+        assertThat(paracetamol.getCategory()).isSameAs(ibuprofeno.getCategory());
+        assertThat(paracetamol.getLaboratory()).isSameAs(ibuprofeno.getLaboratory());
+        assertThat(snapshot.find("0000000000000")).isEmpty();
+    }
+    
+    @Test
+    void publishesCopyOnChangeWithoutTouchingPreviousResponses() {
+        snapshot.rebuild();
+        ProductResponse before = snapshot.find("7861000000011").orElseThrow();
+        
+        // Cambia el código de barras del producto 1
+        when(productRepository.findAllWithDetailsByIdIn(List.of(1L)))
+                .thenReturn(List.of(product(1L, "7861000000099", "Paracetamol 500mg x 20")));
+        snapshot.onProductChanged(new ProductChangedEvent(1L, ProductChangeType.UPDATED));
+        
+        assertThat(snapshot.find("7861000000011")).isEmpty();
+        assertThat(snapshot.find("7861000000099")).get()
+                .extracting(ProductResponse::getName).isEqualTo("Paracetamol 500mg x 20");
+        assertThat(before.getName()).isEqualTo("Paracetamol 500mg");
+        assertThat(snapshot.size()).isEqualTo(2);
+    }
+    
+    @Test
+    void followsCreatesAndDeletes() {
+        snapshot.rebuild();
+        
+        when(productRepository.findAllWithDetailsByIdIn(List.of(3L)))
+                .thenReturn(List.of(product(3L, "7861000000035", "Loratadina 10mg")));
+        snapshot.onProductChanged(new ProductChangedEvent(3L, ProductChangeType.CREATED));
+        snapshot.onProductChanged(new ProductChangedEvent(2L, ProductChangeType.DELETED));
+        
+        assertThat(snapshot.find("7861000000035")).isPresent();
+        assertThat(snapshot.find("7861000000028")).isEmpty();
+        assertThat(snapshot.size()).isEqualTo(2);
+    }
+    
+    private Product product(Long id, String barcode, String name) {
+        Product product = CatalogFixtures.product("MED-" + id, barcode, name, category, laboratory);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.catalog_service.service;
+
+import com.example.catalog_service.dto.ProductSearchDocument;
+import com.example.catalog_service.event.ProductChangeType;
+import com.example.catalog_service.event.ProductChangedEvent;
+import com.example.catalog_service.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+    
+    private ProductSearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(mock(ProductRepository.class));
+        index.put(new ProductSearchDocument(1L, "MED-001", "7861000000011", "Paracetamol 500mg", "Paracetamol", "Paracetamol"));
+        index.put(new ProductSearchDocument(2L, "MED-002", "7861000000028", "Ácido Acetilsalicílico 100mg", "Aspirina", "Ácido acetilsalicílico"));
+        index.put(new ProductSearchDocument(3L, "MED-003", "7861000000035", "Dolofin Forte", "Analgésico", "Paracetamol"));
+        index.put(new ProductSearchDocument(4L, "MED-004", "7861000000042", "Paracetamol Pediátrico Jarabe", "Paracetamol", "Paracetamol"));
+        index.put(new ProductSearchDocument(5L, "VIT-010", "7861000000059", "Vitamina C Niños", null, "Ácido ascórbico"));
+    }
+    
+    @Test
+    void matchesWordPrefixesIgnoringAccentsAndCase() {
+        assertThat(index.search("parac", 10)).containsExactly(1L, 4L, 3L);
+        assertThat(index.search("ACIDO", 10)).containsExactlyInAnyOrder(2L, 5L);
+        assertThat(index.search("pediatrico", 10)).containsExactly(4L);
+        assertThat(index.search("ninos", 10)).containsExactly(5L);
+        assertThat(index.search("niños", 10)).containsExactly(5L);
+    }
+    
+    @Test
+    void requiresEveryWordOfTheQuery() {
+        assertThat(index.search("paracetamol jarabe", 10)).containsExactly(4L);
+        assertThat(index.search("acido asc", 10)).containsExactly(5L);
+        assertThat(index.search("paracetamol inexistente", 10)).isEmpty();
+    }
+    
+    @Test
+    void ranksCodeThenNameAboveIngredientMatches() {
+        // Código exacto primero; Dolofin solo coincide por principio activo y queda al final
+        assertThat(index.search("med 003", 10)).containsExactly(3L);
+        assertThat(index.search("7861000000042", 10)).containsExactly(4L);
+        assertThat(index.search("paracetamol", 10).get(2)).isEqualTo(3L);
+    }
+    
+    @Test
+    void honoursLimit() {
+        assertThat(index.search("med", 2)).hasSize(2);
+        assertThat(index.search("", 10)).isEmpty();
+        assertThat(index.search("   ", 10)).isEmpty();
+    }
+    
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.put(new ProductSearchDocument(3L, "MED-003", "7861000000035", "Ibuprofeno 400mg", "Ibuprofeno", "Ibuprofeno"));
+        assertThat(index.search("paracetamol", 10)).containsExactly(1L, 4L);
+        assertThat(index.search("ibupro", 10)).containsExactly(3L);
+        assertThat(index.search("dolofin", 10)).isEmpty();
+        
+        index.remove(1L);
+        assertThat(index.search("paracetamol", 10)).containsExactly(4L);
+        assertThat(index.search("med 001", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+    
+    @Test
+    void changeDuringLoadIsNotOverwrittenByTheStalePage() {
+        ProductRepository repository = mock(ProductRepository.class);
+        ProductSearchIndex loading = new ProductSearchIndex(repository);
+        when(repository.findSearchDocumentsAfter(anyLong(), any())).thenAnswer(invocation -> {
+            // El producto 1 se elimina mientras la página que aún lo contiene se está leyendo;
+            // el evento no espera a que termine la carga
+            Thread deletion = new Thread(() -> loading.onProductChanged(new ProductChangedEvent(1L, ProductChangeType.DELETED)));
+            deletion.start();
+            deletion.join(5000);
+            assertThat(deletion.isAlive()).isFalse();
+            return List.of(
+                    new ProductSearchDocument(1L, "MED-001", null, "Paracetamol 500mg", null, null),
+                    new ProductSearchDocument(2L, "MED-002", null, "Ibuprofeno 400mg", null, null));
+        });
+        
+        loading.load();
+        
+        assertThat(loading.isReady()).isTrue();
+        assertThat(loading.search("paracetamol", 10)).isEmpty();
+        assertThat(loading.search("ibuprofeno", 10)).containsExactly(2L);
+    }
+    
+    @Test
+    void refreshCorrectsChangesWhoseEventWasLost() {
+        ProductRepository repository = mock(ProductRepository.class);
+        ProductSearchIndex refreshing = new ProductSearchIndex(repository);
+        when(repository.findSearchDocumentsAfter(anyLong(), any()))
+                .thenReturn(List.of(
+                        new ProductSearchDocument(1L, "MED-001", null, "Paracetamol 500mg", null, null),
+                        new ProductSearchDocument(2L, "MED-002", null, "Ibuprofeno 400mg", null, null)))
+                .thenReturn(List.of(new ProductSearchDocument(2L, "MED-002", null, "Ibuprofeno 600mg", null, null)));
+        refreshing.load();
+        // La lectura del evento falla: el índice sigue igual hasta la reconstrucción
+        when(repository.findSearchDocumentById(2L)).thenThrow(new IllegalStateException("Conexión rechazada"));
+        refreshing.onProductChanged(new ProductChangedEvent(2L, ProductChangeType.UPDATED));
+        assertThat(refreshing.search("600mg", 10)).isEmpty();
+        
+        refreshing.refresh();
+        
+        assertThat(refreshing.search("paracetamol", 10)).isEmpty();
+        assertThat(refreshing.search("600mg", 10)).containsExactly(2L);
+        assertThat(refreshing.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void deduplicatesProductsWithIdsBeyondIntRange() {
+        index.put(new ProductSearchDocument(3_000_000_000L, "MED-900", null, "Paracetamol Parche", null, null));
+        
+        assertThat(index.search("par", 10)).hasSize(4).contains(3_000_000_000L);
+    }
+    
+    @Test
+    void failedLoadIsRetried() {
+        ProductRepository repository = mock(ProductRepository.class);
+        ProductSearchIndex retrying = new ProductSearchIndex(repository);
+        when(repository.findSearchDocumentsAfter(anyLong(), any()))
+                .thenThrow(new IllegalStateException("Conexión rechazada"))
+                .thenReturn(List.of(new ProductSearchDocument(1L, "MED-001", null, "Paracetamol 500mg", null, null)));
+        
+        retrying.load();
+        assertThat(retrying.isReady()).isFalse();
+        
+        retrying.retryLoad();
+        assertThat(retrying.isReady()).isTrue();
+        assertThat(retrying.search("parac", 10)).containsExactly(1L);
+        
+        retrying.retryLoad();
+        verify(repository, times(2)).findSearchDocumentsAfter(anyLong(), any());
+    }
+    
+    @Test
+    void updatedProductMissingFromDatabaseIsRemoved() {
+        ProductRepository repository = mock(ProductRepository.class);
+        ProductSearchIndex following = new ProductSearchIndex(repository);
+        following.put(new ProductSearchDocument(1L, "MED-001", null, "Paracetamol 500mg", null, null));
+        when(repository.findSearchDocumentById(1L)).thenReturn(Optional.empty());
+        
+        following.onProductChanged(new ProductChangedEvent(1L, ProductChangeType.UPDATED));
+        
+        assertThat(following.size()).isZero();
+    }
+}
@@ -2,10 +2,10 @@ package com.example.reporting_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-// import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-// @EnableScheduling // Descomentar para activar snapshots automáticos diarios
+@EnableScheduling
 public class ReportingServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,33 @@
+package com.example.reporting_service.config;
+
+import com.example.reporting_service.service.SourceRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BackfillConfig {
+    
+    @Value("${reporting.backfill.workers:4}")
+    private int workers;
+    
+    @Value("${reporting.backfill.requests-per-second:5}")
+    private double requestsPerSecond;
+    
+    @Bean(name = "backfillExecutor")
+    public ThreadPoolTaskExecutor backfillExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("backfill-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+    
+    @Bean(name = "backfillRateLimiter")
+    public SourceRateLimiter backfillRateLimiter() {
+        return new SourceRateLimiter(requestsPerSecond);
+    }
+}
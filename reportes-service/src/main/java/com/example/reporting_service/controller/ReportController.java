@@ -2,14 +2,20 @@ package com.example.reporting_service.controller;
 
 import com.example.reporting_service.dto.*;
 import com.example.reporting_service.service.ReportingService;
+import com.example.reporting_service.service.SalesExportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -21,6 +27,7 @@ import java.util.List;
 public class ReportController {
     
     private final ReportingService reportingService;
+    private final SalesExportService salesExportService;
     
     // ========== Sales Reports ==========
     
@@ -80,6 +87,27 @@ public class ReportController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Sales of the period as CSV, one row per sale, streamed while it is read from sales-service.
+     */
+    @GetMapping(value = "/sales/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long branchId) {
+        
+        log.info("GET /api/reports/sales/export - startDate: {}, endDate: {}, branchId: {}", 
+                startDate, endDate, branchId);
+        
+        StreamingResponseBody body = outputStream ->
+                salesExportService.writeCsv(startDate, endDate, branchId, outputStream);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"sales-" + startDate + "-" + endDate + ".csv\"")
+                .body(body);
+    }
+    
     // ========== Inventory Reports ==========
     
     @GetMapping("/inventory/summary")
@@ -125,11 +153,10 @@ public class ReportController {
     // ========== Dashboard ==========
     
     @GetMapping("/dashboard")
-    public ResponseEntity<DashboardResponse> getDashboard() {
+    public Mono<ResponseEntity<DashboardResponse>> getDashboard() {
         log.info("GET /api/reports/dashboard");
         
-        DashboardResponse response = reportingService.getDashboard();
-        return ResponseEntity.ok(response);
+        return reportingService.getDashboard().map(ResponseEntity::ok);
     }
     
     // ========== Health Check ==========
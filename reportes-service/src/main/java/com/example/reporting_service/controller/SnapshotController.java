@@ -1,17 +1,22 @@
 package com.example.reporting_service.controller;
 
+import com.example.reporting_service.dto.BackfillJobResponse;
 import com.example.reporting_service.dto.InventorySummaryResponse;
 import com.example.reporting_service.dto.SalesSummaryResponse;
+import com.example.reporting_service.entity.BackfillJob;
 import com.example.reporting_service.entity.InventorySummary;
 import com.example.reporting_service.entity.SalesSummary;
+import com.example.reporting_service.mapper.BackfillJobMapper;
 import com.example.reporting_service.mapper.InventorySummaryMapper;
 import com.example.reporting_service.mapper.SalesSummaryMapper;
 import com.example.reporting_service.repository.InventorySummaryRepository;
 import com.example.reporting_service.repository.SalesSummaryRepository;
-import com.example.reporting_service.service.SnapshotService;
+import com.example.reporting_service.service.BackfillService;
+import com.example.reporting_service.service.SalesRollupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,25 +31,60 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class SnapshotController {
     
-    private final SnapshotService snapshotService;
+    private final BackfillService backfillService;
+    private final SalesRollupService salesRollupService;
     private final SalesSummaryRepository salesSummaryRepository;
     private final InventorySummaryRepository inventorySummaryRepository;
     private final SalesSummaryMapper salesSummaryMapper;
     private final InventorySummaryMapper inventorySummaryMapper;
+    private final BackfillJobMapper backfillJobMapper;
     
     /**
-     * Genera snapshots históricos para un rango de fechas
+     * Inicia en segundo plano la regeneración de resúmenes de ventas históricos para un
+     * rango de fechas. El progreso se consulta en /backfill/{jobId}.
      */
     @PostMapping("/generate")
-    public ResponseEntity<String> generateHistoricalSnapshots(
+    public ResponseEntity<BackfillJobResponse> generateHistoricalSnapshots(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         
         log.info("POST /api/snapshots/generate - startDate: {}, endDate: {}", startDate, endDate);
         
-        snapshotService.generateHistoricalSnapshots(startDate, endDate);
+        BackfillJob job = backfillService.start(startDate, endDate);
         
-        return ResponseEntity.ok("Snapshots históricos generados exitosamente");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(backfillJobMapper.toResponse(job));
+    }
+    
+    /**
+     * Estado y progreso de una regeneración histórica
+     */
+    @GetMapping("/backfill/{jobId}")
+    public ResponseEntity<BackfillJobResponse> getBackfillJob(@PathVariable Long jobId) {
+        log.info("GET /api/snapshots/backfill/{}", jobId);
+        
+        return ResponseEntity.ok(backfillJobMapper.toResponse(backfillService.getJob(jobId)));
+    }
+    
+    /**
+     * Reanuda los tramos pendientes o fallidos de una regeneración histórica
+     */
+    @PostMapping("/backfill/{jobId}/resume")
+    public ResponseEntity<BackfillJobResponse> resumeBackfillJob(@PathVariable Long jobId) {
+        log.info("POST /api/snapshots/backfill/{}/resume", jobId);
+        
+        BackfillJob job = backfillService.resume(jobId);
+        
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(backfillJobMapper.toResponse(job));
+    }
+    
+    /**
+     * Aplica de inmediato los cambios de ventas pendientes a los resúmenes diarios
+     */
+    @PostMapping("/sales/rollup")
+    public ResponseEntity<Integer> rollupSales() {
+        log.info("POST /api/snapshots/sales/rollup");
+        
+        return ResponseEntity.ok(salesRollupService.rollup());
     }
     
     /**
@@ -0,0 +1,28 @@
+package com.example.reporting_service.dto;
+
+import com.example.reporting_service.entity.BackfillStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BackfillJobResponse {
+    private Long jobId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BackfillStatus status;
+    private Integer totalChunks;
+    private Integer completedChunks;
+    private Integer failedChunks;
+    private Integer progressPercent;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -15,6 +17,10 @@ public class DashboardResponse {
     private SalesMetrics salesMetrics;
     private InventoryMetrics inventoryMetrics;
     
+    // Downstream services that failed or timed out; their metrics are reported as zeros
+    @Builder.Default
+    private List<String> unavailableSources = new ArrayList<>();
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,48 @@
+package com.example.reporting_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Contiguous range of days of a {@link BackfillJob}, rebuilt in one unit of work.
+ */
+@Entity
+@Table(name = "backfill_chunks", indexes = {
+    @Index(name = "idx_backfill_chunks_job_status", columnList = "job_id, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillChunk {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+    
+    @Column(name = "chunk_start", nullable = false)
+    private LocalDate chunkStart;
+    
+    @Column(name = "chunk_end", nullable = false)
+    private LocalDate chunkEnd;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BackfillStatus status;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
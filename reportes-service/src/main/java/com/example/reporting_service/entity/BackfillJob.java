@@ -0,0 +1,58 @@
+package com.example.reporting_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Historical rebuild of sales summaries, split into {@link BackfillChunk}s that are
+ * processed independently so an interrupted job can resume where it stopped.
+ */
+@Entity
+@Table(name = "backfill_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+    
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BackfillStatus status;
+    
+    @Column(name = "total_chunks", nullable = false)
+    private Integer totalChunks;
+    
+    @Column(name = "completed_chunks", nullable = false)
+    private Integer completedChunks = 0;
+    
+    @Column(name = "failed_chunks", nullable = false)
+    private Integer failedChunks = 0;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.reporting_service.entity;
+
+public enum BackfillStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -10,7 +10,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory_summary")
+@Table(name = "inventory_summary", indexes = {
+    @Index(name = "ux_inventory_summary_date_branch", columnList = "report_date, branch_id", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
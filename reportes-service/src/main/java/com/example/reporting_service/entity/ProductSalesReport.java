@@ -10,7 +10,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "product_sales_report")
+@Table(name = "product_sales_report", indexes = {
+    @Index(name = "ux_product_sales_date_branch_product", columnList = "report_date, branch_id, product_id", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,27 @@
+package com.example.reporting_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a closed day whose product_sales_report rows have been fully loaded from sales-service.
+ */
+@Entity
+@Table(name = "product_sales_report_day")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesReportDay {
+    
+    @Id
+    @Column(name = "report_date")
+    private LocalDate reportDate;
+    
+    @Column(name = "loaded_at", nullable = false)
+    private LocalDateTime loadedAt;
+}
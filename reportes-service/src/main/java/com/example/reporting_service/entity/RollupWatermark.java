@@ -0,0 +1,33 @@
+package com.example.reporting_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position reached in a source change feed. The (lastUpdatedAt, lastId) pair is the
+ * cursor passed back to the source on the next run.
+ */
+@Entity
+@Table(name = "rollup_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupWatermark {
+    
+    @Id
+    @Column(name = "feed_name", length = 50)
+    private String feedName;
+    
+    @Column(name = "last_updated_at", nullable = false)
+    private LocalDateTime lastUpdatedAt;
+    
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+    
+    @Column(name = "advanced_at")
+    private LocalDateTime advancedAt;
+}
@@ -10,7 +10,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales_summary")
+@Table(name = "sales_summary", indexes = {
+    @Index(name = "ux_sales_summary_date_branch", columnList = "report_date, branch_id", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,26 @@
+package com.example.reporting_service.external;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Available batch of a product in a branch, as listed by inventory-service.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchData {
+    private Long id;
+    private String batchNumber;
+    private Long productId;
+    private Long branchId;
+    private Integer quantity;
+    private LocalDate expirationDate;
+}
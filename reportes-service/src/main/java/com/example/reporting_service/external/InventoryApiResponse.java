@@ -0,0 +1,19 @@
+package com.example.reporting_service.external;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envelope used by inventory-service for all of its responses.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class InventoryApiResponse<T> {
+    private boolean success;
+    private String message;
+    private T data;
+}
@@ -0,0 +1,33 @@
+package com.example.reporting_service.external;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Inventory KPIs of one branch computed by inventory-service. inventoryValue is the
+ * available batches valued at their unit cost.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class InventoryKpiData {
+    private Long branchId;
+    private String branchName;
+    @Builder.Default
+    private long totalProducts = 0;
+    @Builder.Default
+    private long totalUnits = 0;
+    @Builder.Default
+    private long lowStockProducts = 0;
+    @Builder.Default
+    private long expiringSoon = 0;
+    @Builder.Default
+    private BigDecimal inventoryValue = BigDecimal.ZERO;
+}
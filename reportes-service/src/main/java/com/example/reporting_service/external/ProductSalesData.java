@@ -0,0 +1,25 @@
+package com.example.reporting_service.external;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductSalesData {
+    private Long productId;
+    private String productName;
+    private String productCode;
+    private Long branchId;
+    private LocalDate date;
+    private Long quantitySold;
+    private BigDecimal revenue;
+}
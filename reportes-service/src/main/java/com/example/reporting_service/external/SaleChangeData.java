@@ -0,0 +1,24 @@
+package com.example.reporting_service.external;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entry of the sales-service change feed. (updatedAt, id) is the feed cursor.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SaleChangeData {
+    private Long id;
+    private Long branchId;
+    private LocalDateTime saleDate;
+    private LocalDateTime updatedAt;
+}
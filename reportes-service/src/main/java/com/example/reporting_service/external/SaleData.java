@@ -1,5 +1,7 @@
 package com.example.reporting_service.external;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,11 +14,13 @@ import java.time.LocalDate;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class SaleData {
     private Long id;
     private LocalDate saleDate;
     private Long branchId;
     private Long customerId;
+    @JsonAlias("total")
     private BigDecimal totalAmount;
     private Integer itemCount;
     private String status;
@@ -0,0 +1,39 @@
+package com.example.reporting_service.external;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Sales totals computed by sales-service. branchId and date are null when the
+ * aggregate is not grouped by them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SalesAggregateData {
+    private Long branchId;
+    private LocalDate date;
+    @Builder.Default
+    private long totalSales = 0;
+    @Builder.Default
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+    @Builder.Default
+    private long totalItems = 0;
+    @Builder.Default
+    private long uniqueCustomers = 0;
+    
+    public BigDecimal averageTicket() {
+        return totalSales > 0
+                ? totalRevenue.divide(BigDecimal.valueOf(totalSales), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+}
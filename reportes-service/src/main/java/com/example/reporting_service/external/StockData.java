@@ -6,7 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 
 @Data
 @Builder
@@ -20,6 +19,5 @@ public class StockData {
     private Long branchId;
     private Integer quantity;
     private Integer minStock;
-    private LocalDate expiryDate;
     private BigDecimal unitPrice;
 }
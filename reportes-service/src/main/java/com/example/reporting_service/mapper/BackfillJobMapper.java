@@ -0,0 +1,33 @@
+package com.example.reporting_service.mapper;
+
+import com.example.reporting_service.dto.BackfillJobResponse;
+import com.example.reporting_service.entity.BackfillJob;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BackfillJobMapper {
+    
+    public BackfillJobResponse toResponse(BackfillJob entity) {
+        if (entity == null) {
+            return null;
+        }
+        
+        int progress = entity.getTotalChunks() > 0
+                ? entity.getCompletedChunks() * 100 / entity.getTotalChunks()
+                : 100;
+        
+        return BackfillJobResponse.builder()
+                .jobId(entity.getId())
+                .startDate(entity.getStartDate())
+                .endDate(entity.getEndDate())
+                .status(entity.getStatus())
+                .totalChunks(entity.getTotalChunks())
+                .completedChunks(entity.getCompletedChunks())
+                .failedChunks(entity.getFailedChunks())
+                .progressPercent(progress)
+                .createdAt(entity.getCreatedAt())
+                .startedAt(entity.getStartedAt())
+                .finishedAt(entity.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.reporting_service.repository;
+
+import com.example.reporting_service.entity.BackfillChunk;
+import com.example.reporting_service.entity.BackfillStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BackfillChunkRepository extends JpaRepository<BackfillChunk, Long> {
+    
+    List<BackfillChunk> findByJobIdAndStatusNotOrderByChunkStart(Long jobId, BackfillStatus status);
+    
+    long countByJobIdAndStatusNot(Long jobId, BackfillStatus status);
+}
@@ -0,0 +1,47 @@
+package com.example.reporting_service.repository;
+
+import com.example.reporting_service.entity.BackfillJob;
+import com.example.reporting_service.entity.BackfillStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BackfillJobRepository extends JpaRepository<BackfillJob, Long> {
+    
+    List<BackfillJob> findByStatusIn(Collection<BackfillStatus> statuses);
+    
+    /**
+     * Marks the job RUNNING only if it still has the status and start time the caller read,
+     * so when several instances try to resume the same job exactly one of them gets 1.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BackfillJob j SET j.status = com.example.reporting_service.entity.BackfillStatus.RUNNING, " +
+           "j.startedAt = :startedAt, j.finishedAt = NULL, j.completedChunks = :completedChunks, j.failedChunks = 0 " +
+           "WHERE j.id = :id AND j.status = :status " +
+           "AND (j.startedAt = :previousStartedAt OR (j.startedAt IS NULL AND :previousStartedAt IS NULL))")
+    int claim(@Param("id") Long id,
+              @Param("status") BackfillStatus status,
+              @Param("previousStartedAt") LocalDateTime previousStartedAt,
+              @Param("startedAt") LocalDateTime startedAt,
+              @Param("completedChunks") int completedChunks);
+    
+    // Counters are bumped in place because chunks of the same job finish concurrently
+    @Transactional
+    @Modifying
+    @Query("UPDATE BackfillJob j SET j.completedChunks = j.completedChunks + 1 WHERE j.id = :id")
+    int incrementCompleted(@Param("id") Long id);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE BackfillJob j SET j.failedChunks = j.failedChunks + 1 WHERE j.id = :id")
+    int incrementFailed(@Param("id") Long id);
+}
@@ -0,0 +1,56 @@
+package com.example.reporting_service.repository;
+
+import com.example.reporting_service.entity.InventorySummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Idempotent bulk writes for inventory_summary, upserted on the unique
+ * (report_date, branch_id) key like {@link SalesSummaryBatchRepository}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventorySummaryBatchRepository {
+    
+    private static final String[] COLUMNS = {
+            "report_date", "branch_id", "total_products", "low_stock_products", "expiring_soon",
+            "inventory_value", "generated_at"
+    };
+    
+    private static final String UPSERT_SUFFIX =
+            " ON CONFLICT (report_date, branch_id) DO UPDATE SET " +
+            "total_products = EXCLUDED.total_products, low_stock_products = EXCLUDED.low_stock_products, " +
+            "expiring_soon = EXCLUDED.expiring_soon, inventory_value = EXCLUDED.inventory_value, " +
+            "generated_at = EXCLUDED.generated_at";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Upserts the rows with one statement per day (all branches of the day together).
+     */
+    public void upsertAll(Collection<InventorySummary> rows) {
+        Timestamp generatedAt = Timestamp.valueOf(LocalDateTime.now());
+        SnapshotUpserts.byDay(rows, InventorySummary::getReportDate).forEach(dayRows -> {
+            List<Object> args = new ArrayList<>(dayRows.size() * COLUMNS.length);
+            for (InventorySummary summary : dayRows) {
+                args.add(Date.valueOf(summary.getReportDate()));
+                args.add(summary.getBranchId());
+                args.add(summary.getTotalProducts());
+                args.add(summary.getLowStockProducts());
+                args.add(summary.getExpiringSoon());
+                args.add(summary.getInventoryValue());
+                args.add(generatedAt);
+            }
+            jdbcTemplate.update(SnapshotUpserts.insertSql("inventory_summary", COLUMNS, dayRows.size()) + UPSERT_SUFFIX,
+                    args.toArray());
+        });
+    }
+}
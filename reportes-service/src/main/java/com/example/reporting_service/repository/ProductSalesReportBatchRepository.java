@@ -0,0 +1,89 @@
+package com.example.reporting_service.repository;
+
+import com.example.reporting_service.entity.ProductSalesReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Idempotent writes for product_sales_report. Rows are upserted on the unique
+ * (report_date, branch_id, product_id) key, so two requests loading the same days at the
+ * same time both succeed and leave a single row per product, branch and day. Rows carry the
+ * time their data was fetched and a write never replaces data fetched later.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductSalesReportBatchRepository {
+    
+    private static final String[] COLUMNS = {
+            "report_date", "branch_id", "product_id", "product_name", "product_code",
+            "quantity_sold", "revenue", "generated_at"
+    };
+    
+    private static final String UPSERT_SUFFIX =
+            " ON CONFLICT (report_date, branch_id, product_id) DO UPDATE SET " +
+            "product_name = EXCLUDED.product_name, product_code = EXCLUDED.product_code, " +
+            "quantity_sold = EXCLUDED.quantity_sold, revenue = EXCLUDED.revenue, " +
+            "generated_at = EXCLUDED.generated_at " +
+            "WHERE product_sales_report.generated_at <= EXCLUDED.generated_at";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Replaces the rows of the given days with the ones fetched at {@code fetchedAt} in one
+     * transaction: upserts them, removes rows of those days fetched earlier that this load no
+     * longer has (e.g. a product whose only sale was cancelled) and records the closed days as loaded.
+     */
+    @Transactional
+    public void replaceDays(Collection<LocalDate> days, Collection<ProductSalesReport> rows,
+                            Collection<LocalDate> closedDays, LocalDateTime fetchedAt) {
+        if (days.isEmpty()) {
+            return;
+        }
+        Timestamp generatedAt = Timestamp.valueOf(fetchedAt);
+        SnapshotUpserts.byDay(rows, ProductSalesReport::getReportDate).forEach(dayRows -> {
+            List<Object> args = new ArrayList<>(dayRows.size() * COLUMNS.length);
+            for (ProductSalesReport report : dayRows) {
+                args.add(Date.valueOf(report.getReportDate()));
+                args.add(report.getBranchId());
+                args.add(report.getProductId());
+                args.add(report.getProductName());
+                args.add(report.getProductCode());
+                args.add(report.getQuantitySold());
+                args.add(report.getRevenue());
+                args.add(generatedAt);
+            }
+            jdbcTemplate.update(SnapshotUpserts.insertSql("product_sales_report", COLUMNS, dayRows.size())
+                    + UPSERT_SUFFIX, args.toArray());
+        });
+        
+        // Only rows fetched before this load: a concurrent load that fetched later keeps its rows
+        List<Object> args = new ArrayList<>();
+        days.forEach(day -> args.add(Date.valueOf(day)));
+        args.add(generatedAt);
+        jdbcTemplate.update("DELETE FROM product_sales_report WHERE report_date IN ("
+                + String.join(", ", Collections.nCopies(days.size(), "?")) + ") AND generated_at < ?",
+                args.toArray());
+        
+        if (!closedDays.isEmpty()) {
+            List<Object> dayArgs = new ArrayList<>();
+            closedDays.forEach(day -> {
+                dayArgs.add(Date.valueOf(day));
+                dayArgs.add(generatedAt);
+            });
+            jdbcTemplate.update(SnapshotUpserts.insertSql("product_sales_report_day",
+                            new String[]{"report_date", "loaded_at"}, closedDays.size())
+                    + " ON CONFLICT (report_date) DO UPDATE SET loaded_at = EXCLUDED.loaded_at", dayArgs.toArray());
+        }
+    }
+}
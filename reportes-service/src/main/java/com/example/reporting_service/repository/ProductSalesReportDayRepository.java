@@ -0,0 +1,18 @@
+package com.example.reporting_service.repository;
+
+import com.example.reporting_service.entity.ProductSalesReportDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductSalesReportDayRepository extends JpaRepository<ProductSalesReportDay, LocalDate> {
+    
+    @Query("SELECT d.reportDate FROM ProductSalesReportDay d WHERE d.reportDate BETWEEN :startDate AND :endDate")
+    List<LocalDate> findLoadedDates(@Param("startDate") LocalDate startDate, 
+                                    @Param("endDate") LocalDate endDate);
+}
@@ -1,6 +1,7 @@
 package com.example.reporting_service.repository;
 
 import com.example.reporting_service.entity.ProductSalesReport;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,10 +18,13 @@ public interface ProductSalesReportRepository extends JpaRepository<ProductSales
     List<ProductSalesReport> findByDateRange(@Param("startDate") LocalDate startDate, 
                                               @Param("endDate") LocalDate endDate);
     
-    @Query("SELECT p FROM ProductSalesReport p WHERE p.reportDate BETWEEN :startDate AND :endDate " +
-           "ORDER BY p.revenue DESC")
-    List<ProductSalesReport> findTopByRevenue(@Param("startDate") LocalDate startDate, 
-                                               @Param("endDate") LocalDate endDate);
+    @Query("SELECT p.productId AS productId, MAX(p.productName) AS productName, " +
+           "MAX(p.productCode) AS productCode, SUM(p.quantitySold) AS quantitySold, SUM(p.revenue) AS revenue " +
+           "FROM ProductSalesReport p WHERE p.reportDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY p.productId ORDER BY SUM(p.revenue) DESC")
+    List<ProductSalesTotals> findTopByRevenue(@Param("startDate") LocalDate startDate, 
+                                              @Param("endDate") LocalDate endDate,
+                                              Pageable pageable);
     
     @Query("SELECT p FROM ProductSalesReport p WHERE p.reportDate BETWEEN :startDate AND :endDate " +
            "ORDER BY p.quantitySold DESC")
@@ -34,4 +38,12 @@ public interface ProductSalesReportRepository extends JpaRepository<ProductSales
                                                        @Param("branchId") Long branchId);
     
     List<ProductSalesReport> findByProductId(Long productId);
+    
+    @Query("SELECT p.productId AS productId, MAX(p.productName) AS productName, " +
+           "MAX(p.productCode) AS productCode, p.branchId AS branchId, " +
+           "SUM(p.quantitySold) AS quantitySold, SUM(p.revenue) AS revenue " +
+           "FROM ProductSalesReport p WHERE p.reportDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY p.productId, p.branchId ORDER BY SUM(p.revenue) DESC")
+    List<ProductSalesTotals> sumByProductAndBranch(@Param("startDate") LocalDate startDate, 
+                                                   @Param("endDate") LocalDate endDate);
 }
@@ -0,0 +1,15 @@
+package com.example.reporting_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Product sales summed over a date range from product_sales_report.
+ */
+public interface ProductSalesTotals {
+    Long getProductId();
+    String getProductName();
+    String getProductCode();
+    Long getBranchId();
+    Long getQuantitySold();
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,9 @@
+package com.example.reporting_service.repository;
+
+import com.example.reporting_service.entity.RollupWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {
+}
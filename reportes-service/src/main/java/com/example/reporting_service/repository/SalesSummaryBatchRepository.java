@@ -0,0 +1,58 @@
+package com.example.reporting_service.repository;
+
+import com.example.reporting_service.entity.SalesSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Idempotent bulk writes for sales_summary. Rows are upserted on the unique
+ * (report_date, branch_id) key, so re-running a rollup or backfill overwrites the
+ * previous values instead of inserting duplicates.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesSummaryBatchRepository {
+    
+    private static final String[] COLUMNS = {
+            "report_date", "branch_id", "total_sales", "total_revenue", "average_ticket",
+            "total_items", "unique_customers", "generated_at"
+    };
+    
+    private static final String UPSERT_SUFFIX =
+            " ON CONFLICT (report_date, branch_id) DO UPDATE SET " +
+            "total_sales = EXCLUDED.total_sales, total_revenue = EXCLUDED.total_revenue, " +
+            "average_ticket = EXCLUDED.average_ticket, total_items = EXCLUDED.total_items, " +
+            "unique_customers = EXCLUDED.unique_customers, generated_at = EXCLUDED.generated_at";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Upserts the rows with one statement per day (all branches of the day together).
+     */
+    public void upsertAll(Collection<SalesSummary> rows) {
+        Timestamp generatedAt = Timestamp.valueOf(LocalDateTime.now());
+        SnapshotUpserts.byDay(rows, SalesSummary::getReportDate).forEach(dayRows -> {
+            List<Object> args = new ArrayList<>(dayRows.size() * COLUMNS.length);
+            for (SalesSummary summary : dayRows) {
+                args.add(Date.valueOf(summary.getReportDate()));
+                args.add(summary.getBranchId());
+                args.add(summary.getTotalSales());
+                args.add(summary.getTotalRevenue());
+                args.add(summary.getAverageTicket());
+                args.add(summary.getTotalItems());
+                args.add(summary.getUniqueCustomers());
+                args.add(generatedAt);
+            }
+            jdbcTemplate.update(SnapshotUpserts.insertSql("sales_summary", COLUMNS, dayRows.size()) + UPSERT_SUFFIX,
+                    args.toArray());
+        });
+    }
+}
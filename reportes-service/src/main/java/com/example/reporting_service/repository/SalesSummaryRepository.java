@@ -40,4 +40,19 @@ public interface SalesSummaryRepository extends JpaRepository<SalesSummary, Long
                                        @Param("endDate") LocalDate endDate);
     
     Optional<SalesSummary> findByReportDateAndBranchId(LocalDate reportDate, Long branchId);
+    
+    @Query("SELECT COALESCE(SUM(s.totalSales), 0) AS totalSales, COALESCE(SUM(s.totalRevenue), 0) AS totalRevenue, " +
+           "COALESCE(SUM(s.totalItems), 0) AS totalItems, COALESCE(SUM(s.uniqueCustomers), 0) AS uniqueCustomers " +
+           "FROM SalesSummary s WHERE s.reportDate BETWEEN :startDate AND :endDate " +
+           "AND (:branchId IS NULL OR s.branchId = :branchId)")
+    SalesSummaryTotals sumByDateRange(@Param("startDate") LocalDate startDate, 
+                                      @Param("endDate") LocalDate endDate,
+                                      @Param("branchId") Long branchId);
+    
+    @Query("SELECT s.branchId AS branchId, SUM(s.totalSales) AS totalSales, SUM(s.totalRevenue) AS totalRevenue, " +
+           "SUM(s.totalItems) AS totalItems, SUM(s.uniqueCustomers) AS uniqueCustomers " +
+           "FROM SalesSummary s WHERE s.reportDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY s.branchId ORDER BY s.branchId")
+    List<SalesSummaryTotals> sumByBranch(@Param("startDate") LocalDate startDate, 
+                                         @Param("endDate") LocalDate endDate);
 }
@@ -0,0 +1,22 @@
+package com.example.reporting_service.repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Sales summed over a date range from sales_summary. uniqueCustomers is the sum of the
+ * daily distinct counts, so it is only exact for a single branch and day.
+ */
+public interface SalesSummaryTotals {
+    Long getBranchId();
+    Long getTotalSales();
+    BigDecimal getTotalRevenue();
+    Long getTotalItems();
+    Long getUniqueCustomers();
+    
+    default BigDecimal averageTicket() {
+        return getTotalSales() > 0
+                ? getTotalRevenue().divide(BigDecimal.valueOf(getTotalSales()), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.reporting_service.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers shared by the snapshot batch repositories to build multi-row upserts.
+ */
+final class SnapshotUpserts {
+    
+    // Keeps the bind parameters of a statement well below the PostgreSQL limit of 32767
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+    
+    private SnapshotUpserts() {
+    }
+    
+    /**
+     * Groups rows by day in date order; a day with more rows than a statement allows is split.
+     */
+    static <T> List<List<T>> byDay(Collection<T> rows, Function<T, LocalDate> day) {
+        Map<LocalDate, List<T>> grouped = rows.stream()
+                .collect(Collectors.groupingBy(day, TreeMap::new, Collectors.toList()));
+        
+        List<List<T>> statements = new ArrayList<>();
+        for (List<T> dayRows : grouped.values()) {
+            for (int from = 0; from < dayRows.size(); from += MAX_ROWS_PER_STATEMENT) {
+                statements.add(dayRows.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, dayRows.size())));
+            }
+        }
+        return statements;
+    }
+    
+    static String insertSql(String table, String[] columns, int rowCount) {
+        String row = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES "
+                + String.join(", ", Collections.nCopies(rowCount, row));
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.entity.BackfillChunk;
+import com.example.reporting_service.entity.BackfillJob;
+import com.example.reporting_service.entity.BackfillStatus;
+import com.example.reporting_service.repository.BackfillChunkRepository;
+import com.example.reporting_service.repository.BackfillJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Rebuilds historical sales summaries in the background. The range is split into chunks
+ * stored in backfill_chunks; chunks run on the bounded backfill pool, each source request
+ * waits for the shared rate limiter, and every chunk is written in one batch. Chunks that
+ * are not completed are picked up again by {@link #resume(Long)} or after a restart.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BackfillService {
+    
+    private static final int MAX_ERROR_LENGTH = 500;
+    
+    private final BackfillJobRepository backfillJobRepository;
+    private final BackfillChunkRepository backfillChunkRepository;
+    private final SalesRollupService salesRollupService;
+    private final BranchDirectoryService branchDirectoryService;
+    
+    @Qualifier("backfillExecutor")
+    private final ThreadPoolTaskExecutor backfillExecutor;
+    
+    @Qualifier("backfillRateLimiter")
+    private final SourceRateLimiter backfillRateLimiter;
+    
+    @Value("${reporting.backfill.chunk-days:31}")
+    private int chunkDays = 31;
+    
+    public BackfillJob start(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        
+        List<BackfillChunk> chunks = new ArrayList<>();
+        for (LocalDate from = startDate; !from.isAfter(endDate); from = from.plusDays(chunkDays)) {
+            LocalDate to = from.plusDays(chunkDays - 1);
+            BackfillChunk chunk = new BackfillChunk();
+            chunk.setChunkStart(from);
+            chunk.setChunkEnd(to.isAfter(endDate) ? endDate : to);
+            chunk.setStatus(BackfillStatus.PENDING);
+            chunks.add(chunk);
+        }
+        
+        BackfillJob job = new BackfillJob();
+        job.setStartDate(startDate);
+        job.setEndDate(endDate);
+        job.setStatus(BackfillStatus.PENDING);
+        job.setTotalChunks(chunks.size());
+        BackfillJob saved = backfillJobRepository.save(job);
+        
+        chunks.forEach(chunk -> chunk.setJobId(saved.getId()));
+        backfillChunkRepository.saveAll(chunks);
+        log.info("Backfill job {} created for {} to {} in {} chunk(s)", saved.getId(), startDate, endDate, chunks.size());
+        
+        run(saved);
+        return getJob(saved.getId());
+    }
+    
+    public BackfillJob resume(Long jobId) {
+        BackfillJob job = getJob(jobId);
+        if (job.getStatus() == BackfillStatus.COMPLETED) {
+            return job;
+        }
+        if (job.getStatus() == BackfillStatus.RUNNING || !run(job)) {
+            throw new IllegalArgumentException("Backfill job " + jobId + " is already running");
+        }
+        return getJob(jobId);
+    }
+    
+    public BackfillJob getJob(Long jobId) {
+        return backfillJobRepository.findById(jobId)
+                .orElseThrow(() -> new NoSuchElementException("Backfill job not found: " + jobId));
+    }
+    
+    /**
+     * Jobs left PENDING or RUNNING by a previous instance are continued on startup. Every
+     * instance sees them, but only the one whose claim succeeds runs each job.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (BackfillJob job : backfillJobRepository.findByStatusIn(EnumSet.of(BackfillStatus.PENDING, BackfillStatus.RUNNING))) {
+            try {
+                if (run(job)) {
+                    log.info("Resumed interrupted backfill job {}", job.getId());
+                } else {
+                    log.info("Backfill job {} was resumed by another instance", job.getId());
+                }
+            } catch (Exception e) {
+                log.error("Could not resume backfill job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Claims the job as it was read and schedules its pending chunks. Returns false when the
+     * job changed in the meantime, i.e. another caller or instance already claimed it. Any
+     * error before the chunks are scheduled marks the job FAILED, so it can be resumed.
+     */
+    private boolean run(BackfillJob job) {
+        // Branches are discovered once per run instead of once per chunk, and before the
+        // claim so an unreachable inventory-service never leaves the job RUNNING
+        List<Long> branchIds;
+        try {
+            branchIds = branchDirectoryService.getBranchIds();
+        } catch (RuntimeException e) {
+            fail(job.getId(), e);
+            throw e;
+        }
+        
+        List<BackfillChunk> pending = backfillChunkRepository
+                .findByJobIdAndStatusNotOrderByChunkStart(job.getId(), BackfillStatus.COMPLETED);
+        int claimed = backfillJobRepository.claim(job.getId(), job.getStatus(), job.getStartedAt(),
+                LocalDateTime.now(), job.getTotalChunks() - pending.size());
+        if (claimed == 0) {
+            return false;
+        }
+        
+        try {
+            CompletableFuture<?>[] tasks = pending.stream()
+                    .map(chunk -> CompletableFuture.runAsync(() -> processChunk(chunk, branchIds), backfillExecutor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(tasks).whenComplete((ignored, error) -> finish(job.getId(), error));
+        } catch (RuntimeException e) {
+            fail(job.getId(), e);
+            throw e;
+        }
+        return true;
+    }
+    
+    private void processChunk(BackfillChunk chunk, List<Long> branchIds) {
+        chunk.setStatus(BackfillStatus.RUNNING);
+        chunk.setAttempts(chunk.getAttempts() + 1);
+        backfillChunkRepository.save(chunk);
+        
+        try {
+            backfillRateLimiter.acquire();
+            salesRollupService.refresh(chunk.getChunkStart(), chunk.getChunkEnd(), branchIds);
+            
+            chunk.setStatus(BackfillStatus.COMPLETED);
+            chunk.setLastError(null);
+            chunk.setCompletedAt(LocalDateTime.now());
+            backfillChunkRepository.save(chunk);
+            backfillJobRepository.incrementCompleted(chunk.getJobId());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Backfill chunk {} to {} of job {} failed: {}",
+                    chunk.getChunkStart(), chunk.getChunkEnd(), chunk.getJobId(), e.getMessage());
+            chunk.setStatus(BackfillStatus.FAILED);
+            chunk.setLastError(truncate(e.getMessage()));
+            backfillChunkRepository.save(chunk);
+            backfillJobRepository.incrementFailed(chunk.getJobId());
+        }
+    }
+    
+    private void finish(Long jobId, Throwable error) {
+        try {
+            // A chunk whose own bookkeeping failed is neither COMPLETED nor FAILED
+            boolean incomplete = error != null
+                    || backfillChunkRepository.countByJobIdAndStatusNot(jobId, BackfillStatus.COMPLETED) > 0;
+            BackfillJob job = getJob(jobId);
+            job.setStatus(incomplete ? BackfillStatus.FAILED : BackfillStatus.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            backfillJobRepository.save(job);
+            log.info("Backfill job {} finished with status {} ({} of {} chunks completed)",
+                    jobId, job.getStatus(), job.getCompletedChunks(), job.getTotalChunks());
+        } catch (Exception e) {
+            log.error("Could not record the end of backfill job {}: {}", jobId, e.getMessage());
+        }
+    }
+    
+    private void fail(Long jobId, Exception cause) {
+        log.error("Backfill job {} could not start: {}", jobId, cause.getMessage());
+        BackfillJob job = getJob(jobId);
+        job.setStatus(BackfillStatus.FAILED);
+        job.setFinishedAt(LocalDateTime.now());
+        backfillJobRepository.save(job);
+    }
+    
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
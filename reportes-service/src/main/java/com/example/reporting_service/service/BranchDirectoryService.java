@@ -0,0 +1,52 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.external.BranchData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Branches known to inventory-service, which owns the branch catalog.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BranchDirectoryService {
+    
+    @Qualifier("inventoryWebClient")
+    private final WebClient inventoryWebClient;
+    
+    private final ObjectMapper objectMapper;
+    
+    public List<BranchData> getBranches() {
+        // Inventory-service returns ApiResponse<List<BranchResponse>>
+        JsonNode response = inventoryWebClient.get()
+                .uri("/api/branches")
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block();
+        
+        if (response == null || !response.has("data") || !response.get("data").isArray()) {
+            return new ArrayList<>();
+        }
+        
+        List<BranchData> branches = new ArrayList<>();
+        response.get("data").forEach(node -> branches.add(objectMapper.convertValue(node, BranchData.class)));
+        log.debug("Discovered {} branches from inventory-service", branches.size());
+        return branches;
+    }
+    
+    public List<Long> getBranchIds() {
+        return getBranches().stream()
+                .map(BranchData::getId)
+                .collect(Collectors.toList());
+    }
+}
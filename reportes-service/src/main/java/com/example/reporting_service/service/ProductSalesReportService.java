@@ -0,0 +1,119 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.entity.ProductSalesReport;
+import com.example.reporting_service.external.ProductSalesData;
+import com.example.reporting_service.repository.ProductSalesReportBatchRepository;
+import com.example.reporting_service.repository.ProductSalesReportDayRepository;
+import com.example.reporting_service.repository.ProductSalesReportRepository;
+import com.example.reporting_service.repository.ProductSalesTotals;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps product_sales_report loaded with per-product, per-branch daily sales from sales-service.
+ * Only days that have not been loaded yet are requested; today is reloaded on every call
+ * because it is still receiving sales. The HTTP calls run outside any transaction and each
+ * chunk of days is written in its own short one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSalesReportService {
+    
+    private static final int MAX_DAYS_PER_REQUEST = 31;
+    
+    @Qualifier("salesWebClient")
+    private final WebClient salesWebClient;
+    
+    private final ProductSalesReportRepository productSalesReportRepository;
+    private final ProductSalesReportDayRepository productSalesReportDayRepository;
+    private final ProductSalesReportBatchRepository productSalesReportBatchRepository;
+    
+    public List<ProductSalesTotals> getSalesByProduct(LocalDate startDate, LocalDate endDate) {
+        loadMissingDays(startDate, endDate);
+        return productSalesReportRepository.sumByProductAndBranch(startDate, endDate);
+    }
+    
+    public List<ProductSalesTotals> getTopByRevenue(LocalDate startDate, LocalDate endDate, int limit) {
+        loadMissingDays(startDate, endDate);
+        return productSalesReportRepository.findTopByRevenue(startDate, endDate, PageRequest.of(0, limit));
+    }
+    
+    private void loadMissingDays(LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate lastDay = endDate.isAfter(today) ? today : endDate;
+        if (startDate.isAfter(lastDay)) {
+            return;
+        }
+        
+        Set<LocalDate> loaded = new HashSet<>(productSalesReportDayRepository.findLoadedDates(startDate, lastDay));
+        List<LocalDate> missing = startDate.datesUntil(lastDay.plusDays(1))
+                .filter(day -> !loaded.contains(day))
+                .collect(Collectors.toList());
+        
+        for (int from = 0; from < missing.size(); from += MAX_DAYS_PER_REQUEST) {
+            List<LocalDate> chunk = missing.subList(from, Math.min(from + MAX_DAYS_PER_REQUEST, missing.size()));
+            try {
+                loadDays(chunk, today);
+            } catch (RuntimeException e) {
+                // A report over partially loaded days would look complete, so the request fails instead
+                log.error("Error loading product sales for {} to {}: {}", 
+                        chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage());
+                throw e;
+            }
+        }
+    }
+    
+    private void loadDays(List<LocalDate> days, LocalDate today) {
+        LocalDate first = days.get(0);
+        LocalDate last = days.get(days.size() - 1);
+        log.debug("Loading product sales for {} day(s) between {} and {}", days.size(), first, last);
+        
+        LocalDateTime fetchedAt = LocalDateTime.now();
+        List<ProductSalesData> rows = salesWebClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/sales/aggregates/products/daily")
+                        .queryParam("start", first.atStartOfDay())
+                        .queryParam("end", last.atTime(LocalTime.MAX))
+                        .build())
+                .retrieve()
+                .bodyToFlux(ProductSalesData.class)
+                .collectList()
+                .block();
+        
+        Set<LocalDate> daySet = new HashSet<>(days);
+        List<ProductSalesReport> reports = new ArrayList<>();
+        for (ProductSalesData row : rows != null ? rows : List.<ProductSalesData>of()) {
+            if (!daySet.contains(row.getDate())) {
+                continue; // Day in between that was already loaded
+            }
+            ProductSalesReport report = new ProductSalesReport();
+            report.setProductId(row.getProductId());
+            report.setProductName(row.getProductName());
+            report.setProductCode(row.getProductCode());
+            report.setBranchId(row.getBranchId());
+            report.setReportDate(row.getDate());
+            report.setQuantitySold(row.getQuantitySold().intValue());
+            report.setRevenue(row.getRevenue());
+            reports.add(report);
+        }
+        
+        List<LocalDate> closedDays = days.stream()
+                .filter(day -> day.isBefore(today))
+                .collect(Collectors.toList());
+        productSalesReportBatchRepository.replaceDays(days, reports, closedDays, fetchedAt);
+    }
+}
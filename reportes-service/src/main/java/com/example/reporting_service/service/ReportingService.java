@@ -1,17 +1,26 @@
 package com.example.reporting_service.service;
 
 import com.example.reporting_service.dto.*;
-import com.example.reporting_service.external.SaleData;
+import com.example.reporting_service.external.BatchData;
+import com.example.reporting_service.external.InventoryApiResponse;
+import com.example.reporting_service.external.InventoryKpiData;
+import com.example.reporting_service.external.SalesAggregateData;
 import com.example.reporting_service.external.StockData;
+import com.example.reporting_service.repository.ProductSalesTotals;
+import com.example.reporting_service.repository.SalesSummaryRepository;
+import com.example.reporting_service.repository.SalesSummaryTotals;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -25,54 +34,43 @@ import com.fasterxml.jackson.databind.JsonNode;
 @Slf4j
 public class ReportingService {
     
+    private static final int EXPIRING_SOON_DAYS = 30;
+    
     @Qualifier("salesWebClient")
     private final WebClient salesWebClient;
     
     @Qualifier("inventoryWebClient")
     private final WebClient inventoryWebClient;
     
+    private final ProductSalesReportService productSalesReportService;
+    private final SalesSummaryRepository salesSummaryRepository;
+    
+    @Value("${reporting.dashboard.sales-timeout:3s}")
+    private Duration dashboardSalesTimeout = Duration.ofSeconds(3);
+    
+    @Value("${reporting.dashboard.inventory-timeout:3s}")
+    private Duration dashboardInventoryTimeout = Duration.ofSeconds(3);
+    
     // Sales Reports
     public SalesSummaryResponse getSalesSummary(LocalDate startDate, LocalDate endDate, Long branchId) {
         log.info("Generating sales summary for period: {} to {}, branchId: {}", startDate, endDate, branchId);
         
-        List<SaleData> sales = fetchSalesData(startDate, endDate, branchId);
-        
-        if (sales.isEmpty()) {
-            return SalesSummaryResponse.builder()
-                    .reportDate(LocalDate.now())
-                    .branchId(branchId)
-                    .totalSales(0)
-                    .totalRevenue(BigDecimal.ZERO)
-                    .averageTicket(BigDecimal.ZERO)
-                    .totalItems(0)
-                    .uniqueCustomers(0)
-                    .build();
-        }
-        
-        BigDecimal totalRevenue = sales.stream()
-                .map(SaleData::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        int totalItems = sales.stream()
-                .mapToInt(SaleData::getItemCount)
-                .sum();
+        // Served from the daily rollups kept current by SalesRollupService
+        SalesSummaryTotals totals = salesSummaryRepository.sumByDateRange(startDate, endDate, branchId);
         
-        int uniqueCustomers = (int) sales.stream()
-                .map(SaleData::getCustomerId)
-                .distinct()
-                .count();
-        
-        BigDecimal averageTicket = sales.size() > 0 
-                ? totalRevenue.divide(BigDecimal.valueOf(sales.size()), 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
+        // A rollup row counts distinct customers of one branch and day; adding rows would count
+        // a customer once per day and branch, so wider ranges ask sales-service for COUNT(DISTINCT)
+        Integer uniqueCustomers = startDate.equals(endDate) && branchId != null
+                ? Integer.valueOf(totals.getUniqueCustomers().intValue())
+                : fetchUniqueCustomers(startDate, endDate, branchId);
         
         return SalesSummaryResponse.builder()
                 .reportDate(LocalDate.now())
                 .branchId(branchId)
-                .totalSales(sales.size())
-                .totalRevenue(totalRevenue)
-                .averageTicket(averageTicket)
-                .totalItems(totalItems)
+                .totalSales(totals.getTotalSales().intValue())
+                .totalRevenue(totals.getTotalRevenue())
+                .averageTicket(totals.averageTicket())
+                .totalItems(totals.getTotalItems().intValue())
                 .uniqueCustomers(uniqueCustomers)
                 .build();
     }
@@ -80,19 +78,14 @@ public class ReportingService {
     public List<ProductSalesResponse> getSalesByProduct(LocalDate startDate, LocalDate endDate) {
         log.info("Generating product sales report for period: {} to {}", startDate, endDate);
         
-        List<SaleData> sales = fetchSalesData(startDate, endDate, null);
-        
-        // Group by product (simplified - in real scenario would need product details from sales)
-        Map<Long, List<SaleData>> salesByBranch = sales.stream()
-                .collect(Collectors.groupingBy(SaleData::getBranchId));
-        
-        return salesByBranch.entrySet().stream()
-                .map(entry -> ProductSalesResponse.builder()
-                        .branchId(entry.getKey())
-                        .quantitySold(entry.getValue().size())
-                        .revenue(entry.getValue().stream()
-                                .map(SaleData::getTotalAmount)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add))
+        return productSalesReportService.getSalesByProduct(startDate, endDate).stream()
+                .map(totals -> ProductSalesResponse.builder()
+                        .productId(totals.getProductId())
+                        .productName(totals.getProductName())
+                        .productCode(totals.getProductCode())
+                        .branchId(totals.getBranchId())
+                        .quantitySold(totals.getQuantitySold().intValue())
+                        .revenue(totals.getRevenue())
                         .build())
                 .collect(Collectors.toList());
     }
@@ -100,67 +93,35 @@ public class ReportingService {
     public List<TopProductsResponse> getTopProducts(LocalDate startDate, LocalDate endDate, int limit) {
         log.info("Generating top {} products report", limit);
         
-        List<SaleData> sales = fetchSalesData(startDate, endDate, null);
-        
-        // Group and aggregate (simplified)
-        Map<Long, List<SaleData>> salesByBranch = sales.stream()
-                .collect(Collectors.groupingBy(SaleData::getBranchId));
+        List<ProductSalesTotals> top = productSalesReportService.getTopByRevenue(startDate, endDate, limit);
         
         List<TopProductsResponse> topProducts = new ArrayList<>();
         int rank = 1;
-        
-        for (Map.Entry<Long, List<SaleData>> entry : salesByBranch.entrySet()) {
-            BigDecimal revenue = entry.getValue().stream()
-                    .map(SaleData::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
+        for (ProductSalesTotals totals : top) {
             topProducts.add(TopProductsResponse.builder()
-                    .productId(entry.getKey())
-                    .productName("Product " + entry.getKey())
-                    .quantitySold(entry.getValue().size())
-                    .revenue(revenue)
+                    .productId(totals.getProductId())
+                    .productName(totals.getProductName())
+                    .productCode(totals.getProductCode())
+                    .quantitySold(totals.getQuantitySold().intValue())
+                    .revenue(totals.getRevenue())
                     .rank(rank++)
                     .build());
         }
-        
-        return topProducts.stream()
-                .sorted(Comparator.comparing(TopProductsResponse::getRevenue).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        return topProducts;
     }
     
     public List<BranchSalesResponse> getSalesByBranch(LocalDate startDate, LocalDate endDate) {
         log.info("Generating branch comparison report for period: {} to {}", startDate, endDate);
         
-        List<SaleData> sales = fetchSalesData(startDate, endDate, null);
-        
-        Map<Long, List<SaleData>> salesByBranch = sales.stream()
-                .collect(Collectors.groupingBy(SaleData::getBranchId));
-        
-        return salesByBranch.entrySet().stream()
-                .map(entry -> {
-                    List<SaleData> branchSales = entry.getValue();
-                    BigDecimal totalRevenue = branchSales.stream()
-                            .map(SaleData::getTotalAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    
-                    int totalItems = branchSales.stream()
-                            .mapToInt(SaleData::getItemCount)
-                            .sum();
-                    
-                    BigDecimal avgTicket = branchSales.size() > 0
-                            ? totalRevenue.divide(BigDecimal.valueOf(branchSales.size()), 2, RoundingMode.HALF_UP)
-                            : BigDecimal.ZERO;
-                    
-                    return BranchSalesResponse.builder()
-                            .branchId(entry.getKey())
-                            .branchName("Sucursal " + entry.getKey())
-                            .totalSales(branchSales.size())
-                            .totalRevenue(totalRevenue)
-                            .averageTicket(avgTicket)
-                            .totalItems(totalItems)
-                            .build();
-                })
+        return salesSummaryRepository.sumByBranch(startDate, endDate).stream()
+                .map(branchSales -> BranchSalesResponse.builder()
+                        .branchId(branchSales.getBranchId())
+                        .branchName("Sucursal " + branchSales.getBranchId())
+                        .totalSales(branchSales.getTotalSales().intValue())
+                        .totalRevenue(branchSales.getTotalRevenue())
+                        .averageTicket(branchSales.averageTicket())
+                        .totalItems(branchSales.getTotalItems().intValue())
+                        .build())
                 .collect(Collectors.toList());
     }
     
@@ -168,49 +129,34 @@ public class ReportingService {
     public InventorySummaryResponse getInventorySummary(Long branchId) {
         log.info("Generating inventory summary for branchId: {}", branchId);
         
-        List<StockData> stocks = fetchInventoryData(branchId);
-        
-        if (stocks.isEmpty()) {
-            return InventorySummaryResponse.builder()
-                    .reportDate(LocalDate.now())
-                    .branchId(branchId)
-                    .totalProducts(0)
-                    .lowStockProducts(0)
-                    .expiringSoon(0)
-                    .inventoryValue(BigDecimal.ZERO)
-                    .build();
-        }
-        
-        int lowStockCount = (int) stocks.stream()
-                .filter(s -> s.getQuantity() <= s.getMinStock())
-                .count();
-        
-        int expiringSoonCount = (int) stocks.stream()
-                .filter(s -> s.getExpiryDate() != null)
-                .filter(s -> ChronoUnit.DAYS.between(LocalDate.now(), s.getExpiryDate()) <= 30)
-                .count();
-        
-        BigDecimal inventoryValue = stocks.stream()
-                .map(s -> s.getUnitPrice().multiply(BigDecimal.valueOf(s.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        InventoryKpiData kpis = sumKpis(fetchInventoryKpis(branchId));
         
         return InventorySummaryResponse.builder()
                 .reportDate(LocalDate.now())
                 .branchId(branchId)
-                .totalProducts(stocks.size())
-                .lowStockProducts(lowStockCount)
-                .expiringSoon(expiringSoonCount)
-                .inventoryValue(inventoryValue)
+                .branchName(branchId != null ? kpis.getBranchName() : null)
+                .totalProducts((int) kpis.getTotalProducts())
+                .lowStockProducts((int) kpis.getLowStockProducts())
+                .expiringSoon((int) kpis.getExpiringSoon())
+                .inventoryValue(kpis.getInventoryValue())
                 .build();
     }
     
+    /**
+     * KPIs of every branch in a single call, for callers that need them per branch.
+     * Unlike the report methods this does not hide inventory-service failures.
+     */
+    public List<InventoryKpiData> getInventoryKpis() {
+        List<InventoryKpiData> kpis = inventoryKpisMono(null).block();
+        return kpis != null ? kpis : new ArrayList<>();
+    }
+    
     public List<LowStockResponse> getLowStockProducts(Long branchId) {
         log.info("Generating low stock report for branchId: {}", branchId);
         
-        List<StockData> stocks = fetchInventoryData(branchId);
+        List<StockData> stocks = fetchLowStockData(branchId);
         
         return stocks.stream()
-                .filter(s -> s.getQuantity() <= s.getMinStock())
                 .map(s -> new LowStockResponse(
                         s.getProductId(),
                         s.getProductName(),
@@ -220,22 +166,24 @@ public class ReportingService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Available batches expiring within the next 30 days, as selected by inventory-service
+     * from batch expiration dates.
+     */
     public List<ExpiringProductResponse> getExpiringProducts(Long branchId) {
         log.info("Generating expiring products report for branchId: {}", branchId);
         
-        List<StockData> stocks = fetchInventoryData(branchId);
         LocalDate now = LocalDate.now();
-        
-        return stocks.stream()
-                .filter(s -> s.getExpiryDate() != null)
-                .filter(s -> ChronoUnit.DAYS.between(now, s.getExpiryDate()) <= 30)
-                .map(s -> new ExpiringProductResponse(
-                        s.getProductId(),
-                        s.getProductName(),
-                        s.getBranchId(),
-                        s.getExpiryDate(),
-                        (int) ChronoUnit.DAYS.between(now, s.getExpiryDate()),
-                        s.getQuantity()))
+        List<BatchData> batches = fetchExpiringBatches(branchId);
+        
+        return batches.stream()
+                .map(b -> new ExpiringProductResponse(
+                        b.getProductId(),
+                        null,
+                        b.getBranchId(),
+                        b.getExpirationDate(),
+                        (int) ChronoUnit.DAYS.between(now, b.getExpirationDate()),
+                        b.getQuantity()))
                 .sorted(Comparator.comparing(ExpiringProductResponse::getDaysUntilExpiry))
                 .collect(Collectors.toList());
     }
@@ -243,161 +191,203 @@ public class ReportingService {
     public BigDecimal getInventoryValue(Long branchId) {
         log.info("Calculating inventory value for branchId: {}", branchId);
         
-        List<StockData> stocks = fetchInventoryData(branchId);
-        
-        return stocks.stream()
-                .map(s -> s.getUnitPrice().multiply(BigDecimal.valueOf(s.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return sumKpis(fetchInventoryKpis(branchId)).getInventoryValue();
     }
     
     // Dashboard
-    public DashboardResponse getDashboard() {
+    /**
+     * Fetches sales and inventory concurrently; each call has its own timeout and
+     * degrades to zeroed metrics so one slow service cannot stall the dashboard.
+     */
+    public Mono<DashboardResponse> getDashboard() {
         log.info("Generating executive dashboard");
         
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(90); // Últimos 90 días para incluir más datos históricos
         
-        List<SaleData> sales = fetchSalesData(startDate, endDate, null);
-        List<StockData> stocks = fetchInventoryData(null);
+        Mono<Optional<SalesAggregateData>> sales = salesAggregateMono(startDate, endDate, null)
+                .timeout(dashboardSalesTimeout)
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    log.warn("Sales data unavailable for dashboard: {}", e.toString());
+                    return Mono.just(Optional.empty());
+                });
         
-        // Sales Metrics
-        BigDecimal totalRevenue = sales.stream()
-                .map(SaleData::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Mono<Optional<InventoryKpiData>> inventory = inventoryKpisMono(null)
+                .map(this::sumKpis)
+                .timeout(dashboardInventoryTimeout)
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    log.warn("Inventory data unavailable for dashboard: {}", e.toString());
+                    return Mono.just(Optional.empty());
+                });
         
-        int uniqueCustomers = (int) sales.stream()
-                .map(SaleData::getCustomerId)
-                .distinct()
-                .count();
+        return Mono.zip(sales, inventory)
+                .map(results -> buildDashboard(results.getT1(), results.getT2()));
+    }
+    
+    private DashboardResponse buildDashboard(Optional<SalesAggregateData> salesResult,
+                                             Optional<InventoryKpiData> inventoryResult) {
+        List<String> unavailableSources = new ArrayList<>();
+        if (salesResult.isEmpty()) {
+            unavailableSources.add("sales");
+        }
+        if (inventoryResult.isEmpty()) {
+            unavailableSources.add("inventory");
+        }
         
-        BigDecimal avgTicket = sales.size() > 0
-                ? totalRevenue.divide(BigDecimal.valueOf(sales.size()), 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
+        SalesAggregateData sales = salesResult.orElseGet(SalesAggregateData::new);
+        InventoryKpiData inventory = inventoryResult.orElseGet(InventoryKpiData::new);
         
+        // Sales Metrics
         DashboardResponse.SalesMetrics salesMetrics = DashboardResponse.SalesMetrics.builder()
-                .totalRevenue(totalRevenue)
-                .totalSales(sales.size())
-                .averageTicket(avgTicket)
-                .uniqueCustomers(uniqueCustomers)
+                .totalRevenue(sales.getTotalRevenue())
+                .totalSales((int) sales.getTotalSales())
+                .averageTicket(sales.averageTicket())
+                .uniqueCustomers((int) sales.getUniqueCustomers())
                 .build();
         
         // Inventory Metrics
-        int lowStockCount = (int) stocks.stream()
-                .filter(s -> s.getQuantity() <= s.getMinStock())
-                .count();
-        
-        LocalDate now = LocalDate.now();
-        int expiringSoonCount = (int) stocks.stream()
-                .filter(s -> s.getExpiryDate() != null)
-                .filter(s -> ChronoUnit.DAYS.between(now, s.getExpiryDate()) <= 30)
-                .count();
-        
-        BigDecimal totalInventoryValue = stocks.stream()
-                .map(s -> s.getUnitPrice().multiply(BigDecimal.valueOf(s.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
         DashboardResponse.InventoryMetrics inventoryMetrics = DashboardResponse.InventoryMetrics.builder()
-                .totalProducts(stocks.size())
-                .lowStockProducts(lowStockCount)
-                .expiringSoon(expiringSoonCount)
-                .totalInventoryValue(totalInventoryValue)
+                .totalProducts((int) inventory.getTotalProducts())
+                .lowStockProducts((int) inventory.getLowStockProducts())
+                .expiringSoon((int) inventory.getExpiringSoon())
+                .totalInventoryValue(inventory.getInventoryValue())
                 .build();
         
         return DashboardResponse.builder()
                 .salesMetrics(salesMetrics)
                 .inventoryMetrics(inventoryMetrics)
+                .unavailableSources(unavailableSources)
                 .build();
     }
     
     // Private methods to fetch data from external services
-    private List<SaleData> fetchSalesData(LocalDate startDate, LocalDate endDate, Long branchId) {
+    private Mono<SalesAggregateData> salesAggregateMono(LocalDate startDate, LocalDate endDate, Long branchId) {
+        return salesWebClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/sales/aggregates/summary")
+                        .queryParam("start", startDate.atStartOfDay())
+                        .queryParam("end", endDate.atTime(LocalTime.MAX))
+                        .queryParamIfPresent("branchId", Optional.ofNullable(branchId))
+                        .build())
+                .retrieve()
+                .bodyToMono(SalesAggregateData.class)
+                .defaultIfEmpty(new SalesAggregateData());
+    }
+    
+    /**
+     * Exact distinct customers of the range, or null when sales-service cannot answer.
+     */
+    private Integer fetchUniqueCustomers(LocalDate startDate, LocalDate endDate, Long branchId) {
         try {
-            // Convert LocalDate to LocalDateTime (start of day and end of day)
-            LocalDateTime start = startDate.atStartOfDay();
-            LocalDateTime end = endDate.atTime(LocalTime.MAX);
-            
-            String uri = "/api/sales/date-range?start=" + start + "&end=" + end;
-            if (branchId != null) {
-                uri += "&branchId=" + branchId;
-            }
-            
-            // Sales-service returns Page<Sale>, we need to extract content
-            JsonNode response = salesWebClient.get()
-                    .uri(uri)
+            SalesAggregateData aggregate = salesAggregateMono(startDate, endDate, branchId).block();
+            return aggregate != null ? (int) aggregate.getUniqueCustomers() : null;
+        } catch (Exception e) {
+            log.error("Error fetching unique customers: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private List<InventoryKpiData> fetchInventoryKpis(Long branchId) {
+        try {
+            List<InventoryKpiData> kpis = inventoryKpisMono(branchId).block();
+            return kpis != null ? kpis : new ArrayList<>();
+        } catch (Exception e) {
+            log.error("Error fetching inventory KPIs: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    private List<StockData> fetchLowStockData(Long branchId) {
+        try {
+            JsonNode response = inventoryWebClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/stock/alerts")
+                            .queryParam("includeAtMinimum", true)
+                            .queryParamIfPresent("branchId", Optional.ofNullable(branchId))
+                            .build())
                     .retrieve()
                     .bodyToMono(JsonNode.class)
                     .block();
-            
-            if (response == null || !response.has("content")) {
-                return new ArrayList<>();
-            }
-            
-            List<SaleData> sales = new ArrayList<>();
-            response.get("content").forEach(saleNode -> {
-                try {
-                    SaleData sale = SaleData.builder()
-                            .id(saleNode.get("id").asLong())
-                            .branchId(saleNode.get("branchId").asLong())
-                            .customerId(saleNode.get("customer").get("id").asLong())
-                            .totalAmount(new BigDecimal(saleNode.get("total").asText()))
-                            .itemCount(saleNode.get("items").size())
-                            .saleDate(saleNode.has("saleDate") ? LocalDate.parse(saleNode.get("saleDate").asText().substring(0, 10)) : LocalDate.now())
-                            .status(saleNode.has("status") ? saleNode.get("status").asText() : "UNKNOWN")
-                            .build();
-                    sales.add(sale);
-                } catch (Exception e) {
-                    log.warn("Error parsing sale node: {}", e.getMessage());
-                }
-            });
-            
-            return sales;
+            return response != null ? parseStockData(response.path("data")) : new ArrayList<>();
         } catch (Exception e) {
-            log.error("Error fetching sales data: {}", e.getMessage());
+            log.error("Error fetching low stock data: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
     
-    private List<StockData> fetchInventoryData(Long branchId) {
+    private List<BatchData> fetchExpiringBatches(Long branchId) {
         try {
-            String uri = branchId != null ? "/api/stock/" + branchId : "/api/stock";
-            
-            // Inventory-service returns ApiResponse<List<StockResponse>>
-            JsonNode response = inventoryWebClient.get()
-                    .uri(uri)
+            List<BatchData> batches = inventoryWebClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/batches/expiring")
+                            .queryParamIfPresent("branchId", Optional.ofNullable(branchId))
+                            .build())
                     .retrieve()
-                    .bodyToMono(JsonNode.class)
+                    .bodyToMono(new ParameterizedTypeReference<InventoryApiResponse<List<BatchData>>>() {})
+                    .map(response -> response.getData() != null ? response.getData() : new ArrayList<BatchData>())
                     .block();
-            
-            if (response == null || !response.has("data")) {
-                return new ArrayList<>();
-            }
-            
-            List<StockData> stocks = new ArrayList<>();
-            JsonNode dataNode = response.get("data");
-            
-            if (dataNode.isArray()) {
-                dataNode.forEach(stockNode -> {
-                    try {
-                        StockData stock = StockData.builder()
-                                .id(stockNode.has("id") ? stockNode.get("id").asLong() : null)
-                                .productId(stockNode.get("productId").asLong())
-                                .branchId(stockNode.get("branchId").asLong())
-                                .quantity(stockNode.get("quantity").asInt())
-                                .minStock(stockNode.has("minimumStock") ? stockNode.get("minimumStock").asInt() : 0)
-                                .unitPrice(stockNode.has("unitPrice") ? new BigDecimal(stockNode.get("unitPrice").asText()) : BigDecimal.ZERO)
-                                .productName(stockNode.has("productName") ? stockNode.get("productName").asText() : null)
-                                .build();
-                        stocks.add(stock);
-                    } catch (Exception e) {
-                        log.warn("Error parsing stock node: {}", e.getMessage());
-                    }
-                });
-            }
-            
-            return stocks;
+            return batches != null ? batches : new ArrayList<>();
         } catch (Exception e) {
-            log.error("Error fetching inventory data: {}", e.getMessage());
+            log.error("Error fetching expiring batches: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Per-branch KPIs aggregated by inventory-service, so the cost does not grow with stock rows.
+     */
+    private Mono<List<InventoryKpiData>> inventoryKpisMono(Long branchId) {
+        return inventoryWebClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/stock/kpis")
+                        .queryParam("expiringWithinDays", EXPIRING_SOON_DAYS)
+                        .queryParamIfPresent("branchId", Optional.ofNullable(branchId))
+                        .build())
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<InventoryApiResponse<List<InventoryKpiData>>>() {})
+                .map(response -> response.getData() != null ? response.getData() : new ArrayList<InventoryKpiData>())
+                .defaultIfEmpty(new ArrayList<>());
+    }
+    
+    private InventoryKpiData sumKpis(List<InventoryKpiData> branches) {
+        InventoryKpiData total = new InventoryKpiData();
+        for (InventoryKpiData branch : branches) {
+            total.setBranchId(branch.getBranchId());
+            total.setBranchName(branch.getBranchName());
+            total.setTotalProducts(total.getTotalProducts() + branch.getTotalProducts());
+            total.setTotalUnits(total.getTotalUnits() + branch.getTotalUnits());
+            total.setLowStockProducts(total.getLowStockProducts() + branch.getLowStockProducts());
+            total.setExpiringSoon(total.getExpiringSoon() + branch.getExpiringSoon());
+            total.setInventoryValue(total.getInventoryValue().add(branch.getInventoryValue()));
+        }
+        return total;
+    }
+    
+    private List<StockData> parseStockData(JsonNode itemsNode) {
+        if (!itemsNode.isArray()) {
             return new ArrayList<>();
         }
+        
+        List<StockData> stocks = new ArrayList<>();
+        itemsNode.forEach(stockNode -> {
+            try {
+                StockData stock = StockData.builder()
+                        .id(stockNode.has("id") ? stockNode.get("id").asLong() : null)
+                        .productId(stockNode.get("productId").asLong())
+                        .branchId(stockNode.get("branchId").asLong())
+                        .quantity(stockNode.get("quantity").asInt())
+                        .minStock(stockNode.has("minimumStock") ? stockNode.get("minimumStock").asInt() : 0)
+                        .unitPrice(stockNode.has("unitPrice") ? new BigDecimal(stockNode.get("unitPrice").asText()) : BigDecimal.ZERO)
+                        .productName(stockNode.has("productName") ? stockNode.get("productName").asText() : null)
+                        .build();
+                stocks.add(stock);
+            } catch (Exception e) {
+                log.warn("Error parsing stock node: {}", e.getMessage());
+            }
+        });
+        
+        return stocks;
     }
 }
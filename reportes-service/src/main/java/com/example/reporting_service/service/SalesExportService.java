@@ -0,0 +1,83 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.external.SaleData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+
+/**
+ * Exports the sales of a period as CSV from sales-service's NDJSON export. Rows are read with
+ * bodyToFlux and written as they arrive, with backpressure from the output stream, so an export
+ * over months of sales uses constant memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesExportService {
+    
+    static final String CSV_HEADER = "id,saleDate,branchId,customerId,total,itemCount,status";
+    
+    // Rows requested ahead of the writer; bounds what is buffered when the client reads slowly
+    private static final int PREFETCH = 256;
+    
+    @Qualifier("salesWebClient")
+    private final WebClient salesWebClient;
+    
+    public void writeCsv(LocalDate startDate, LocalDate endDate, Long branchId, OutputStream outputStream)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long rows = 0;
+        for (SaleData sale : fetchSales(startDate, endDate, branchId).toIterable(PREFETCH)) {
+            writer.write(toCsv(sale));
+            writer.write('\n');
+            rows++;
+        }
+        writer.flush();
+        log.debug("Exported {} sales between {} and {}", rows, startDate, endDate);
+    }
+    
+    private Flux<SaleData> fetchSales(LocalDate startDate, LocalDate endDate, Long branchId) {
+        return salesWebClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/sales/export")
+                        .queryParam("start", startDate.atStartOfDay())
+                        .queryParam("end", endDate.atTime(LocalTime.MAX))
+                        .queryParamIfPresent("branchId", Optional.ofNullable(branchId))
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(SaleData.class);
+    }
+    
+    private static String toCsv(SaleData sale) {
+        return String.join(",",
+                value(sale.getId()),
+                value(sale.getSaleDate()),
+                value(sale.getBranchId()),
+                value(sale.getCustomerId()),
+                value(sale.getTotalAmount() != null ? sale.getTotalAmount().toPlainString() : null),
+                value(sale.getItemCount()),
+                value(sale.getStatus()));
+    }
+    
+    // Walk-in sales have no customer: empty field rather than "null"
+    private static String value(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
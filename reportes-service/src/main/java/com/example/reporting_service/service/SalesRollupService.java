@@ -0,0 +1,194 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.entity.RollupWatermark;
+import com.example.reporting_service.entity.SalesSummary;
+import com.example.reporting_service.external.SaleChangeData;
+import com.example.reporting_service.external.SalesAggregateData;
+import com.example.reporting_service.repository.RollupWatermarkRepository;
+import com.example.reporting_service.repository.SalesSummaryBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps sales_summary up to date from the sales-service change feed. Each run reads the
+ * sales created or modified since the stored watermark, recomputes only the days they
+ * touch and upserts one row per branch and day. The watermark advances only after the rows
+ * of its page are written, so a failed run is retried from the last applied page.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupService {
+    
+    static final String FEED_NAME = "sales";
+    private static final LocalDateTime FEED_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MAX_DAYS_PER_REQUEST = 31;
+    
+    @Qualifier("salesWebClient")
+    private final WebClient salesWebClient;
+    
+    private final BranchDirectoryService branchDirectoryService;
+    private final SalesSummaryBatchRepository salesSummaryBatchRepository;
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+    
+    @Value("${reporting.rollup.page-size:500}")
+    private int pageSize = 500;
+    
+    @Value("${reporting.rollup.max-pages-per-run:200}")
+    private int maxPagesPerRun = 200;
+    
+    /**
+     * Applies pending sales changes and returns the number of days refreshed. Each page of the
+     * feed is applied on its own: its days are upserted and then the watermark is saved, so a
+     * failure keeps the pages already applied and no transaction stays open across HTTP calls.
+     * Re-applying a page after a crash between both writes only recomputes the same days.
+     */
+    @Scheduled(fixedDelayString = "${reporting.rollup.interval:PT5M}",
+               initialDelayString = "${reporting.rollup.initial-delay:PT30S}")
+    public synchronized int rollup() {
+        RollupWatermark watermark = rollupWatermarkRepository.findById(FEED_NAME)
+                .orElseGet(() -> new RollupWatermark(FEED_NAME, FEED_START, 0L, null));
+        
+        SortedSet<LocalDate> refreshedDays = new TreeSet<>();
+        List<Long> branchIds = null;
+        for (int page = 0; page < maxPagesPerRun; page++) {
+            List<SaleChangeData> changes = fetchChanges(watermark.getLastUpdatedAt(), watermark.getLastId());
+            if (changes.isEmpty()) {
+                break;
+            }
+            SortedSet<LocalDate> touchedDays = changes.stream()
+                    .map(change -> change.getSaleDate().toLocalDate())
+                    .collect(Collectors.toCollection(TreeSet::new));
+            if (branchIds == null) {
+                branchIds = branchDirectoryService.getBranchIds();
+            }
+            refreshDays(touchedDays, branchIds);
+            refreshedDays.addAll(touchedDays);
+            
+            SaleChangeData last = changes.get(changes.size() - 1);
+            watermark = new RollupWatermark(FEED_NAME, last.getUpdatedAt(), last.getId(), LocalDateTime.now());
+            rollupWatermarkRepository.save(watermark);
+            if (changes.size() < pageSize) {
+                break;
+            }
+        }
+        
+        if (refreshedDays.isEmpty()) {
+            log.debug("No sales changes since {} (id {})", watermark.getLastUpdatedAt(), watermark.getLastId());
+            return 0;
+        }
+        log.info("Sales rollup refreshed {} day(s) up to change {} at {}",
+                refreshedDays.size(), watermark.getLastId(), watermark.getLastUpdatedAt());
+        return refreshedDays.size();
+    }
+    
+    /**
+     * Recomputes every day of the range regardless of the feed, e.g. to rebuild history.
+     */
+    public int refresh(LocalDate startDate, LocalDate endDate) {
+        return refresh(startDate, endDate, branchDirectoryService.getBranchIds());
+    }
+    
+    /**
+     * Same as {@link #refresh(LocalDate, LocalDate)} with an already discovered branch list,
+     * for callers that rebuild many ranges in a row.
+     */
+    public int refresh(LocalDate startDate, LocalDate endDate, List<Long> branchIds) {
+        SortedSet<LocalDate> days = startDate.datesUntil(endDate.plusDays(1))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (days.isEmpty()) {
+            return 0;
+        }
+        refreshDays(days, branchIds);
+        log.info("Sales summaries rebuilt for {} to {}", startDate, endDate);
+        return days.size();
+    }
+    
+    private List<SaleChangeData> fetchChanges(LocalDateTime since, Long afterId) {
+        List<SaleChangeData> changes = salesWebClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/sales/changes")
+                        .queryParam("since", since)
+                        .queryParam("afterId", afterId)
+                        .queryParam("limit", pageSize)
+                        .build())
+                .retrieve()
+                .bodyToFlux(SaleChangeData.class)
+                .collectList()
+                .block();
+        return changes != null ? changes : new ArrayList<>();
+    }
+    
+    private void refreshDays(SortedSet<LocalDate> days, List<Long> branchIds) {
+        Map<String, SalesAggregateData> aggregates = new HashMap<>();
+        // One request per window of touched days, so scattered days do not pull whole months
+        Iterator<LocalDate> pending = days.iterator();
+        LocalDate next = pending.next();
+        while (next != null) {
+            LocalDate first = next;
+            LocalDate last = next;
+            next = null;
+            while (pending.hasNext()) {
+                LocalDate day = pending.next();
+                if (day.isAfter(first.plusDays(MAX_DAYS_PER_REQUEST - 1))) {
+                    next = day;
+                    break;
+                }
+                last = day;
+            }
+            fetchDailyAggregates(first, last).stream()
+                    .filter(aggregate -> days.contains(aggregate.getDate()))
+                    .forEach(aggregate -> aggregates.put(key(aggregate.getDate(), aggregate.getBranchId()), aggregate));
+        }
+        
+        Set<Long> branches = new TreeSet<>(branchIds);
+        aggregates.values().forEach(aggregate -> branches.add(aggregate.getBranchId()));
+        
+        List<SalesSummary> rows = new ArrayList<>();
+        for (LocalDate day : days) {
+            for (Long branchId : branches) {
+                String key = key(day, branchId);
+                SalesAggregateData aggregate = aggregates.getOrDefault(key, new SalesAggregateData());
+                SalesSummary summary = new SalesSummary();
+                summary.setReportDate(day);
+                summary.setBranchId(branchId);
+                summary.setTotalSales((int) aggregate.getTotalSales());
+                summary.setTotalRevenue(aggregate.getTotalRevenue());
+                summary.setAverageTicket(aggregate.averageTicket());
+                summary.setTotalItems((int) aggregate.getTotalItems());
+                summary.setUniqueCustomers((int) aggregate.getUniqueCustomers());
+                rows.add(summary);
+            }
+        }
+        salesSummaryBatchRepository.upsertAll(rows);
+    }
+    
+    private List<SalesAggregateData> fetchDailyAggregates(LocalDate first, LocalDate last) {
+        List<SalesAggregateData> aggregates = salesWebClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/sales/aggregates/daily")
+                        .queryParam("start", first.atStartOfDay())
+                        .queryParam("end", last.atTime(LocalTime.MAX))
+                        .build())
+                .retrieve()
+                .bodyToFlux(SalesAggregateData.class)
+                .collectList()
+                .block();
+        return aggregates != null ? aggregates : new ArrayList<>();
+    }
+    
+    private static String key(LocalDate day, Long branchId) {
+        return day + "/" + branchId;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.reporting_service.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out calls to a source service so that, across all threads, no more than
+ * {@code permitsPerSecond} start per second. Callers block until their slot arrives.
+ */
+public class SourceRateLimiter {
+    
+    private final long intervalNanos;
+    private long nextSlot = System.nanoTime();
+    
+    public SourceRateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+    
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(nextSlot, now);
+            nextSlot = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
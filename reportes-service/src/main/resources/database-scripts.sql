@@ -82,21 +82,35 @@ ORDER BY total_revenue DESC;
 
 -- ========== ÍNDICES PARA OPTIMIZACIÓN ==========
 
--- Índices en sales_summary
-CREATE INDEX IF NOT EXISTS idx_sales_summary_date ON sales_summary(report_date);
+-- Eliminar snapshots duplicados (conserva el más reciente) antes de crear los índices únicos
+DELETE FROM sales_summary a USING sales_summary b
+WHERE a.report_date = b.report_date AND a.branch_id = b.branch_id AND a.id < b.id;
+
+DELETE FROM inventory_summary a USING inventory_summary b
+WHERE a.report_date = b.report_date AND a.branch_id = b.branch_id AND a.id < b.id;
+
+DELETE FROM product_sales_report a USING product_sales_report b
+WHERE a.report_date = b.report_date AND a.branch_id = b.branch_id AND a.product_id = b.product_id AND a.id < b.id;
+
+-- Índices en sales_summary (el índice único es la clave de los upserts ON CONFLICT)
 CREATE INDEX IF NOT EXISTS idx_sales_summary_branch ON sales_summary(branch_id);
-CREATE INDEX IF NOT EXISTS idx_sales_summary_date_branch ON sales_summary(report_date, branch_id);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_sales_summary_date_branch ON sales_summary(report_date, branch_id);
+DROP INDEX IF EXISTS idx_sales_summary_date;
+DROP INDEX IF EXISTS idx_sales_summary_date_branch;
 
 -- Índices en inventory_summary
-CREATE INDEX IF NOT EXISTS idx_inventory_summary_date ON inventory_summary(report_date);
 CREATE INDEX IF NOT EXISTS idx_inventory_summary_branch ON inventory_summary(branch_id);
-CREATE INDEX IF NOT EXISTS idx_inventory_summary_date_branch ON inventory_summary(report_date, branch_id);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_inventory_summary_date_branch ON inventory_summary(report_date, branch_id);
+DROP INDEX IF EXISTS idx_inventory_summary_date;
+DROP INDEX IF EXISTS idx_inventory_summary_date_branch;
 
 -- Índices en product_sales_report
 CREATE INDEX IF NOT EXISTS idx_product_sales_date ON product_sales_report(report_date);
 CREATE INDEX IF NOT EXISTS idx_product_sales_product ON product_sales_report(product_id);
 CREATE INDEX IF NOT EXISTS idx_product_sales_branch ON product_sales_report(branch_id);
 CREATE INDEX IF NOT EXISTS idx_product_sales_date_product ON product_sales_report(report_date, product_id);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_product_sales_date_branch_product
+    ON product_sales_report(report_date, branch_id, product_id);
 
 -- ========== LIMPIEZA DE DATOS ==========
 
@@ -0,0 +1,77 @@
+package com.example.reporting_service.repository;
+
+import com.example.reporting_service.entity.ProductSalesReport;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ProductSalesReportBatchRepositoryTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    private static final LocalDateTime FETCHED_AT = LocalDateTime.of(2025, 3, 12, 8, 0);
+    
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ProductSalesReportBatchRepository repository = new ProductSalesReportBatchRepository(jdbcTemplate);
+    
+    @Test
+    void upsertsRowsThenDropsStaleRowsAndMarksClosedDays() {
+        repository.replaceDays(List.of(DAY, DAY.plusDays(1)),
+                List.of(report(DAY, 7L), report(DAY, 8L)), List.of(DAY), FETCHED_AT);
+        
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(3)).update(sql.capture(), args.capture());
+        
+        assertThat(sql.getAllValues().get(0))
+                .startsWith("INSERT INTO product_sales_report (report_date, branch_id, product_id,")
+                .contains("ON CONFLICT (report_date, branch_id, product_id) DO UPDATE SET")
+                .endsWith("WHERE product_sales_report.generated_at <= EXCLUDED.generated_at");
+        assertThat(args.getAllValues().get(0)).hasSize(16)
+                .startsWith(Date.valueOf(DAY), 1L, 7L)
+                .endsWith(Timestamp.valueOf(FETCHED_AT));
+        
+        assertThat(sql.getAllValues().get(1))
+                .isEqualTo("DELETE FROM product_sales_report WHERE report_date IN (?, ?) AND generated_at < ?");
+        assertThat(args.getAllValues().get(1))
+                .containsExactly(Date.valueOf(DAY), Date.valueOf(DAY.plusDays(1)), Timestamp.valueOf(FETCHED_AT));
+        
+        assertThat(sql.getAllValues().get(2))
+                .startsWith("INSERT INTO product_sales_report_day (report_date, loaded_at) VALUES (?, ?)")
+                .endsWith("ON CONFLICT (report_date) DO UPDATE SET loaded_at = EXCLUDED.loaded_at");
+        assertThat(args.getAllValues().get(2)).containsExactly(Date.valueOf(DAY), Timestamp.valueOf(FETCHED_AT));
+    }
+    
+    @Test
+    void dayWithoutSalesOnlyClearsItsOldRows() {
+        repository.replaceDays(List.of(DAY), List.of(), List.of(), FETCHED_AT);
+        
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(1)).update(sql.capture(), any(Object[].class));
+        assertThat(sql.getValue()).startsWith("DELETE FROM product_sales_report");
+    }
+    
+    private static ProductSalesReport report(LocalDate day, Long productId) {
+        ProductSalesReport report = new ProductSalesReport();
+        report.setReportDate(day);
+        report.setBranchId(1L);
+        report.setProductId(productId);
+        report.setProductName("Producto " + productId);
+        report.setProductCode("PROD-" + productId);
+        report.setQuantitySold(2);
+        report.setRevenue(BigDecimal.TEN);
+        return report;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.reporting_service.repository;
+
+import com.example.reporting_service.entity.SalesSummary;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SalesSummaryBatchRepositoryTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SalesSummaryBatchRepository repository = new SalesSummaryBatchRepository(jdbcTemplate);
+    
+    @Test
+    void upsertsAllBranchesOfADayInOneStatement() {
+        repository.upsertAll(List.of(
+                summary(DAY.plusDays(1), 1L, 4),
+                summary(DAY, 1L, 3),
+                summary(DAY, 2L, 0)));
+        
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(sql.capture(), args.capture());
+        
+        assertThat(sql.getAllValues().get(0))
+                .startsWith("INSERT INTO sales_summary (report_date, branch_id, total_sales,")
+                .contains("VALUES (?, ?, ?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT")
+                .contains("ON CONFLICT (report_date, branch_id) DO UPDATE SET total_sales = EXCLUDED.total_sales");
+        assertThat(args.getAllValues().get(0)).hasSize(16)
+                .startsWith(Date.valueOf(DAY), 1L, 3);
+        assertThat(args.getAllValues().get(0)[8]).isEqualTo(Date.valueOf(DAY));
+        assertThat(args.getAllValues().get(0)[9]).isEqualTo(2L);
+        assertThat(args.getAllValues().get(1)).hasSize(8)
+                .startsWith(Date.valueOf(DAY.plusDays(1)), 1L, 4);
+    }
+    
+    @Test
+    void splitsDaysLargerThanOneStatement() {
+        List<SalesSummary> rows = new ArrayList<>();
+        for (long branch = 1; branch <= SnapshotUpserts.MAX_ROWS_PER_STATEMENT + 1; branch++) {
+            rows.add(summary(DAY, branch, 1));
+        }
+        
+        repository.upsertAll(rows);
+        
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+        assertThat(args.getAllValues().get(0)).hasSize(SnapshotUpserts.MAX_ROWS_PER_STATEMENT * 8);
+        assertThat(args.getAllValues().get(1)).hasSize(8);
+    }
+    
+    @Test
+    void writesNothingForNoRows() {
+        repository.upsertAll(List.of());
+        
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+    
+    private SalesSummary summary(LocalDate day, Long branchId, int sales) {
+        SalesSummary summary = new SalesSummary();
+        summary.setReportDate(day);
+        summary.setBranchId(branchId);
+        summary.setTotalSales(sales);
+        summary.setTotalRevenue(BigDecimal.TEN.multiply(BigDecimal.valueOf(sales)));
+        summary.setAverageTicket(BigDecimal.TEN);
+        summary.setTotalItems(sales);
+        summary.setUniqueCustomers(sales);
+        return summary;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.entity.BackfillChunk;
+import com.example.reporting_service.entity.BackfillJob;
+import com.example.reporting_service.entity.BackfillStatus;
+import com.example.reporting_service.repository.BackfillChunkRepository;
+import com.example.reporting_service.repository.BackfillJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BackfillServiceTest {
+    
+    private static final int WORKERS = 3;
+    
+    @Autowired
+    private BackfillJobRepository jobRepository;
+    
+    @Autowired
+    private BackfillChunkRepository chunkRepository;
+    
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private SalesRollupService salesRollupService;
+    private BranchDirectoryService branchDirectoryService;
+    private ThreadPoolTaskExecutor executor;
+    private BackfillService service;
+    
+    @BeforeEach
+    void setUp() {
+        salesRollupService = mock(SalesRollupService.class);
+        branchDirectoryService = mock(BranchDirectoryService.class);
+        when(branchDirectoryService.getBranchIds()).thenReturn(List.of(1L, 2L));
+        
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(WORKERS);
+        executor.setMaxPoolSize(WORKERS);
+        executor.initialize();
+        
+        service = newService(branchDirectoryService);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        chunkRepository.deleteAll();
+        jobRepository.deleteAll();
+    }
+    
+    @Test
+    void processesChunksOnBoundedPoolAndCompletesJob() throws Exception {
+        when(salesRollupService.refresh(any(), any(), anyList())).thenAnswer(invocation -> {
+            int now = running.incrementAndGet();
+            maxRunning.accumulateAndGet(now, Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            return 10;
+        });
+        
+        BackfillJob job = service.start(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 9));
+        
+        BackfillJob finished = awaitFinished(job.getId());
+        assertThat(finished.getStatus()).isEqualTo(BackfillStatus.COMPLETED);
+        assertThat(finished.getTotalChunks()).isEqualTo(10);
+        assertThat(finished.getCompletedChunks()).isEqualTo(10);
+        assertThat(maxRunning.get()).isBetween(2, WORKERS);
+        verify(salesRollupService).refresh(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10), List.of(1L, 2L));
+        verify(salesRollupService).refresh(LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 9), List.of(1L, 2L));
+    }
+    
+    @Test
+    void resumesOnlyChunksThatDidNotComplete() throws Exception {
+        LocalDate failingChunk = LocalDate.of(2024, 1, 11);
+        AtomicBoolean sourceDown = new AtomicBoolean(true);
+        when(salesRollupService.refresh(any(), any(), anyList())).thenAnswer(invocation -> {
+            if (sourceDown.get() && failingChunk.equals(invocation.getArgument(0))) {
+                throw new IllegalStateException("sales-service unavailable");
+            }
+            return 10;
+        });
+        
+        BackfillJob job = service.start(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 25));
+        
+        BackfillJob failed = awaitFinished(job.getId());
+        assertThat(failed.getStatus()).isEqualTo(BackfillStatus.FAILED);
+        assertThat(failed.getCompletedChunks()).isEqualTo(2);
+        assertThat(failed.getFailedChunks()).isEqualTo(1);
+        assertThat(chunkRepository.findByJobIdAndStatusNotOrderByChunkStart(job.getId(), BackfillStatus.COMPLETED))
+                .singleElement()
+                .satisfies(chunk -> {
+                    assertThat(chunk.getChunkStart()).isEqualTo(failingChunk);
+                    assertThat(chunk.getLastError()).contains("unavailable");
+                });
+        
+        sourceDown.set(false);
+        service.resume(job.getId());
+        
+        BackfillJob resumed = awaitFinished(job.getId());
+        assertThat(resumed.getStatus()).isEqualTo(BackfillStatus.COMPLETED);
+        assertThat(resumed.getCompletedChunks()).isEqualTo(3);
+        assertThat(resumed.getFailedChunks()).isZero();
+        verify(salesRollupService, times(1)).refresh(eq(LocalDate.of(2024, 1, 1)), any(), anyList());
+        verify(salesRollupService, times(2)).refresh(eq(failingChunk), any(), anyList());
+        assertThat(chunkRepository.findAll()).extracting(BackfillChunk::getAttempts).containsExactlyInAnyOrder(1, 2, 1);
+    }
+    
+    @Test
+    void unreachableBranchDirectoryFailsTheJobInsteadOfLeavingItRunning() throws Exception {
+        when(branchDirectoryService.getBranchIds()).thenThrow(new IllegalStateException("inventory-service unavailable"));
+        
+        assertThatThrownBy(() -> service.start(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 25)))
+                .hasMessageContaining("unavailable");
+        
+        BackfillJob job = jobRepository.findAll().get(0);
+        assertThat(job.getStatus()).isEqualTo(BackfillStatus.FAILED);
+        assertThat(job.getFinishedAt()).isNotNull();
+        verify(salesRollupService, never()).refresh(any(), any(), anyList());
+        
+        doReturn(List.of(1L, 2L)).when(branchDirectoryService).getBranchIds();
+        service.resume(job.getId());
+        
+        assertThat(awaitFinished(job.getId()).getStatus()).isEqualTo(BackfillStatus.COMPLETED);
+    }
+    
+    @Test
+    void interruptedJobIsResumedByOneInstanceOnly() throws Exception {
+        BackfillJob job = new BackfillJob();
+        job.setStartDate(LocalDate.of(2024, 1, 1));
+        job.setEndDate(LocalDate.of(2024, 1, 20));
+        job.setStatus(BackfillStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now().minusHours(1));
+        job.setTotalChunks(2);
+        job.setCompletedChunks(1);
+        Long jobId = jobRepository.save(job).getId();
+        chunkRepository.saveAll(List.of(
+                chunk(jobId, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10), BackfillStatus.COMPLETED),
+                chunk(jobId, LocalDate.of(2024, 1, 11), LocalDate.of(2024, 1, 20), BackfillStatus.RUNNING)));
+        when(salesRollupService.refresh(any(), any(), anyList())).thenReturn(10);
+        
+        // Both instances read the job before either claims it
+        CyclicBarrier bothRead = new CyclicBarrier(2);
+        BranchDirectoryService slowDirectory = mock(BranchDirectoryService.class);
+        when(slowDirectory.getBranchIds()).thenAnswer(invocation -> {
+            bothRead.await(5, TimeUnit.SECONDS);
+            return List.of(1L, 2L);
+        });
+        BackfillService instanceA = newService(slowDirectory);
+        BackfillService instanceB = newService(slowDirectory);
+        
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(instanceA::resumeInterruptedJobs),
+                CompletableFuture.runAsync(instanceB::resumeInterruptedJobs)).get(10, TimeUnit.SECONDS);
+        
+        BackfillJob finished = awaitFinished(jobId);
+        assertThat(finished.getStatus()).isEqualTo(BackfillStatus.COMPLETED);
+        assertThat(finished.getCompletedChunks()).isEqualTo(2);
+        verify(salesRollupService, times(1)).refresh(eq(LocalDate.of(2024, 1, 11)), any(), anyList());
+        verify(salesRollupService, never()).refresh(eq(LocalDate.of(2024, 1, 1)), any(), anyList());
+    }
+    
+    @Test
+    void rejectsInvertedRange() {
+        assertThatThrownBy(() -> service.start(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private BackfillService newService(BranchDirectoryService directory) {
+        BackfillService backfillService = new BackfillService(jobRepository, chunkRepository, salesRollupService,
+                directory, executor, new SourceRateLimiter(1000));
+        ReflectionTestUtils.setField(backfillService, "chunkDays", 10);
+        return backfillService;
+    }
+    
+    private static BackfillChunk chunk(Long jobId, LocalDate start, LocalDate end, BackfillStatus status) {
+        BackfillChunk chunk = new BackfillChunk();
+        chunk.setJobId(jobId);
+        chunk.setChunkStart(start);
+        chunk.setChunkEnd(end);
+        chunk.setStatus(status);
+        return chunk;
+    }
+    
+    private BackfillJob awaitFinished(Long jobId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            BackfillJob job = jobRepository.findById(jobId).orElseThrow();
+            if (job.getStatus() == BackfillStatus.COMPLETED || job.getStatus() == BackfillStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("Backfill job " + jobId + " did not finish");
+    }
+}
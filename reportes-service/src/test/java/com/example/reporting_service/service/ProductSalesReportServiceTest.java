@@ -0,0 +1,141 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.entity.ProductSalesReport;
+import com.example.reporting_service.repository.ProductSalesReportBatchRepository;
+import com.example.reporting_service.repository.ProductSalesReportDayRepository;
+import com.example.reporting_service.repository.ProductSalesReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductSalesReportServiceTest {
+    
+    private final List<URI> requests = new ArrayList<>();
+    private ProductSalesReportRepository reportRepository;
+    private ProductSalesReportDayRepository dayRepository;
+    private ProductSalesReportBatchRepository batchRepository;
+    private ProductSalesReportService service;
+    private int failAfterRequests = Integer.MAX_VALUE;
+    
+    @BeforeEach
+    void setUp() {
+        reportRepository = mock(ProductSalesReportRepository.class);
+        dayRepository = mock(ProductSalesReportDayRepository.class);
+        batchRepository = mock(ProductSalesReportBatchRepository.class);
+        WebClient salesWebClient = WebClient.builder()
+                .baseUrl("http://sales")
+                .exchangeFunction(request -> {
+                    requests.add(request.url());
+                    if (requests.size() > failAfterRequests) {
+                        return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+                    }
+                    String date = UriComponentsBuilder.fromUri(request.url()).build()
+                            .getQueryParams().getFirst("start").substring(0, 10);
+                    String body = "[{\"productId\":7,\"productName\":\"Paracetamol\",\"productCode\":\"PARA\","
+                            + "\"branchId\":1,\"date\":\"" + date + "\",\"quantitySold\":4,\"revenue\":10.00},"
+                            + "{\"productId\":7,\"productName\":\"Paracetamol\",\"productCode\":\"PARA\","
+                            + "\"branchId\":1,\"date\":\"2000-01-01\",\"quantitySold\":1,\"revenue\":2.50}]";
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                })
+                .build();
+        service = new ProductSalesReportService(salesWebClient, reportRepository, dayRepository, batchRepository);
+    }
+    
+    @Test
+    void loadsOnlyDaysThatAreNotLoadedYet() {
+        LocalDate start = LocalDate.now().minusDays(10);
+        LocalDate end = LocalDate.now().minusDays(8);
+        when(dayRepository.findLoadedDates(start, end)).thenReturn(List.of(start, end));
+        
+        service.getTopByRevenue(start, end, 5);
+        
+        assertThat(requests).hasSize(1);
+        String query = requests.get(0).getQuery();
+        assertThat(query).contains("start=" + start.plusDays(1)).contains("end=" + start.plusDays(1));
+        
+        ArgumentCaptor<List<LocalDate>> days = listCaptor();
+        ArgumentCaptor<List<ProductSalesReport>> saved = listCaptor();
+        ArgumentCaptor<List<LocalDate>> closedDays = listCaptor();
+        verify(batchRepository).replaceDays(days.capture(), saved.capture(), closedDays.capture(), any());
+        assertThat(days.getValue()).containsExactly(start.plusDays(1));
+        assertThat(saved.getValue()).singleElement()
+                .satisfies(report -> {
+                    assertThat(report.getProductName()).isEqualTo("Paracetamol");
+                    assertThat(report.getReportDate()).isEqualTo(start.plusDays(1));
+                    assertThat(report.getQuantitySold()).isEqualTo(4);
+                });
+        assertThat(closedDays.getValue()).containsExactly(start.plusDays(1));
+        verify(reportRepository).findTopByRevenue(eq(start), eq(end), any(Pageable.class));
+    }
+    
+    @Test
+    void fullyLoadedRangeIsServedWithoutCallingSalesService() {
+        LocalDate day = LocalDate.now().minusDays(3);
+        when(dayRepository.findLoadedDates(day, day)).thenReturn(List.of(day));
+        
+        service.getSalesByProduct(day, day);
+        
+        assertThat(requests).isEmpty();
+        verify(batchRepository, never()).replaceDays(anyCollection(), anyCollection(), anyCollection(), any());
+        verify(reportRepository).sumByProductAndBranch(day, day);
+    }
+    
+    @Test
+    void todayIsReloadedButNotMarkedAsLoaded() {
+        LocalDate today = LocalDate.now();
+        
+        service.getSalesByProduct(today, today);
+        
+        assertThat(requests).hasSize(1);
+        ArgumentCaptor<List<LocalDate>> closedDays = listCaptor();
+        verify(batchRepository).replaceDays(eq(List.of(today)), anyCollection(), closedDays.capture(), any());
+        assertThat(closedDays.getValue()).isEmpty();
+    }
+    
+    @Test
+    void failedChunkFailsTheReportInsteadOfReturningPartialData() {
+        LocalDate start = LocalDate.now().minusDays(70);
+        LocalDate end = LocalDate.now().minusDays(1);
+        failAfterRequests = 1;
+        
+        assertThatThrownBy(() -> service.getSalesByProduct(start, end))
+                .isInstanceOf(WebClientResponseException.class);
+        
+        assertThat(requests).hasSize(2);
+        verify(batchRepository, times(1)).replaceDays(anyCollection(), anyCollection(), anyCollection(), any());
+        verify(reportRepository, never()).sumByProductAndBranch(any(), any());
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> ArgumentCaptor<List<T>> listCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.dto.DashboardResponse;
+import com.example.reporting_service.repository.SalesSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ReportingServiceDashboardTest {
+    
+    private static final String SALES_BODY = "{\"totalSales\":4,\"totalRevenue\":100.00,"
+            + "\"totalItems\":9,\"uniqueCustomers\":3}";
+    private static final String STOCK_BODY = "{\"success\":true,\"data\":["
+            + "{\"branchId\":1,\"branchName\":\"Centro\",\"totalProducts\":1,\"totalUnits\":2,"
+            + "\"lowStockProducts\":1,\"expiringSoon\":0,\"inventoryValue\":20.00},"
+            + "{\"branchId\":2,\"branchName\":\"Norte\",\"totalProducts\":1,\"totalUnits\":20,"
+            + "\"lowStockProducts\":0,\"expiringSoon\":0,\"inventoryValue\":30.00}]}";
+    
+    @Test
+    void fetchesDownstreamServicesConcurrently() {
+        ReportingService service = service(Duration.ofMillis(400), Duration.ofMillis(400), Duration.ofSeconds(3));
+        service.getDashboard().block(); // warm up codecs so the measured call only reflects downstream latency
+        
+        long started = System.nanoTime();
+        DashboardResponse dashboard = service.getDashboard().block();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        
+        // Sequential calls would take at least 800ms; concurrent ones roughly max(400, 400)
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(400).isLessThan(750);
+        assertThat(dashboard.getUnavailableSources()).isEmpty();
+        assertThat(dashboard.getSalesMetrics().getTotalSales()).isEqualTo(4);
+        assertThat(dashboard.getSalesMetrics().getAverageTicket()).isEqualByComparingTo("25.00");
+        assertThat(dashboard.getInventoryMetrics().getTotalProducts()).isEqualTo(2);
+        assertThat(dashboard.getInventoryMetrics().getLowStockProducts()).isEqualTo(1);
+        assertThat(dashboard.getInventoryMetrics().getTotalInventoryValue()).isEqualByComparingTo("50.00");
+    }
+    
+    @Test
+    void returnsPartialDashboardWhenOneServiceTimesOut() {
+        ReportingService service = service(Duration.ofMillis(50), Duration.ofSeconds(5), Duration.ofMillis(300));
+        
+        long started = System.nanoTime();
+        DashboardResponse dashboard = service.getDashboard().block();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        
+        assertThat(elapsedMillis).isLessThan(4000);
+        assertThat(dashboard.getUnavailableSources()).containsExactly("inventory");
+        assertThat(dashboard.getSalesMetrics().getTotalRevenue()).isEqualByComparingTo("100.00");
+        assertThat(dashboard.getInventoryMetrics().getTotalProducts()).isZero();
+        assertThat(dashboard.getInventoryMetrics().getTotalInventoryValue()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+    
+    @Test
+    void returnsPartialDashboardWhenOneServiceFails() {
+        WebClient failingSales = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()))
+                .build();
+        ReportingService service = new ReportingService(failingSales,
+                stubbedClient(STOCK_BODY, Duration.ZERO), mock(ProductSalesReportService.class), mock(SalesSummaryRepository.class));
+        
+        DashboardResponse dashboard = service.getDashboard().block();
+        
+        assertThat(dashboard.getUnavailableSources()).containsExactly("sales");
+        assertThat(dashboard.getSalesMetrics().getTotalSales()).isZero();
+        assertThat(dashboard.getInventoryMetrics().getTotalProducts()).isEqualTo(2);
+    }
+    
+    private ReportingService service(Duration salesLatency, Duration inventoryLatency, Duration timeout) {
+        ReportingService service = new ReportingService(
+                stubbedClient(SALES_BODY, salesLatency),
+                stubbedClient(STOCK_BODY, inventoryLatency),
+                mock(ProductSalesReportService.class), mock(SalesSummaryRepository.class));
+        ReflectionTestUtils.setField(service, "dashboardSalesTimeout", timeout);
+        ReflectionTestUtils.setField(service, "dashboardInventoryTimeout", timeout);
+        return service;
+    }
+    
+    private WebClient stubbedClient(String body, Duration latency) {
+        return WebClient.builder()
+                .exchangeFunction(request -> Mono.delay(latency)
+                        .map(tick -> ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body(body)
+                                .build()))
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.dto.ExpiringProductResponse;
+import com.example.reporting_service.dto.InventorySummaryResponse;
+import com.example.reporting_service.dto.LowStockResponse;
+import com.example.reporting_service.repository.SalesSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+class ReportingServiceInventoryTest {
+    
+    private static final String KPIS_BODY = "{\"success\":true,\"data\":["
+            + "{\"branchId\":1,\"branchName\":\"Centro\",\"totalProducts\":120,\"totalUnits\":5400,"
+            + "\"lowStockProducts\":7,\"expiringSoon\":3,\"inventoryValue\":15250.50},"
+            + "{\"branchId\":2,\"branchName\":\"Norte\",\"totalProducts\":80,\"totalUnits\":2100,"
+            + "\"lowStockProducts\":2,\"expiringSoon\":1,\"inventoryValue\":4749.50}]}";
+    private static final String ALERTS_BODY = "{\"success\":true,\"data\":["
+            + "{\"id\":9,\"productId\":101,\"branchId\":4,\"quantity\":1,\"minimumStock\":4}]}";
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final String EXPIRING_BODY = "{\"success\":true,\"data\":["
+            + "{\"id\":3,\"batchNumber\":\"L-3\",\"productId\":103,\"branchId\":4,\"branchName\":\"Sur\","
+            + "\"quantity\":6,\"expirationDate\":\"" + TODAY.plusDays(20) + "\",\"status\":\"AVAILABLE\"},"
+            + "{\"id\":5,\"batchNumber\":\"L-5\",\"productId\":105,\"branchId\":4,\"branchName\":\"Sur\","
+            + "\"quantity\":2,\"expirationDate\":\"" + TODAY.plusDays(3) + "\",\"status\":\"AVAILABLE\"}]}";
+    
+    private final List<URI> requests = new ArrayList<>();
+    private ReportingService service;
+    
+    @BeforeEach
+    void setUp() {
+        WebClient inventoryWebClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request.url());
+                    String path = request.url().getPath();
+                    if (path.endsWith("/kpis")) {
+                        return Mono.just(json(KPIS_BODY));
+                    }
+                    if (path.endsWith("/alerts")) {
+                        return Mono.just(json(ALERTS_BODY));
+                    }
+                    return Mono.just(json(EXPIRING_BODY));
+                })
+                .build();
+        service = new ReportingService(mock(WebClient.class), inventoryWebClient,
+                mock(ProductSalesReportService.class), mock(SalesSummaryRepository.class));
+    }
+    
+    @Test
+    void buildsSummaryFromServerSideKpisInOneCall() {
+        InventorySummaryResponse summary = service.getInventorySummary(null);
+        
+        assertThat(requests).singleElement()
+                .satisfies(uri -> assertThat(uri.getPath()).isEqualTo("/api/stock/kpis"));
+        assertThat(summary.getTotalProducts()).isEqualTo(200);
+        assertThat(summary.getLowStockProducts()).isEqualTo(9);
+        assertThat(summary.getExpiringSoon()).isEqualTo(4);
+        assertThat(summary.getInventoryValue()).isEqualByComparingTo("20000.00");
+        assertThat(service.getInventoryKpis()).hasSize(2);
+    }
+    
+    @Test
+    void asksInventoryServiceForLowStockOfOneBranch() {
+        List<LowStockResponse> lowStock = service.getLowStockProducts(4L);
+        
+        assertThat(requests).singleElement()
+                .satisfies(uri -> assertThat(uri.getPath() + "?" + uri.getQuery()).isEqualTo("/api/stock/alerts?includeAtMinimum=true&branchId=4"));
+        assertThat(lowStock).extracting(LowStockResponse::getProductId).containsExactly(101L);
+        assertThat(lowStock.get(0).getMinStock()).isEqualTo(4);
+    }
+    
+    @Test
+    void listsBatchesExpiringSoonFromInventoryService() {
+        List<ExpiringProductResponse> expiring = service.getExpiringProducts(4L);
+        
+        assertThat(requests).singleElement()
+                .satisfies(uri -> assertThat(uri.getPath() + "?" + uri.getQuery()).isEqualTo("/api/batches/expiring?branchId=4"));
+        assertThat(expiring).extracting(ExpiringProductResponse::getProductId, ExpiringProductResponse::getDaysUntilExpiry,
+                        ExpiringProductResponse::getQuantity)
+                .containsExactly(tuple(105L, 3, 2), tuple(103L, 20, 6));
+        assertThat(expiring.get(0).getExpiryDate()).isEqualTo(TODAY.plusDays(3));
+    }
+    
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+}
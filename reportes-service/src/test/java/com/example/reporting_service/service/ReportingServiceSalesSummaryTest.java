@@ -0,0 +1,93 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.dto.SalesSummaryResponse;
+import com.example.reporting_service.repository.SalesSummaryRepository;
+import com.example.reporting_service.repository.SalesSummaryTotals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReportingServiceSalesSummaryTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    
+    private final List<URI> salesRequests = new ArrayList<>();
+    private SalesSummaryRepository salesSummaryRepository;
+    private ReportingService service;
+    private HttpStatus salesStatus = HttpStatus.OK;
+    
+    @BeforeEach
+    void setUp() {
+        salesSummaryRepository = mock(SalesSummaryRepository.class);
+        WebClient salesWebClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    salesRequests.add(request.url());
+                    return Mono.just(ClientResponse.create(salesStatus)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"totalSales\":6,\"totalRevenue\":90.00,\"totalItems\":12,\"uniqueCustomers\":2}")
+                            .build());
+                })
+                .build();
+        service = new ReportingService(salesWebClient, mock(WebClient.class),
+                mock(ProductSalesReportService.class), salesSummaryRepository);
+    }
+    
+    @Test
+    void rangeTakesUniqueCustomersFromExactCountAndTotalsFromRollups() {
+        when(salesSummaryRepository.sumByDateRange(DAY, DAY.plusDays(6), 1L)).thenReturn(totals(6, 5));
+        
+        SalesSummaryResponse summary = service.getSalesSummary(DAY, DAY.plusDays(6), 1L);
+        
+        // The rollups add a returning customer once per day (5); sales-service counts them once (2)
+        assertThat(summary.getUniqueCustomers()).isEqualTo(2);
+        assertThat(summary.getTotalSales()).isEqualTo(6);
+        assertThat(salesRequests).singleElement()
+                .satisfies(uri -> assertThat(uri.getQuery()).contains("branchId=1"));
+    }
+    
+    @Test
+    void singleBranchAndDayIsServedFromRollupOnly() {
+        when(salesSummaryRepository.sumByDateRange(DAY, DAY, 1L)).thenReturn(totals(3, 3));
+        
+        SalesSummaryResponse summary = service.getSalesSummary(DAY, DAY, 1L);
+        
+        assertThat(summary.getUniqueCustomers()).isEqualTo(3);
+        assertThat(salesRequests).isEmpty();
+    }
+    
+    @Test
+    void unknownUniqueCustomersWhenSalesServiceFails() {
+        salesStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        when(salesSummaryRepository.sumByDateRange(DAY, DAY, null)).thenReturn(totals(6, 5));
+        
+        SalesSummaryResponse summary = service.getSalesSummary(DAY, DAY, null);
+        
+        assertThat(summary.getUniqueCustomers()).isNull();
+        assertThat(summary.getTotalRevenue()).isEqualByComparingTo("60");
+    }
+    
+    private static SalesSummaryTotals totals(long sales, long uniqueCustomers) {
+        return new SalesSummaryTotals() {
+            public Long getBranchId() { return null; }
+            public Long getTotalSales() { return sales; }
+            public BigDecimal getTotalRevenue() { return BigDecimal.TEN.multiply(BigDecimal.valueOf(sales)); }
+            public Long getTotalItems() { return sales * 2; }
+            public Long getUniqueCustomers() { return uniqueCustomers; }
+        };
+    }
+}
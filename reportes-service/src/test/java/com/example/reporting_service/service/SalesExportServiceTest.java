@@ -0,0 +1,72 @@
+package com.example.reporting_service.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SalesExportServiceTest {
+    
+    private final List<URI> requests = new ArrayList<>();
+    
+    @Test
+    void writesOneCsvRowPerExportedSale() throws Exception {
+        // Rows as sales-service writes them: SaleExportRow field names, one JSON object per line
+        String body = "{\"id\":1,\"saleNumber\":\"SALE-2025-000001\",\"branchId\":2,\"customerId\":5,"
+                + "\"saleDate\":\"2025-03-10T09:15:00\",\"status\":\"COMPLETED\",\"total\":12.50,\"itemCount\":3}\n"
+                + "{\"id\":2,\"saleNumber\":\"SALE-2025-000002\",\"branchId\":2,\"customerId\":null,"
+                + "\"saleDate\":\"2025-03-11T18:40:00\",\"status\":\"CANCELLED\",\"total\":4.00,\"itemCount\":1}\n";
+        SalesExportService service = new SalesExportService(salesWebClient(body));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        service.writeCsv(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 11), 2L, out);
+        
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                SalesExportService.CSV_HEADER,
+                "1,2025-03-10,2,5,12.50,3,COMPLETED",
+                "2,2025-03-11,2,,4.00,1,CANCELLED");
+        assertThat(requests).hasSize(1);
+        assertThat(requests.get(0).getPath()).isEqualTo("/api/sales/export");
+        assertThat(UriComponentsBuilder.fromUri(requests.get(0)).build().getQueryParams())
+                .containsEntry("start", List.of("2025-03-10T00:00"))
+                .containsEntry("branchId", List.of("2"));
+    }
+    
+    @Test
+    void emptyPeriodWritesOnlyTheHeader() throws Exception {
+        SalesExportService service = new SalesExportService(salesWebClient(""));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        service.writeCsv(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 10), null, out);
+        
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(SalesExportService.CSV_HEADER + "\n");
+        assertThat(UriComponentsBuilder.fromUri(requests.get(0)).build().getQueryParams())
+                .doesNotContainKey("branchId");
+    }
+    
+    private WebClient salesWebClient(String ndjson) {
+        return WebClient.builder()
+                .baseUrl("http://sales")
+                .exchangeFunction(request -> {
+                    requests.add(request.url());
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                            .body(ndjson)
+                            .build());
+                })
+                .build();
+    }
+}
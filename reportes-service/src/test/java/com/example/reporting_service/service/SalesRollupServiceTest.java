@@ -0,0 +1,152 @@
+package com.example.reporting_service.service;
+
+import com.example.reporting_service.entity.RollupWatermark;
+import com.example.reporting_service.entity.SalesSummary;
+import com.example.reporting_service.repository.RollupWatermarkRepository;
+import com.example.reporting_service.repository.SalesSummaryBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SalesRollupServiceTest {
+    
+    private static final String BRANCHES_BODY = "{\"success\":true,\"data\":["
+            + "{\"id\":1,\"name\":\"Centro\"},{\"id\":2,\"name\":\"Norte\"},{\"id\":3,\"name\":\"Sur\"}]}";
+    
+    private final List<URI> salesRequests = new ArrayList<>();
+    private final List<String> changePages = new ArrayList<>();
+    private SalesSummaryBatchRepository batchRepository;
+    private RollupWatermarkRepository watermarkRepository;
+    private SalesRollupService service;
+    
+    @BeforeEach
+    void setUp() {
+        batchRepository = mock(SalesSummaryBatchRepository.class);
+        watermarkRepository = mock(RollupWatermarkRepository.class);
+        when(watermarkRepository.findById(SalesRollupService.FEED_NAME)).thenReturn(Optional.empty());
+        
+        WebClient salesWebClient = WebClient.builder()
+                .baseUrl("http://sales")
+                .exchangeFunction(request -> {
+                    salesRequests.add(request.url());
+                    String body;
+                    if (request.url().getPath().endsWith("/changes")) {
+                        body = changePages.isEmpty() ? "[]" : changePages.remove(0);
+                    } else {
+                        body = "[{\"branchId\":1,\"date\":\"2025-03-10\",\"totalSales\":2,\"totalRevenue\":30.00,"
+                                + "\"totalItems\":5,\"uniqueCustomers\":1},"
+                                + "{\"branchId\":2,\"date\":\"2025-03-11\",\"totalSales\":1,\"totalRevenue\":8.50,"
+                                + "\"totalItems\":1,\"uniqueCustomers\":1}]";
+                    }
+                    return Mono.just(json(body));
+                })
+                .build();
+        WebClient inventoryWebClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(json(BRANCHES_BODY)))
+                .build();
+        
+        BranchDirectoryService branchDirectoryService = new BranchDirectoryService(inventoryWebClient, new ObjectMapper());
+        service = new SalesRollupService(salesWebClient, branchDirectoryService, batchRepository, watermarkRepository);
+        ReflectionTestUtils.setField(service, "pageSize", 2);
+    }
+    
+    @Test
+    void upsertsTouchedDaysForEveryBranchAndAdvancesWatermark() {
+        changePages.add("[{\"id\":5,\"branchId\":1,\"saleDate\":\"2025-03-10T09:00:00\",\"updatedAt\":\"2025-03-12T10:00:00\"},"
+                + "{\"id\":6,\"branchId\":2,\"saleDate\":\"2025-03-11T12:00:00\",\"updatedAt\":\"2025-03-12T10:00:01\"}]");
+        changePages.add("[{\"id\":2,\"branchId\":1,\"saleDate\":\"2025-03-10T15:00:00\",\"updatedAt\":\"2025-03-12T11:00:00\"}]");
+        int refreshed = service.rollup();
+        
+        assertThat(refreshed).isEqualTo(2);
+        assertThat(salesRequests).filteredOn(uri -> uri.getPath().endsWith("/aggregates/daily")).first()
+                .satisfies(uri -> assertThat(uri.getQuery())
+                        .contains("start=2025-03-10T00:00").contains("end=2025-03-11T23:59"));
+        URI secondPage = salesRequests.get(2);
+        assertThat(UriComponentsBuilder.fromUri(secondPage).build().getQueryParams().getFirst("afterId")).isEqualTo("6");
+        
+        // Each page is applied on its own: rows first, then the watermark
+        ArgumentCaptor<List<SalesSummary>> saved = listCaptor();
+        verify(batchRepository, times(2)).upsertAll(saved.capture());
+        assertThat(saved.getAllValues().get(0))
+                .extracting(SalesSummary::getReportDate, SalesSummary::getBranchId, SalesSummary::getTotalSales)
+                .containsExactly(
+                        tuple(LocalDate.of(2025, 3, 10), 1L, 2),
+                        tuple(LocalDate.of(2025, 3, 10), 2L, 0),
+                        tuple(LocalDate.of(2025, 3, 10), 3L, 0),
+                        tuple(LocalDate.of(2025, 3, 11), 1L, 0),
+                        tuple(LocalDate.of(2025, 3, 11), 2L, 1),
+                        tuple(LocalDate.of(2025, 3, 11), 3L, 0));
+        assertThat(saved.getAllValues().get(0).get(0).getAverageTicket()).isEqualByComparingTo("15.00");
+        assertThat(saved.getAllValues().get(0).get(1).getTotalRevenue()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(saved.getAllValues().get(1)).extracting(SalesSummary::getReportDate)
+                .containsOnly(LocalDate.of(2025, 3, 10));
+        
+        ArgumentCaptor<RollupWatermark> watermark = ArgumentCaptor.forClass(RollupWatermark.class);
+        verify(watermarkRepository, times(2)).save(watermark.capture());
+        assertThat(watermark.getAllValues()).extracting(RollupWatermark::getLastId).containsExactly(6L, 2L);
+        assertThat(watermark.getValue().getLastUpdatedAt()).isEqualTo(LocalDateTime.of(2025, 3, 12, 11, 0));
+    }
+    
+    @Test
+    void failedPageKeepsEarlierPagesApplied() {
+        changePages.add("[{\"id\":5,\"branchId\":1,\"saleDate\":\"2025-03-10T09:00:00\",\"updatedAt\":\"2025-03-12T10:00:00\"},"
+                + "{\"id\":6,\"branchId\":2,\"saleDate\":\"2025-03-11T12:00:00\",\"updatedAt\":\"2025-03-12T10:00:01\"}]");
+        changePages.add("not json");
+        
+        assertThatThrownBy(() -> service.rollup()).isInstanceOf(RuntimeException.class);
+        
+        verify(batchRepository, times(1)).upsertAll(any());
+        ArgumentCaptor<RollupWatermark> watermark = ArgumentCaptor.forClass(RollupWatermark.class);
+        verify(watermarkRepository).save(watermark.capture());
+        assertThat(watermark.getValue().getLastId()).isEqualTo(6L);
+    }
+    
+    @Test
+    void leavesSummariesAndWatermarkUntouchedWithoutChanges() {
+        int refreshed = service.rollup();
+        
+        assertThat(refreshed).isZero();
+        assertThat(salesRequests).hasSize(1);
+        verify(batchRepository, never()).upsertAll(any());
+        verify(watermarkRepository, never()).save(any());
+    }
+    
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<SalesSummary>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
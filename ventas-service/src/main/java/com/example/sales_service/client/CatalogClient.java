@@ -1,13 +1,21 @@
 package com.example.sales_service.client;
 
+import com.example.sales_service.dto.ApiResponse;
 import com.example.sales_service.dto.ProductDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "catalog-service", url = "${services.catalog.url}")
 public interface CatalogClient {
     
     @GetMapping("/api/products/{id}")
     ProductDTO getProductById(@PathVariable("id") Long id);
+    
+    @GetMapping("/api/products/batch")
+    ApiResponse<List<ProductDTO>> getProductsByIds(@RequestParam("ids") Collection<Long> ids);
 }
@@ -1,13 +1,32 @@
 package com.example.sales_service.client;
 
+import com.example.sales_service.dto.ApiResponse;
+import com.example.sales_service.dto.SaleStockEvent;
+import com.example.sales_service.dto.SaleStockEventResult;
 import com.example.sales_service.dto.StockDTO;
+import com.example.sales_service.dto.StockReservationDTO;
+import com.example.sales_service.dto.StockReservationRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(name = "inventory-service", url = "${services.inventory.url}")
 public interface InventoryClient {
     
     @GetMapping("/api/inventory/stock")
     StockDTO getStock(@RequestParam("branchId") Long branchId, @RequestParam("productId") Long productId);
+    
+    @PostMapping("/api/reservations")
+    ApiResponse<StockReservationDTO> reserve(@RequestBody StockReservationRequest request);
+    
+    @PostMapping("/api/reservations/{saleNumber}/release")
+    ApiResponse<StockReservationDTO> releaseReservation(@PathVariable("saleNumber") String saleNumber);
+    
+    @PostMapping("/api/sale-events/bulk")
+    ApiResponse<List<SaleStockEventResult>> applySaleEvents(@RequestBody List<SaleStockEvent> events);
 }
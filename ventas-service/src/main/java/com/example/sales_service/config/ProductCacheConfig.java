@@ -0,0 +1,29 @@
+package com.example.sales_service.config;
+
+import com.example.sales_service.dto.ProductDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ProductCacheConfig {
+    
+    @Value("${catalog.cache.maximum-size:10000}")
+    private long maximumSize;
+    
+    @Value("${catalog.cache.ttl:10m}")
+    private Duration ttl;
+    
+    @Bean
+    public Cache<Long, ProductDTO> productCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
@@ -1,8 +1,8 @@
 package com.example.sales_service.controller;
 
 import com.example.sales_service.dto.CustomerRequest;
+import com.example.sales_service.dto.SaleSummary;
 import com.example.sales_service.entity.Customer;
-import com.example.sales_service.entity.Sale;
 import com.example.sales_service.service.CustomerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -64,11 +64,11 @@ public class CustomerController {
     }
     
     @GetMapping("/{id}/history")
-    public ResponseEntity<Page<Sale>> getCustomerHistory(
+    public ResponseEntity<Page<SaleSummary>> getCustomerHistory(
             @PathVariable Long id,
             Pageable pageable) {
         log.info("Petición para obtener historial del cliente: {}", id);
-        Page<Sale> history = customerService.getCustomerHistory(id, pageable);
+        Page<SaleSummary> history = customerService.getCustomerHistory(id, pageable);
         return ResponseEntity.ok(history);
     }
     
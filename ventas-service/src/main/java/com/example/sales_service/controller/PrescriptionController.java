@@ -1,17 +1,26 @@
 package com.example.sales_service.controller;
 
 import com.example.sales_service.dto.PrescriptionRequest;
+import com.example.sales_service.dto.PrescriptionScan;
 import com.example.sales_service.entity.Prescription;
 import com.example.sales_service.enums.PrescriptionStatus;
 import com.example.sales_service.service.PrescriptionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/prescriptions")
@@ -52,4 +61,31 @@ public class PrescriptionController {
         Prescription prescription = prescriptionService.updatePrescriptionStatus(id, status);
         return ResponseEntity.ok(prescription);
     }
+    
+    @PutMapping(value = "/{id}/scan", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Prescription> uploadScan(
+            @PathVariable Long id,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        log.info("Petición para cargar documento escaneado de la prescripción: {}", id);
+        try (InputStream content = file.getInputStream()) {
+            Prescription prescription = prescriptionService.attachScan(id, file.getContentType(), file.getSize(), content);
+            return ResponseEntity.ok(prescription);
+        }
+    }
+    
+    /**
+     * Descarga el documento escaneado. El archivo se copia a la respuesta a medida que se envía
+     * y admite peticiones con Range.
+     */
+    @GetMapping("/{id}/scan")
+    public ResponseEntity<Resource> downloadScan(@PathVariable Long id) {
+        log.info("Petición para descargar documento escaneado de la prescripción: {}", id);
+        PrescriptionScan scan = prescriptionService.getScan(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(scan.getContentType()))
+                .contentLength(scan.getSize())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.inline().filename(scan.getFileName()).build().toString())
+                .body(scan.getResource());
+    }
 }
@@ -0,0 +1,41 @@
+package com.example.sales_service.controller;
+
+import com.example.sales_service.dto.ProductCacheStats;
+import com.example.sales_service.dto.ProductChangeEvent;
+import com.example.sales_service.service.ProductCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/product-cache")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheController {
+    
+    private final ProductCacheService productCacheService;
+    
+    @GetMapping("/stats")
+    public ResponseEntity<ProductCacheStats> getStats() {
+        return ResponseEntity.ok(productCacheService.getStats());
+    }
+    
+    @PostMapping("/invalidate")
+    public ResponseEntity<Void> invalidate(@RequestBody ProductChangeEvent event) {
+        log.info("Notificación de cambio {} para producto {}", event.getType(), event.getProductId());
+        if (event.getProductId() == null) {
+            productCacheService.invalidateAll();
+        } else {
+            productCacheService.invalidate(event.getProductId());
+        }
+        return ResponseEntity.noContent().build();
+    }
+    
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        log.info("Petición para vaciar la caché de productos");
+        productCacheService.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
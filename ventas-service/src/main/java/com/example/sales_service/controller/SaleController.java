@@ -1,9 +1,18 @@
 package com.example.sales_service.controller;
 
 import com.example.sales_service.dto.CreateSaleRequest;
+import com.example.sales_service.dto.ProductSalesAggregate;
+import com.example.sales_service.dto.SaleChange;
+import com.example.sales_service.dto.SaleExportRow;
+import com.example.sales_service.dto.SaleSummary;
+import com.example.sales_service.dto.SalesAggregate;
 import com.example.sales_service.entity.Sale;
 import com.example.sales_service.enums.SaleStatus;
 import com.example.sales_service.service.SaleService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,10 +20,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/sales")
@@ -23,6 +37,7 @@ import java.time.LocalDateTime;
 public class SaleController {
     
     private final SaleService saleService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
     public ResponseEntity<Sale> createSale(@Valid @RequestBody CreateSaleRequest request) {
@@ -32,9 +47,9 @@ public class SaleController {
     }
     
     @GetMapping
-    public ResponseEntity<Page<Sale>> getAllSales(Pageable pageable) {
+    public ResponseEntity<Page<SaleSummary>> getAllSales(Pageable pageable) {
         log.info("Petición para obtener todas las ventas");
-        Page<Sale> sales = saleService.getAllSales(pageable);
+        Page<SaleSummary> sales = saleService.getAllSales(pageable);
         return ResponseEntity.ok(sales);
     }
     
@@ -46,33 +61,110 @@ public class SaleController {
     }
     
     @GetMapping("/branch/{branchId}")
-    public ResponseEntity<Page<Sale>> getSalesByBranch(
+    public ResponseEntity<Page<SaleSummary>> getSalesByBranch(
             @PathVariable Long branchId,
             Pageable pageable) {
         log.info("Petición para obtener ventas de la sucursal: {}", branchId);
-        Page<Sale> sales = saleService.getSalesByBranch(branchId, pageable);
+        Page<SaleSummary> sales = saleService.getSalesByBranch(branchId, pageable);
         return ResponseEntity.ok(sales);
     }
     
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<Page<Sale>> getSalesByCustomer(
+    public ResponseEntity<Page<SaleSummary>> getSalesByCustomer(
             @PathVariable Long customerId,
             Pageable pageable) {
         log.info("Petición para obtener ventas del cliente: {}", customerId);
-        Page<Sale> sales = saleService.getSalesByCustomer(customerId, pageable);
+        Page<SaleSummary> sales = saleService.getSalesByCustomer(customerId, pageable);
         return ResponseEntity.ok(sales);
     }
     
     @GetMapping("/date-range")
-    public ResponseEntity<Page<Sale>> getSalesByDateRange(
+    public ResponseEntity<Page<SaleSummary>> getSalesByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
             Pageable pageable) {
         log.info("Petición para obtener ventas entre {} y {}", start, end);
-        Page<Sale> sales = saleService.getSalesByDateRange(start, end, pageable);
+        Page<SaleSummary> sales = saleService.getSalesByDateRange(start, end, pageable);
         return ResponseEntity.ok(sales);
     }
     
+    /**
+     * Feed de cambios para reportes: ventas creadas o modificadas después del cursor
+     * (since, afterId). El cliente avanza el cursor con la última entrada recibida.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<List<SaleChange>> getSaleChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("Petición para obtener cambios de ventas desde {} (id > {})", since, afterId);
+        return ResponseEntity.ok(saleService.getSaleChanges(since, afterId, limit));
+    }
+    
+    @GetMapping("/aggregates/summary")
+    public ResponseEntity<SalesAggregate> getSalesAggregate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Long branchId) {
+        log.info("Petición para obtener totales de ventas entre {} y {}", start, end);
+        return ResponseEntity.ok(saleService.getSalesAggregate(start, end, branchId));
+    }
+    
+    @GetMapping("/aggregates/by-branch")
+    public ResponseEntity<List<SalesAggregate>> getSalesAggregatesByBranch(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Petición para obtener totales de ventas por sucursal entre {} y {}", start, end);
+        return ResponseEntity.ok(saleService.getSalesAggregatesByBranch(start, end));
+    }
+    
+    @GetMapping("/aggregates/daily")
+    public ResponseEntity<List<SalesAggregate>> getDailySalesAggregates(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Long branchId) {
+        log.info("Petición para obtener totales diarios de ventas entre {} y {}", start, end);
+        return ResponseEntity.ok(saleService.getDailySalesAggregates(start, end, branchId));
+    }
+    
+    @GetMapping("/aggregates/products/daily")
+    public ResponseEntity<List<ProductSalesAggregate>> getDailyProductSalesAggregates(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Long branchId) {
+        log.info("Petición para obtener ventas diarias por producto entre {} y {}", start, end);
+        return ResponseEntity.ok(saleService.getDailyProductSalesAggregates(start, end, branchId));
+    }
+    
+    /**
+     * Exporta las ventas del rango como NDJSON (una venta por línea), escribiendo
+     * a medida que se leen de la base de datos.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Long branchId) {
+        log.info("Petición para exportar ventas entre {} y {}", start, end);
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(SaleExportRow.class)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            saleService.exportSales(start, end, branchId, row -> {
+                try {
+                    writer.writeValue(outputStream, row);
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     @PutMapping("/{id}/status")
     public ResponseEntity<Sale> updateSaleStatus(
             @PathVariable Long id,
@@ -0,0 +1,17 @@
+package com.example.sales_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.core.io.Resource;
+
+/**
+ * Documento escaneado de una prescripción listo para enviarse: el recurso se lee al escribir la respuesta.
+ */
+@Data
+@AllArgsConstructor
+public class PrescriptionScan {
+    private String fileName;
+    private String contentType;
+    private long size;
+    private Resource resource;
+}
@@ -1,5 +1,6 @@
 package com.example.sales_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,6 +14,7 @@ public class ProductDTO {
     private Long id;
     private String name;
     private String code;
+    @JsonAlias("basePrice")
     private BigDecimal price;
     private Boolean requiresPrescription;
 }
@@ -0,0 +1,24 @@
+package com.example.sales_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Unidades vendidas e ingresos de un producto en una sucursal y día, calculados sobre sale_items.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesAggregate {
+    private Long productId;
+    private String productName;
+    private String productCode;
+    private Long branchId;
+    private LocalDate date;
+    private Long quantitySold;
+    private BigDecimal revenue;
+}
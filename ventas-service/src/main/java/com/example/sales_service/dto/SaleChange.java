@@ -0,0 +1,21 @@
+package com.example.sales_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrada del feed de cambios de ventas: identifica la venta modificada y el día y
+ * sucursal cuyos totales deben recalcularse. El par (updatedAt, id) sirve de cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleChange {
+    private Long id;
+    private Long branchId;
+    private LocalDateTime saleDate;
+    private LocalDateTime updatedAt;
+}
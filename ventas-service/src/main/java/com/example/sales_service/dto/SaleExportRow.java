@@ -0,0 +1,26 @@
+package com.example.sales_service.dto;
+
+import com.example.sales_service.enums.SaleStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección compacta de una venta para exportación: sin ítems ni cliente completos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleExportRow {
+    private Long id;
+    private String saleNumber;
+    private Long branchId;
+    private Long customerId;
+    private LocalDateTime saleDate;
+    private SaleStatus status;
+    private BigDecimal total;
+    private Long itemCount;
+}
@@ -0,0 +1,23 @@
+package com.example.sales_service.dto;
+
+import com.example.sales_service.enums.SaleEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Evento de venta que inventory-service aplica al stock: confirma la reserva de una venta
+ * completada o la libera si se cancela. La clave de idempotencia evita aplicarlo dos veces.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleStockEvent {
+    private String idempotencyKey;
+    private SaleEventType type;
+    private String saleNumber;
+    private Long branchId;
+    private List<StockReservationItem> items;
+}
@@ -0,0 +1,14 @@
+package com.example.sales_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleStockEventResult {
+    private String idempotencyKey;
+    private String status;
+    private String message;
+}
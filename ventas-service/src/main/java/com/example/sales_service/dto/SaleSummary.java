@@ -0,0 +1,35 @@
+package com.example.sales_service.dto;
+
+import com.example.sales_service.enums.PaymentMethod;
+import com.example.sales_service.enums.SaleStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Venta para los listados paginados: datos de cabecera, cliente y número de ítems, sin cargar
+ * los ítems ni las prescripciones. El detalle completo se obtiene con GET /api/sales/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleSummary {
+    private Long id;
+    private String saleNumber;
+    private Long customerId;
+    private String customerName;
+    private Long branchId;
+    private BigDecimal subtotal;
+    private BigDecimal tax;
+    private BigDecimal discount;
+    private BigDecimal total;
+    private PaymentMethod paymentMethod;
+    private SaleStatus status;
+    private String cashierName;
+    private LocalDateTime saleDate;
+    private LocalDateTime createdAt;
+    private Long itemCount;
+}
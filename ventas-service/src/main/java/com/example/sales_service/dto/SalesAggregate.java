@@ -0,0 +1,42 @@
+package com.example.sales_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totales de ventas calculados en la base de datos. {@code branchId} y {@code date}
+ * son nulos cuando la consulta no agrupa por ellos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesAggregate {
+    private Long branchId;
+    private LocalDate date;
+    private Long totalSales;
+    private BigDecimal totalRevenue;
+    private Long totalItems;
+    private Long uniqueCustomers;
+    
+    public SalesAggregate(Long totalSales, BigDecimal totalRevenue, Long totalItems, Long uniqueCustomers) {
+        this(null, null, totalSales, totalRevenue, totalItems, uniqueCustomers);
+    }
+    
+    public SalesAggregate(Long branchId, Long totalSales, BigDecimal totalRevenue, Long totalItems, Long uniqueCustomers) {
+        this(branchId, null, totalSales, totalRevenue, totalItems, uniqueCustomers);
+    }
+    
+    public SalesAggregate normalized() {
+        if (totalRevenue == null) {
+            totalRevenue = BigDecimal.ZERO;
+        }
+        if (totalItems == null) {
+            totalItems = 0L;
+        }
+        return this;
+    }
+}
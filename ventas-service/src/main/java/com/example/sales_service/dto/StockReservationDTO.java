@@ -0,0 +1,17 @@
+package com.example.sales_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationDTO {
+    private String saleNumber;
+    private Long branchId;
+    private String status;
+    private LocalDateTime expiresAt;
+}
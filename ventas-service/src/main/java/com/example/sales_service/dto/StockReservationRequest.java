@@ -0,0 +1,19 @@
+package com.example.sales_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Reserva de stock de una venta en inventory-service, con todos sus productos en una sola llamada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+    private String saleNumber;
+    private Long branchId;
+    private List<StockReservationItem> items;
+}
@@ -42,8 +42,13 @@ public class Prescription {
     @Column(nullable = false)
     private LocalDate expirationDate;
     
-    @Column(name = "scanned_document", columnDefinition = "bytea")
-    private byte[] scannedDocument;
+    // El documento escaneado vive en PrescriptionScanStore; la fila solo guarda sus datos
+    @Column(length = 100)
+    private String scanContentType;
+    
+    private Long scanSize;
+    
+    private LocalDateTime scanUploadedAt;
     
     @Column(columnDefinition = "TEXT")
     private String diagnosis;
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "sale_items")
+@Table(name = "sale_items", indexes = {
+    @Index(name = "idx_sale_items_sale_id", columnList = "sale_id"),
+    @Index(name = "idx_sale_items_product_sale", columnList = "product_id, sale_id, quantity, subtotal")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -50,8 +53,8 @@ public class SaleItem {
     @Column(nullable = false)
     private Boolean requiresPrescription = false;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "prescription_id")
-    @JsonIgnoreProperties({"customer", "scannedDocument"})
+    @JsonIgnoreProperties("customer")
     private Prescription prescription;
 }
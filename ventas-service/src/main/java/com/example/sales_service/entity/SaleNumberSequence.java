@@ -0,0 +1,25 @@
+package com.example.sales_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Siguiente número de venta disponible por año. Cada nodo reserva bloques de números
+ * sobre esta fila en lugar de contar las ventas existentes.
+ */
+@Entity
+@Table(name = "sale_number_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleNumberSequence {
+    
+    @Id
+    @Column(name = "sequence_year")
+    private Integer year;
+    
+    @Column(nullable = false)
+    private Long nextValue;
+}
@@ -0,0 +1,6 @@
+package com.example.sales_service.enums;
+
+public enum SaleEventType {
+    COMPLETED,
+    CANCELLED
+}
@@ -0,0 +1,7 @@
+package com.example.sales_service.exception;
+
+public class InvalidPrescriptionScanException extends RuntimeException {
+    public InvalidPrescriptionScanException(String message) {
+        super(message);
+    }
+}
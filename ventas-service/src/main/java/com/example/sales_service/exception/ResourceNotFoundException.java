@@ -0,0 +1,7 @@
+package com.example.sales_service.exception;
+
+public class ResourceNotFoundException extends RuntimeException {
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.sales_service.repository;
+
+import com.example.sales_service.entity.OutboxEvent;
+import com.example.sales_service.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    boolean existsByIdempotencyKey(String idempotencyKey);
+    
+    long countByStatus(OutboxStatus status);
+    
+    /**
+     * Eventos pendientes cuyo próximo intento ya venció, en orden de creación. Las filas bloqueadas
+     * por otra instancia del relay se saltan (SKIP LOCKED) en lugar de esperarlas.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = com.example.sales_service.enums.OutboxStatus.PENDING " +
+           "AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<OutboxEvent> findPendingForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+}
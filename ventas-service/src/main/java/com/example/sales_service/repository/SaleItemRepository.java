@@ -1,12 +1,28 @@
 package com.example.sales_service.repository;
 
+import com.example.sales_service.dto.ProductSalesAggregate;
 import com.example.sales_service.entity.SaleItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
     List<SaleItem> findBySaleId(Long saleId);
+    
+    @Query("SELECT new com.example.sales_service.dto.ProductSalesAggregate(" +
+           "i.productId, MAX(i.productName), MAX(i.productCode), s.branchId, CAST(s.saleDate AS LocalDate), " +
+           "SUM(i.quantity), SUM(i.subtotal)) " +
+           "FROM SaleItem i JOIN i.sale s " +
+           "WHERE s.saleDate BETWEEN :start AND :end " +
+           "AND (:branchId IS NULL OR s.branchId = :branchId) " +
+           "GROUP BY i.productId, s.branchId, CAST(s.saleDate AS LocalDate) " +
+           "ORDER BY CAST(s.saleDate AS LocalDate), s.branchId, i.productId")
+    List<ProductSalesAggregate> aggregateByProductBranchAndDay(@Param("start") LocalDateTime start,
+                                                               @Param("end") LocalDateTime end,
+                                                               @Param("branchId") Long branchId);
 }
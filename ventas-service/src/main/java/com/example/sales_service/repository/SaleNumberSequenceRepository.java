@@ -0,0 +1,29 @@
+package com.example.sales_service.repository;
+
+import com.example.sales_service.entity.SaleNumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SaleNumberSequenceRepository extends JpaRepository<SaleNumberSequence, Integer> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SaleNumberSequence s WHERE s.year = :year")
+    Optional<SaleNumberSequence> findByYearForUpdate(@Param("year") Integer year);
+    
+    /**
+     * Crea la secuencia del año con un INSERT explícito: si otro nodo la creó primero falla por
+     * clave duplicada en vez de sobrescribirla, como haría un merge.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sale_number_sequences (sequence_year, next_value) VALUES (:year, :nextValue)",
+            nativeQuery = true)
+    void insert(@Param("year") Integer year, @Param("nextValue") Long nextValue);
+}
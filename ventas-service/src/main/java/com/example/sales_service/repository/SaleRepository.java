@@ -1,21 +1,125 @@
 package com.example.sales_service.repository;
 
+import com.example.sales_service.dto.SaleChange;
+import com.example.sales_service.dto.SaleExportRow;
+import com.example.sales_service.dto.SaleSummary;
+import com.example.sales_service.dto.SalesAggregate;
 import com.example.sales_service.entity.Sale;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
     Optional<Sale> findBySaleNumber(String saleNumber);
-    Page<Sale> findByCustomerId(Long customerId, Pageable pageable);
-    Page<Sale> findByBranchId(Long branchId, Pageable pageable);
     List<Sale> findByBranchIdAndSaleDateBetween(Long branchId, LocalDateTime start, LocalDateTime end);
-    Page<Sale> findBySaleDateBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
     Long countBySaleDateBetween(LocalDateTime start, LocalDateTime end);
+    
+    @Query("SELECT MAX(s.saleNumber) FROM Sale s WHERE s.saleNumber LIKE :prefix%")
+    Optional<String> findMaxSaleNumberWithPrefix(@Param("prefix") String prefix);
+    
+    /**
+     * Venta con cliente, ítems y prescripciones en una sola consulta, para el detalle.
+     */
+    @EntityGraph(attributePaths = {"customer", "items", "items.prescription", "items.prescription.customer"})
+    @Query("SELECT s FROM Sale s WHERE s.id = :id")
+    Optional<Sale> findWithDetailsById(@Param("id") Long id);
+    
+    // Listados: una consulta por página más el conteo, sin importar cuántas ventas o ítems tenga la página
+    String SUMMARY_SELECT = "SELECT new com.example.sales_service.dto.SaleSummary(" +
+            "s.id, s.saleNumber, c.id, CONCAT(c.firstName, ' ', c.lastName), s.branchId, s.subtotal, s.tax, " +
+            "s.discount, s.total, s.paymentMethod, s.status, s.cashierName, s.saleDate, s.createdAt, " +
+            "(SELECT COUNT(i) FROM SaleItem i WHERE i.sale = s)) " +
+            "FROM Sale s LEFT JOIN s.customer c ";
+    
+    @Query(value = SUMMARY_SELECT,
+           countQuery = "SELECT COUNT(s) FROM Sale s")
+    Page<SaleSummary> findSummaries(Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE s.branchId = :branchId",
+           countQuery = "SELECT COUNT(s) FROM Sale s WHERE s.branchId = :branchId")
+    Page<SaleSummary> findSummariesByBranchId(@Param("branchId") Long branchId, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE c.id = :customerId",
+           countQuery = "SELECT COUNT(s) FROM Sale s WHERE s.customer.id = :customerId")
+    Page<SaleSummary> findSummariesByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE s.saleDate BETWEEN :start AND :end",
+           countQuery = "SELECT COUNT(s) FROM Sale s WHERE s.saleDate BETWEEN :start AND :end")
+    Page<SaleSummary> findSummariesBySaleDateBetween(@Param("start") LocalDateTime start,
+                                                     @Param("end") LocalDateTime end,
+                                                     Pageable pageable);
+    
+    /**
+     * Recorre las ventas del rango con un cursor de solo avance. Debe consumirse dentro de una
+     * transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.sales_service.dto.SaleExportRow(" +
+           "s.id, s.saleNumber, s.branchId, c.id, s.saleDate, s.status, s.total, COUNT(i)) " +
+           "FROM Sale s LEFT JOIN s.customer c LEFT JOIN s.items i " +
+           "WHERE s.saleDate BETWEEN :start AND :end " +
+           "AND (:branchId IS NULL OR s.branchId = :branchId) " +
+           "GROUP BY s.id, s.saleNumber, s.branchId, c.id, s.saleDate, s.status, s.total " +
+           "ORDER BY s.saleDate, s.id")
+    Stream<SaleExportRow> streamForExport(@Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end,
+                                          @Param("branchId") Long branchId);
+    
+    @Query("SELECT new com.example.sales_service.dto.SalesAggregate(" +
+           "COUNT(s), SUM(s.total), SUM(SIZE(s.items)), COUNT(DISTINCT c.id)) " +
+           "FROM Sale s LEFT JOIN s.customer c " +
+           "WHERE s.saleDate BETWEEN :start AND :end " +
+           "AND (:branchId IS NULL OR s.branchId = :branchId)")
+    SalesAggregate aggregate(@Param("start") LocalDateTime start,
+                             @Param("end") LocalDateTime end,
+                             @Param("branchId") Long branchId);
+    
+    @Query("SELECT new com.example.sales_service.dto.SalesAggregate(" +
+           "s.branchId, COUNT(s), SUM(s.total), SUM(SIZE(s.items)), COUNT(DISTINCT c.id)) " +
+           "FROM Sale s LEFT JOIN s.customer c " +
+           "WHERE s.saleDate BETWEEN :start AND :end " +
+           "GROUP BY s.branchId " +
+           "ORDER BY s.branchId")
+    List<SalesAggregate> aggregateByBranch(@Param("start") LocalDateTime start,
+                                           @Param("end") LocalDateTime end);
+    
+    @Query("SELECT new com.example.sales_service.dto.SalesAggregate(" +
+           "s.branchId, CAST(s.saleDate AS LocalDate), COUNT(s), SUM(s.total), SUM(SIZE(s.items)), COUNT(DISTINCT c.id)) " +
+           "FROM Sale s LEFT JOIN s.customer c " +
+           "WHERE s.saleDate BETWEEN :start AND :end " +
+           "AND (:branchId IS NULL OR s.branchId = :branchId) " +
+           "GROUP BY s.branchId, CAST(s.saleDate AS LocalDate) " +
+           "ORDER BY CAST(s.saleDate AS LocalDate), s.branchId")
+    List<SalesAggregate> aggregateByBranchAndDay(@Param("start") LocalDateTime start,
+                                                 @Param("end") LocalDateTime end,
+                                                 @Param("branchId") Long branchId);
+    
+    /**
+     * Ventas creadas o modificadas después del cursor (since, afterId) y hasta {@code until},
+     * en orden de cursor.
+     */
+    @Query("SELECT new com.example.sales_service.dto.SaleChange(s.id, s.branchId, s.saleDate, s.updatedAt) " +
+           "FROM Sale s " +
+           "WHERE s.updatedAt <= :until " +
+           "AND (s.updatedAt > :since OR (s.updatedAt = :since AND s.id > :afterId)) " +
+           "ORDER BY s.updatedAt, s.id")
+    List<SaleChange> findChangesAfter(@Param("since") LocalDateTime since,
+                                      @Param("afterId") Long afterId,
+                                      @Param("until") LocalDateTime until,
+                                      Pageable pageable);
 }
@@ -1,8 +1,8 @@
 package com.example.sales_service.service;
 
 import com.example.sales_service.dto.CustomerRequest;
+import com.example.sales_service.dto.SaleSummary;
 import com.example.sales_service.entity.Customer;
-import com.example.sales_service.entity.Sale;
 import com.example.sales_service.mapper.CustomerMapper;
 import com.example.sales_service.repository.CustomerRepository;
 import com.example.sales_service.repository.SaleRepository;
@@ -77,10 +77,10 @@ public class CustomerService {
     }
     
     @Transactional(readOnly = true)
-    public Page<Sale> getCustomerHistory(Long customerId, Pageable pageable) {
+    public Page<SaleSummary> getCustomerHistory(Long customerId, Pageable pageable) {
         log.info("Obteniendo historial de ventas del cliente: {}", customerId);
         getCustomerById(customerId); // Verificar que existe
-        return saleRepository.findByCustomerId(customerId, pageable);
+        return saleRepository.findSummariesByCustomerId(customerId, pageable);
     }
     
     @Transactional
@@ -0,0 +1,82 @@
+package com.example.sales_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Guarda cada documento en un archivo por prescripción. El contenido se copia por streaming a un
+ * archivo temporal del mismo directorio y solo se mueve al nombre final al confirmarlo, así una
+ * lectura concurrente nunca ve un documento a medio escribir.
+ */
+@Component
+@Slf4j
+public class FileSystemPrescriptionScanStore implements PrescriptionScanStore {
+    
+    private final Path directory;
+    
+    public FileSystemPrescriptionScanStore(
+            @Value("${sales.prescriptions.scan-directory:data/prescription-scans}") Path directory) {
+        this.directory = directory.toAbsolutePath();
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de documentos " + this.directory, e);
+        }
+        log.info("Documentos de prescripciones en {}", this.directory);
+    }
+    
+    @Override
+    public StagedScan stage(Long prescriptionId, InputStream content) throws IOException {
+        Path temp = Files.createTempFile(directory, prescriptionId + "-", ".tmp");
+        try {
+            long written = Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            return new StagedFile(temp, path(prescriptionId), written);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+    
+    @Override
+    public Optional<Resource> load(Long prescriptionId) {
+        Path path = path(prescriptionId);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+    
+    @Override
+    public void delete(Long prescriptionId) throws IOException {
+        Files.deleteIfExists(path(prescriptionId));
+    }
+    
+    private Path path(Long prescriptionId) {
+        return directory.resolve(prescriptionId + ".scan");
+    }
+    
+    private record StagedFile(Path temp, Path target, long size) implements StagedScan {
+        
+        @Override
+        public void commit() throws IOException {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        
+        @Override
+        public void discard() {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar el archivo temporal {}: {}", temp, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.client.InventoryClient;
+import com.example.sales_service.dto.StockReservationItem;
+import com.example.sales_service.dto.StockReservationRequest;
+import com.example.sales_service.entity.Sale;
+import com.example.sales_service.entity.SaleItem;
+import com.example.sales_service.exception.InvalidSaleException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reservas de stock de las ventas en inventory-service. Al crear la venta se reservan todos sus
+ * productos en una sola llamada, y la reserva se libera si la transacción de la venta no llega a
+ * confirmarse. Confirmar o liberar la reserva al completar o cancelar la venta se hace con eventos
+ * del outbox ({@link SaleEventOutbox}). Si inventory-service no responde la venta continúa sin
+ * reserva, como cuando el catálogo no está disponible.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryReservationService {
+    
+    private final InventoryClient inventoryClient;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Reserva los productos de la venta. Lanza {@link InvalidSaleException} si inventory-service
+     * rechaza la reserva (stock insuficiente o inexistente).
+     */
+    public void reserve(Sale sale) {
+        List<StockReservationItem> items = stockItems(sale);
+        try {
+            inventoryClient.reserve(new StockReservationRequest(sale.getSaleNumber(), sale.getBranchId(), items));
+            log.debug("Stock reservado para la venta {} ({} productos)", sale.getSaleNumber(), items.size());
+        } catch (FeignException e) {
+            if (isRejection(e)) {
+                throw new InvalidSaleException("No se pudo reservar el stock de la venta: " + errorMessage(e));
+            }
+            log.warn("No se pudo reservar stock para la venta {}: {}. La venta continúa sin reserva.",
+                    sale.getSaleNumber(), e.getMessage());
+            return;
+        }
+        
+        // Si la venta no llega a guardarse, la reserva se devuelve en lugar de esperar a que venza
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(sale.getSaleNumber());
+                    }
+                }
+            });
+        }
+    }
+    
+    public void release(String saleNumber) {
+        try {
+            inventoryClient.releaseReservation(saleNumber);
+            log.info("Reserva de stock liberada para la venta {}", saleNumber);
+        } catch (FeignException e) {
+            log.warn("No se pudo liberar la reserva de stock de la venta {}: {}. Vencerá por tiempo.",
+                    saleNumber, e.getMessage());
+        }
+    }
+    
+    /**
+     * Cantidades de la venta por producto, en orden de ID.
+     */
+    public static List<StockReservationItem> stockItems(Sale sale) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (SaleItem item : sale.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities.entrySet().stream()
+                .map(entry -> new StockReservationItem(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+    
+    private static boolean isRejection(FeignException e) {
+        return e.status() == 400 || e.status() == 404 || e.status() == 409;
+    }
+    
+    private String errorMessage(FeignException e) {
+        try {
+            JsonNode message = objectMapper.readTree(e.contentUTF8()).path("message");
+            if (message.isTextual()) {
+                return message.asText();
+            }
+        } catch (Exception ignored) {
+            // Cuerpo vacío o no JSON: se usa el mensaje de Feign
+        }
+        return e.getMessage();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.client.InventoryClient;
+import com.example.sales_service.dto.ApiResponse;
+import com.example.sales_service.dto.SaleStockEvent;
+import com.example.sales_service.dto.SaleStockEventResult;
+import com.example.sales_service.entity.OutboxEvent;
+import com.example.sales_service.enums.OutboxStatus;
+import com.example.sales_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Entrega los eventos pendientes del outbox a inventory-service en lotes. Cada lote se lee con
+ * bloqueo SKIP LOCKED, así que varias instancias pueden ejecutar el relay sin repartirse el mismo
+ * evento, y se envía en una sola llamada. Los eventos aplicados o duplicados se marcan enviados,
+ * los rechazados quedan FAILED para revisión y, si inventory-service no responde, el lote se
+ * reintenta con espera exponencial. Como cada evento lleva su clave de idempotencia, reenviar un
+ * lote cuya respuesta se perdió no descuenta stock dos veces.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+    
+    private static final String APPLIED = "APPLIED";
+    private static final String DUPLICATE = "DUPLICATE";
+    private static final int MAX_ERROR_LENGTH = 500;
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final InventoryClient inventoryClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${sales.outbox.batch-size:100}")
+    private int batchSize = 100;
+    
+    @Value("${sales.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun = 20;
+    
+    @Value("${sales.outbox.retry-delay:PT2S}")
+    private Duration retryDelay = Duration.ofSeconds(2);
+    
+    @Value("${sales.outbox.max-retry-delay:PT5M}")
+    private Duration maxRetryDelay = Duration.ofMinutes(5);
+    
+    /**
+     * Entrega lotes hasta vaciar los pendientes (o llegar al máximo por ejecución) y devuelve
+     * cuántos eventos se marcaron enviados.
+     */
+    @Scheduled(fixedDelayString = "${sales.outbox.relay-interval:PT2S}")
+    public int relay() {
+        int sent = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            BatchResult result = transactionTemplate.execute(status -> relayBatch());
+            if (result == null) {
+                break;
+            }
+            sent += result.sent();
+            if (!result.delivered() || result.fetched() < batchSize) {
+                break;
+            }
+        }
+        return sent;
+    }
+    
+    private BatchResult relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.findPendingForUpdate(now, PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return new BatchResult(0, 0, true);
+        }
+        
+        List<SaleStockEvent> payloads = new ArrayList<>();
+        List<OutboxEvent> deliverable = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            try {
+                payloads.add(objectMapper.readValue(event.getPayload(), SaleStockEvent.class));
+                deliverable.add(event);
+            } catch (Exception e) {
+                markFailed(event, "Payload inválido: " + e.getMessage());
+            }
+        }
+        if (deliverable.isEmpty()) {
+            outboxEventRepository.saveAll(events);
+            return new BatchResult(events.size(), 0, true);
+        }
+        
+        Map<String, SaleStockEventResult> results;
+        try {
+            ApiResponse<List<SaleStockEventResult>> response = inventoryClient.applySaleEvents(payloads);
+            results = response != null && response.getData() != null
+                    ? response.getData().stream().collect(Collectors.toMap(
+                            SaleStockEventResult::getIdempotencyKey, Function.identity(), (a, b) -> a))
+                    : Map.of();
+        } catch (FeignException e) {
+            log.warn("No se pudieron entregar {} eventos a inventory-service: {}. Se reintentarán.",
+                    deliverable.size(), e.getMessage());
+            deliverable.forEach(event -> scheduleRetry(event, e.getMessage(), now));
+            outboxEventRepository.saveAll(events);
+            return new BatchResult(events.size(), 0, false);
+        }
+        
+        int sent = 0;
+        for (OutboxEvent event : deliverable) {
+            SaleStockEventResult result = results.get(event.getIdempotencyKey());
+            if (result == null) {
+                scheduleRetry(event, "Sin resultado en la respuesta de inventory-service", now);
+            } else if (APPLIED.equals(result.getStatus()) || DUPLICATE.equals(result.getStatus())) {
+                event.setStatus(OutboxStatus.SENT);
+                event.setAttempts(event.getAttempts() + 1);
+                event.setSentAt(now);
+                event.setLastError(null);
+                sent++;
+            } else {
+                log.error("inventory-service rechazó el evento {}: {}", event.getIdempotencyKey(), result.getMessage());
+                markFailed(event, result.getMessage());
+            }
+        }
+        outboxEventRepository.saveAll(events);
+        log.info("Outbox: {} de {} eventos entregados a inventory-service", sent, events.size());
+        return new BatchResult(events.size(), sent, true);
+    }
+    
+    private void scheduleRetry(OutboxEvent event, String error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(error));
+        event.setNextAttemptAt(now.plus(backoff(attempts)));
+    }
+    
+    private void markFailed(OutboxEvent event, String error) {
+        event.setStatus(OutboxStatus.FAILED);
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(truncate(error));
+    }
+    
+    private Duration backoff(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+    
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+    
+    private record BatchResult(int fetched, int sent, boolean delivered) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.sales_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mueve al almacén de documentos los escaneos que quedaron en la antigua columna
+ * prescriptions.scanned_document y vacía la columna. Se ejecuta al iniciar hasta que no quedan
+ * filas por mover; repetirla no cambia nada, así que varias instancias pueden ejecutarla a la vez.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrescriptionScanMigration {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final PrescriptionScanStore scanStore;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyScans() {
+        if (!legacyColumnExists()) {
+            return;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM prescriptions WHERE scanned_document IS NOT NULL ORDER BY id", Long.class);
+        if (ids.isEmpty()) {
+            return;
+        }
+        log.info("Moviendo {} documentos escaneados de la base de datos al almacén de documentos", ids.size());
+        int migrated = 0;
+        for (Long id : ids) {
+            try {
+                migrate(id);
+                migrated++;
+            } catch (Exception e) {
+                log.error("No se pudo mover el documento de la prescripción {}: {}", id, e.getMessage());
+            }
+        }
+        log.info("Documentos escaneados movidos: {} de {}", migrated, ids.size());
+    }
+    
+    private void migrate(Long id) throws IOException {
+        // Una prescripción con documento cargado después del cambio ya tiene uno más reciente
+        List<byte[]> legacy = jdbcTemplate.queryForList(
+                "SELECT scanned_document FROM prescriptions WHERE id = ? AND scan_content_type IS NULL "
+                        + "AND scanned_document IS NOT NULL", byte[].class, id);
+        if (!legacy.isEmpty()) {
+            byte[] document = legacy.get(0);
+            long size = scanStore.store(id, new ByteArrayInputStream(document));
+            jdbcTemplate.update("UPDATE prescriptions SET scan_content_type = ?, scan_size = ?, scan_uploaded_at = ? "
+                    + "WHERE id = ? AND scan_content_type IS NULL",
+                    contentType(document), size, Timestamp.valueOf(LocalDateTime.now()), id);
+        }
+        jdbcTemplate.update("UPDATE prescriptions SET scanned_document = NULL WHERE id = ?", id);
+    }
+    
+    private boolean legacyColumnExists() {
+        Integer columns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns "
+                        + "WHERE LOWER(table_name) = 'prescriptions' AND LOWER(column_name) = 'scanned_document'",
+                Integer.class);
+        return columns != null && columns > 0;
+    }
+    
+    /**
+     * Tipo del documento según sus primeros bytes; la columna antigua no guardaba el tipo.
+     */
+    static String contentType(byte[] document) {
+        if (startsWith(document, 0x25, 0x50, 0x44, 0x46)) {
+            return "application/pdf";
+        }
+        if (startsWith(document, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(document, 0x89, 0x50, 0x4E, 0x47)) {
+            return "image/png";
+        }
+        return "application/octet-stream";
+    }
+    
+    private static boolean startsWith(byte[] document, int... signature) {
+        if (document.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((document[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.sales_service.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Almacén de los documentos escaneados de las prescripciones, fuera de la fila de la prescripción.
+ */
+public interface PrescriptionScanStore {
+    
+    /**
+     * Copia el documento a un lugar provisional sin tocar el documento actual de la prescripción.
+     * Solo lo reemplaza al confirmarlo con {@link StagedScan#commit()}.
+     */
+    StagedScan stage(Long prescriptionId, InputStream content) throws IOException;
+    
+    /**
+     * Guarda el documento de la prescripción, reemplazando el anterior. Devuelve los bytes escritos.
+     */
+    default long store(Long prescriptionId, InputStream content) throws IOException {
+        StagedScan staged = stage(prescriptionId, content);
+        try {
+            staged.commit();
+            return staged.size();
+        } finally {
+            staged.discard();
+        }
+    }
+    
+    Optional<Resource> load(Long prescriptionId);
+    
+    void delete(Long prescriptionId) throws IOException;
+    
+    /**
+     * Documento copiado que todavía no reemplaza al de la prescripción.
+     */
+    interface StagedScan {
+        
+        long size();
+        
+        /**
+         * Publica el documento como el de la prescripción.
+         */
+        void commit() throws IOException;
+        
+        /**
+         * Descarta la copia si no se publicó; no hace nada después de {@link #commit()}.
+         */
+        void discard();
+    }
+}
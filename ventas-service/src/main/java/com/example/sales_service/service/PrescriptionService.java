@@ -1,22 +1,35 @@
 package com.example.sales_service.service;
 
 import com.example.sales_service.dto.PrescriptionRequest;
+import com.example.sales_service.dto.PrescriptionScan;
 import com.example.sales_service.entity.Customer;
 import com.example.sales_service.entity.Prescription;
 import com.example.sales_service.enums.PrescriptionStatus;
+import com.example.sales_service.exception.InvalidPrescriptionScanException;
+import com.example.sales_service.exception.ResourceNotFoundException;
 import com.example.sales_service.mapper.PrescriptionMapper;
 import com.example.sales_service.repository.CustomerRepository;
 import com.example.sales_service.repository.PrescriptionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Year;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +39,15 @@ public class PrescriptionService {
     private final PrescriptionRepository prescriptionRepository;
     private final CustomerRepository customerRepository;
     private final PrescriptionMapper prescriptionMapper;
+    private final PrescriptionScanStore scanStore;
+    
+    private static final Map<String, String> SCAN_EXTENSIONS = Map.of(
+            "application/pdf", ".pdf",
+            "image/jpeg", ".jpg",
+            "image/png", ".png");
+    
+    @Value("${sales.prescriptions.scan-max-size:10MB}")
+    private DataSize maxScanSize = DataSize.ofMegabytes(10);
     
     @Transactional
     public Prescription createPrescription(PrescriptionRequest request) {
@@ -46,7 +68,7 @@ public class PrescriptionService {
     public Prescription getPrescriptionById(Long id) {
         log.info("Buscando prescripción con ID: {}", id);
         return prescriptionRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Prescripción no encontrada con ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Prescripción no encontrada con ID: " + id));
     }
     
     @Transactional(readOnly = true)
@@ -71,6 +93,98 @@ public class PrescriptionService {
         return prescriptionRepository.findByCustomerIdAndStatus(customerId, PrescriptionStatus.ACTIVE);
     }
     
+    /**
+     * Guarda el documento escaneado de la prescripción en el almacén de documentos; la fila solo
+     * registra el tipo, el tamaño y la fecha de carga. El documento anterior se reemplaza recién
+     * después del commit, así un rollback no deja la fila apuntando a un documento distinto.
+     */
+    @Transactional
+    public Prescription attachScan(Long id, String contentType, long size, InputStream content) {
+        log.info("Cargando documento escaneado de la prescripción ID: {} ({} bytes)", id, size);
+        if (contentType == null || !SCAN_EXTENSIONS.containsKey(contentType)) {
+            throw new InvalidPrescriptionScanException("Tipo de documento no permitido: " + contentType
+                    + ". Se aceptan PDF, JPEG y PNG");
+        }
+        if (size <= 0 || size > maxScanSize.toBytes()) {
+            throw new InvalidPrescriptionScanException("El documento debe tener entre 1 byte y "
+                    + maxScanSize.toMegabytes() + " MB");
+        }
+        
+        Prescription prescription = getPrescriptionById(id);
+        PrescriptionScanStore.StagedScan staged;
+        try {
+            staged = scanStore.stage(id, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar el documento de la prescripción " + id, e);
+        }
+        try {
+            prescription.setScanContentType(contentType);
+            prescription.setScanSize(staged.size());
+            prescription.setScanUploadedAt(LocalDateTime.now());
+            Prescription saved = prescriptionRepository.save(prescription);
+            replaceScanAfterCommit(id, staged);
+            return saved;
+        } catch (RuntimeException e) {
+            staged.discard();
+            throw e;
+        }
+    }
+    
+    /**
+     * Documento escaneado de la prescripción como recurso para enviarlo por streaming, sin leerlo a memoria.
+     */
+    @Transactional(readOnly = true)
+    public PrescriptionScan getScan(Long id) {
+        Prescription prescription = getPrescriptionById(id);
+        Resource resource = prescription.getScanContentType() == null ? null
+                : scanStore.load(id).orElse(null);
+        if (resource == null) {
+            throw new ResourceNotFoundException("La prescripción " + id + " no tiene documento escaneado");
+        }
+        String fileName = prescription.getPrescriptionNumber()
+                + SCAN_EXTENSIONS.getOrDefault(prescription.getScanContentType(), "");
+        // El tamaño del archivo y no el de la fila, por si un reemplazo se está publicando
+        long size;
+        try {
+            size = resource.contentLength();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el documento de la prescripción " + id, e);
+        }
+        return new PrescriptionScan(fileName, prescription.getScanContentType(), size, resource);
+    }
+    
+    private void replaceScanAfterCommit(Long id, PrescriptionScanStore.StagedScan staged) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                staged.commit();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo guardar el documento de la prescripción " + id, e);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                commitScan(id, staged);
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                staged.discard();
+            }
+        });
+    }
+    
+    private void commitScan(Long id, PrescriptionScanStore.StagedScan staged) {
+        try {
+            staged.commit();
+        } catch (IOException e) {
+            log.error("No se pudo publicar el documento de la prescripción {}: {}", id, e.getMessage());
+        } finally {
+            staged.discard();
+        }
+    }
+    
     private String generatePrescriptionNumber() {
         Year currentYear = Year.now();
         Long count = prescriptionRepository.count();
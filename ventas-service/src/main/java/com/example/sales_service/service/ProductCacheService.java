@@ -0,0 +1,82 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.client.CatalogClient;
+import com.example.sales_service.dto.ApiResponse;
+import com.example.sales_service.dto.ProductCacheStats;
+import com.example.sales_service.dto.ProductDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caché local de los datos de producto que usa una venta (precio, nombre, código y receta).
+ * Las entradas expiran por TTL y se invalidan cuando catalog-service notifica un cambio.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheService {
+    
+    private final Cache<Long, ProductDTO> productCache;
+    private final CatalogClient catalogClient;
+    
+    // Notificaciones de cambio atendidas, no entradas descartadas
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    /**
+     * Devuelve los productos solicitados. Solo los que no están en caché se consultan
+     * a catalog-service, en una única llamada por lote.
+     */
+    public Map<Long, ProductDTO> getProducts(Collection<Long> productIds) {
+        try {
+            return productCache.getAll(productIds, this::loadFromCatalog);
+        } catch (Exception e) {
+            log.warn("No se pudo obtener información del catálogo para productos {}: {}. Usando datos del request.", 
+                    productIds, e.getMessage());
+            return productCache.getAllPresent(productIds);
+        }
+    }
+    
+    public void invalidate(Long productId) {
+        productCache.invalidate(productId);
+        invalidations.incrementAndGet();
+        log.debug("Producto {} invalidado en caché", productId);
+    }
+    
+    public void invalidateAll() {
+        productCache.invalidateAll();
+        invalidations.incrementAndGet();
+        log.info("Caché de productos vaciada");
+    }
+    
+    public ProductCacheStats getStats() {
+        CacheStats stats = productCache.stats();
+        return new ProductCacheStats(
+                productCache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                invalidations.get());
+    }
+    
+    private Map<Long, ProductDTO> loadFromCatalog(Set<? extends Long> missingIds) {
+        log.debug("Consultando {} productos no cacheados a catalog-service", missingIds.size());
+        ApiResponse<List<ProductDTO>> response = catalogClient.getProductsByIds(List.copyOf(missingIds));
+        if (response == null || response.getData() == null) {
+            return Map.of();
+        }
+        return response.getData().stream()
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity(), (a, b) -> a));
+    }
+}
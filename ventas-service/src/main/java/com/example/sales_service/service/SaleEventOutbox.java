@@ -0,0 +1,66 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.dto.SaleStockEvent;
+import com.example.sales_service.entity.OutboxEvent;
+import com.example.sales_service.entity.Sale;
+import com.example.sales_service.enums.OutboxStatus;
+import com.example.sales_service.enums.SaleEventType;
+import com.example.sales_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Escribe en el outbox los eventos de venta que afectan al stock. Debe llamarse dentro de la
+ * transacción que cambia la venta, para que el evento exista si y solo si el cambio se confirma.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SaleEventOutbox {
+    
+    static final String AGGREGATE_TYPE = "SALE";
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Sale sale, SaleEventType type) {
+        String key = idempotencyKey(sale.getSaleNumber(), type);
+        if (outboxEventRepository.existsByIdempotencyKey(key)) {
+            log.debug("El evento {} ya está en el outbox", key);
+            return;
+        }
+        
+        SaleStockEvent event = new SaleStockEvent(key, type, sale.getSaleNumber(), sale.getBranchId(),
+                InventoryReservationService.stockItems(sale));
+        
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setIdempotencyKey(key);
+        outboxEvent.setEventType(AGGREGATE_TYPE + "_" + type.name());
+        outboxEvent.setAggregateId(sale.getSaleNumber());
+        outboxEvent.setPayload(toJson(event));
+        outboxEvent.setStatus(OutboxStatus.PENDING);
+        outboxEvent.setNextAttemptAt(LocalDateTime.now());
+        outboxEventRepository.save(outboxEvent);
+        log.debug("Evento {} agregado al outbox", key);
+    }
+    
+    static String idempotencyKey(String saleNumber, SaleEventType type) {
+        return "sale:" + saleNumber + ":" + type.name().toLowerCase();
+    }
+    
+    private String toJson(SaleStockEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + event.getIdempotencyKey(), e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.sales_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Year;
+
+/**
+ * Asignador hi/lo de números de venta con formato {@code SALE-YYYY-NNNNNN}.
+ * Cada instancia reserva bloques de números en la base de datos y los entrega desde memoria,
+ * así que la mayoría de ventas no consulta la base para obtener su número.
+ */
+@Service
+@Slf4j
+public class SaleNumberAllocator {
+    
+    private final SaleNumberSequenceService sequenceService;
+    private final int blockSize;
+    
+    private int currentYear;
+    private long nextValue;
+    private long blockEnd;
+    
+    public SaleNumberAllocator(SaleNumberSequenceService sequenceService,
+                               @Value("${sales.number.block-size:50}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor a cero");
+        }
+        this.sequenceService = sequenceService;
+        this.blockSize = blockSize;
+    }
+    
+    public String nextSaleNumber() {
+        return nextSaleNumber(Year.now().getValue());
+    }
+    
+    synchronized String nextSaleNumber(int year) {
+        if (year != currentYear || nextValue >= blockEnd) {
+            nextValue = reserveBlock(year);
+            blockEnd = nextValue + blockSize;
+            currentYear = year;
+        }
+        String number = String.format("%s%06d", prefix(year), nextValue++);
+        log.debug("Número de venta generado: {}", number);
+        return number;
+    }
+    
+    static String prefix(int year) {
+        return "SALE-" + year + "-";
+    }
+    
+    private long reserveBlock(int year) {
+        try {
+            return sequenceService.reserveBlock(year, blockSize);
+        } catch (DataIntegrityViolationException e) {
+            // Otro nodo creó la secuencia del año al mismo tiempo; ya existe la fila
+            log.debug("Secuencia de {} creada concurrentemente, reintentando reserva", year);
+            return sequenceService.reserveBlock(year, blockSize);
+        }
+    }
+}
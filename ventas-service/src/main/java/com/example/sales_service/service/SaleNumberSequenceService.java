@@ -0,0 +1,56 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.entity.SaleNumberSequence;
+import com.example.sales_service.repository.SaleNumberSequenceRepository;
+import com.example.sales_service.repository.SaleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SaleNumberSequenceService {
+    
+    private final SaleNumberSequenceRepository sequenceRepository;
+    private final SaleRepository saleRepository;
+    
+    /**
+     * Reserva {@code blockSize} números consecutivos para el año indicado y devuelve el primero.
+     * Se ejecuta en su propia transacción para que el bloqueo de la fila dure solo la reserva
+     * y no toda la venta.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserveBlock(int year, int blockSize) {
+        Optional<SaleNumberSequence> existing = sequenceRepository.findByYearForUpdate(year);
+        long start;
+        if (existing.isPresent()) {
+            SaleNumberSequence sequence = existing.get();
+            start = sequence.getNextValue();
+            sequence.setNextValue(start + blockSize);
+            sequenceRepository.saveAndFlush(sequence);
+        } else {
+            // Si otro nodo crea la fila al mismo tiempo, el INSERT falla y el asignador reintenta
+            start = initialValue(year);
+            sequenceRepository.insert(year, start + blockSize);
+        }
+        
+        log.debug("Bloque de números de venta reservado para {}: {} - {}", year, start, start + blockSize - 1);
+        return start;
+    }
+    
+    /**
+     * Primer valor de un año sin secuencia: continúa desde la última venta registrada
+     * para no repetir números generados antes de existir la tabla de secuencias.
+     */
+    private long initialValue(int year) {
+        String prefix = SaleNumberAllocator.prefix(year);
+        return saleRepository.findMaxSaleNumberWithPrefix(prefix)
+                .map(number -> Long.parseLong(number.substring(prefix.length())) + 1)
+                .orElse(1L);
+    }
+}
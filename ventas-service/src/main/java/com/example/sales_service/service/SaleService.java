@@ -1,31 +1,45 @@
 package com.example.sales_service.service;
 
-import com.example.sales_service.client.CatalogClient;
 import com.example.sales_service.dto.CreateSaleRequest;
 import com.example.sales_service.dto.ProductDTO;
+import com.example.sales_service.dto.ProductSalesAggregate;
+import com.example.sales_service.dto.SaleChange;
+import com.example.sales_service.dto.SaleExportRow;
+import com.example.sales_service.dto.SaleSummary;
+import com.example.sales_service.dto.SalesAggregate;
 import com.example.sales_service.dto.SaleItemRequest;
 import com.example.sales_service.entity.*;
 import com.example.sales_service.enums.PrescriptionStatus;
+import com.example.sales_service.enums.SaleEventType;
 import com.example.sales_service.enums.SaleStatus;
 import com.example.sales_service.exception.ExpiredPrescriptionException;
 import com.example.sales_service.exception.InvalidSaleException;
 import com.example.sales_service.exception.PrescriptionRequiredException;
 import com.example.sales_service.repository.CustomerRepository;
 import com.example.sales_service.repository.PrescriptionRepository;
+import com.example.sales_service.repository.SaleItemRepository;
 import com.example.sales_service.repository.SaleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.Year;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -33,12 +47,20 @@ import java.util.List;
 public class SaleService {
     
     private final SaleRepository saleRepository;
+    private final SaleItemRepository saleItemRepository;
     private final CustomerRepository customerRepository;
     private final PrescriptionRepository prescriptionRepository;
-    private final CatalogClient catalogClient;
+    private final ProductCacheService productCacheService;
     private final PrescriptionService prescriptionService;
+    private final SaleNumberAllocator saleNumberAllocator;
+    private final InventoryReservationService inventoryReservationService;
+    private final SaleEventOutbox saleEventOutbox;
     
     private static final BigDecimal TAX_RATE = new BigDecimal("0.12"); // 12% IVA
+    private static final int MAX_CHANGES_PER_PAGE = 1000;
+    
+    @Value("${sales.changes.settle-time:5s}")
+    private Duration changesSettleTime = Duration.ofSeconds(5);
     
     @Transactional
     public Sale createSale(CreateSaleRequest request) {
@@ -51,7 +73,7 @@ public class SaleService {
         
         // Crear venta
         Sale sale = new Sale();
-        sale.setSaleNumber(generateSaleNumber());
+        sale.setSaleNumber(saleNumberAllocator.nextSaleNumber());
         sale.setBranchId(request.getBranchId());
         sale.setPaymentMethod(request.getPaymentMethod());
         sale.setCashierName(request.getCashierName());
@@ -66,12 +88,15 @@ public class SaleService {
             sale.setCustomer(customer);
         }
         
+        // Obtener los productos de la venta (caché local + una sola llamada a catalog-service para los faltantes)
+        Map<Long, ProductDTO> products = fetchProducts(request.getItems());
+        
         // Procesar items
         List<SaleItem> saleItems = new ArrayList<>();
         BigDecimal subtotal = BigDecimal.ZERO;
         
         for (SaleItemRequest itemRequest : request.getItems()) {
-            SaleItem saleItem = processSaleItem(itemRequest, sale);
+            SaleItem saleItem = processSaleItem(itemRequest, products.get(itemRequest.getProductId()), sale);
             saleItems.add(saleItem);
             subtotal = subtotal.add(saleItem.getSubtotal());
         }
@@ -90,6 +115,9 @@ public class SaleService {
         BigDecimal total = subtotal.add(tax).subtract(discount).setScale(2, RoundingMode.HALF_UP);
         sale.setTotal(total);
         
+        // Reservar el stock de todos los ítems en una sola llamada a inventory-service
+        inventoryReservationService.reserve(sale);
+        
         Sale saved = saleRepository.save(sale);
         log.info("Venta creada exitosamente con número: {}", saved.getSaleNumber());
         log.info("Totales - Subtotal: {}, IVA: {}, Descuento: {}, Total: {}", 
@@ -98,18 +126,16 @@ public class SaleService {
         return saved;
     }
     
-    private SaleItem processSaleItem(SaleItemRequest itemRequest, Sale sale) {
+    private Map<Long, ProductDTO> fetchProducts(List<SaleItemRequest> items) {
+        Set<Long> productIds = items.stream()
+                .map(SaleItemRequest::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return productCacheService.getProducts(productIds);
+    }
+    
+    private SaleItem processSaleItem(SaleItemRequest itemRequest, ProductDTO product, Sale sale) {
         log.debug("Procesando item - ProductoID: {}", itemRequest.getProductId());
         
-        // Obtener información del producto desde catalog-service
-        ProductDTO product = null;
-        try {
-            product = catalogClient.getProductById(itemRequest.getProductId());
-        } catch (Exception e) {
-            log.warn("No se pudo obtener información del catálogo para producto {}: {}. Usando datos del request.", 
-                    itemRequest.getProductId(), e.getMessage());
-        }
-        
         // Determinar precio unitario
         BigDecimal unitPrice;
         if (itemRequest.getUnitPrice() != null) {
@@ -134,13 +160,14 @@ public class SaleService {
                 itemRequest.getRequiresPrescription() : 
                 (product != null && product.getRequiresPrescription() != null && product.getRequiresPrescription());
         
+        Prescription prescription = null;
         if (requiresPrescription) {
             if (itemRequest.getPrescriptionId() == null) {
                 throw new PrescriptionRequiredException(
                         "El producto '" + productName + "' requiere prescripción médica");
             }
             
-            Prescription prescription = prescriptionRepository.findById(itemRequest.getPrescriptionId())
+            prescription = prescriptionRepository.findById(itemRequest.getPrescriptionId())
                     .orElseThrow(() -> new PrescriptionRequiredException(
                             "Prescripción no encontrada con ID: " + itemRequest.getPrescriptionId()));
             
@@ -148,6 +175,8 @@ public class SaleService {
                 throw new ExpiredPrescriptionException(
                         "La prescripción ha expirado o no está activa");
             }
+        } else if (itemRequest.getPrescriptionId() != null) {
+            prescription = prescriptionRepository.findById(itemRequest.getPrescriptionId()).orElse(null);
         }
         
         // Crear SaleItem con desnormalización
@@ -160,11 +189,7 @@ public class SaleService {
         saleItem.setUnitPrice(unitPrice);
         saleItem.setRequiresPrescription(requiresPrescription);
         saleItem.setBatchId(itemRequest.getBatchId());
-        
-        if (itemRequest.getPrescriptionId() != null) {
-            Prescription prescription = prescriptionRepository.findById(itemRequest.getPrescriptionId()).orElse(null);
-            saleItem.setPrescription(prescription);
-        }
+        saleItem.setPrescription(prescription);
         
         BigDecimal itemDiscount = itemRequest.getDiscount() != null ? itemRequest.getDiscount() : BigDecimal.ZERO;
         saleItem.setDiscount(itemDiscount);
@@ -182,34 +207,87 @@ public class SaleService {
     }
     
     @Transactional(readOnly = true)
-    public Page<Sale> getAllSales(Pageable pageable) {
+    public Page<SaleSummary> getAllSales(Pageable pageable) {
         log.info("Obteniendo todas las ventas - página: {}", pageable.getPageNumber());
-        return saleRepository.findAll(pageable);
+        return saleRepository.findSummaries(pageable);
     }
     
     @Transactional(readOnly = true)
     public Sale getSaleById(Long id) {
         log.info("Buscando venta con ID: {}", id);
-        return saleRepository.findById(id)
+        return saleRepository.findWithDetailsById(id)
                 .orElseThrow(() -> new InvalidSaleException("Venta no encontrada con ID: " + id));
     }
     
     @Transactional(readOnly = true)
-    public Page<Sale> getSalesByBranch(Long branchId, Pageable pageable) {
+    public Page<SaleSummary> getSalesByBranch(Long branchId, Pageable pageable) {
         log.info("Obteniendo ventas de la sucursal: {}", branchId);
-        return saleRepository.findByBranchId(branchId, pageable);
+        return saleRepository.findSummariesByBranchId(branchId, pageable);
     }
     
     @Transactional(readOnly = true)
-    public Page<Sale> getSalesByCustomer(Long customerId, Pageable pageable) {
+    public Page<SaleSummary> getSalesByCustomer(Long customerId, Pageable pageable) {
         log.info("Obteniendo ventas del cliente: {}", customerId);
-        return saleRepository.findByCustomerId(customerId, pageable);
+        return saleRepository.findSummariesByCustomerId(customerId, pageable);
     }
     
     @Transactional(readOnly = true)
-    public Page<Sale> getSalesByDateRange(LocalDateTime start, LocalDateTime end, Pageable pageable) {
+    public Page<SaleSummary> getSalesByDateRange(LocalDateTime start, LocalDateTime end, Pageable pageable) {
         log.info("Obteniendo ventas entre {} y {}", start, end);
-        return saleRepository.findBySaleDateBetween(start, end, pageable);
+        return saleRepository.findSummariesBySaleDateBetween(start, end, pageable);
+    }
+    
+    /**
+     * Entrega cada venta del rango al consumidor a medida que se lee del cursor,
+     * sin cargar el rango completo en memoria.
+     */
+    @Transactional(readOnly = true)
+    public void exportSales(LocalDateTime start, LocalDateTime end, Long branchId, Consumer<SaleExportRow> consumer) {
+        log.info("Exportando ventas entre {} y {} (sucursal: {})", start, end, branchId);
+        try (Stream<SaleExportRow> rows = saleRepository.streamForExport(start, end, branchId)) {
+            rows.forEach(consumer);
+        }
+    }
+    
+    /**
+     * Devuelve las ventas cambiadas después del cursor. Los cambios de los últimos
+     * segundos se retienen para no adelantar el cursor sobre transacciones que aún
+     * no confirmaron con una marca de tiempo anterior.
+     */
+    @Transactional(readOnly = true)
+    public List<SaleChange> getSaleChanges(LocalDateTime since, Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_CHANGES_PER_PAGE));
+        LocalDateTime until = LocalDateTime.now().minus(changesSettleTime);
+        log.debug("Consultando cambios de ventas desde {} (id > {}) hasta {}", since, afterId, until);
+        return saleRepository.findChangesAfter(since, afterId, until, PageRequest.of(0, pageSize));
+    }
+    
+    @Transactional(readOnly = true)
+    public SalesAggregate getSalesAggregate(LocalDateTime start, LocalDateTime end, Long branchId) {
+        log.info("Calculando totales de ventas entre {} y {} (sucursal: {})", start, end, branchId);
+        return saleRepository.aggregate(start, end, branchId).normalized();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SalesAggregate> getSalesAggregatesByBranch(LocalDateTime start, LocalDateTime end) {
+        log.info("Calculando totales de ventas por sucursal entre {} y {}", start, end);
+        return saleRepository.aggregateByBranch(start, end).stream()
+                .map(SalesAggregate::normalized)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SalesAggregate> getDailySalesAggregates(LocalDateTime start, LocalDateTime end, Long branchId) {
+        log.info("Calculando totales diarios de ventas entre {} y {} (sucursal: {})", start, end, branchId);
+        return saleRepository.aggregateByBranchAndDay(start, end, branchId).stream()
+                .map(SalesAggregate::normalized)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ProductSalesAggregate> getDailyProductSalesAggregates(LocalDateTime start, LocalDateTime end, Long branchId) {
+        log.info("Calculando ventas diarias por producto entre {} y {} (sucursal: {})", start, end, branchId);
+        return saleItemRepository.aggregateByProductBranchAndDay(start, end, branchId);
     }
     
     @Transactional
@@ -232,25 +310,16 @@ public class SaleService {
             }
         }
         
+        // El stock se descuenta al completar y se devuelve al cancelar una venta pendiente. El evento se
+        // guarda en el outbox en esta misma transacción y el relay lo entrega a inventory-service después
+        if (status == SaleStatus.COMPLETED && oldStatus != SaleStatus.COMPLETED) {
+            saleEventOutbox.enqueue(sale, SaleEventType.COMPLETED);
+        } else if (status == SaleStatus.CANCELLED && oldStatus == SaleStatus.PENDING) {
+            saleEventOutbox.enqueue(sale, SaleEventType.CANCELLED);
+        }
+        
         Sale updated = saleRepository.save(sale);
         log.info("Estado de venta actualizado exitosamente de {} a {}", oldStatus, status);
         return updated;
     }
-    
-    private String generateSaleNumber() {
-        Year currentYear = Year.now();
-        LocalDateTime startOfYear = LocalDateTime.of(currentYear.getValue(), 1, 1, 0, 0);
-        LocalDateTime endOfYear = LocalDateTime.of(currentYear.getValue(), 12, 31, 23, 59, 59);
-        
-        Long countThisYear = saleRepository.countBySaleDateBetween(startOfYear, endOfYear);
-        String number = String.format("SALE-%d-%06d", currentYear.getValue(), countThisYear + 1);
-        
-        while (saleRepository.findBySaleNumber(number).isPresent()) {
-            countThisYear++;
-            number = String.format("SALE-%d-%06d", currentYear.getValue(), countThisYear + 1);
-        }
-        
-        log.debug("Número de venta generado: {}", number);
-        return number;
-    }
 }
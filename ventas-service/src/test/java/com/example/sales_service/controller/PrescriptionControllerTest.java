@@ -0,0 +1,60 @@
+package com.example.sales_service.controller;
+
+import com.example.sales_service.exception.GlobalExceptionHandler;
+import com.example.sales_service.exception.InvalidPrescriptionScanException;
+import com.example.sales_service.exception.ResourceNotFoundException;
+import com.example.sales_service.service.PrescriptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PrescriptionControllerTest {
+    
+    private PrescriptionService prescriptionService;
+    private MockMvc mockMvc;
+    
+    @BeforeEach
+    void setUp() {
+        prescriptionService = mock(PrescriptionService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PrescriptionController(prescriptionService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+    
+    @Test
+    void rejectedScanIsABadRequest() throws Exception {
+        when(prescriptionService.attachScan(eq(7L), eq("text/html"), anyLong(), any()))
+                .thenThrow(new InvalidPrescriptionScanException("Tipo de documento no permitido: text/html"));
+        
+        mockMvc.perform(multipart("/api/prescriptions/7/scan")
+                        .file(new MockMultipartFile("file", "receta.html", "text/html", "<html>".getBytes()))
+                        .with(request -> {
+                            request.setMethod("PUT");
+                            return request;
+                        }))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Tipo de documento no permitido: text/html"));
+    }
+    
+    @Test
+    void missingScanIsNotFound() throws Exception {
+        when(prescriptionService.getScan(7L))
+                .thenThrow(new ResourceNotFoundException("La prescripción 7 no tiene documento escaneado"));
+        
+        mockMvc.perform(get("/api/prescriptions/7/scan"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.sales_service.controller;
+
+import com.example.sales_service.dto.ProductCacheStats;
+import com.example.sales_service.service.ProductCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProductCacheControllerTest {
+    
+    private ProductCacheService productCacheService;
+    private MockMvc mockMvc;
+    
+    @BeforeEach
+    void setUp() {
+        productCacheService = mock(ProductCacheService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ProductCacheController(productCacheService)).build();
+    }
+    
+    @Test
+    void exposesCacheStats() throws Exception {
+        when(productCacheService.getStats()).thenReturn(new ProductCacheStats(3, 8, 2, 0.8, 1, 4));
+        
+        mockMvc.perform(get("/api/product-cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(3))
+                .andExpect(jsonPath("$.hits").value(8))
+                .andExpect(jsonPath("$.misses").value(2))
+                .andExpect(jsonPath("$.hitRate").value(0.8))
+                .andExpect(jsonPath("$.evictions").value(1))
+                .andExpect(jsonPath("$.invalidations").value(4));
+    }
+    
+    @Test
+    void changeNotificationInvalidatesProductOrWholeCache() throws Exception {
+        mockMvc.perform(post("/api/product-cache/invalidate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":7,\"type\":\"UPDATED\"}"))
+                .andExpect(status().isNoContent());
+        verify(productCacheService).invalidate(7L);
+        
+        mockMvc.perform(post("/api/product-cache/invalidate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"UPDATED\"}"))
+                .andExpect(status().isNoContent());
+        verify(productCacheService).invalidateAll();
+    }
+}
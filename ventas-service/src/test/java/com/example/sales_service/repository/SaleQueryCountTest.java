@@ -0,0 +1,175 @@
+package com.example.sales_service.repository;
+
+import com.example.sales_service.dto.SaleSummary;
+import com.example.sales_service.entity.Customer;
+import com.example.sales_service.entity.Prescription;
+import com.example.sales_service.entity.Sale;
+import com.example.sales_service.entity.SaleItem;
+import com.example.sales_service.enums.CustomerType;
+import com.example.sales_service.enums.IdentificationType;
+import com.example.sales_service.enums.PaymentMethod;
+import com.example.sales_service.enums.SaleStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class SaleQueryCountTest {
+    
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 10, 9, 0);
+    
+    @Autowired
+    private SaleRepository saleRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    private Long firstSaleId;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        // 30 ventas, cada una con cliente propio y tres ítems, uno con prescripción
+        for (int i = 0; i < 30; i++) {
+            Customer customer = entityManager.persist(customer(i));
+            Prescription prescription = entityManager.persist(prescription(i, customer));
+            Sale sale = sale(i, customer, prescription);
+            entityManager.persist(sale);
+            if (firstSaleId == null) {
+                firstSaleId = sale.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void listingPagesRunTheSameNumberOfQueriesRegardlessOfPageSize() {
+        long smallPageQueries = countQueries(() -> saleRepository.findSummaries(PageRequest.of(0, 5)));
+        long largePageQueries = countQueries(() -> saleRepository.findSummaries(PageRequest.of(0, 25)));
+        long branchQueries = countQueries(() -> saleRepository.findSummariesByBranchId(1L, PageRequest.of(0, 10)));
+        long rangeQueries = countQueries(() -> saleRepository.findSummariesBySaleDateBetween(
+                DAY, DAY.plusDays(40), PageRequest.of(0, 10)));
+        
+        // Consulta de la página más el conteo
+        assertThat(smallPageQueries).isEqualTo(2);
+        assertThat(largePageQueries).isEqualTo(2);
+        assertThat(branchQueries).isEqualTo(2);
+        assertThat(rangeQueries).isEqualTo(2);
+    }
+    
+    @Test
+    void summariesCarryCustomerAndItemCountWithoutLoadingEntities() {
+        statistics.clear();
+        Page<SaleSummary> page = saleRepository.findSummaries(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "saleDate")));
+        
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(page.getContent()).hasSize(10);
+        SaleSummary latest = page.getContent().get(0);
+        assertThat(latest.getSaleNumber()).isEqualTo("SALE-2025-000029");
+        assertThat(latest.getCustomerName()).isEqualTo("Cliente 29");
+        assertThat(latest.getItemCount()).isEqualTo(3);
+        assertThat(latest.getTotal()).isEqualByComparingTo("33.60");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        
+        Page<SaleSummary> byCustomer = saleRepository.findSummariesByCustomerId(latest.getCustomerId(), PageRequest.of(0, 10));
+        assertThat(byCustomer.getContent()).extracting(SaleSummary::getId).containsExactly(latest.getId());
+    }
+    
+    @Test
+    void detailLoadsCustomerItemsAndPrescriptionsInOneQuery() {
+        statistics.clear();
+        Sale sale = saleRepository.findWithDetailsById(firstSaleId).orElseThrow();
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(Hibernate.isInitialized(sale.getCustomer())).isTrue();
+        assertThat(Hibernate.isInitialized(sale.getItems())).isTrue();
+        assertThat(sale.getItems()).hasSize(3);
+        assertThat(sale.getItems()).filteredOn(item -> item.getPrescription() != null).singleElement()
+                .satisfies(item -> assertThat(Hibernate.isInitialized(item.getPrescription())).isTrue());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    private long countQueries(Runnable query) {
+        entityManager.clear();
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private static Customer customer(int index) {
+        Customer customer = new Customer();
+        customer.setIdentificationNumber(String.format("01020304%02d", index));
+        customer.setIdentificationType(IdentificationType.CI);
+        customer.setFirstName("Cliente");
+        customer.setLastName(String.valueOf(index));
+        customer.setEmail("cliente" + index + "@example.com");
+        customer.setType(CustomerType.REGULAR);
+        return customer;
+    }
+    
+    private static Prescription prescription(int index, Customer customer) {
+        Prescription prescription = new Prescription();
+        prescription.setPrescriptionNumber("RX-" + index);
+        prescription.setCustomer(customer);
+        prescription.setDoctorName("Dra. López");
+        prescription.setDoctorLicense("MED-123");
+        prescription.setIssueDate(LocalDate.of(2025, 3, 1));
+        prescription.setExpirationDate(LocalDate.of(2025, 6, 1));
+        return prescription;
+    }
+    
+    private static Sale sale(int index, Customer customer, Prescription prescription) {
+        Sale sale = new Sale();
+        sale.setSaleNumber(String.format("SALE-2025-%06d", index));
+        sale.setCustomer(customer);
+        sale.setBranchId((long) index % 3);
+        sale.setPaymentMethod(PaymentMethod.CASH);
+        sale.setCashierName("Cajero");
+        sale.setSaleDate(DAY.plusDays(index));
+        sale.setStatus(SaleStatus.COMPLETED);
+        sale.setSubtotal(new BigDecimal("30.00"));
+        sale.setTax(new BigDecimal("3.60"));
+        sale.setTotal(new BigDecimal("33.60"));
+        for (int i = 0; i < 3; i++) {
+            SaleItem item = new SaleItem();
+            item.setSale(sale);
+            item.setProductId((long) i + 1);
+            item.setProductName("Producto " + (i + 1));
+            item.setProductCode("PROD-" + (i + 1));
+            item.setQuantity(1);
+            item.setUnitPrice(BigDecimal.TEN);
+            item.setSubtotal(BigDecimal.TEN);
+            if (i == 0) {
+                item.setRequiresPrescription(true);
+                item.setPrescription(prescription);
+            }
+            sale.getItems().add(item);
+        }
+        return sale;
+    }
+}
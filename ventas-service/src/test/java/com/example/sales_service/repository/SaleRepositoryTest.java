@@ -0,0 +1,182 @@
+package com.example.sales_service.repository;
+
+import com.example.sales_service.dto.ProductSalesAggregate;
+import com.example.sales_service.dto.SaleChange;
+import com.example.sales_service.dto.SaleExportRow;
+import com.example.sales_service.dto.SalesAggregate;
+import com.example.sales_service.entity.Customer;
+import com.example.sales_service.entity.Sale;
+import com.example.sales_service.entity.SaleItem;
+import com.example.sales_service.enums.CustomerType;
+import com.example.sales_service.enums.IdentificationType;
+import com.example.sales_service.enums.PaymentMethod;
+import com.example.sales_service.enums.SaleStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class SaleRepositoryTest {
+    
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 10, 9, 0);
+    
+    @Autowired
+    private SaleRepository saleRepository;
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+    
+    @Test
+    void streamsCompactRowsInDateOrder() {
+        Sale late = saveSale("SALE-2025-000002", 1L, DAY.plusHours(5), 1);
+        Sale early = saveSale("SALE-2025-000001", 1L, DAY, 3);
+        saveSale("SALE-2025-000003", 2L, DAY.plusHours(1), 2);
+        saveSale("SALE-2025-000004", 1L, DAY.plusDays(2), 1);
+        
+        List<SaleExportRow> rows;
+        try (Stream<SaleExportRow> stream = saleRepository.streamForExport(DAY, DAY.plusDays(1), 1L)) {
+            rows = stream.collect(Collectors.toList());
+        }
+        
+        assertThat(rows).extracting(SaleExportRow::getId).containsExactly(early.getId(), late.getId());
+        assertThat(rows.get(0).getItemCount()).isEqualTo(3);
+        assertThat(rows.get(0).getTotal()).isEqualByComparingTo("30.00");
+        assertThat(rows.get(0).getCustomerId()).isNull();
+        assertThat(rows.get(0).getStatus()).isEqualTo(SaleStatus.COMPLETED);
+    }
+    
+    @Test
+    void streamsAllBranchesWhenBranchIsNotGiven() {
+        saveSale("SALE-2025-000001", 1L, DAY, 1);
+        saveSale("SALE-2025-000002", 2L, DAY, 1);
+        
+        try (Stream<SaleExportRow> stream = saleRepository.streamForExport(DAY, DAY.plusDays(1), null)) {
+            assertThat(stream.count()).isEqualTo(2);
+        }
+    }
+    
+    @Test
+    void aggregatesTotalsInTheDatabase() {
+        Customer customer = saveCustomer("0102030405");
+        saveSale("SALE-2025-000001", 1L, DAY, 2).setCustomer(customer);
+        saveSale("SALE-2025-000002", 1L, DAY.plusHours(1), 1).setCustomer(customer);
+        saveSale("SALE-2025-000003", 2L, DAY.plusDays(1), 3);
+        saveSale("SALE-2025-000004", 1L, DAY.plusDays(5), 1);
+        
+        SalesAggregate summary = saleRepository.aggregate(DAY, DAY.plusDays(2), null);
+        assertThat(summary.getTotalSales()).isEqualTo(3);
+        assertThat(summary.getTotalRevenue()).isEqualByComparingTo("60.00");
+        assertThat(summary.getTotalItems()).isEqualTo(6);
+        assertThat(summary.getUniqueCustomers()).isEqualTo(1);
+        
+        List<SalesAggregate> byBranch = saleRepository.aggregateByBranch(DAY, DAY.plusDays(2));
+        assertThat(byBranch).extracting(SalesAggregate::getBranchId).containsExactly(1L, 2L);
+        assertThat(byBranch.get(0).getTotalRevenue()).isEqualByComparingTo("30.00");
+        assertThat(byBranch.get(1).getTotalItems()).isEqualTo(3);
+        
+        List<SalesAggregate> daily = saleRepository.aggregateByBranchAndDay(DAY, DAY.plusDays(10), 1L);
+        assertThat(daily).extracting(SalesAggregate::getDate)
+                .containsExactly(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 15));
+        assertThat(daily.get(0).getTotalSales()).isEqualTo(2);
+    }
+    
+    @Test
+    void aggregateOfEmptyRangeHasNoRevenue() {
+        SalesAggregate summary = saleRepository.aggregate(DAY, DAY.plusDays(1), null).normalized();
+        
+        assertThat(summary.getTotalSales()).isZero();
+        assertThat(summary.getTotalRevenue()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(summary.getTotalItems()).isZero();
+    }
+    
+    @Test
+    void aggregatesSaleItemsByProductBranchAndDay() {
+        saveSale("SALE-2025-000001", 1L, DAY, 2);
+        saveSale("SALE-2025-000002", 1L, DAY.plusHours(2), 1);
+        saveSale("SALE-2025-000003", 2L, DAY.plusDays(1), 1);
+        
+        List<ProductSalesAggregate> rows = saleItemRepository.aggregateByProductBranchAndDay(DAY, DAY.plusDays(2), null);
+        
+        assertThat(rows).extracting(ProductSalesAggregate::getProductId, ProductSalesAggregate::getBranchId,
+                        ProductSalesAggregate::getDate, ProductSalesAggregate::getQuantitySold)
+                .containsExactly(
+                        tuple(1L, 1L, LocalDate.of(2025, 3, 10), 2L),
+                        tuple(2L, 1L, LocalDate.of(2025, 3, 10), 1L),
+                        tuple(1L, 2L, LocalDate.of(2025, 3, 11), 1L));
+        assertThat(rows.get(0).getRevenue()).isEqualByComparingTo("20.00");
+        assertThat(rows.get(0).getProductName()).isEqualTo("Producto 1");
+    }
+    
+    @Test
+    void pagesThroughChangesWithUpdatedAtAndIdCursor() {
+        Sale first = saveSale("SALE-2025-000001", 1L, DAY, 1);
+        Sale second = saveSale("SALE-2025-000002", 2L, DAY.plusDays(1), 1);
+        Sale third = saveSale("SALE-2025-000003", 1L, DAY.plusDays(2), 1);
+        LocalDateTime until = LocalDateTime.now().plusMinutes(1);
+        
+        List<SaleChange> page = saleRepository.findChangesAfter(
+                LocalDateTime.of(1970, 1, 1, 0, 0), 0L, until, PageRequest.of(0, 2));
+        assertThat(page).extracting(SaleChange::getId).containsExactly(first.getId(), second.getId());
+        assertThat(page.get(1).getBranchId()).isEqualTo(2L);
+        assertThat(page.get(1).getSaleDate()).isEqualTo(DAY.plusDays(1));
+        
+        SaleChange last = page.get(1);
+        List<SaleChange> next = saleRepository.findChangesAfter(
+                last.getUpdatedAt(), last.getId(), until, PageRequest.of(0, 2));
+        assertThat(next).extracting(SaleChange::getId).containsExactly(third.getId());
+        
+        List<SaleChange> settled = saleRepository.findChangesAfter(
+                LocalDateTime.of(1970, 1, 1, 0, 0), 0L, LocalDateTime.of(2000, 1, 1, 0, 0), PageRequest.of(0, 10));
+        assertThat(settled).isEmpty();
+    }
+    
+    private Customer saveCustomer(String identification) {
+        Customer customer = new Customer();
+        customer.setIdentificationNumber(identification);
+        customer.setIdentificationType(IdentificationType.CI);
+        customer.setFirstName("Ana");
+        customer.setLastName("Pérez");
+        customer.setEmail("ana@example.com");
+        customer.setType(CustomerType.REGULAR);
+        return customerRepository.save(customer);
+    }
+    
+    private Sale saveSale(String number, Long branchId, LocalDateTime date, int itemCount) {
+        Sale sale = new Sale();
+        sale.setSaleNumber(number);
+        sale.setBranchId(branchId);
+        sale.setPaymentMethod(PaymentMethod.CASH);
+        sale.setCashierName("Cajero");
+        sale.setSaleDate(date);
+        sale.setStatus(SaleStatus.COMPLETED);
+        BigDecimal total = BigDecimal.TEN.multiply(BigDecimal.valueOf(itemCount));
+        sale.setSubtotal(total);
+        sale.setTotal(total);
+        for (int i = 0; i < itemCount; i++) {
+            SaleItem item = new SaleItem();
+            item.setSale(sale);
+            item.setProductId((long) i + 1);
+            item.setProductName("Producto " + (i + 1));
+            item.setProductCode("PROD-" + (i + 1));
+            item.setQuantity(1);
+            item.setUnitPrice(BigDecimal.TEN);
+            item.setSubtotal(BigDecimal.TEN);
+            sale.getItems().add(item);
+        }
+        return saleRepository.save(sale);
+    }
+}
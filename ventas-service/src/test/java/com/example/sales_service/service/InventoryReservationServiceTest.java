@@ -0,0 +1,90 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.client.InventoryClient;
+import com.example.sales_service.dto.StockReservationItem;
+import com.example.sales_service.dto.StockReservationRequest;
+import com.example.sales_service.entity.Sale;
+import com.example.sales_service.entity.SaleItem;
+import com.example.sales_service.exception.InvalidSaleException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryReservationServiceTest {
+    
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST, "http://inventory/api/reservations",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+    
+    private InventoryClient inventoryClient;
+    private InventoryReservationService service;
+    
+    @BeforeEach
+    void setUp() {
+        inventoryClient = mock(InventoryClient.class);
+        service = new InventoryReservationService(inventoryClient, new ObjectMapper());
+    }
+    
+    @Test
+    void reservesAllItemsInOneCallGroupedByProduct() {
+        service.reserve(sale(item(7L, 2), item(3L, 1), item(7L, 4)));
+        
+        ArgumentCaptor<StockReservationRequest> request = ArgumentCaptor.forClass(StockReservationRequest.class);
+        verify(inventoryClient).reserve(request.capture());
+        assertThat(request.getValue().getSaleNumber()).isEqualTo("SALE-2025-000001");
+        assertThat(request.getValue().getBranchId()).isEqualTo(1L);
+        assertThat(request.getValue().getItems())
+                .extracting(StockReservationItem::getProductId, StockReservationItem::getQuantity)
+                .containsExactly(tuple(3L, 1), tuple(7L, 6));
+    }
+    
+    @Test
+    void rejectsSaleWhenInventoryHasNoStock() {
+        byte[] body = "{\"status\":400,\"message\":\"Stock insuficiente del producto 3 en sucursal 1\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        when(inventoryClient.reserve(any())).thenThrow(new FeignException.BadRequest("Bad Request", REQUEST, body, Map.of()));
+        
+        assertThatThrownBy(() -> service.reserve(sale(item(3L, 10))))
+                .isInstanceOf(InvalidSaleException.class)
+                .hasMessageContaining("Stock insuficiente del producto 3 en sucursal 1");
+    }
+    
+    @Test
+    void continuesWithoutReservationWhenInventoryIsUnreachable() {
+        when(inventoryClient.reserve(any())).thenThrow(
+                new RetryableException(-1, "Connection refused", Request.HttpMethod.POST, (Long) null, REQUEST));
+        
+        assertThatCode(() -> service.reserve(sale(item(3L, 1)))).doesNotThrowAnyException();
+    }
+    
+    private static Sale sale(SaleItem... items) {
+        Sale sale = new Sale();
+        sale.setSaleNumber("SALE-2025-000001");
+        sale.setBranchId(1L);
+        sale.setItems(List.of(items));
+        return sale;
+    }
+    
+    private static SaleItem item(Long productId, int quantity) {
+        SaleItem item = new SaleItem();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.client.InventoryClient;
+import com.example.sales_service.dto.ApiResponse;
+import com.example.sales_service.dto.SaleStockEvent;
+import com.example.sales_service.dto.SaleStockEventResult;
+import com.example.sales_service.entity.OutboxEvent;
+import com.example.sales_service.entity.Sale;
+import com.example.sales_service.entity.SaleItem;
+import com.example.sales_service.enums.OutboxStatus;
+import com.example.sales_service.enums.SaleEventType;
+import com.example.sales_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(SaleEventOutbox.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+    
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST, "http://inventory/api/sale-events/bulk",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+    
+    @Autowired
+    private SaleEventOutbox saleEventOutbox;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private final List<List<SaleStockEvent>> deliveries = new ArrayList<>();
+    private InventoryClient inventoryClient;
+    private OutboxRelay relay;
+    
+    @BeforeEach
+    void setUp() {
+        inventoryClient = mock(InventoryClient.class);
+        relay = new OutboxRelay(outboxEventRepository, inventoryClient, new ObjectMapper(), transactionTemplate);
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+    }
+    
+    @Test
+    void eventIsWrittenOnceInTheSaleTransaction() {
+        Sale sale = sale("SALE-2025-000001");
+        transactionTemplate.executeWithoutResult(status -> {
+            saleEventOutbox.enqueue(sale, SaleEventType.COMPLETED);
+            saleEventOutbox.enqueue(sale, SaleEventType.COMPLETED);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            saleEventOutbox.enqueue(sale("SALE-2025-000002"), SaleEventType.COMPLETED);
+            status.setRollbackOnly();
+        });
+        
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getIdempotencyKey, OutboxEvent::getStatus)
+                .containsExactly(tuple("sale:SALE-2025-000001:completed", OutboxStatus.PENDING));
+    }
+    
+    @Test
+    void deliversPendingEventsInBatchesAndMarksThemSent() {
+        for (int i = 1; i <= 5; i++) {
+            enqueue("SALE-2025-00000" + i, SaleEventType.COMPLETED);
+        }
+        when(inventoryClient.applySaleEvents(anyList())).thenAnswer(invocation -> respond(invocation.getArgument(0), "APPLIED"));
+        
+        int sent = relay.relay();
+        
+        assertThat(sent).isEqualTo(5);
+        assertThat(deliveries).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(deliveries.get(0).get(0).getItems())
+                .extracting("productId", "quantity").containsExactly(tuple(3L, 1), tuple(7L, 6));
+        assertThat(outboxEventRepository.countByStatus(OutboxStatus.SENT)).isEqualTo(5);
+        assertThat(relay.relay()).isZero();
+    }
+    
+    @Test
+    void retriesWithBackoffWhileInventoryIsDownAndDuplicatesCountAsSent() {
+        enqueue("SALE-2025-000001", SaleEventType.COMPLETED);
+        when(inventoryClient.applySaleEvents(anyList())).thenThrow(
+                new RetryableException(-1, "Connection refused", Request.HttpMethod.POST, (Long) null, REQUEST));
+        
+        assertThat(relay.relay()).isZero();
+        OutboxEvent retried = outboxEventRepository.findAll().get(0);
+        assertThat(retried.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(retried.getLastError()).contains("Connection refused");
+        
+        // The previous response was lost after inventory applied the event; the resend is reported as a duplicate
+        retried.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.save(retried);
+        doAnswer(invocation -> respond(invocation.getArgument(0), "DUPLICATE")).when(inventoryClient).applySaleEvents(anyList());
+        
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(outboxEventRepository.findAll().get(0).getStatus()).isEqualTo(OutboxStatus.SENT);
+    }
+    
+    @Test
+    void rejectedEventsAreMarkedFailed() {
+        enqueue("SALE-2025-000001", SaleEventType.COMPLETED);
+        enqueue("SALE-2025-000001", SaleEventType.CANCELLED);
+        when(inventoryClient.applySaleEvents(anyList())).thenAnswer(invocation -> {
+            List<SaleStockEvent> events = invocation.getArgument(0);
+            return new ApiResponse<>(true, "ok", List.of(
+                    new SaleStockEventResult(events.get(0).getIdempotencyKey(), "REJECTED", "Stock insuficiente"),
+                    new SaleStockEventResult(events.get(1).getIdempotencyKey(), "APPLIED", "Evento aplicado")));
+        });
+        
+        relay.relay();
+        
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getIdempotencyKey, OutboxEvent::getStatus, OutboxEvent::getLastError)
+                .containsExactlyInAnyOrder(
+                        tuple("sale:SALE-2025-000001:completed", OutboxStatus.FAILED, "Stock insuficiente"),
+                        tuple("sale:SALE-2025-000001:cancelled", OutboxStatus.SENT, null));
+    }
+    
+    private void enqueue(String saleNumber, SaleEventType type) {
+        transactionTemplate.executeWithoutResult(status -> saleEventOutbox.enqueue(sale(saleNumber), type));
+    }
+    
+    private ApiResponse<List<SaleStockEventResult>> respond(List<SaleStockEvent> events, String status) {
+        deliveries.add(List.copyOf(events));
+        return new ApiResponse<>(true, "ok", events.stream()
+                .map(event -> new SaleStockEventResult(event.getIdempotencyKey(), status, null))
+                .collect(Collectors.toList()));
+    }
+    
+    private static Sale sale(String saleNumber) {
+        Sale sale = new Sale();
+        sale.setSaleNumber(saleNumber);
+        sale.setBranchId(1L);
+        sale.setItems(List.of(item(7L, 2), item(3L, 1), item(7L, 4)));
+        return sale;
+    }
+    
+    private static SaleItem item(Long productId, int quantity) {
+        SaleItem item = new SaleItem();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.entity.Customer;
+import com.example.sales_service.entity.Prescription;
+import com.example.sales_service.enums.CustomerType;
+import com.example.sales_service.enums.IdentificationType;
+import com.example.sales_service.repository.CustomerRepository;
+import com.example.sales_service.repository.PrescriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class PrescriptionScanMigrationTest {
+    
+    private static final byte[] PDF = "%PDF-1.4 receta antigua".getBytes();
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3};
+    
+    @TempDir
+    Path directory;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private PrescriptionScanMigration migration;
+    
+    @BeforeEach
+    void setUp() {
+        // La columna que la entidad ya no mapea, como en una base creada antes del cambio
+        jdbcTemplate.execute("ALTER TABLE prescriptions ADD COLUMN IF NOT EXISTS scanned_document VARBINARY(1000)");
+        migration = new PrescriptionScanMigration(jdbcTemplate, new FileSystemPrescriptionScanStore(directory));
+    }
+    
+    @Test
+    void movesLegacyScansToTheStoreAndClearsTheColumn() throws Exception {
+        Long legacy = savePrescription("RX-2025-000001");
+        Long replaced = savePrescription("RX-2025-000002");
+        Long withoutScan = savePrescription("RX-2025-000003");
+        jdbcTemplate.update("UPDATE prescriptions SET scanned_document = ? WHERE id = ?", PDF, legacy);
+        jdbcTemplate.update("UPDATE prescriptions SET scanned_document = ?, scan_content_type = 'image/png', "
+                + "scan_size = 3 WHERE id = ?", PNG, replaced);
+        
+        migration.migrateLegacyScans();
+        entityManager.clear();
+        
+        assertThat(Files.readAllBytes(directory.resolve(legacy + ".scan"))).isEqualTo(PDF);
+        Prescription migrated = prescriptionRepository.findById(legacy).orElseThrow();
+        assertThat(migrated.getScanContentType()).isEqualTo("application/pdf");
+        assertThat(migrated.getScanSize()).isEqualTo(PDF.length);
+        assertThat(migrated.getScanUploadedAt()).isNotNull();
+        // Ya tenía un documento nuevo: la copia antigua se descarta sin pisarlo
+        assertThat(directory.resolve(replaced + ".scan")).doesNotExist();
+        assertThat(prescriptionRepository.findById(replaced).orElseThrow().getScanSize()).isEqualTo(3);
+        assertThat(prescriptionRepository.findById(withoutScan).orElseThrow().getScanContentType()).isNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM prescriptions WHERE scanned_document IS NOT NULL", Integer.class)).isZero();
+        
+        migration.migrateLegacyScans();
+        assertThat(Files.readAllBytes(directory.resolve(legacy + ".scan"))).isEqualTo(PDF);
+    }
+    
+    @Test
+    void detectsTheTypeFromTheFirstBytes() {
+        assertThat(PrescriptionScanMigration.contentType(PDF)).isEqualTo("application/pdf");
+        assertThat(PrescriptionScanMigration.contentType(PNG)).isEqualTo("image/png");
+        assertThat(PrescriptionScanMigration.contentType(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0}))
+                .isEqualTo("image/jpeg");
+        assertThat(PrescriptionScanMigration.contentType(new byte[]{1})).isEqualTo("application/octet-stream");
+    }
+    
+    private Long savePrescription(String number) {
+        Customer customer = new Customer();
+        customer.setIdentificationNumber(number);
+        customer.setIdentificationType(IdentificationType.CI);
+        customer.setFirstName("Ana");
+        customer.setLastName("Pérez");
+        customer.setEmail("ana@example.com");
+        customer.setType(CustomerType.REGULAR);
+        customerRepository.save(customer);
+        
+        Prescription prescription = new Prescription();
+        prescription.setPrescriptionNumber(number);
+        prescription.setCustomer(customer);
+        prescription.setDoctorName("Dra. Vega");
+        prescription.setDoctorLicense("MSP-1234");
+        prescription.setIssueDate(LocalDate.of(2025, 3, 1));
+        prescription.setExpirationDate(LocalDate.of(2025, 6, 1));
+        Long id = prescriptionRepository.save(prescription).getId();
+        entityManager.flush();
+        return id;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.dto.PrescriptionScan;
+import com.example.sales_service.entity.Prescription;
+import com.example.sales_service.exception.InvalidPrescriptionScanException;
+import com.example.sales_service.exception.ResourceNotFoundException;
+import com.example.sales_service.mapper.PrescriptionMapper;
+import com.example.sales_service.repository.CustomerRepository;
+import com.example.sales_service.repository.PrescriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrescriptionScanTest {
+    
+    private static final byte[] PDF = "%PDF-1.7 receta".getBytes();
+    
+    @TempDir
+    Path directory;
+    
+    private PrescriptionRepository prescriptionRepository;
+    private FileSystemPrescriptionScanStore scanStore;
+    private PrescriptionService service;
+    private Prescription prescription;
+    
+    @BeforeEach
+    void setUp() {
+        prescriptionRepository = mock(PrescriptionRepository.class);
+        scanStore = new FileSystemPrescriptionScanStore(directory);
+        service = new PrescriptionService(prescriptionRepository, mock(CustomerRepository.class),
+                new PrescriptionMapper(), scanStore);
+        
+        prescription = new Prescription();
+        prescription.setId(7L);
+        prescription.setPrescriptionNumber("RX-2025-000007");
+        when(prescriptionRepository.findById(7L)).thenReturn(Optional.of(prescription));
+        when(prescriptionRepository.save(any(Prescription.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+    
+    @Test
+    void storesScanOutsideThePrescriptionRow() throws Exception {
+        Prescription saved = service.attachScan(7L, "application/pdf", PDF.length, new ByteArrayInputStream(PDF));
+        
+        assertThat(saved.getScanContentType()).isEqualTo("application/pdf");
+        assertThat(saved.getScanSize()).isEqualTo(PDF.length);
+        assertThat(saved.getScanUploadedAt()).isNotNull();
+        assertThat(Files.readAllBytes(directory.resolve("7.scan"))).isEqualTo(PDF);
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(directory.resolve("7.scan")); // sin temporales
+        }
+    }
+    
+    @Test
+    void servesScanAsFileResource() throws Exception {
+        service.attachScan(7L, "image/png", PDF.length, new ByteArrayInputStream(PDF));
+        
+        PrescriptionScan scan = service.getScan(7L);
+        
+        assertThat(scan.getResource()).isInstanceOf(FileSystemResource.class);
+        assertThat(scan.getFileName()).isEqualTo("RX-2025-000007.png");
+        assertThat(scan.getContentType()).isEqualTo("image/png");
+        assertThat(scan.getSize()).isEqualTo(PDF.length);
+        try (InputStream content = scan.getResource().getInputStream()) {
+            assertThat(content.readAllBytes()).isEqualTo(PDF);
+        }
+    }
+    
+    @Test
+    void replacesPreviousScan() throws Exception {
+        service.attachScan(7L, "application/pdf", PDF.length, new ByteArrayInputStream(PDF));
+        byte[] replacement = "%PDF-1.7 receta corregida".getBytes();
+        service.attachScan(7L, "application/pdf", replacement.length, new ByteArrayInputStream(replacement));
+        
+        assertThat(Files.readAllBytes(directory.resolve("7.scan"))).isEqualTo(replacement);
+        assertThat(prescription.getScanSize()).isEqualTo(replacement.length);
+    }
+    
+    @Test
+    void rejectsUnsupportedOrOversizedScans() {
+        assertThatThrownBy(() -> service.attachScan(7L, "text/html", PDF.length, new ByteArrayInputStream(PDF)))
+                .isInstanceOf(InvalidPrescriptionScanException.class)
+                .hasMessageContaining("no permitido");
+        assertThatThrownBy(() -> service.attachScan(7L, "image/jpeg", 11L * 1024 * 1024, new ByteArrayInputStream(PDF)))
+                .isInstanceOf(InvalidPrescriptionScanException.class)
+                .hasMessageContaining("10 MB");
+        
+        assertThat(scanStore.load(7L)).isEmpty();
+        verify(prescriptionRepository, never()).save(any());
+    }
+    
+    @Test
+    void failsWhenPrescriptionHasNoScan() {
+        assertThatThrownBy(() -> service.getScan(7L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("no tiene documento escaneado");
+        assertThatThrownBy(() -> service.attachScan(8L, "application/pdf", PDF.length, new ByteArrayInputStream(PDF)))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+    
+    @Test
+    void replacesScanOnlyAfterCommit() throws Exception {
+        service.attachScan(7L, "application/pdf", PDF.length, new ByteArrayInputStream(PDF));
+        byte[] replacement = "%PDF-1.7 receta corregida".getBytes();
+        
+        List<TransactionSynchronization> synchronizations = inTransaction(() ->
+                service.attachScan(7L, "application/pdf", replacement.length, new ByteArrayInputStream(replacement)));
+        assertThat(Files.readAllBytes(directory.resolve("7.scan"))).isEqualTo(PDF);
+        
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertThat(Files.readAllBytes(directory.resolve("7.scan"))).isEqualTo(replacement);
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(directory.resolve("7.scan"));
+        }
+    }
+    
+    @Test
+    void rollbackKeepsPreviousScan() throws Exception {
+        service.attachScan(7L, "application/pdf", PDF.length, new ByteArrayInputStream(PDF));
+        byte[] replacement = "%PDF-1.7 receta corregida".getBytes();
+        
+        List<TransactionSynchronization> synchronizations = inTransaction(() ->
+                service.attachScan(7L, "application/pdf", replacement.length, new ByteArrayInputStream(replacement)));
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        
+        assertThat(Files.readAllBytes(directory.resolve("7.scan"))).isEqualTo(PDF);
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(directory.resolve("7.scan")); // sin temporales
+        }
+    }
+    
+    private static List<TransactionSynchronization> inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
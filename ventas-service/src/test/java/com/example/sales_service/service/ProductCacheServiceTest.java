@@ -0,0 +1,100 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.client.CatalogClient;
+import com.example.sales_service.dto.ApiResponse;
+import com.example.sales_service.dto.ProductCacheStats;
+import com.example.sales_service.dto.ProductDTO;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductCacheServiceTest {
+    
+    private CatalogClient catalogClient;
+    private ProductCacheService service;
+    
+    @BeforeEach
+    void setUp() {
+        catalogClient = mock(CatalogClient.class);
+        service = new ProductCacheService(Caffeine.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .recordStats()
+                .<Long, ProductDTO>build(), catalogClient);
+        when(catalogClient.getProductsByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return new ApiResponse<>(true, null, ids.stream().map(ProductCacheServiceTest::product).toList());
+        });
+    }
+    
+    @Test
+    void onlyMissingProductsAreFetchedInOneCall() {
+        service.getProducts(List.of(1L, 2L));
+        Map<Long, ProductDTO> products = service.getProducts(List.of(1L, 2L, 3L));
+        
+        assertThat(products).containsOnlyKeys(1L, 2L, 3L);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(catalogClient, times(2)).getProductsByIds(ids.capture());
+        assertThat(ids.getAllValues().get(1)).containsExactly(3L);
+        
+        ProductCacheStats stats = service.getStats();
+        assertThat(stats.getSize()).isEqualTo(3);
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(stats.getMisses()).isEqualTo(3);
+    }
+    
+    @Test
+    void invalidatedProductIsFetchedAgain() {
+        service.getProducts(List.of(1L, 2L));
+        
+        service.invalidate(1L);
+        service.getProducts(List.of(1L, 2L));
+        
+        verify(catalogClient, times(2)).getProductsByIds(anyCollection());
+        assertThat(service.getStats().getInvalidations()).isEqualTo(1);
+    }
+    
+    @Test
+    void invalidateAllCountsOneInvalidation() {
+        service.getProducts(List.of(1L, 2L, 3L));
+        
+        service.invalidateAll();
+        
+        ProductCacheStats stats = service.getStats();
+        assertThat(stats.getSize()).isZero();
+        assertThat(stats.getInvalidations()).isEqualTo(1);
+    }
+    
+    @Test
+    void unreachableCatalogReturnsWhatIsCached() {
+        service.getProducts(List.of(1L));
+        Request request = Request.create(Request.HttpMethod.GET, "http://catalog/api/products/batch",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        when(catalogClient.getProductsByIds(anyCollection())).thenThrow(
+                new RetryableException(-1, "Connection refused", Request.HttpMethod.GET, (Long) null, request));
+        
+        assertThat(service.getProducts(List.of(1L, 2L))).containsOnlyKeys(1L);
+    }
+    
+    private static ProductDTO product(Long id) {
+        return new ProductDTO(id, "Producto " + id, "MED-" + id, new BigDecimal("1.50"), false);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.sales_service.service;
+
+import com.example.sales_service.entity.Sale;
+import com.example.sales_service.enums.PaymentMethod;
+import com.example.sales_service.enums.SaleStatus;
+import com.example.sales_service.repository.SaleNumberSequenceRepository;
+import com.example.sales_service.repository.SaleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las reservas de bloques van contra la tabla real en H2: cada hilo confirma su propia transacción
+ * y compite por el bloqueo de la fila del año, o por crearla si todavía no existe.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sale_numbers;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SaleNumberSequenceService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SaleNumberAllocatorConcurrencyTest {
+    
+    private static final int THREADS = 16;
+    private static final int SALES_PER_THREAD = 250;
+    private static final int BLOCK_SIZE = 20;
+    private static final int YEAR = 2025;
+    
+    @Autowired
+    private SaleNumberSequenceService sequenceService;
+    
+    @Autowired
+    private SaleNumberSequenceRepository sequenceRepository;
+    
+    @Autowired
+    private SaleRepository saleRepository;
+    
+    @AfterEach
+    void tearDown() {
+        sequenceRepository.deleteAll();
+        saleRepository.deleteAll();
+    }
+    
+    @Test
+    void concurrentSalesGetUniqueSequentialNumbers() throws Exception {
+        SaleNumberAllocator allocator = new SaleNumberAllocator(sequenceService, BLOCK_SIZE);
+        
+        List<String> numbers = runConcurrently(() -> allocator.nextSaleNumber(YEAR));
+        
+        int total = THREADS * SALES_PER_THREAD;
+        String prefix = SaleNumberAllocator.prefix(YEAR);
+        assertThat(numbers).hasSize(total).doesNotHaveDuplicates();
+        assertThat(numbers).allMatch(number -> number.matches("SALE-2025-\\d{6}"));
+        assertThat(numbers.stream().map(number -> Long.parseLong(number.substring(prefix.length()))))
+                .containsExactlyInAnyOrderElementsOf(range(1, total));
+        // Un bloque por cada BLOCK_SIZE ventas: la fila avanzó exactamente lo entregado
+        assertThat(sequenceRepository.findById(YEAR).orElseThrow().getNextValue()).isEqualTo(total + 1L);
+    }
+    
+    @Test
+    void nodesSharingTheSequenceNeverOverlap() throws Exception {
+        // Ambos nodos arrancan sin fila: la primera reserva compite por crearla
+        SaleNumberAllocator nodeA = new SaleNumberAllocator(sequenceService, BLOCK_SIZE);
+        SaleNumberAllocator nodeB = new SaleNumberAllocator(sequenceService, BLOCK_SIZE);
+        AtomicInteger calls = new AtomicInteger();
+        
+        List<String> numbers = runConcurrently(() ->
+                (calls.getAndIncrement() % 2 == 0 ? nodeA : nodeB).nextSaleNumber(YEAR));
+        
+        assertThat(numbers).hasSize(THREADS * SALES_PER_THREAD).doesNotHaveDuplicates();
+        assertThat(numbers).allMatch(number -> number.startsWith("SALE-2025-"));
+    }
+    
+    @Test
+    void yearChangeStartsNewSequence() {
+        SaleNumberAllocator allocator = new SaleNumberAllocator(sequenceService, BLOCK_SIZE);
+        
+        assertThat(allocator.nextSaleNumber(2024)).isEqualTo("SALE-2024-000001");
+        assertThat(allocator.nextSaleNumber(2024)).isEqualTo("SALE-2024-000002");
+        assertThat(allocator.nextSaleNumber(2025)).isEqualTo("SALE-2025-000001");
+    }
+    
+    @Test
+    void firstBlockOfYearContinuesAfterExistingSales() {
+        saveSale("SALE-2025-000041");
+        SaleNumberAllocator allocator = new SaleNumberAllocator(sequenceService, BLOCK_SIZE);
+        
+        assertThat(allocator.nextSaleNumber(YEAR)).isEqualTo("SALE-2025-000042");
+    }
+    
+    private List<String> runConcurrently(Callable<String> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    List<String> generated = new ArrayList<>(SALES_PER_THREAD);
+                    for (int i = 0; i < SALES_PER_THREAD; i++) {
+                        generated.add(task.call());
+                    }
+                    return generated;
+                }));
+            }
+            start.countDown();
+            
+            List<String> all = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                all.addAll(future.get(60, TimeUnit.SECONDS));
+            }
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private void saveSale(String number) {
+        Sale sale = new Sale();
+        sale.setSaleNumber(number);
+        sale.setBranchId(1L);
+        sale.setPaymentMethod(PaymentMethod.CASH);
+        sale.setCashierName("Cajero");
+        sale.setSaleDate(LocalDateTime.of(YEAR, 3, 10, 9, 0));
+        sale.setStatus(SaleStatus.COMPLETED);
+        sale.setSubtotal(BigDecimal.TEN);
+        sale.setTotal(BigDecimal.TEN);
+        saleRepository.save(sale);
+    }
+    
+    private static List<Long> range(long from, long to) {
+        List<Long> values = new ArrayList<>();
+        for (long i = from; i <= to; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+}